@@ -0,0 +1,62 @@
+package com.example.employee.startup;
+
+import com.example.employee.EmployeeApplication;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the class data sharing archive of the {@code faststart} profile, so that its JVMs map
+ * the application's classes from the archive instead of loading and verifying them.
+ * <p>
+ * A training run starts {@link EmployeeApplication} from the given classpath with the
+ * {@code faststart} profile and {@code app.startup.exit-on-refresh}, which needs no database,
+ * and lists the classes it loaded. The archive is then dumped from that list. Lambda proxy
+ * classes are left out of it: dumping them crashes some JDK 17 builds, and they are cheap to
+ * spin at runtime.
+ * <p>
+ * Run by {@code mvn -Pfaststart package}. Arguments: the classpath the application will be
+ * started with, which must be plain jars, and the archive to write.
+ */
+public final class CdsArchiveBuilder {
+
+    private CdsArchiveBuilder() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CdsArchiveBuilder <classpath> <archive>");
+        }
+        String classpath = args[0];
+        Path archive = Paths.get(args[1]);
+        Path classList = Paths.get(archive + ".classlist");
+
+        run(List.of("-XX:DumpLoadedClassList=" + classList, "-Dspring.profiles.active=faststart",
+                "-Dapp.startup.exit-on-refresh=true", "-Dapp.headcount.rebuild-on-startup=false", "-Dserver.port=0",
+                "-cp", classpath, EmployeeApplication.class.getName()));
+        List<String> classes = Files.readAllLines(classList).stream()
+                .filter(line -> !line.startsWith("@lambda-proxy"))
+                .collect(Collectors.toList());
+        Files.write(classList, classes);
+
+        run(List.of("-Xshare:dump", "-Xlog:cds=off", "-XX:SharedClassListFile=" + classList,
+                "-XX:SharedArchiveFile=" + archive, "-cp", classpath));
+        System.out.println("Wrote the class data sharing archive of " + classes.size() + " classes to " + archive
+                + ", start the application with -XX:SharedArchiveFile=" + archive + " -cp " + classpath);
+    }
+
+    private static void run(List<String> arguments) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        int exitValue = process.waitFor();
+        if (exitValue != 0) {
+            throw new IllegalStateException("Exited with " + exitValue + " : " + String.join(" ", command));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.employee.startup;
+
+import com.example.employee.EmployeeApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes the OpenAPI document of the REST API to a file at build time, so that instances running
+ * the {@code faststart} profile serve it as a static resource instead of scanning the controllers
+ * at runtime.
+ * <p>
+ * Boots {@link EmployeeApplication} on a random port against the embedded H2 database (profile
+ * {@code embedded}) and saves what springdoc serves at {@code /v3/api-docs}.
+ * <p>
+ * Run by {@code mvn -Pfaststart package}; the only argument is the file to write.
+ */
+public final class OpenApiDocumentGenerator {
+
+    private OpenApiDocumentGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiDocumentGenerator <output file>");
+        }
+        Path output = Paths.get(args[0]);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .profiles("embedded")
+                .properties("server.port=0", "app.analytics.snapshot.enabled=false")
+                .run();
+        try {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /v3/api-docs answered " + response.statusCode());
+            }
+            ObjectMapper objectMapper = new ObjectMapper();
+            Object document = objectMapper.readValue(response.body(), Object.class);
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), document);
+            System.out.println("Wrote the OpenAPI document to " + output);
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.employee.startup;
+
+import com.example.employee.EmployeeApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request of {@link EmployeeApplication}: each run starts a fresh JVM and
+ * polls {@code --path} until the first response arrives, whatever its status, and the time from
+ * launching the process to that response is recorded.
+ * <p>
+ * Two variants are compared, both against the embedded H2 database: {@code default}, and
+ * {@code faststart} with the {@code faststart} profile and the extra {@code --jvm-args}, e.g. the
+ * class data sharing archive built by {@code mvn -Pfaststart package}. An archive only applies
+ * when the application is started from the classpath it was recorded with, so pass that with
+ * {@code --classpath}; the H2 driver and the {@code embedded} profile are appended to it.
+ * <p>
+ * Example: {@code mvn -Pfaststart package exec:java -Dexec.args="--runs=5
+ * --classpath=target/employee-0.0.1-SNAPSHOT-thin.jar:target/lib/* --jvm-args=-XX:SharedArchiveFile=target/employee.jsa"}
+ */
+public final class StartupBenchmark {
+
+    private final int runs;
+    private final String path;
+    private final String classpath;
+    private final List<String> fastStartJvmArgs;
+    private final Path logDirectory;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.path = options.getOrDefault("path", "/actuator/health");
+        this.classpath = withEmbeddedDatabase(options.getOrDefault("classpath", System.getProperty("java.class.path")));
+        String jvmArgs = options.getOrDefault("jvm-args", "").trim();
+        this.fastStartJvmArgs = jvmArgs.isEmpty() ? List.of() : Arrays.asList(jvmArgs.split("\\s+"));
+        this.logDirectory = Paths.get(options.getOrDefault("output", "target/startup"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        Files.createDirectories(logDirectory);
+        Map<String, long[]> results = new LinkedHashMap<>();
+        results.put("default", new long[runs]);
+        results.put("faststart", new long[runs]);
+        // Alternate the variants, so that disk caches warming up do not favour either.
+        for (int run = 0; run < runs; run++) {
+            results.get("default")[run] = timeToFirstRequest("default", run, List.of(),
+                    List.of("--spring.profiles.active=embedded"));
+            results.get("faststart")[run] = timeToFirstRequest("faststart", run, fastStartJvmArgs,
+                    List.of("--spring.profiles.active=faststart,embedded",
+                            "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        }
+        System.out.printf("%-10s %8s %8s %8s   (ms to the first response of %s, %d runs)%n",
+                "variant", "min", "median", "max", path, runs);
+        for (Map.Entry<String, long[]> result : results.entrySet()) {
+            long[] millis = result.getValue().clone();
+            Arrays.sort(millis);
+            System.out.printf("%-10s %8d %8d %8d%n", result.getKey(), millis[0], millis[millis.length / 2], millis[millis.length - 1]);
+        }
+    }
+
+    private long timeToFirstRequest(String variant, int run, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(EmployeeApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        URI uri = URI.create("http://localhost:" + port + path);
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDirectory.resolve(variant + "-" + run + ".log").toFile())
+                .start();
+        try {
+            while (process.isAlive()) {
+                try {
+                    client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    System.out.println(variant + " run " + run + " : " + millis + " ms");
+                    return millis;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException(variant + " exited with " + process.exitValue()
+                    + ", see " + logDirectory.resolve(variant + "-" + run + ".log"));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static String withEmbeddedDatabase(String classpath) {
+        StringBuilder withEntries = new StringBuilder(classpath);
+        for (String entry : new String[]{driverLocation(), propertiesLocation()}) {
+            if (entry != null && !Arrays.asList(classpath.split(File.pathSeparator)).contains(entry)) {
+                withEntries.append(File.pathSeparator).append(entry);
+            }
+        }
+        return withEntries.toString();
+    }
+
+    private static String driverLocation() {
+        try {
+            return Paths.get(Class.forName("org.h2.Driver").getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String propertiesLocation() {
+        try {
+            return Paths.get(StartupBenchmark.class.getClassLoader().getResource("application-embedded.properties").toURI()).getParent().toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.employee.benchmark;
+
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.models.Address;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed sample data shared by the benchmarks, so results stay comparable between runs.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Department department(long deptId) {
+        Department department = new Department(deptId,
+                "Department " + deptId,
+                "Description " + deptId,
+                1,
+                1,
+                true,
+                false,
+                null);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        department.setCreatedOn(now);
+        department.setUpdatedOn(now);
+        return department;
+    }
+
+    static Employee employee(long employeeId, Department department) {
+        return new Employee(employeeId,
+                "Employee " + employeeId,
+                new Address("Address " + employeeId, "City " + (employeeId % 50), "State " + (employeeId % 20), "400001"),
+                "Designation " + (employeeId % 10),
+                "1234567890",
+                true,
+                false,
+                department);
+    }
+
+    static DepartmentDTO departmentDTO(long deptId) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return new DepartmentDTO(deptId, "Department " + deptId, "Description " + deptId, 1, 1, now, now);
+    }
+
+    static EmployeeDTO employeeDTO(long employeeId, String phoneNumber) {
+        return new EmployeeDTO(employeeId,
+                "Employee " + employeeId,
+                "Designation " + (employeeId % 10),
+                phoneNumber,
+                "Address " + employeeId,
+                "City " + (employeeId % 50),
+                "State " + (employeeId % 20),
+                "400001",
+                departmentDTO(employeeId % 10));
+    }
+
+    static List<EmployeeDTO> employeeDTOs(int size) {
+        List<EmployeeDTO> employees = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            employees.add(employeeDTO(i, "1234567890"));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.employee.benchmark;
+
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.services.DepartmentServiceImpl;
+import com.example.employee.services.EmployeeServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the ModelMapper based entity/DTO conversions used on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private EmployeeServiceImpl employeeService;
+    private DepartmentServiceImpl departmentService;
+    private Employee employee;
+    private Department department;
+    private EmployeeDTO employeeDTO;
+
+    @Setup
+    public void setUp() {
+        employeeService = new EmployeeServiceImpl();
+        departmentService = new DepartmentServiceImpl();
+        department = BenchmarkData.department(1L);
+        employee = BenchmarkData.employee(1L, department);
+        employeeDTO = BenchmarkData.employeeDTO(1L, "1234567890");
+    }
+
+    @Benchmark
+    public EmployeeDTO employeeToEmployeeDTO() {
+        return employeeService.employeeToEmployeeDTO(employee);
+    }
+
+    @Benchmark
+    public Employee employeeDTOToEmployee() {
+        return employeeService.employeeDTOToEmployee(employeeDTO);
+    }
+
+    @Benchmark
+    public DepartmentDTO departmentToDepartmentDTO() {
+        return departmentService.departmentToDepartmentDTO(department);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.employee.benchmark;
+
+import com.example.employee.dto.EmployeeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the {@link EmployeeDTO} lists returned by {@code GET /employees}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<EmployeeDTO> employees;
+
+    @Setup
+    public void setUp() {
+        // Same builder Spring Boot uses for the HTTP message converters.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employees = BenchmarkData.employeeDTOs(size);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws Exception {
+        return objectMapper.writeValueAsBytes(employees);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.employee.benchmark;
+
+import com.example.employee.EmployeeApplication;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.services.DepartmentService;
+import com.example.employee.services.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@link EmployeeService} read and write paths against the embedded H2 database
+ * (profile {@code embedded}), including repository access and mapping. Every call runs in the
+ * service's own transaction, as it does for HTTP requests with open-in-view off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000"})
+    private int employeeCount;
+
+    private static final int DEPARTMENT_COUNT = 10;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private long[] employeeIds;
+    private long[] deptIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .profiles("embedded")
+                .web(WebApplicationType.NONE)
+                .run();
+        employeeService = context.getBean(EmployeeService.class);
+        DepartmentService departmentService = context.getBean(DepartmentService.class);
+
+        for (long i = 1; i <= DEPARTMENT_COUNT; i++) {
+            departmentService.createDepartment(BenchmarkData.departmentDTO(i));
+        }
+        List<Department> departments = context.getBean(DepartmentRepository.class).findAll();
+        deptIds = departments.stream().mapToLong(Department::getDeptId).toArray();
+
+        for (int i = 0; i < employeeCount; i++) {
+            EmployeeDTO employee = BenchmarkData.employeeDTO(i, "1234567890");
+            employee.setEmployeeId(null);
+            long deptId = deptIds[i % deptIds.length];
+            employeeService.createEmployee(deptId, employee);
+        }
+        List<Employee> employees = context.getBean(EmployeeRepository.class).findAll();
+        employeeIds = employees.stream().mapToLong(Employee::getEmployeeId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EmployeeDTO getEmployee() throws Exception {
+        return employeeService.getEmployee(randomEmployeeId());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EmployeeDTO> getEmployees() throws Exception {
+        return employeeService.getEmployees();
+    }
+
+    @Benchmark
+    public void createEmployee() throws Exception {
+        EmployeeDTO employee = BenchmarkData.employeeDTO(0, "1234567890");
+        employee.setEmployeeId(null);
+        employeeService.createEmployee(randomDeptId(), employee);
+    }
+
+    @Benchmark
+    public EmployeeDTO updateEmployee() throws Exception {
+        long employeeId = randomEmployeeId();
+        return employeeService.updateEmployee(randomDeptId(), employeeId, BenchmarkData.employeeDTO(employeeId, "0987654321"));
+    }
+
+    private long randomEmployeeId() {
+        return employeeIds[ThreadLocalRandom.current().nextInt(employeeIds.length)];
+    }
+
+    private long randomDeptId() {
+        return deptIds[ThreadLocalRandom.current().nextInt(deptIds.length)];
+    }
+}
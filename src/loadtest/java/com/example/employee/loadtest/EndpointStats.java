@@ -0,0 +1,98 @@
+package com.example.employee.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters of one {@link Operation}.
+ * <p>
+ * Response time is measured from the moment the request was <em>scheduled</em> to be sent,
+ * so queueing in the client or server is never hidden (no coordinated omission). Service time
+ * is measured from the moment it was actually sent and is reported for comparison.
+ */
+class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Operation operation;
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Histogram responseTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram serviceTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+    EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void record(long intendedNanos, long sentNanos, long completedNanos, boolean success) {
+        responseTime.recordValue(Math.min(completedNanos - intendedNanos, HIGHEST_TRACKABLE_NANOS));
+        serviceTime.recordValue(Math.min(completedNanos - sentNanos, HIGHEST_TRACKABLE_NANOS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Discards everything recorded so far, used at the end of the warmup period.
+     */
+    void reset() {
+        responseTime.reset();
+        serviceTime.reset();
+        errors.reset();
+    }
+
+    /**
+     * Moves the values recorded since the last call into the totals.
+     */
+    void collect() {
+        responseTotal.add(responseTime.getIntervalHistogram());
+        serviceTotal.add(serviceTime.getIntervalHistogram());
+    }
+
+    void printSummary(PrintStream out, double durationSeconds) {
+        long count = responseTotal.getTotalCount();
+        out.printf("%-42s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation.getEndpoint(),
+                count,
+                errors.sum(),
+                count / durationSeconds,
+                millis(responseTotal.getValueAtPercentile(50)),
+                millis(responseTotal.getValueAtPercentile(90)),
+                millis(responseTotal.getValueAtPercentile(99)),
+                millis(responseTotal.getValueAtPercentile(99.9)),
+                millis(responseTotal.getMaxValue()),
+                millis(serviceTotal.getValueAtPercentile(99)));
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-42s %8s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99");
+    }
+
+    /**
+     * Writes the full response and service time distributions as HdrHistogram {@code .hgrm} files.
+     */
+    void writeHistograms(Path directory) throws IOException {
+        writeHistogram(responseTotal, directory.resolve(operation.getKey() + ".response.hgrm"));
+        writeHistogram(serviceTotal, directory.resolve(operation.getKey() + ".service.hgrm"));
+    }
+
+    private static void writeHistogram(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.employee.loadtest;
+
+import com.example.employee.EmployeeApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load test of the REST API.
+ * <p>
+ * Boots {@link EmployeeApplication} on a random port against the embedded H2 database
+ * (profile {@code embedded}), seeds departments and employees through the API and then fires
+ * requests on a fixed schedule derived from {@code --rate}, independent of how fast responses
+ * come back. Latencies are recorded per endpoint into HdrHistograms and written to
+ * {@code --output} next to a printed summary.
+ * <p>
+ * Example: {@code mvn -Ploadtest test-compile exec:java -Dexec.args="--rate=500 --duration=120"}
+ */
+public final class LoadTestHarness {
+
+    private static final String PHONE_NUMBER = "9876543210";
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong clientBacklogStalls = new AtomicLong();
+
+    private long[] deptIds;
+    private long[] stableEmployeeIds;
+    private final ConcurrentLinkedQueue<Long> deletableEmployeeIds = new ConcurrentLinkedQueue<>();
+
+    private LoadTestHarness(LoadTestOptions options, String baseUrl, ExecutorService executor) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(executor)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(EmployeeApplication.class)
+                .profiles("embedded")
+                .properties("server.port=0")
+                .run();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadTestHarness harness = new LoadTestHarness(options, "http://localhost:" + port, executor);
+            harness.seed();
+            harness.run();
+            harness.report();
+        } finally {
+            executor.shutdownNow();
+            context.close();
+        }
+    }
+
+    private void seed() throws Exception {
+        System.out.println("Seeding " + options.departments + " departments and " + options.employees + " employees");
+        for (int i = 0; i < options.departments; i++) {
+            String body = "{\"deptName\":\"Department " + i + "\",\"deptDescription\":\"Load test\",\"createdBy\":1}";
+            send(newRequest("/departments").POST(json(body)));
+        }
+        List<Long> departments = ids(send(newRequest("/departments").GET()), "deptId");
+        deptIds = departments.stream().mapToLong(Long::longValue).toArray();
+
+        Semaphore concurrency = new Semaphore(64);
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int i = 0; i < options.employees; i++) {
+            concurrency.acquire();
+            HttpRequest request = newRequest("/departments/" + deptIds[i % deptIds.length] + "/employees")
+                    .POST(json(employeeBody(i)))
+                    .build();
+            pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> concurrency.release()));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        List<Long> employees = ids(send(newRequest("/employees").GET()), "employeeId");
+        // Reads and updates target the first half, deletes consume the second half, so that
+        // GET/PUT never see employees removed during the run.
+        int half = employees.size() / 2;
+        stableEmployeeIds = employees.subList(0, half).stream().mapToLong(Long::longValue).toArray();
+        deletableEmployeeIds.addAll(employees.subList(half, employees.size()));
+    }
+
+    private void run() throws InterruptedException {
+        System.out.println("Running " + options);
+        Operation[] schedule = weightedSchedule();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        boolean warmedUp = options.warmupSeconds == 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            if (!warmedUp && intended >= warmupEnd) {
+                stats.values().forEach(EndpointStats::reset);
+                warmedUp = true;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (!inFlight.tryAcquire()) {
+                // The server is not keeping up; waiting here is still accounted for because
+                // latency is measured from the intended start time.
+                clientBacklogStalls.incrementAndGet();
+                inFlight.acquire();
+            }
+            fire(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended, inFlight);
+        }
+        inFlight.acquire(options.maxInFlight);
+        stats.values().forEach(EndpointStats::collect);
+    }
+
+    private void fire(Operation operation, long intendedNanos, Semaphore inFlight) {
+        Long deletedId = null;
+        if (operation == Operation.DELETE) {
+            deletedId = deletableEmployeeIds.poll();
+            if (deletedId == null) {
+                operation = Operation.GET;
+            }
+        }
+        Operation recordedAs = operation;
+        HttpRequest request = request(operation, deletedId);
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    boolean success = error == null && response.statusCode() / 100 == 2;
+                    stats.get(recordedAs).record(intendedNanos, sent, completed, success);
+                    inFlight.release();
+                });
+    }
+
+    private HttpRequest request(Operation operation, Long deletedId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long employeeId = stableEmployeeIds[random.nextInt(stableEmployeeIds.length)];
+        long deptId = deptIds[random.nextInt(deptIds.length)];
+        switch (operation) {
+            case GET:
+                return newRequest("/employees/" + employeeId).GET().build();
+            case LIST:
+                return newRequest("/employees").GET().build();
+            case CREATE:
+                return newRequest("/departments/" + deptId + "/employees")
+                        .POST(json(employeeBody(random.nextInt(1_000_000))))
+                        .build();
+            case UPDATE:
+                return newRequest("/departments/" + deptId + "/employees/" + employeeId)
+                        .PUT(json(employeeBody(employeeId)))
+                        .build();
+            case DELETE:
+                return newRequest("/employees/" + deletedId).DELETE().build();
+            default:
+                throw new IllegalStateException("Unsupported operation : " + operation);
+        }
+    }
+
+    private void report() throws IOException {
+        Files.createDirectories(options.output);
+        System.out.println();
+        EndpointStats.printHeader(System.out);
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.printSummary(System.out, options.durationSeconds);
+            endpoint.writeHistograms(options.output);
+        }
+        if (clientBacklogStalls.get() > 0) {
+            System.out.println("Client hit --max-in-flight " + clientBacklogStalls.get() + " times; the server could not sustain the rate.");
+        }
+        System.out.println("Histograms written to " + options.output.toAbsolutePath());
+    }
+
+    private Operation[] weightedSchedule() {
+        List<Operation> schedule = new ArrayList<>();
+        options.mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(operation);
+            }
+        });
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        return schedule.toArray(new Operation[0]);
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.build().uri() + " returned " + response.statusCode() + " : " + response.body());
+        }
+        return response.body();
+    }
+
+    private List<Long> ids(String body, String field) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(body)) {
+            ids.add(node.get(field).asLong());
+        }
+        return ids;
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json");
+    }
+
+    private static HttpRequest.BodyPublisher json(String body) {
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    private static String employeeBody(long n) {
+        return "{\"employeeName\":\"Employee " + n + "\"," +
+                "\"employeeDesignation\":\"Engineer\"," +
+                "\"phoneNumber\":\"" + PHONE_NUMBER + "\"," +
+                "\"address\":\"" + n + " Main Street\"," +
+                "\"city\":\"City " + (n % 50) + "\"," +
+                "\"state\":\"State " + (n % 20) + "\"," +
+                "\"pincode\":\"400001\"}";
+    }
+}
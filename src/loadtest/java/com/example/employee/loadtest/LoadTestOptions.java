@@ -0,0 +1,83 @@
+package com.example.employee.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadTestHarness}, given as {@code --name=value}.
+ */
+class LoadTestOptions {
+
+    int departments = 10;
+    int employees = 1000;
+    int rate = 200;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    int maxInFlight = 2000;
+    Path output = Paths.get("target", "loadtest");
+    Map<Operation, Integer> mix = parseMix("get:70,list:5,create:10,update:10,delete:5");
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got : " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "departments":
+                    options.departments = Integer.parseInt(value);
+                    break;
+                case "employees":
+                    options.employees = Integer.parseInt(value);
+                    break;
+                case "rate":
+                    options.rate = Integer.parseInt(value);
+                    break;
+                case "warmup":
+                    options.warmupSeconds = Integer.parseInt(value);
+                    break;
+                case "duration":
+                    options.durationSeconds = Integer.parseInt(value);
+                    break;
+                case "max-in-flight":
+                    options.maxInFlight = Integer.parseInt(value);
+                    break;
+                case "output":
+                    options.output = Paths.get(value);
+                    break;
+                case "mix":
+                    options.mix = parseMix(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option : --" + name);
+            }
+        }
+        if (options.rate <= 0 || options.employees < 2 || options.departments < 1) {
+            throw new IllegalArgumentException("rate, employees and departments must be positive");
+        }
+        return options;
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "departments=" + departments +
+                ", employees=" + employees +
+                ", rate=" + rate + "/s" +
+                ", warmup=" + warmupSeconds + "s" +
+                ", duration=" + durationSeconds + "s" +
+                ", mix=" + mix;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.employee.loadtest;
+
+/**
+ * REST calls driven by the load test, keyed by the names used in {@code --mix}.
+ */
+enum Operation {
+    GET("get", "GET /employees/{id}"),
+    LIST("list", "GET /employees"),
+    CREATE("create", "POST /departments/{deptId}/employees"),
+    UPDATE("update", "PUT /departments/{deptId}/employees/{id}"),
+    DELETE("delete", "DELETE /employees/{id}");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix : " + key);
+    }
+}
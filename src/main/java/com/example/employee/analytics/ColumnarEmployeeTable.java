@@ -0,0 +1,496 @@
+package com.example.employee.analytics;
+
+import com.example.employee.models.HeadcountDimension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar table of employees for analytical queries: a {@code long[]} of ids and one
+ * dictionary encoded {@code int[]} column per {@link HeadcountDimension}, with missing values
+ * encoded as the empty string.
+ * <p>
+ * Rows are only ever appended. Updating an employee appends a new row and clears the old one in
+ * the live bitmap, so each dictionary value can keep the positions of its rows as an append-only
+ * sorted list, switched to a bitmap once that is smaller, and a count of its live rows.
+ * <p>
+ * A filter whose most selective column has fewer candidate rows than the table has bitmap words
+ * is answered by probing just those rows against the other columns and the live bitmap. Other
+ * filters OR the row sets of the accepted values of each column and AND the columns and the live
+ * bitmap, a few thousand word operations for a million rows. Grouping without a filter reads the
+ * live counts. Once dead rows outnumber live ones the table is compacted in place.
+ * <p>
+ * Safe for concurrent use: queries share a read lock, changes take the write lock.
+ */
+public class ColumnarEmployeeTable {
+
+    private static final int DIMENSIONS = HeadcountDimension.values().length;
+    private static final int MINIMUM_GARBAGE = 65_536;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] ids;
+    private int[][] columns;
+    private Dictionary[] dictionaries;
+    private long[] live;
+    private LongIntHashMap positions;
+    private int rows;
+
+    public ColumnarEmployeeTable(int expectedRows) {
+        allocate(Math.max(1024, expectedRows));
+    }
+
+    /**
+     * Adds the employee, or replaces its row when it is already in the table.
+     * @param values the employee's value of each dimension, in {@link HeadcountDimension} order
+     */
+    public void upsert(long employeeId, String... values) {
+        if (values.length != DIMENSIONS) {
+            throw new IllegalArgumentException("Expected " + DIMENSIONS + " values, got " + values.length);
+        }
+        lock.writeLock().lock();
+        try {
+            int previous = positions.put(employeeId, rows);
+            if (previous != LongIntHashMap.ABSENT) {
+                kill(previous);
+            }
+            append(employeeId, values);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long employeeId) {
+        lock.writeLock().lock();
+        try {
+            int previous = positions.remove(employeeId);
+            if (previous != LongIntHashMap.ABSENT) {
+                kill(previous);
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of employees in the table
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param filter accepted values per dimension; a dimension without values is not filtered on
+     * @return number of employees matching the filter
+     */
+    public long count(Map<HeadcountDimension, ? extends Collection<String>> filter) {
+        lock.readLock().lock();
+        try {
+            if (isEmpty(filter)) {
+                return positions.size();
+            }
+            Probe probe = probe(filter);
+            if (probe != null) {
+                long[] count = new long[1];
+                probe.forEach(row -> {
+                    count[0]++;
+                    return true;
+                });
+                return count[0];
+            }
+            long count = 0;
+            for (long word : select(filter)) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of matching employees per value of the dimension, largest first, without
+     * the values no matching employee has
+     */
+    public Map<String, Long> groupBy(HeadcountDimension dimension, Map<HeadcountDimension, ? extends Collection<String>> filter) {
+        lock.readLock().lock();
+        try {
+            Dictionary dictionary = dictionaries[dimension.ordinal()];
+            int[] column = columns[dimension.ordinal()];
+            long[] counts = new long[dictionary.size()];
+            if (isEmpty(filter)) {
+                for (int code = 0; code < counts.length; code++) {
+                    counts[code] = dictionary.rowSet(code).live;
+                }
+            } else {
+                forEachMatch(filter, row -> {
+                    counts[column[row]]++;
+                    return true;
+                });
+            }
+            List<Integer> codes = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    codes.add(code);
+                }
+            }
+            codes.sort((a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a])
+                    : dictionary.value(a).compareTo(dictionary.value(b)));
+            Map<String, Long> groups = new LinkedHashMap<>();
+            for (int code : codes) {
+                groups.put(dictionary.value(code), counts[code]);
+            }
+            return groups;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of up to limit matching employees, in no particular order
+     */
+    public long[] ids(Map<HeadcountDimension, ? extends Collection<String>> filter, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] matching = new long[Math.min(limit, positions.size())];
+            int[] found = new int[1];
+            if (matching.length > 0) {
+                forEachMatch(filter, row -> {
+                    matching[found[0]++] = ids[row];
+                    return found[0] < matching.length;
+                });
+            }
+            return found[0] == matching.length ? matching : Arrays.copyOf(matching, found[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isEmpty(Map<HeadcountDimension, ? extends Collection<String>> filter) {
+        return filter == null || filter.values().stream().allMatch(values -> values == null || values.isEmpty());
+    }
+
+    /**
+     * Visits the live rows matching the filter until the visitor returns false.
+     */
+    private void forEachMatch(Map<HeadcountDimension, ? extends Collection<String>> filter, RowVisitor visitor) {
+        Probe probe = isEmpty(filter) ? null : probe(filter);
+        if (probe != null) {
+            probe.forEach(visitor);
+            return;
+        }
+        long[] selected = select(filter);
+        for (int word = 0; word < selected.length; word++) {
+            for (long bits = selected[word]; bits != 0; bits &= bits - 1) {
+                if (!visitor.visit((word << 6) + Long.numberOfTrailingZeros(bits))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a probe of the candidate rows of the most selective filtered column, or null when
+     * those are too many for probing to beat the bitmaps
+     */
+    private Probe probe(Map<HeadcountDimension, ? extends Collection<String>> filter) {
+        Probe probe = new Probe(filter.size());
+        long fewest = Long.MAX_VALUE;
+        for (Map.Entry<HeadcountDimension, ? extends Collection<String>> accepted : filter.entrySet()) {
+            if (accepted.getValue() == null || accepted.getValue().isEmpty()) {
+                continue;
+            }
+            int dimension = accepted.getKey().ordinal();
+            Dictionary dictionary = dictionaries[dimension];
+            boolean[] codes = new boolean[dictionary.size()];
+            List<RowSet> rowSets = new ArrayList<>();
+            long candidates = 0;
+            for (String value : accepted.getValue()) {
+                int code = dictionary.code(value == null ? "" : value);
+                if (code != LongIntHashMap.ABSENT && !codes[code]) {
+                    codes[code] = true;
+                    rowSets.add(dictionary.rowSet(code));
+                    candidates += dictionary.rowSet(code).size;
+                }
+            }
+            probe.columns[probe.filtered] = columns[dimension];
+            probe.accepted[probe.filtered++] = codes;
+            if (candidates < fewest) {
+                fewest = candidates;
+                probe.candidates = rowSets;
+            }
+        }
+        return fewest <= words(rows) ? probe : null;
+    }
+
+    /**
+     * @return bitmap of the live rows matching the filter, one bit per row
+     */
+    private long[] select(Map<HeadcountDimension, ? extends Collection<String>> filter) {
+        long[] selected = Arrays.copyOf(live, words(rows));
+        if (filter == null) {
+            return selected;
+        }
+        for (Map.Entry<HeadcountDimension, ? extends Collection<String>> accepted : filter.entrySet()) {
+            if (accepted.getValue() == null || accepted.getValue().isEmpty()) {
+                continue;
+            }
+            Dictionary dictionary = dictionaries[accepted.getKey().ordinal()];
+            long[] mask = new long[selected.length];
+            for (String value : accepted.getValue()) {
+                int code = dictionary.code(value == null ? "" : value);
+                if (code != LongIntHashMap.ABSENT) {
+                    dictionary.rowSet(code).orInto(mask);
+                }
+            }
+            for (int word = 0; word < selected.length; word++) {
+                selected[word] &= mask[word];
+            }
+        }
+        return selected;
+    }
+
+    private void append(long employeeId, String[] values) {
+        if (rows == ids.length) {
+            grow(ids.length + (ids.length >> 1));
+        }
+        int row = rows++;
+        ids[row] = employeeId;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            int code = dictionaries[dimension].encode(values[dimension] == null ? "" : values[dimension]);
+            columns[dimension][row] = code;
+            dictionaries[dimension].rowSet(code).add(row);
+            dictionaries[dimension].rowSet(code).live++;
+        }
+        live[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Rewrites the table with only its live rows once the dead ones outnumber them, which also
+     * drops the dictionary values no employee has any more.
+     */
+    private void compactIfSparse() {
+        int dead = rows - positions.size();
+        if (dead < MINIMUM_GARBAGE || dead < positions.size()) {
+            return;
+        }
+        long[] oldIds = ids;
+        int[][] oldColumns = columns;
+        Dictionary[] oldDictionaries = dictionaries;
+        long[] oldLive = live;
+        int oldRows = rows;
+        allocate(Math.max(1024, positions.size() * 2));
+        String[] values = new String[DIMENSIONS];
+        for (int row = 0; row < oldRows; row++) {
+            if ((oldLive[row >>> 6] & (1L << row)) != 0) {
+                for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                    values[dimension] = oldDictionaries[dimension].value(oldColumns[dimension][row]);
+                }
+                positions.put(oldIds[row], rows);
+                append(oldIds[row], values);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        columns = new int[DIMENSIONS][capacity];
+        dictionaries = new Dictionary[DIMENSIONS];
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            dictionaries[dimension] = new Dictionary();
+        }
+        live = new long[words(capacity)];
+        positions = new LongIntHashMap(capacity);
+        rows = 0;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            columns[dimension] = Arrays.copyOf(columns[dimension], capacity);
+        }
+        live = Arrays.copyOf(live, words(capacity));
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Marks the row dead.
+     */
+    private void kill(int row) {
+        live[row >>> 6] &= ~(1L << row);
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            dictionaries[dimension].rowSet(columns[dimension][row]).live--;
+        }
+    }
+
+    private boolean isLive(int row) {
+        return (live[row >>> 6] & (1L << row)) != 0;
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        boolean visit(int row);
+    }
+
+    /**
+     * Candidate rows, i.e. the rows of the accepted values of one column, checked one by one
+     * against the accepted values of all filtered columns.
+     */
+    private final class Probe {
+        private final int[][] columns;
+        private final boolean[][] accepted;
+        private int filtered;
+        private List<RowSet> candidates = List.of();
+
+        Probe(int dimensions) {
+            columns = new int[dimensions][];
+            accepted = new boolean[dimensions][];
+        }
+
+        void forEach(RowVisitor visitor) {
+            for (RowSet rowSet : candidates) {
+                if (!rowSet.forEach(row -> !matches(row) || visitor.visit(row))) {
+                    return;
+                }
+            }
+        }
+
+        private boolean matches(int row) {
+            if (!isLive(row)) {
+                return false;
+            }
+            for (int i = 0; i < filtered; i++) {
+                if (!accepted[i][columns[i][row]]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Codes of the values of one column, and the rows having each value.
+     */
+    private final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RowSet> rowSets = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                rowSets.add(new RowSet());
+            }
+            return code;
+        }
+
+        int code(String value) {
+            return codes.getOrDefault(value, LongIntHashMap.ABSENT);
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        RowSet rowSet(int code) {
+            return rowSets.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    /**
+     * Rows of one value, dead ones included: a sorted list of positions while it is smaller than
+     * a bitmap over the whole table, a bitmap afterwards.
+     */
+    private final class RowSet {
+        private int[] positions = new int[4];
+        private long[] bitmap;
+        /**
+         * Rows added, dead ones included.
+         */
+        private int size;
+        /**
+         * Rows still live.
+         */
+        private int live;
+
+        void add(int row) {
+            if (bitmap != null) {
+                if (row >>> 6 >= bitmap.length) {
+                    bitmap = Arrays.copyOf(bitmap, ColumnarEmployeeTable.this.live.length);
+                }
+                bitmap[row >>> 6] |= 1L << row;
+                size++;
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = row;
+            if (size > 64 && size > ids.length >>> 5) {
+                bitmap = new long[ColumnarEmployeeTable.this.live.length];
+                for (int i = 0; i < size; i++) {
+                    bitmap[positions[i] >>> 6] |= 1L << positions[i];
+                }
+                positions = null;
+            }
+        }
+
+        void orInto(long[] mask) {
+            if (bitmap != null) {
+                for (int word = 0; word < Math.min(bitmap.length, mask.length); word++) {
+                    mask[word] |= bitmap[word];
+                }
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                mask[positions[i] >>> 6] |= 1L << positions[i];
+            }
+        }
+
+        /**
+         * Visits the rows until the visitor returns false.
+         * @return false when the visitor stopped
+         */
+        boolean forEach(RowVisitor visitor) {
+            if (bitmap == null) {
+                for (int i = 0; i < size; i++) {
+                    if (!visitor.visit(positions[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (int word = 0; word < bitmap.length; word++) {
+                for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                    if (!visitor.visit((word << 6) + Long.numberOfTrailingZeros(bits))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.employee.analytics;
+
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-only {@link ColumnarEmployeeTable} of the active employees, for analytical queries that
+ * would otherwise scan the employee table.
+ * <p>
+ * The table is loaded with a projection of the needed columns once the application is ready, and
+ * reloaded every {@code app.analytics.snapshot.reload-interval} to pick up changes made outside
+ * the application. In between it follows the employee change events after their transaction
+ * commits; changes committed while a load is running are replayed on the new table before it
+ * replaces the old one. A change that does not carry the employee asks for a reload, which starts
+ * right away, or once the running load is done when it comes during one. Until the first load finishes, and when disabled with
+ * {@code app.analytics.snapshot.enabled=false}, there is no table.
+ */
+@Component
+public class EmployeeSnapshot {
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeSnapshot.class);
+
+    static final String SNAPSHOT_QUERY = "select e.employee_id, e.state, e.city, e.employee_designation, e.dept_id " +
+            "from employee e " +
+            "where e.is_active = true and e.is_deleted = false";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.analytics.snapshot.enabled:true}")
+    private boolean enabled = true;
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private volatile ColumnarEmployeeTable current;
+    private List<EmployeeChangedEvent> changedDuringLoad;
+
+    /**
+     * @return the current table, or null when it has not been loaded
+     */
+    public ColumnarEmployeeTable table() {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            LOGGER.info("Analytics snapshot is disabled");
+            return;
+        }
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        // This load reads every change committed so far.
+        reloadRequested.set(false);
+        synchronized (this) {
+            changedDuringLoad = new ArrayList<>();
+        }
+        try {
+            long started = System.nanoTime();
+            ColumnarEmployeeTable table = new ColumnarEmployeeTable(current == null ? 0 : current.size());
+            String[] values = new String[HeadcountDimension.values().length];
+            shards.forEach(shard -> jdbcTemplate.query(this::snapshotStatement, (ResultSet resultSet) -> {
+                long employeeId = resultSet.getLong(1);
+                values[HeadcountDimension.STATE.ordinal()] = resultSet.getString(2);
+                values[HeadcountDimension.CITY.ordinal()] = resultSet.getString(3);
+                values[HeadcountDimension.DESIGNATION.ordinal()] = resultSet.getString(4);
+                values[HeadcountDimension.DEPARTMENT.ordinal()] = resultSet.getString(5);
+                table.upsert(employeeId, values);
+            }));
+            synchronized (this) {
+                changedDuringLoad.forEach(event -> apply(table, event));
+                current = table;
+            }
+            LOGGER.info("Loaded the analytics snapshot with " + table.size() + " employees in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms");
+        } catch (DataAccessException e) {
+            LOGGER.error("Could not load the analytics snapshot : " + e.getMostSpecificCause().getMessage());
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            loading.set(false);
+        }
+        if (reloadRequested.getAndSet(false)) {
+            CompletableFuture.runAsync(this::load);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.analytics.snapshot.reload-interval:3600000}",
+            fixedDelayString = "${app.analytics.snapshot.reload-interval:3600000}")
+    public void reload() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(event);
+        }
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEmployeesChanged(EmployeesChangedEvent event) {
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            onEmployeeChanged(change);
+        }
+    }
+
+    private void apply(ColumnarEmployeeTable table, EmployeeChangedEvent event) {
+        if (event.getEmployeeId() == null) {
+            return;
+        }
+        if (event.getChangeType() == ChangeType.DELETED) {
+            table.remove(event.getEmployeeId());
+            return;
+        }
+        EmployeeDTO employee = event.getEmployee();
+        if (employee == null) {
+            // Nothing to go by, so let a reload catch up with this change.
+            LOGGER.debug("Reloading the analytics snapshot after " + event);
+            requestReload();
+            return;
+        }
+        String[] values = new String[HeadcountDimension.values().length];
+        values[HeadcountDimension.STATE.ordinal()] = employee.getState();
+        values[HeadcountDimension.CITY.ordinal()] = employee.getCity();
+        values[HeadcountDimension.DESIGNATION.ordinal()] = employee.getEmployeeDesignation();
+        values[HeadcountDimension.DEPARTMENT.ordinal()] = event.getDeptId() == null ? null : event.getDeptId().toString();
+        table.upsert(event.getEmployeeId(), values);
+    }
+
+    /**
+     * Starts a load, or has the running one start another when it is done, since it may have read
+     * the employees before the change committed.
+     */
+    private void requestReload() {
+        reloadRequested.set(true);
+        if (!loading.get()) {
+            CompletableFuture.runAsync(this::load);
+        }
+    }
+
+    private PreparedStatement snapshotStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(SNAPSHOT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Streams row by row on MySQL, see EmployeeExportServiceImpl.
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.employee.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * A response body serialized once, kept both as plain and gzip bytes together with its media
+ * type and entity tag.
+ */
+public class CachedResponse {
+
+    private final MediaType contentType;
+    private final byte[] body;
+    private final byte[] gzip;
+    private final String eTag;
+    private final long createdNanos = System.nanoTime();
+
+    public CachedResponse(MediaType contentType, byte[] body, byte[] gzip, String eTag) {
+        this.contentType = contentType;
+        this.body = body;
+        this.gzip = gzip;
+        this.eTag = eTag;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return true when the body was serialized longer ago than the given age
+     */
+    public boolean isOlderThan(Duration age) {
+        return System.nanoTime() - createdNanos > age.toNanos();
+    }
+
+    /**
+     * Builds the 200 response for this body, or a 304 when the client already holds it. The gzip
+     * bytes are sent as-is when the client accepts gzip.
+     */
+    public ResponseEntity<Object> toResponseEntity(WebRequest request) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        boolean gzipped = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(gzip.length)
+                    .body(gzip);
+        }
+        return response.contentLength(body.length).body(body);
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.employee.cache;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.events.ChangeType;
+import com.example.employee.exception.ChangeTokenExpiredException;
+import com.example.employee.services.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Follows the change feed on every instance, every {@code app.cache.follow-interval} ms, and
+ * applies the changes to the in-memory caches of this instance, whichever instance made them.
+ * <p>
+ * The feed position is taken when the context is refreshed, before the id filters are first
+ * built, so no create committed after their load is missed. When the feed cannot be followed
+ * from the position, e.g. it expired, the response cache is cleared and the filters are rebuilt
+ * from the database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedFollower {
+    Logger LOGGER = LoggerFactory.getLogger(ChangeFeedFollower.class);
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private EntityIdFilters entityIdFilters;
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Value("${app.cache.follow-batch-size:500}")
+    private int batchSize = 500;
+
+    private String employeeToken;
+    private String departmentToken;
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (employeeToken != null && departmentToken != null) {
+            return;
+        }
+        try {
+            position();
+        } catch (Exception e) {
+            LOGGER.warn("Could not read the change feed, following it from the next poll : " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.follow-interval:1000}")
+    public synchronized void poll() {
+        if (employeeToken == null || departmentToken == null) {
+            try {
+                position();
+            } catch (Exception e) {
+                LOGGER.warn("Could not read the change feed : " + e.getMessage());
+                return;
+            }
+            // Changes between the lost position and the new one are unknown.
+            resync();
+            return;
+        }
+        employeeToken = follow(true, employeeToken);
+        departmentToken = follow(false, departmentToken);
+        if (employeeToken == null || departmentToken == null) {
+            employeeToken = null;
+            departmentToken = null;
+        }
+    }
+
+    private void position() throws Exception {
+        employeeToken = changeFeedService.getEmployeeChanges(null, 1).getNext();
+        departmentToken = changeFeedService.getDepartmentChanges(null, 1).getNext();
+    }
+
+    private void resync() {
+        responseCache.clear();
+        CompletableFuture.runAsync(entityIdFilters::rebuild);
+    }
+
+    /**
+     * Applies the changes after the token.
+     * @return the token after the applied changes, or null when the feed cannot be followed from the token
+     */
+    private String follow(boolean employees, String token) {
+        try {
+            ChangeFeedDTO<?> feed;
+            do {
+                feed = employees ? changeFeedService.getEmployeeChanges(token, batchSize)
+                        : changeFeedService.getDepartmentChanges(token, batchSize);
+                apply(employees, feed.getChanges());
+                token = feed.getNext();
+            } while (feed.isMore());
+            return token;
+        } catch (ChangeTokenExpiredException e) {
+            LOGGER.warn("Caches fell behind the change feed, rebuilding them : " + e.getMessage());
+            return null;
+        } catch (Exception e) {
+            // Picked up again from the same position by the next poll.
+            LOGGER.warn("Could not read the change feed : " + e.getMessage());
+            return token;
+        }
+    }
+
+    /**
+     * Invalidates the cached responses once for the page of changes.
+     */
+    private void apply(boolean employees, List<? extends ChangeDTO<?>> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (employees) {
+            Set<Long> employeeIds = new HashSet<>();
+            for (ChangeDTO<?> change : changes) {
+                employeeIds.add(change.getId());
+            }
+            responseCache.employeesChanged(employeeIds);
+        } else {
+            responseCache.clear();
+        }
+        for (ChangeDTO<?> change : changes) {
+            if (ChangeType.CREATED.name().equals(change.getChangeType())) {
+                if (employees) {
+                    entityIdFilters.employeeCreated(change.getId());
+                } else {
+                    entityIdFilters.departmentCreated(change.getId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.employee.cache;
+
+import com.example.employee.config.DataSourceRouting;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.DepartmentChangedEvent;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory membership filters of the employee and department ids, used to answer lookups of
+ * ids that certainly do not exist without querying the database.
+ * <p>
+ * The filters are built from the database once the application is ready and are rebuilt every
+ * {@code app.id-filter.rebuild-interval} ms. In between they take the ids of the entities created
+ * on this instance once their transaction has committed, and those created on the other instances
+ * as the {@link ChangeFeedFollower} reads them from the change feed, so an id created elsewhere may
+ * be answered as absent here for up to the feed's delay, like a read from a lagging replica.
+ * Requests pinned to the primary for read-your-writes never get an id answered as absent, since
+ * their own create may not have reached this instance yet.
+ * <p>
+ * Without the change feed ({@code app.outbox.enabled=false}) the creates of the other instances
+ * would only be seen by the next rebuild, so the filters are not built. Until the first build
+ * finishes, and when disabled with {@code app.id-filter.enabled=false}, every id is treated as
+ * possibly present.
+ */
+@Component
+public class EntityIdFilters {
+    Logger LOGGER = LoggerFactory.getLogger(EntityIdFilters.class);
+
+    private static final long MINIMUM_CAPACITY = 10_000;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Value("${app.id-filter.enabled:true}")
+    private boolean enabled;
+    @Value("${app.outbox.enabled:true}")
+    private boolean followed;
+    @Value("${app.id-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    private final Filter employees = new Filter("employee");
+    private final Filter departments = new Filter("department");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            LOGGER.info("Id filters are disabled");
+            return;
+        }
+        if (!followed) {
+            LOGGER.info("Id filters are disabled, as the change feed of the other instances is disabled with the outbox");
+            return;
+        }
+        employees.rebuild(employeeRepository::findAllVisibleIds);
+        departments.rebuild(departmentRepository::findAllVisibleIds);
+    }
+
+    @Scheduled(initialDelayString = "${app.id-filter.rebuild-interval:3600000}",
+            fixedDelayString = "${app.id-filter.rebuild-interval:3600000}")
+    public void refresh() {
+        if (enabled && followed) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return true when no employee with this id can exist
+     */
+    public boolean isKnownAbsentEmployee(Long employeeId) {
+        return employees.isKnownAbsent(employeeId);
+    }
+
+    /**
+     * @return true when no department with this id can exist
+     */
+    public boolean isKnownAbsentDepartment(Long deptId) {
+        return departments.isKnownAbsent(deptId);
+    }
+
+    public void employeeCreated(Long employeeId) {
+        employees.add(employeeId);
+    }
+
+    public void departmentCreated(Long deptId) {
+        departments.add(deptId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.getChangeType() == ChangeType.CREATED) {
+            employeeCreated(event.getEmployeeId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeesChangedEvent event) {
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            onEmployeeChanged(change);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.getChangeType() == ChangeType.CREATED) {
+            departmentCreated(event.getDeptId());
+        }
+    }
+
+    private class Filter {
+        private final String name;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private volatile IdMembershipFilter current;
+        private volatile Queue<Long> createdDuringRebuild;
+        private volatile IdSource source;
+
+        Filter(String name) {
+            this.name = name;
+        }
+
+        boolean isKnownAbsent(Long id) {
+            IdMembershipFilter filter = current;
+            return filter != null && id != null && !DataSourceRouting.isPinnedToPrimary() && !filter.mightContain(id);
+        }
+
+        void add(Long id) {
+            if (id == null) {
+                return;
+            }
+            // Recorded before touching the current filter, so an id created while a rebuild is
+            // loading is either replayed into the new filter or put into it directly.
+            Queue<Long> pending = createdDuringRebuild;
+            if (pending != null) {
+                pending.offer(id);
+            }
+            IdMembershipFilter filter = current;
+            if (filter != null) {
+                filter.put(id);
+                if (filter.isOverCapacity() && source != null) {
+                    CompletableFuture.runAsync(() -> rebuild(source));
+                }
+            }
+        }
+
+        void rebuild(IdSource idSource) {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return;
+            }
+            Queue<Long> pending = new ConcurrentLinkedQueue<>();
+            createdDuringRebuild = pending;
+            try {
+                source = idSource;
+                List<Long> ids = idSource.load();
+                IdMembershipFilter filter = IdMembershipFilter.create(Math.max(MINIMUM_CAPACITY, 2L * ids.size()), falsePositiveProbability);
+                for (Long id : ids) {
+                    filter.put(id);
+                }
+                current = filter;
+                for (Long id = pending.poll(); id != null; id = pending.poll()) {
+                    filter.put(id);
+                }
+                LOGGER.info("Rebuilt the " + name + " id filter with " + ids.size() + " ids");
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not rebuild the " + name + " id filter, lookups fall back to the database", e);
+                current = null;
+            } finally {
+                createdDuringRebuild = null;
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdSource {
+        List<Long> load();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.employee.cache;
+
+import com.example.employee.models.IdempotencyKey;
+import com.example.employee.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency keys and the responses they produced, kept in the {@code idempotency_key} table
+ * shared by the instances, for a fixed time to live.
+ * <p>
+ * The first request for a key inserts it and becomes its owner; the primary key makes that one
+ * request across the instances, and the key survives restarts. Requests arriving with the same
+ * key while it runs poll for its response instead of running again. A key seen with a different
+ * request fingerprint is reported as a mismatch. Owners that fail without a response to keep
+ * {@link Reservation#abandon() abandon} the key, and a waiting request then runs itself. An owner
+ * that has not completed within the wait timeout is presumed gone, and the key can be claimed again.
+ * <p>
+ * Expired keys are deleted by a periodic sweep.
+ */
+public class IdempotencyStore {
+    Logger LOGGER = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    public enum Outcome {
+        /** The caller owns the key and must complete or abandon its reservation. */
+        OWNER,
+        /** The key already has a response, see {@link Reservation#getResponse()}. */
+        REPLAY,
+        /** The key was used for a different request. */
+        MISMATCH,
+        /** The owner of the key did not finish within the wait timeout. */
+        IN_PROGRESS
+    }
+
+    private final IdempotencyKeyRepository repository;
+    private final Duration ttl;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository, Duration ttl) {
+        this.repository = repository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Claims the key, or waits up to {@code timeout} for the response of the request that holds it.
+     * @param key idempotency key, already scoped to the client and path
+     * @param fingerprint digest of the request the key was sent with
+     * @param timeout how long to wait for a request in flight with the same key, and how long the
+     *                caller may hold the key before it is presumed gone
+     * @return Reservation with the outcome, and the stored response for a replay
+     */
+    public Reservation reserve(String key, byte[] fingerprint, Duration timeout) throws InterruptedException {
+        String id = hex(sha256(key.getBytes(StandardCharsets.UTF_8)));
+        String digest = hex(fingerprint);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long now = System.currentTimeMillis();
+            Optional<IdempotencyKey> existing = repository.findById(id);
+            if (existing.isEmpty()) {
+                String owner = UUID.randomUUID().toString();
+                try {
+                    repository.claim(id, digest, owner, new Timestamp(now), new Timestamp(now + timeout.toMillis()));
+                    return new Reservation(Outcome.OWNER, id, owner, null);
+                } catch (DataIntegrityViolationException e) {
+                    // Claimed by a concurrent request since: replay it or wait for it.
+                    continue;
+                }
+            }
+            IdempotencyKey stored = existing.get();
+            if (stored.getExpiresOn().getTime() < now) {
+                repository.deleteIfExpired(id, new Timestamp(now));
+                continue;
+            }
+            if (!stored.getFingerprint().equals(digest)) {
+                return new Reservation(Outcome.MISMATCH, id, null, null);
+            }
+            if (stored.getStatus() != null) {
+                return new Reservation(Outcome.REPLAY, id, null, new StoredResponse(stored.getStatus(),
+                        stored.getContentType(), stored.getLocation(), stored.getBody()));
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return new Reservation(Outcome.IN_PROGRESS, id, null, null);
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    public long size() {
+        return repository.count();
+    }
+
+    /**
+     * Removes the expired keys.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval:60000}")
+    public void evictExpired() {
+        int deleted = repository.deleteExpired(new Timestamp(System.currentTimeMillis()));
+        if (deleted > 0) {
+            LOGGER.debug("Deleted " + deleted + " expired idempotency keys");
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The outcome of {@link #reserve}. An owner completes it with the response to keep, or
+     * abandons it so the key can be used again.
+     */
+    public final class Reservation {
+        private final Outcome outcome;
+        private final String id;
+        private final String owner;
+        private final StoredResponse response;
+
+        private Reservation(Outcome outcome, String id, String owner, StoredResponse response) {
+            this.outcome = outcome;
+            this.id = id;
+            this.owner = owner;
+            this.response = response;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public StoredResponse getResponse() {
+            return response;
+        }
+
+        public void complete(StoredResponse stored) {
+            int completed = repository.complete(id, owner, stored.getStatus(), stored.getContentType(), stored.getLocation(),
+                    stored.getBody(), new Timestamp(System.currentTimeMillis() + ttl.toMillis()));
+            if (completed == 0) {
+                LOGGER.warn("Idempotency key " + id + " was claimed again before its request finished, its response is not kept");
+            }
+        }
+
+        public void abandon() {
+            repository.abandon(id, owner);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.employee.cache;
+
+import com.example.employee.config.DataSourceRouting;
+import com.example.employee.config.ReplicaLagMonitor;
+import com.example.employee.dto.FieldSet;
+import com.example.employee.events.DepartmentChangedEvent;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.tracing.Span;
+import com.example.employee.tracing.Tracing;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of serialized GET responses of the department and employee endpoints, so a hit costs
+ * a map lookup and a byte copy instead of a query, mapping and serialization.
+ * <p>
+ * Bodies are cached per negotiated media type, using the object mapper of the Jackson message
+ * converter registered for that type (JSON, CBOR, Smile). Responses narrowed with a
+ * {@link FieldSet} are cached apart from the full ones, keyed by their fields.
+ * <p>
+ * Entries are dropped when the services of this instance publish change events, after the
+ * surrounding transaction commits, and when the {@link ChangeFeedFollower} reads the changes of
+ * the other instances from the change feed. A department change drops the employee entries too,
+ * since employee responses embed their department. Responses loaded concurrently with an
+ * invalidation are returned to their caller but not stored. Entries expire after
+ * {@code app.response-cache.ttl} in case an invalidation is lost.
+ * <p>
+ * Misses are loaded like any other read, so with a replica configured they are served by it
+ * unless the request is pinned to the primary. Since a lagging replica may return a row older
+ * than the last invalidation, a response loaded off the primary is only stored while the
+ * {@link ReplicaLagMonitor} reports a lag well below the ttl, and not at all while the lag is unknown.
+ */
+@Component
+public class ResponseCache {
+    Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String EMPLOYEES = "employees";
+
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+    private final ConcurrentMap<String, CachedResponse> departments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedResponse> employees = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedResponse> sparseDepartments = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CachedResponse> sparseEmployees = new ConcurrentHashMap<>();
+    private long departmentGeneration;
+    private long employeeGeneration;
+
+    @Value("${app.response-cache.enabled:true}")
+    private boolean enabled = true;
+    @Value("${app.response-cache.max-employee-entries:10000}")
+    private int maxEmployeeEntries = 10_000;
+    @Value("${app.response-cache.ttl:1m}")
+    private Duration ttl = Duration.ofMinutes(1);
+    @Autowired
+    private ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+
+    public ResponseCache(List<AbstractJackson2HttpMessageConverter> converters) {
+        // JSON first, so that clients accepting anything keep getting JSON.
+        List<AbstractJackson2HttpMessageConverter> ordered = new ArrayList<>(converters);
+        ordered.sort((a, b) -> Boolean.compare(!a.getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON),
+                !b.getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON)));
+        for (AbstractJackson2HttpMessageConverter converter : ordered) {
+            for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+                if (!mediaType.isWildcardSubtype()) {
+                    objectMappers.putIfAbsent(new MediaType(mediaType.getType(), mediaType.getSubtype()), converter.getObjectMapper());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached department response for the key in the format the request accepts,
+     * loading and serializing it on a miss. Exceptions of the loader, such as not-found,
+     * propagate and nothing is cached.
+     */
+    public CachedResponse department(String key, WebRequest request, Loader loader) throws Exception {
+        return department(key, null, request, loader);
+    }
+
+    /**
+     * Same as {@link #department(String, WebRequest, Loader)} for a response narrowed to the given
+     * fields, or the full response when fields is null. Properties outside the fields are left out
+     * of the serialized body.
+     */
+    public CachedResponse department(String key, FieldSet fields, WebRequest request, Loader loader) throws Exception {
+        return load(fields == null ? departments : sparseDepartments, key, fields, request, loader, true);
+    }
+
+    /**
+     * Same as {@link #department(String, WebRequest, Loader)} for employee responses.
+     */
+    public CachedResponse employee(String key, WebRequest request, Loader loader) throws Exception {
+        return employee(key, null, request, loader);
+    }
+
+    /**
+     * Same as {@link #department(String, FieldSet, WebRequest, Loader)} for employee responses.
+     */
+    public CachedResponse employee(String key, FieldSet fields, WebRequest request, Loader loader) throws Exception {
+        return load(fields == null ? employees : sparseEmployees, key, fields, request, loader, false);
+    }
+
+    /**
+     * Serializes a response that is not worth caching, such as one page of a list, the same way
+     * as the cached ones, in the format the request accepts.
+     */
+    public CachedResponse uncached(Object body, FieldSet fields, WebRequest request) throws Exception {
+        return serialize(body, fields, negotiate(request));
+    }
+
+    private CachedResponse load(ConcurrentMap<String, CachedResponse> entries, String key, FieldSet fields,
+                                WebRequest request, Loader loader, boolean department) throws Exception {
+        MediaType mediaType = negotiate(request);
+        String formatKey = (fields == null ? key : key + "?fields=" + fields) + "|" + mediaType;
+        CachedResponse cached = entries.get(formatKey);
+        if (cached != null && !cached.isOlderThan(ttl)) {
+            return cached;
+        }
+        long generation = department ? departmentGeneration() : employeeGeneration();
+        CachedResponse loaded = serialize(loader.load(), fields, mediaType);
+        if (DataSourceRouting.isPinnedToPrimary() || isReplicaCurrent()) {
+            store(entries, formatKey, loaded, generation, department);
+        }
+        return loaded;
+    }
+
+    /**
+     * Whether a response read from the replica may be cached: true without a replica, otherwise
+     * only while its measured lag is under half the ttl.
+     */
+    private boolean isReplicaCurrent() {
+        ReplicaLagMonitor monitor = replicaLagMonitor == null ? null : replicaLagMonitor.getIfAvailable();
+        if (monitor == null) {
+            return true;
+        }
+        double lagSeconds = monitor.getLagSeconds();
+        return !Double.isNaN(lagSeconds) && lagSeconds * 1000 < ttl.toMillis() / 2.0;
+    }
+
+    /**
+     * Reads back the employees whose by-id response is cached, in whichever format it was cached
+     * in, so a multi-get only has to query the others. Entries that do not decode are skipped.
+     * @return the cached employees by id
+     */
+    public <T> Map<Long, T> cachedEmployees(Collection<Long> employeeIds, Class<T> type) {
+        Map<Long, T> cached = new HashMap<>();
+        if (!enabled || employees.isEmpty()) {
+            return cached;
+        }
+        for (Long employeeId : employeeIds) {
+            for (Map.Entry<MediaType, ObjectMapper> format : objectMappers.entrySet()) {
+                CachedResponse response = employees.get(EMPLOYEES + "/" + employeeId + "|" + format.getKey());
+                if (response == null || response.isOlderThan(ttl)) {
+                    continue;
+                }
+                try {
+                    cached.put(employeeId, format.getValue().readValue(response.getBody(), type));
+                    break;
+                } catch (IOException e) {
+                    LOGGER.debug("Could not read cached employee " + employeeId + " : " + e.getMessage());
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Picks the first supported media type the request accepts, in the client's order of preference.
+     */
+    private MediaType negotiate(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        List<MediaType> acceptable = accept == null ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+        acceptable = new ArrayList<>(acceptable);
+        MediaType.sortBySpecificityAndQuality(acceptable);
+        for (MediaType candidate : acceptable) {
+            for (MediaType supported : objectMappers.keySet()) {
+                if (candidate.isCompatibleWith(supported) && candidate.getQualityValue() > 0) {
+                    return supported;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(new ArrayList<>(objectMappers.keySet()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        LOGGER.debug("Invalidating cached responses after " + event);
+        clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        LOGGER.debug("Invalidating cached responses after " + event);
+        employeeChanged(event.getEmployeeId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeesChangedEvent event) {
+        LOGGER.debug("Invalidating cached responses after " + event);
+        Set<Long> employeeIds = new HashSet<>();
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            employeeIds.add(change.getEmployeeId());
+        }
+        employeesChanged(employeeIds);
+    }
+
+    /**
+     * Drops the responses showing the employee: its own and the employee list.
+     */
+    public void employeeChanged(Long employeeId) {
+        employeesChanged(Set.of(employeeId));
+    }
+
+    /**
+     * Drops the responses showing any of the employees, in one pass over the cached responses.
+     */
+    public synchronized void employeesChanged(Set<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        employeeGeneration++;
+        for (MediaType mediaType : objectMappers.keySet()) {
+            employees.remove(EMPLOYEES + "|" + mediaType);
+            for (Long employeeId : employeeIds) {
+                employees.remove(EMPLOYEES + "/" + employeeId + "|" + mediaType);
+            }
+        }
+        if (!sparseEmployees.isEmpty()) {
+            String listPrefix = EMPLOYEES + "?";
+            Set<String> employeePrefixes = new HashSet<>();
+            for (Long employeeId : employeeIds) {
+                employeePrefixes.add(EMPLOYEES + "/" + employeeId + "?");
+            }
+            sparseEmployees.keySet().removeIf(key -> key.startsWith(listPrefix)
+                    || employeePrefixes.contains(key.substring(0, key.indexOf('?') + 1)));
+        }
+    }
+
+    public synchronized void clear() {
+        departmentGeneration++;
+        employeeGeneration++;
+        departments.clear();
+        employees.clear();
+        sparseDepartments.clear();
+        sparseEmployees.clear();
+    }
+
+    private synchronized long departmentGeneration() {
+        return departmentGeneration;
+    }
+
+    private synchronized long employeeGeneration() {
+        return employeeGeneration;
+    }
+
+    private synchronized void store(ConcurrentMap<String, CachedResponse> entries, String key, CachedResponse response,
+                                    long generation, boolean department) {
+        if (!enabled || generation != (department ? departmentGeneration : employeeGeneration)) {
+            return;
+        }
+        if (!department && entries.size() >= maxEmployeeEntries) {
+            // Crude bound: by-id entries are cheap to rebuild, so start over rather than track recency.
+            entries.clear();
+        }
+        entries.put(key, response);
+    }
+
+    private CachedResponse serialize(Object body, FieldSet fields, MediaType mediaType) throws IOException {
+        try (Span span = Tracing.start("serialize " + mediaType.getSubtype())) {
+            return toCachedResponse(body, fields, mediaType);
+        }
+    }
+
+    private CachedResponse toCachedResponse(Object body, FieldSet fields, MediaType mediaType) throws IOException {
+        ObjectMapper objectMapper = objectMappers.get(mediaType);
+        byte[] serialized;
+        if (fields == null) {
+            serialized = objectMapper.writeValueAsBytes(body);
+        } else {
+            // Serialize through a tree so that the kept properties are formatted as in the full response.
+            JsonNode tree = objectMapper.valueToTree(body);
+            if (tree.isArray()) {
+                tree.forEach(element -> ((ObjectNode) element).retain(fields.getNames()));
+            } else {
+                ((ObjectNode) tree).retain(fields.getNames());
+            }
+            serialized = objectMapper.writeValueAsBytes(tree);
+        }
+        return new CachedResponse(mediaType, serialized, gzip(serialized), "\"" + DigestUtils.md5DigestAsHex(serialized) + "\"");
+    }
+
+    private static byte[] gzip(byte[] serialized) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(serialized.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(serialized);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Object load() throws Exception;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.employee.cache;
+
+/**
+ * The status, headers of interest and body of a response, kept to answer a replayed request.
+ */
+public class StoredResponse {
+
+    private final int status;
+    private final String contentType;
+    private final String location;
+    private final byte[] body;
+
+    public StoredResponse(int status, String contentType, String location, byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
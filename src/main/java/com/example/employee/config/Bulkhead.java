@@ -0,0 +1,18 @@
+package com.example.employee.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs a controller method inside the named bulkhead of {@link BulkheadProperties}, which caps
+ * how many such requests run and wait at once.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * Name of the bulkhead: {@code read}, {@code write}, {@code list} or {@code bulk}.
+     */
+    String value();
+}
@@ -0,0 +1,36 @@
+package com.example.employee.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request bulkheads in front of the controllers, so slow list scans and bulk transfers cannot
+ * exhaust the connection pool for single row reads and writes. Enabled unless
+ * {@code app.bulkhead.enabled=false}; limits and metrics per bulkhead are described in
+ * {@link BulkheadProperties} and {@link BulkheadLimiter}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfiguration implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor bulkheadInterceptor;
+
+    public BulkheadConfiguration(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        Map<String, BulkheadLimiter> limiters = new LinkedHashMap<>();
+        properties.getPools().forEach((name, limits) -> limiters.put(name, new BulkheadLimiter(name, limits, meterRegistry)));
+        this.bulkheadInterceptor = new BulkheadInterceptor(limiters);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.employee.config;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Admits requests to handlers annotated with {@link Bulkhead} through their bulkhead and frees
+ * the slot once the request completed. Refused requests are answered by the exception handler
+ * with a 503 and a Retry-After header.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String LIMITER_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".limiter";
+
+    private final Map<String, BulkheadLimiter> limiters;
+
+    public BulkheadInterceptor(Map<String, BulkheadLimiter> limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Bulkhead bulkhead = ((HandlerMethod) handler).getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+        BulkheadLimiter limiter = limiters.get(bulkhead.value());
+        if (limiter == null) {
+            throw new IllegalStateException("Unknown bulkhead " + bulkhead.value());
+        }
+        limiter.acquire();
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        BulkheadLimiter limiter = (BulkheadLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter != null) {
+            request.removeAttribute(LIMITER_ATTRIBUTE);
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.employee.config;
+
+import com.example.employee.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bulkhead: at most {@code maxConcurrent} requests run, at most {@code maxQueue} wait for a
+ * slot, and none waits longer than the target queue time. Once a request missed the target, new
+ * requests that find no free slot are shed at once for the next target interval instead of
+ * joining a queue that is not draining, so callers get a fast 503 rather than a slow one.
+ */
+public class BulkheadLimiter {
+    Logger LOGGER = LoggerFactory.getLogger(BulkheadLimiter.class);
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final long targetNanos;
+    private final long retryAfterSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile long sheddingUntil = System.nanoTime();
+
+    private final Timer queueWait;
+    private final Counter queueFull;
+    private final Counter timedOut;
+    private final Counter shed;
+
+    public BulkheadLimiter(String name, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(limits.getMaxConcurrent(), true);
+        this.maxQueue = limits.getMaxQueue();
+        this.targetNanos = limits.getMaxQueueTime().toNanos();
+        this.retryAfterSeconds = limits.getRetryAfterSeconds();
+
+        int maxConcurrent = limits.getMaxConcurrent();
+        Gauge.builder("app.bulkhead.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .tag("bulkhead", name).register(meterRegistry);
+        Gauge.builder("app.bulkhead.queued", queued, AtomicInteger::get)
+                .tag("bulkhead", name).register(meterRegistry);
+        this.queueWait = Timer.builder("app.bulkhead.queue.wait").tag("bulkhead", name).register(meterRegistry);
+        this.queueFull = rejected(meterRegistry, "queue-full");
+        this.timedOut = rejected(meterRegistry, "timeout");
+        this.shed = rejected(meterRegistry, "shed");
+    }
+
+    private Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("app.bulkhead.rejected").tag("bulkhead", name).tag("reason", reason).register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a slot, waiting up to the target queue time for one.
+     * @throws ServiceOverloadedException when the queue is full, the wait missed the target or the
+     * bulkhead is shedding load
+     */
+    public void acquire() throws ServiceOverloadedException {
+        long start = System.nanoTime();
+        if (tryAcquire(0)) {
+            queueWait.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        if (start - sheddingUntil < 0) {
+            shed.increment();
+            throw overloaded();
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            queueFull.increment();
+            throw overloaded();
+        }
+        boolean acquired;
+        try {
+            acquired = tryAcquire(targetNanos);
+        } finally {
+            queued.decrementAndGet();
+        }
+        long waited = System.nanoTime() - start;
+        queueWait.record(waited, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            sheddingUntil = System.nanoTime() + targetNanos;
+            timedOut.increment();
+            LOGGER.warn("Bulkhead " + name + " missed its queue time target, shedding load");
+            throw overloaded();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    private boolean tryAcquire(long timeoutNanos) throws ServiceOverloadedException {
+        try {
+            return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException("Too many concurrent " + name + " requests, retry later", retryAfterSeconds);
+    }
+}
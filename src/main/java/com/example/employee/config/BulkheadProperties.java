@@ -0,0 +1,71 @@
+package com.example.employee.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits of the request bulkheads ({@code app.bulkhead.*}). Single row reads and writes each get
+ * a pool sized to the connection pool, while full list scans and bulk import/export share much
+ * smaller pools so they cannot take every connection.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+    private Limits read = new Limits(10, 100, Duration.ofMillis(100), 1);
+    private Limits write = new Limits(10, 100, Duration.ofMillis(200), 1);
+    private Limits list = new Limits(2, 8, Duration.ofSeconds(1), 2);
+    private Limits bulk = new Limits(1, 0, Duration.ZERO, 10);
+
+    public Map<String, Limits> getPools() {
+        Map<String, Limits> pools = new LinkedHashMap<>();
+        pools.put("read", read);
+        pools.put("write", write);
+        pools.put("list", list);
+        pools.put("bulk", bulk);
+        return pools;
+    }
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        /**
+         * Requests running at once.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests waiting for a slot; further requests are refused straight away.
+         */
+        private int maxQueue;
+
+        /**
+         * Target queue time. A request still waiting after it is refused, and while the queue
+         * keeps missing the target new requests are refused without queueing.
+         */
+        private Duration maxQueueTime;
+
+        /**
+         * Retry-After sent with the 503, in seconds.
+         */
+        private long retryAfterSeconds;
+
+        public Limits() {
+        }
+
+        public Limits(int maxConcurrent, int maxQueue, Duration maxQueueTime, long retryAfterSeconds) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.maxQueueTime = maxQueueTime;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.employee.config;
+
+/**
+ * Target of a database call when a read replica is configured.
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
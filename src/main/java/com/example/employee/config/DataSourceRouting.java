@@ -0,0 +1,47 @@
+package com.example.employee.config;
+
+/**
+ * Thread-bound routing decision consulted by {@link RoutingDataSource} whenever a connection is taken.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<DataSourceRoute> ROUTE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static DataSourceRoute current() {
+        DataSourceRoute route = ROUTE.get();
+        return route == null || isPinnedToPrimary() ? DataSourceRoute.PRIMARY : route;
+    }
+
+    /**
+     * Sets the route for the current thread and returns the previous one, so callers can restore it.
+     */
+    public static DataSourceRoute set(DataSourceRoute route) {
+        DataSourceRoute previous = ROUTE.get();
+        if (route == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(route);
+        }
+        return previous;
+    }
+
+    /**
+     * Forces every call on the current thread to the primary, regardless of {@link ReadReplica}.
+     * Used for read-your-writes stickiness after a client has written.
+     */
+    public static void pinToPrimary(boolean pinned) {
+        if (pinned) {
+            PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        } else {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+}
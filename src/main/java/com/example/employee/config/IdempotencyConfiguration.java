@@ -0,0 +1,40 @@
+package com.example.employee.config;
+
+import com.example.employee.cache.IdempotencyStore;
+import com.example.employee.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code Idempotency-Key} support for the create endpoints, {@code POST /departments} and
+ * {@code POST /departments/{deptId}/employees}. Keys are kept in the database, so a retry is
+ * recognized whichever instance it reaches, also after a restart.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", matchIfMissing = true)
+public class IdempotencyConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                                             @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore(idempotencyKeyRepository, ttl);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                                                                       @Value("${app.idempotency.in-flight-timeout:30s}") Duration inFlightTimeout,
+                                                                       @Value("${app.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, objectMapper,
+                List.of("/departments", "/departments/*/employees"), inFlightTimeout, maxBodyBytes);
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/departments", "/departments/*");
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employee.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source in a {@link LazyConnectionDataSourceProxy} when group commit
+ * is enabled. Callers of a group-committed create wait inside a transaction that runs no SQL;
+ * with the lazy proxy such a transaction never takes a connection from the pool, which is left
+ * to the committer. When a read replica is configured the data source is already lazy.
+ */
+@Component
+@ConditionalOnProperty(name = "app.employee.group-commit.enabled", havingValue = "true")
+public class LazyConnectionDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+            return new LazyConnectionDataSourceProxy((DataSource) bean);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.employee.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a read-only service method whose queries may be served by the replica.
+ * Has no effect unless {@code app.datasource.replica.url} is configured. Such methods also run
+ * in a {@code @Transactional(readOnly = true)} transaction, which marks the connection read-only
+ * and skips flushing and dirty checking.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadReplica {
+}
@@ -0,0 +1,42 @@
+package com.example.employee.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Routes methods annotated with {@link ReadReplica} to the replica, unless the current
+ * request is pinned to the primary for read-your-writes. Runs outside the method's read-only
+ * transaction, so the route is set before the transaction takes its connection.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadReplicaAspect {
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadReplicaAspect(MeterRegistry meterRegistry) {
+        this.replicaReads = Counter.builder("app.datasource.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("app.datasource.reads").tag("target", "primary").register(meterRegistry);
+    }
+
+    @Around("@annotation(com.example.employee.config.ReadReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (DataSourceRouting.isPinnedToPrimary()) {
+            primaryReads.increment();
+            return joinPoint.proceed();
+        }
+        replicaReads.increment();
+        DataSourceRoute previous = DataSourceRouting.set(DataSourceRoute.REPLICA);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRouting.set(previous);
+        }
+    }
+}
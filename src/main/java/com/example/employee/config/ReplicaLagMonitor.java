@@ -0,0 +1,63 @@
+package com.example.employee.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * Measures replica staleness with a heartbeat row: the primary stores the current time on
+ * every check, and the next check compares the beat it last wrote with the one visible on the
+ * replica, so a replica that has caught up reports no lag. The value is published as the
+ * {@code app.datasource.replica.lag} gauge (seconds, NaN when unknown) and has the granularity
+ * of {@code app.datasource.replica.lag-check-interval}.
+ */
+public class ReplicaLagMonitor {
+    Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private volatile double lagSeconds = Double.NaN;
+    private long lastBeat;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        Gauge.builder("app.datasource.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .baseUnit("seconds")
+                .description("Time between the last heartbeat written to the primary and the newest one visible on the replica")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void createHeartbeatTable() {
+        primary.execute("create table if not exists replication_heartbeat (id int not null primary key, beat_time bigint not null)");
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void checkLag() {
+        try {
+            Long beat = replica.queryForObject("select beat_time from replication_heartbeat where id = 1", Long.class);
+            lagSeconds = beat == null || lastBeat == 0 ? Double.NaN : Math.max(0, lastBeat - beat) / 1000.0;
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not read the replication heartbeat from the replica : " + e.getMessage());
+            lagSeconds = Double.NaN;
+        }
+
+        long now = System.currentTimeMillis();
+        if (primary.update("update replication_heartbeat set beat_time = ? where id = 1", now) == 0) {
+            primary.update("insert into replication_heartbeat (id, beat_time) values (1, ?)", now);
+        }
+        lastBeat = now;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employee.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection settings of the read replica ({@code app.datasource.replica.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    /**
+     * How long reads from a client stay on the primary after that client wrote.
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,64 @@
+package com.example.employee.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Support for the {@code faststart} profile, which initializes beans lazily.
+ * <p>
+ * Beans with {@link Scheduled} methods stay eager, since their schedules are only registered when
+ * the bean is created. With {@code app.startup.exit-on-refresh=true} the application exits as soon
+ * as its context is refreshed; the build uses this for the training run that records the classes
+ * to put in the class data sharing archive, without needing a database.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> {
+            AtomicBoolean scheduled = new AtomicBoolean();
+            ReflectionUtils.doWithMethods(beanType, method -> scheduled.set(true),
+                    method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+            return scheduled.get();
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.startup.exit-on-refresh", havingValue = "true")
+    public ExitOnRefresh exitOnRefresh() {
+        return new ExitOnRefresh();
+    }
+
+    /**
+     * Ordered first, so the application exits before the scheduled tasks start.
+     */
+    static class ExitOnRefresh implements ApplicationListener<ContextRefreshedEvent>, Ordered {
+        Logger LOGGER = LoggerFactory.getLogger(ExitOnRefresh.class);
+
+        @Override
+        public void onApplicationEvent(ContextRefreshedEvent event) {
+            LOGGER.info("Context refreshed, exiting as app.startup.exit-on-refresh is set");
+            // Closed on this thread, which holds the context's startup monitor, before exiting.
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
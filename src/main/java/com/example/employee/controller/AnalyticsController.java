@@ -0,0 +1,115 @@
+package com.example.employee.controller;
+
+import com.example.employee.config.Bulkhead;
+import com.example.employee.dto.EmployeeAnalyticsDTO;
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.exception.UnsupportedDimensionException;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.services.EmployeeAnalyticsService;
+import com.example.employee.services.HeadcountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class AnalyticsController {
+    Logger LOGGER = LoggerFactory.getLogger(AnalyticsController.class);
+
+    @Autowired
+    HeadcountService headcountService;
+    @Autowired
+    EmployeeAnalyticsService employeeAnalyticsService;
+
+    /**
+     * API to fetch the number of active employees per state, city, designation or department,
+     * read from the incrementally maintained summary
+     *
+     * @param dimension state, city, designation or department
+     * @return List<HeadcountDTO>
+     * @throws Exception Throws exception when the dimension is not supported
+     */
+    @Operation(summary = "Get headcount", description = "Get the headcount by state, city, designation or department", tags = "Analytics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Headcount by the dimension",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = HeadcountDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Unsupported dimension",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/analytics/headcount")
+    public ResponseEntity<Object> getHeadcount(@RequestParam String dimension) throws Exception{
+        HeadcountDimension headcountDimension = dimension(dimension);
+        List<HeadcountDTO> headcounts = headcountService.getHeadcounts(headcountDimension);
+
+        LOGGER.info("GET Request for headcount by " + headcountDimension + " is successful");
+        return new ResponseEntity<>(headcounts, HttpStatus.OK);
+    }
+
+    /**
+     * API to count, group and list the active employees matching any combination of filters,
+     * answered from the in-memory columnar snapshot
+     *
+     * @param state states to match, any of them
+     * @param city cities to match, any of them
+     * @param designation designations to match, any of them
+     * @param department department ids to match, any of them
+     * @param groupBy state, city, designation or department to group the matches by
+     * @param ids number of matching employee ids to return
+     * @return EmployeeAnalyticsDTO
+     * @throws Exception Throws exception when the dimension is not supported or the snapshot is not loaded
+     */
+    @Operation(summary = "Analyze employees", description = "Count, group and list the employees matching the filters", tags = "Analytics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employees matching the filters",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EmployeeAnalyticsDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Unsupported dimension or id limit",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Snapshot not loaded yet",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/analytics/employees")
+    public ResponseEntity<Object> analyzeEmployees(@RequestParam(required = false) List<String> state,
+                                                   @RequestParam(required = false) List<String> city,
+                                                   @RequestParam(required = false) List<String> designation,
+                                                   @RequestParam(required = false) List<String> department,
+                                                   @RequestParam(required = false) String groupBy,
+                                                   @RequestParam(required = false) Integer ids) throws Exception{
+        Map<HeadcountDimension, List<String>> filter = new EnumMap<>(HeadcountDimension.class);
+        filter.put(HeadcountDimension.STATE, state);
+        filter.put(HeadcountDimension.CITY, city);
+        filter.put(HeadcountDimension.DESIGNATION, designation);
+        filter.put(HeadcountDimension.DEPARTMENT, department);
+        filter.values().removeIf(values -> values == null || values.isEmpty());
+        EmployeeAnalyticsDTO analytics = employeeAnalyticsService.analyzeEmployees(filter,
+                groupBy == null ? null : dimension(groupBy), ids);
+
+        LOGGER.info("GET Request for employee analytics is successful");
+        return new ResponseEntity<>(analytics, HttpStatus.OK);
+    }
+
+    private HeadcountDimension dimension(String name) throws UnsupportedDimensionException {
+        HeadcountDimension dimension = HeadcountDimension.fromName(name);
+        if (dimension == null) {
+            LOGGER.error("Unsupported dimension : " + name);
+            throw new UnsupportedDimensionException("Unsupported dimension : " + name);
+        }
+        return dimension;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.employee.controller;
+
+import com.example.employee.config.Bulkhead;
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.services.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Incremental sync: a client downloads everything once, starting from a token taken before the
+ * download, then asks for the changes since its last token instead of downloading again.
+ */
+@RestController
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedController {
+    Logger LOGGER = LoggerFactory.getLogger(ChangeFeedController.class);
+
+    @Autowired
+    ChangeFeedService changeFeedService;
+
+    /**
+     * API to fetch the employees created, updated and deleted since a token
+     *
+     * @param since token of the previous sync; without it, only a token of the current position is returned
+     * @param limit maximum number of changes
+     * @return ChangeFeedDTO<EmployeeDTO>
+     * @throws Exception Throws exception when the token is invalid or has expired
+     */
+    @Operation(summary = "Get employee changes", description = "Get the employee changes since a token", tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes and the token of the next sync",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeFeedDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid token or limit",
+                    content = @Content),
+            @ApiResponse(responseCode = "410", description = "Token expired, download everything again",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/employees/changes")
+    public ResponseEntity<Object> getEmployeeChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(defaultValue = "${app.changes.default-limit:500}") int limit) throws Exception{
+        ChangeFeedDTO<EmployeeDTO> changes = changeFeedService.getEmployeeChanges(since, limit);
+
+        LOGGER.info("GET Request for employee changes is successful");
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
+
+    /**
+     * API to fetch the departments created, updated and deleted since a token
+     *
+     * @param since token of the previous sync; without it, only a token of the current position is returned
+     * @param limit maximum number of changes
+     * @return ChangeFeedDTO<DepartmentDTO>
+     * @throws Exception Throws exception when the token is invalid or has expired
+     */
+    @Operation(summary = "Get department changes", description = "Get the department changes since a token", tags = "Departments")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes and the token of the next sync",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ChangeFeedDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid token or limit",
+                    content = @Content),
+            @ApiResponse(responseCode = "410", description = "Token expired, download everything again",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/departments/changes")
+    public ResponseEntity<Object> getDepartmentChanges(@RequestParam(required = false) String since,
+                                                       @RequestParam(defaultValue = "${app.changes.default-limit:500}") int limit) throws Exception{
+        ChangeFeedDTO<DepartmentDTO> changes = changeFeedService.getDepartmentChanges(since, limit);
+
+        LOGGER.info("GET Request for department changes is successful");
+        return new ResponseEntity<>(changes, HttpStatus.OK);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.employee.controller;
 
+import com.example.employee.cache.CachedResponse;
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.config.Bulkhead;
 import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.FieldSet;
 import com.example.employee.services.DepartmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,9 +17,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RestController
 public class DepartmentController {
@@ -23,10 +27,13 @@ public class DepartmentController {
 
     @Autowired
     DepartmentService departmentService;
+    @Autowired
+    ResponseCache responseCache;
 
     /**
-     * API to fetch all the departments
+     * API to fetch all the departments, served from the response cache when possible
      *
+     * @param fields Comma separated department fields to return, all of them when absent
      * @return List<Departments>
      * @throws Exception Throws exception when list is empty
      */
@@ -38,18 +45,22 @@ public class DepartmentController {
             @ApiResponse(responseCode = "404", description = "No Department Found",
                     content = @Content)
     })
+    @Bulkhead("list")
     @GetMapping("/departments")
-    public ResponseEntity<Object> getDepartments() throws Exception {
-        List<DepartmentDTO> departments = departmentService.getDepartments();
+    public ResponseEntity<Object> getDepartments(@RequestParam(required = false) String fields, WebRequest request) throws Exception {
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.DEPARTMENT_FIELDS);
+        CachedResponse departments = responseCache.department(ResponseCache.DEPARTMENTS, fieldSet, request,
+                () -> fieldSet == null ? departmentService.getDepartments() : departmentService.getDepartments(fieldSet));
 
         LOGGER.info("GET Request for all departments is successful");
-        return new ResponseEntity<>(departments, HttpStatus.OK);
+        return departments.toResponseEntity(request);
     }
 
     /**
-     * API to fetch department by department id
+     * API to fetch department by department id, served from the response cache when possible
      *
      * @param deptId Department id of the department to be fetched
+     * @param fields Comma separated department fields to return, all of them when absent
      * @return Department
      * @throws Exception Throws exception when department does not exist
      */
@@ -61,13 +72,17 @@ public class DepartmentController {
             @ApiResponse(responseCode = "404", description = "Department not found",
                     content = @Content)
     })
+    @Bulkhead("read")
     @GetMapping("/departments/{deptId}")
-    public ResponseEntity<Object> getDepartment(@PathVariable String deptId) throws Exception {
+    public ResponseEntity<Object> getDepartment(@PathVariable String deptId, @RequestParam(required = false) String fields,
+                                                WebRequest request) throws Exception {
         Long id = Long.parseLong(deptId);
-        DepartmentDTO department = departmentService.getDepartment(id);
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.DEPARTMENT_FIELDS);
+        CachedResponse department = responseCache.department(ResponseCache.DEPARTMENTS + "/" + id, fieldSet, request,
+                () -> fieldSet == null ? departmentService.getDepartment(id) : departmentService.getDepartment(id, fieldSet));
 
         LOGGER.info("GET Request is successful for department with id : "+deptId);
-        return new ResponseEntity<Object>(department, HttpStatus.OK);
+        return department.toResponseEntity(request);
     }
 
     /**
@@ -84,6 +99,7 @@ public class DepartmentController {
             @ApiResponse(responseCode = "400", description = "Bad Request",
                     content = @Content)
     })
+    @Bulkhead("write")
     @PostMapping("/departments")
     public ResponseEntity<Object> createDepartment(@Valid @RequestBody DepartmentDTO department) throws Exception{
         departmentService.createDepartment(department);
@@ -107,6 +123,7 @@ public class DepartmentController {
             @ApiResponse(responseCode = "404", description = "Department to be updated not found",
                     content = @Content)
     })
+    @Bulkhead("write")
     @PutMapping("/departments/{deptId}")
     public ResponseEntity<Object> updateDepartment(@PathVariable String deptId, @Valid @RequestBody DepartmentDTO department) throws Exception{
         Long id = Long.parseLong(deptId);
@@ -131,6 +148,7 @@ public class DepartmentController {
             @ApiResponse(responseCode = "404", description = "Department to be deleted not found",
                     content = @Content)
     })
+    @Bulkhead("write")
     @DeleteMapping("/departments/{deptId}")
     public ResponseEntity<Object> deleteDepartment(@PathVariable String deptId) throws Exception{
         DepartmentDTO dept = departmentService.deleteDepartment(Long.parseLong(deptId));
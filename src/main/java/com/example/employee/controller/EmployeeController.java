@@ -1,8 +1,24 @@
 package com.example.employee.controller;
 
+import com.example.employee.cache.CachedResponse;
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.config.Bulkhead;
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
 import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.EmployeeLookupDTO;
+import com.example.employee.dto.ExportResultDTO;
+import com.example.employee.dto.FieldSet;
+import com.example.employee.dto.ImportResultDTO;
+import com.example.employee.exception.UnsupportedExportFormatException;
+import com.example.employee.export.ExportFormat;
 import com.example.employee.services.DepartmentService;
+import com.example.employee.services.EmployeeBulkService;
+import com.example.employee.services.EmployeeExportService;
+import com.example.employee.services.EmployeeImportService;
 import com.example.employee.services.EmployeeService;
+import com.example.employee.services.ImportProgressListener;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,11 +27,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 @RestController
@@ -26,33 +53,77 @@ public class EmployeeController {
     EmployeeService employeeService;
     @Autowired
     DepartmentService departmentService;
+    @Autowired
+    EmployeeImportService employeeImportService;
+    @Autowired
+    EmployeeExportService employeeExportService;
+    @Autowired
+    EmployeeBulkService employeeBulkService;
+    @Autowired
+    ResponseCache responseCache;
+
+    @Value("${app.employee.page.default-limit:100}")
+    int defaultPageLimit = 100;
 
     /**
-     * API to fetch all the employees
+     * API to fetch all the employees, served from the response cache when possible, or one keyset
+     * page of them in id order when {@code after} or {@code limit} is given. A full page links to
+     * the next one in a {@code Link} header.
      *
+     * @param fields Comma separated employee fields to return, all of them when absent
+     * @param after Id of the last employee of the previous page
+     * @param limit Maximum number of employees in the page
      * @return List<Employee>
-     * @throws Exception when there are no employees
+     * @throws Exception when there are no employees, or the limit is out of range
      */
-    @Operation(summary = "Get all Employees", description = "Get all the employees", tags = "Employees")
+    @Operation(summary = "Get all Employees", description = "Get all the employees, or a page of them", tags = "Employees")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Employees Found",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = EmployeeDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Page limit out of range",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "No Employee Found",
                     content = @Content)
     })
+    @Bulkhead("list")
     @GetMapping("/employees")
-    public ResponseEntity<Object> getEmployees() throws Exception{
-        List<EmployeeDTO> employees = employeeService.getEmployees();
+    public ResponseEntity<Object> getEmployees(@RequestParam(required = false) String fields, @RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit, WebRequest request) throws Exception{
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.EMPLOYEE_FIELDS);
+        if (after != null || limit != null) {
+            return getEmployeePage(fieldSet, after, limit == null ? defaultPageLimit : limit, request);
+        }
+        CachedResponse employees = responseCache.employee(ResponseCache.EMPLOYEES, fieldSet, request,
+                () -> fieldSet == null ? employeeService.getEmployees() : employeeService.getEmployees(fieldSet));
 
         LOGGER.info("GET request for all employees is successful");
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+        return employees.toResponseEntity(request);
+    }
+
+    private ResponseEntity<Object> getEmployeePage(FieldSet fieldSet, Long after, int limit, WebRequest request) throws Exception{
+        List<EmployeeDTO> page = employeeService.getEmployees(after, limit, fieldSet);
+        ResponseEntity<Object> response = responseCache.uncached(page, fieldSet, request).toResponseEntity(request);
+        if (page.size() < limit) {
+            LOGGER.info("GET request for the last page of employees is successful");
+            return response;
+        }
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.get(page.size() - 1).getEmployeeId())
+                .replaceQueryParam("limit", limit);
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.add(HttpHeaders.LINK, "<" + next.toUriString() + ">; rel=\"next\"");
+
+        LOGGER.info("GET request for a page of employees is successful");
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
     }
 
     /**
-     * API to fetch employee by employee id
+     * API to fetch employee by employee id, served from the response cache when possible
      *
      * @param employeeId Employee id of the employee to be fetched
+     * @param fields Comma separated employee fields to return, all of them when absent
      * @return Employee
      * @throws Exception when employee does not exist
      */
@@ -64,13 +135,65 @@ public class EmployeeController {
             @ApiResponse(responseCode = "404", description = "Employee not found",
                     content = @Content)
     })
+    @Bulkhead("read")
     @GetMapping("/employees/{employeeId}")
-    public ResponseEntity<Object> getEmployee(@PathVariable String employeeId) throws Exception{
+    public ResponseEntity<Object> getEmployee(@PathVariable String employeeId, @RequestParam(required = false) String fields,
+                                              WebRequest request) throws Exception{
         Long id = Long.parseLong(employeeId);
-        EmployeeDTO employee = employeeService.getEmployee(id);
+        FieldSet fieldSet = FieldSet.parse(fields, FieldSet.EMPLOYEE_FIELDS);
+        CachedResponse employee = responseCache.employee(ResponseCache.EMPLOYEES + "/" + id, fieldSet, request,
+                () -> fieldSet == null ? employeeService.getEmployee(id) : employeeService.getEmployee(id, fieldSet));
 
         LOGGER.info("GET request is successful for employee with Id : "+employeeId);
-        return new ResponseEntity<Object>(employee, HttpStatus.OK);
+        return employee.toResponseEntity(request);
+    }
+
+    /**
+     * API to fetch many employees by id in one round trip
+     *
+     * @param ids Employee ids of the employees to be fetched
+     * @return EmployeeLookupDTO with the employees in request order and the ids not found
+     * @throws Exception when no ids or too many ids are given
+     */
+    @Operation(summary = "Get employees by Ids", description = "Fetch many employees using their employee Ids", tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employees Looked Up",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EmployeeLookupDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "No ids or too many ids",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping(value = "/employees", params = "ids")
+    public ResponseEntity<Object> getEmployeesByIds(@RequestParam List<Long> ids) throws Exception{
+        EmployeeLookupDTO employees = employeeService.getEmployees(ids);
+
+        LOGGER.info("GET request is successful for " + ids.size() + " employee ids");
+        return new ResponseEntity<>(employees, HttpStatus.OK);
+    }
+
+    /**
+     * API to fetch many employees by id, for id lists too long for a query string
+     *
+     * @param ids Employee ids of the employees to be fetched, as a JSON array
+     * @return EmployeeLookupDTO with the employees in request order and the ids not found
+     * @throws Exception when no ids or too many ids are given
+     */
+    @Operation(summary = "Look up employees by Ids", description = "Fetch many employees using a list of employee Ids", tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employees Looked Up",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EmployeeLookupDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "No ids or too many ids",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @PostMapping("/employees/lookup")
+    public ResponseEntity<Object> lookupEmployees(@RequestBody List<Long> ids) throws Exception{
+        EmployeeLookupDTO employees = employeeService.getEmployees(ids);
+
+        LOGGER.info("POST lookup is successful for " + ids.size() + " employee ids");
+        return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
     /**
@@ -88,6 +211,7 @@ public class EmployeeController {
             @ApiResponse(responseCode = "400", description = "Bad Request",
                     content = @Content)
     })
+    @Bulkhead("write")
     @PostMapping("/departments/{deptId}/employees")
     public ResponseEntity<Object> createEmployee(@PathVariable String deptId, @Valid @RequestBody EmployeeDTO employeeDTO) throws Exception {
         Long id = Long.parseLong(deptId);
@@ -113,6 +237,7 @@ public class EmployeeController {
             @ApiResponse(responseCode = "404", description = "Employee to be updated not found",
                     content = @Content)
     })
+    @Bulkhead("write")
     @PutMapping("/departments/{deptId}/employees/{employeeId}")
     public ResponseEntity<Object> updateEmployee(@PathVariable String deptId, @PathVariable String employeeId, @Valid @RequestBody EmployeeDTO employeeDTO) throws Exception{
         employeeService.updateEmployee(Long.parseLong(deptId), Long.parseLong(employeeId), employeeDTO);
@@ -136,6 +261,7 @@ public class EmployeeController {
             @ApiResponse(responseCode = "404", description = "Employee to be deleted not found",
                     content = @Content)
     })
+    @Bulkhead("write")
     @DeleteMapping("/employees/{employeeId}")
     public ResponseEntity<Object> deleteEmployee(@PathVariable String employeeId) throws Exception{
         EmployeeDTO employee = employeeService.deleteEmployee(Long.parseLong(employeeId));
@@ -143,4 +269,158 @@ public class EmployeeController {
         LOGGER.info("DELETE Request is successful for employee with id : "+employeeId);
         return new ResponseEntity<>(employee, HttpStatus.OK);
     }
+
+    /**
+     * API to move many employees to a department at once: those with the given ids, or all the
+     * employees of another department
+     *
+     * @param deptId Department id of the department the employees move to
+     * @param transfer employee ids, or the department id to move them from
+     * @return BulkUpdateResultDTO with the counts of matched and moved employees
+     * @throws Exception when the department does not exist or the request names no employees
+     */
+    @Operation(summary = "Transfer Employees", description = "Move the given employees, or all employees of a department, "
+            + "to the department", tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employees moved",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkUpdateResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "No employees or too many named",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Department not found",
+                    content = @Content)
+    })
+    @Bulkhead("bulk")
+    @PostMapping("/departments/{deptId}/employees/transfer")
+    public ResponseEntity<Object> transferEmployees(@PathVariable String deptId, @RequestBody BulkTransferDTO transfer) throws Exception{
+        BulkUpdateResultDTO result = employeeBulkService.transferEmployees(Long.parseLong(deptId), transfer);
+
+        LOGGER.info("Transfer request is successful, moved " + result.getUpdated() + " employees to department " + deptId);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * API to change the designation of every employee matching the filters at once
+     *
+     * @param update the new designation, and the employee ids, current designations, departments,
+     *               states or cities to match
+     * @return BulkUpdateResultDTO with the counts of matched and changed employees
+     * @throws Exception when no filter is given or too many employees match
+     */
+    @Operation(summary = "Update Designations", description = "Set the designation of the employees matching the filters",
+            tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Designations updated",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkUpdateResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "No filter given or too many employees match",
+                    content = @Content)
+    })
+    @Bulkhead("bulk")
+    @PostMapping("/employees/designation")
+    public ResponseEntity<Object> updateDesignation(@Valid @RequestBody BulkDesignationDTO update) throws Exception{
+        BulkUpdateResultDTO result = employeeBulkService.updateDesignation(update);
+
+        LOGGER.info("Designation update request is successful, changed " + result.getUpdated() + " employees");
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * API to import employees from a CSV file sent as the request body. The body is spooled to a
+     * temporary file, which is then read memory-mapped.
+     *
+     * @param request request carrying the CSV body
+     * @return ImportResultDTO with the counts of imported and rejected rows
+     * @throws Exception when the file lacks required columns
+     */
+    @Operation(summary = "Import Employees", description = "Import employees from a CSV file with a header row of "
+            + "employeeName, employeeDesignation, phoneNumber, address, city, state, pincode and deptId or deptName",
+            tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed, rejected rows are listed in the error file",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "File without the required columns",
+                    content = @Content)
+    })
+    @Bulkhead("bulk")
+    @PostMapping(value = "/employees/import", consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<Object> importEmployees(HttpServletRequest request) throws Exception{
+        Path csv = Files.createTempFile("employee-import-", ".csv");
+        try {
+            try (InputStream body = request.getInputStream()) {
+                Files.copy(body, csv, StandardCopyOption.REPLACE_EXISTING);
+            }
+            ImportResultDTO result = employeeImportService.importEmployees(csv, ImportProgressListener.NONE);
+
+            LOGGER.info("Import request is successful, imported " + result.getImported() + " employees");
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    /**
+     * API to stream the directory of active employees, with address and department, as a file
+     *
+     * @param format csv or columnar
+     * @param response response the file is written to
+     * @throws Exception when the format does not exist
+     */
+    @Operation(summary = "Export Employees", description = "Stream all active employees as CSV or as a compressed columnar file",
+            tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export file",
+                    content = {@Content(mediaType = "text/csv"),
+                            @Content(mediaType = "application/vnd.employee.columnar")}),
+            @ApiResponse(responseCode = "400", description = "Unknown format",
+                    content = @Content)
+    })
+    @Bulkhead("bulk")
+    @GetMapping("/employees/export")
+    public void exportEmployees(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws Exception{
+        ExportFormat exportFormat = exportFormat(format);
+        response.setContentType(exportFormat.getMediaType());
+        if (exportFormat == ExportFormat.CSV) {
+            response.setCharacterEncoding("UTF-8");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"employees." + exportFormat.getExtension() + "\"");
+        ExportResultDTO result = employeeExportService.exportEmployees(exportFormat, response.getOutputStream());
+
+        LOGGER.info("Export request is successful, streamed " + result.getRows() + " employees");
+    }
+
+    /**
+     * API to write the directory of active employees to a file in the server's export directory
+     *
+     * @param format csv or columnar
+     * @return ExportResultDTO with the path of the written file
+     * @throws Exception when the format does not exist
+     */
+    @Operation(summary = "Export Employees to a file", description = "Write all active employees to a file in the export directory",
+            tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "File written",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ExportResultDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Unknown format",
+                    content = @Content)
+    })
+    @Bulkhead("bulk")
+    @PostMapping("/employees/export")
+    public ResponseEntity<Object> exportEmployeesToFile(@RequestParam(defaultValue = "csv") String format) throws Exception{
+        ExportResultDTO result = employeeExportService.exportEmployees(exportFormat(format));
+
+        LOGGER.info("Export request is successful, wrote " + result.getRows() + " employees to " + result.getFile());
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    private ExportFormat exportFormat(String format) throws UnsupportedExportFormatException {
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (exportFormat == null) {
+            LOGGER.error("Unsupported export format : " + format);
+            throw new UnsupportedExportFormatException("Unsupported export format : " + format);
+        }
+        return exportFormat;
+    }
 }
@@ -0,0 +1,210 @@
+package com.example.employee.controller;
+
+import com.example.employee.config.Bulkhead;
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.JobDTO;
+import com.example.employee.exception.UnsupportedExportFormatException;
+import com.example.employee.export.ExportFormat;
+import com.example.employee.services.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Bulk operations run as background jobs: a submission is answered with a 202 and the job's
+ * location, which reports its progress and, once it succeeded, the result the synchronous API
+ * would have answered.
+ */
+@RestController
+public class JobController {
+    Logger LOGGER = LoggerFactory.getLogger(JobController.class);
+
+    @Autowired
+    JobService jobService;
+
+    /**
+     * API to import employees from a CSV file in the background
+     *
+     * @param request request carrying the CSV body, see {@code POST /employees/import}
+     * @return JobDTO of the queued job
+     * @throws Exception when the file cannot be stored
+     */
+    @Operation(summary = "Import Employees in the background", description = "Queue an import of employees from a CSV file",
+            tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))})
+    })
+    @Bulkhead("bulk")
+    @PostMapping(value = "/jobs/import", consumes = {"text/csv", "application/octet-stream"})
+    public ResponseEntity<Object> submitImport(HttpServletRequest request) throws Exception{
+        JobDTO job;
+        try (InputStream body = request.getInputStream()) {
+            job = jobService.submitImport(body);
+        }
+        return accepted(job);
+    }
+
+    /**
+     * API to export all active employees to a file in the background
+     *
+     * @param format csv or columnar
+     * @return JobDTO of the queued job
+     * @throws Exception when the format does not exist
+     */
+    @Operation(summary = "Export Employees in the background", description = "Queue an export of all active employees to a file",
+            tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Unknown format",
+                    content = @Content)
+    })
+    @Bulkhead("write")
+    @PostMapping("/jobs/export")
+    public ResponseEntity<Object> submitExport(@RequestParam(defaultValue = "csv") String format) throws Exception{
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (exportFormat == null) {
+            LOGGER.error("Unsupported export format : " + format);
+            throw new UnsupportedExportFormatException("Unsupported export format : " + format);
+        }
+        return accepted(jobService.submitExport(exportFormat));
+    }
+
+    /**
+     * API to move employees to a department in the background
+     *
+     * @param deptId Department id of the department the employees move to
+     * @param transfer employee ids, or the department id to move them from
+     * @return JobDTO of the queued job
+     * @throws Exception when the job cannot be stored
+     */
+    @Operation(summary = "Transfer Employees in the background", description = "Queue a move of the given employees, "
+            + "or all employees of a department, to the department", tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))})
+    })
+    @Bulkhead("write")
+    @PostMapping("/jobs/departments/{deptId}/transfer")
+    public ResponseEntity<Object> submitTransfer(@PathVariable String deptId, @RequestBody BulkTransferDTO transfer) throws Exception{
+        return accepted(jobService.submitTransfer(Long.parseLong(deptId), transfer));
+    }
+
+    /**
+     * API to change designations in the background
+     *
+     * @param update the new designation and the filters, see {@code POST /employees/designation}
+     * @return JobDTO of the queued job
+     * @throws Exception when the job cannot be stored
+     */
+    @Operation(summary = "Update Designations in the background", description = "Queue an update of the designation "
+            + "of the employees matching the filters", tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job queued",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Missing designation",
+                    content = @Content)
+    })
+    @Bulkhead("write")
+    @PostMapping("/jobs/designation")
+    public ResponseEntity<Object> submitDesignation(@Valid @RequestBody BulkDesignationDTO update) throws Exception{
+        return accepted(jobService.submitDesignation(update));
+    }
+
+    /**
+     * API to fetch the jobs, newest first
+     *
+     * @param type job type to list: import, export, transfer or designation
+     * @param status job status to list
+     * @param limit maximum number of jobs
+     * @return List<JobDTO>
+     * @throws Exception when the status is unknown or the limit out of range
+     */
+    @Operation(summary = "Get Jobs", description = "Get the jobs, newest first", tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Jobs Found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Unknown status or limit out of range",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/jobs")
+    public ResponseEntity<Object> getJobs(@RequestParam(required = false) String type, @RequestParam(required = false) String status,
+                                          @RequestParam(defaultValue = "${app.jobs.default-limit:100}") int limit) throws Exception{
+        List<JobDTO> jobs = jobService.getJobs(type, status, limit);
+        return new ResponseEntity<>(jobs, HttpStatus.OK);
+    }
+
+    /**
+     * API to fetch a job with its progress and result
+     *
+     * @param jobId Job id of the job
+     * @return JobDTO
+     * @throws Exception when there is no such job
+     */
+    @Operation(summary = "Get Job", description = "Get the progress, throughput and result of a job", tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job Found",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Job not found",
+                    content = @Content)
+    })
+    @Bulkhead("read")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<Object> getJob(@PathVariable String jobId) throws Exception{
+        return new ResponseEntity<>(jobService.getJob(Long.parseLong(jobId)), HttpStatus.OK);
+    }
+
+    /**
+     * API to cancel a job: a queued job straight away, a running one at its next checkpoint
+     *
+     * @param jobId Job id of the job
+     * @return JobDTO
+     * @throws Exception when there is no such job
+     */
+    @Operation(summary = "Cancel Job", description = "Cancel a queued or running job", tags = "Jobs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job cancelled, or cancellation requested",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = JobDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Job not found",
+                    content = @Content)
+    })
+    @Bulkhead("write")
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<Object> cancelJob(@PathVariable String jobId) throws Exception{
+        JobDTO job = jobService.cancelJob(Long.parseLong(jobId));
+
+        LOGGER.info("Cancel request for job " + jobId + " is successful, job is " + job.getStatus());
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    private ResponseEntity<Object> accepted(JobDTO job) {
+        LOGGER.info("Job " + job.getJobId() + " of type " + job.getType() + " is queued");
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/jobs/{jobId}").buildAndExpand(job.getJobId()).toUri())
+                .body(job);
+    }
+}
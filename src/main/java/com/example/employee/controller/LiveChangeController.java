@@ -0,0 +1,54 @@
+package com.example.employee.controller;
+
+import com.example.employee.live.LiveChangeHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@ConditionalOnProperty(name = {"app.outbox.enabled", "app.live.enabled"}, havingValue = "true", matchIfMissing = true)
+public class LiveChangeController {
+    Logger LOGGER = LoggerFactory.getLogger(LiveChangeController.class);
+
+    @Autowired
+    LiveChangeHub liveChangeHub;
+
+    /**
+     * API to receive the employee and department changes as Server-Sent Events while they commit.
+     * Each change is an {@code employee} or {@code department} event with a ChangeDTO as data; a
+     * {@code resync} event means changes were dropped and the client should reload its view.
+     *
+     * An employee moved out of a followed department is sent with {@code movedFrom} set.
+     *
+     * @param department ids of the departments to follow, all departments when absent
+     * @throws Exception Throws exception when too many clients are connected
+     */
+    @Operation(summary = "Stream changes", description = "Receive employee and department changes as Server-Sent Events", tags = "Employees")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of changes",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers",
+                    content = @Content)
+    })
+    @GetMapping("/changes/stream")
+    public void streamChanges(@RequestParam(required = false) List<Long> department,
+                              HttpServletRequest request, HttpServletResponse response) throws Exception{
+        liveChangeHub.subscribe(department == null ? null : Set.copyOf(department), request, response);
+
+        LOGGER.info("GET Request for the change stream is successful");
+    }
+}
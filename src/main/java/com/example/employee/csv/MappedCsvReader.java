@@ -0,0 +1,183 @@
+package com.example.employee.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads an RFC 4180 style CSV file (UTF-8, comma separated, optional double quotes, LF or CRLF
+ * line ends) through a sliding memory-mapped window, so files larger than the heap are parsed
+ * without copying them into Java buffers first.
+ * <p>
+ * A row that runs past the end of the current window is re-read from a window mapped at its
+ * start; a single row longer than the window is rejected. A leading UTF-8 byte order mark is
+ * skipped.
+ */
+public final class MappedCsvReader implements Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final byte QUOTE = '"';
+    private static final byte COMMA = ',';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long rowNumber;
+    private byte[] field = new byte[256];
+
+    public MappedCsvReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedCsvReader(Path file, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        if (size >= 3) {
+            map(0);
+            if (window.get(0) == (byte) 0xEF && window.get(1) == (byte) 0xBB && window.get(2) == (byte) 0xBF) {
+                position = 3;
+            }
+        }
+    }
+
+    /**
+     * @return the fields of the next row, or null at the end of the file
+     */
+    public String[] next() throws IOException {
+        while (position < size) {
+            if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            List<String> fields = new ArrayList<>();
+            int end = parseRow(fields);
+            if (end >= 0) {
+                position = windowStart + end;
+                rowNumber++;
+                if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                    // Blank line.
+                    continue;
+                }
+                return fields.toArray(new String[0]);
+            }
+            if (windowStart == position) {
+                throw new IOException("Row " + (rowNumber + 1) + " is longer than the read window of " + windowSize + " bytes");
+            }
+            map(position);
+        }
+        return null;
+    }
+
+    /**
+     * @return the 1-based number of the row last returned by {@link #next()}, counting the header
+     * and blank lines
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * @return how many bytes of the file have been consumed, for progress reporting
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+
+    /**
+     * Parses the row starting at {@link #position} into fields.
+     *
+     * @return the window offset just past the row's line end, or -1 when the row continues past
+     * the end of the window and the window does not reach the end of the file
+     */
+    private int parseRow(List<String> fields) throws IOException {
+        int limit = window.limit();
+        boolean lastWindow = windowStart + limit >= size;
+        int i = (int) (position - windowStart);
+        int length = 0;
+        boolean quoted = false;
+        boolean fieldStart = true;
+        while (i < limit) {
+            byte b = window.get(i++);
+            if (quoted) {
+                if (b == QUOTE) {
+                    if (i < limit && window.get(i) == QUOTE) {
+                        append(b, length++);
+                        i++;
+                    } else if (i == limit && !lastWindow) {
+                        return -1;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append(b, length++);
+                }
+            } else if (b == QUOTE && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (b == COMMA) {
+                fields.add(new String(field, 0, length, StandardCharsets.UTF_8));
+                length = 0;
+                fieldStart = true;
+            } else if (b == LF) {
+                fields.add(new String(field, 0, length, StandardCharsets.UTF_8));
+                return i;
+            } else if (b == CR) {
+                if (i == limit && !lastWindow) {
+                    return -1;
+                }
+                if (i < limit && window.get(i) == LF) {
+                    i++;
+                }
+                fields.add(new String(field, 0, length, StandardCharsets.UTF_8));
+                return i;
+            } else {
+                append(b, length++);
+                fieldStart = false;
+            }
+        }
+        if (!lastWindow) {
+            return -1;
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in row " + (rowNumber + 1));
+        }
+        fields.add(new String(field, 0, length, StandardCharsets.UTF_8));
+        return i;
+    }
+
+    private void append(byte b, int at) {
+        if (at == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[at] = b;
+    }
+}
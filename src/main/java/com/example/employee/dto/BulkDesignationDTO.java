@@ -0,0 +1,31 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import java.util.List;
+
+/**
+ * New designation for the employees matching every given filter; at least one filter is required.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDesignationDTO {
+
+    @NotBlank(message = "Designation should not be empty.")
+    private String designation;
+    private List<Long> employeeIds;
+    /**
+     * Current designations to match, any of them.
+     */
+    private List<String> fromDesignation;
+    private List<Long> department;
+    private List<String> state;
+    private List<String> city;
+
+}
@@ -0,0 +1,22 @@
+package com.example.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Employees to move to another department: either the given ids or every employee of a department.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferDTO {
+
+    private List<Long> employeeIds;
+    private Long fromDeptId;
+
+}
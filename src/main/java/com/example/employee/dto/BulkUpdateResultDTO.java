@@ -0,0 +1,33 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"matched", "updated", "missingIds"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResultDTO {
+
+    /**
+     * Employees matching the request.
+     */
+    private long matched;
+    /**
+     * Matching employees that were changed, the others already had the requested value.
+     */
+    private long updated;
+    /**
+     * Requested ids with no employee, in request order; null when no ids were requested.
+     */
+    private List<Long> missingIds;
+
+}
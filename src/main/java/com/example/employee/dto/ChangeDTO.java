@@ -0,0 +1,42 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@JsonPropertyOrder({"changeType", "id", "changedOn", "movedFrom", "record"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO<T> {
+
+    /**
+     * CREATED, UPDATED or DELETED.
+     */
+    private String changeType;
+    /**
+     * Id of the changed employee or department.
+     */
+    private Long id;
+    private Instant changedOn;
+    /**
+     * Department an employee left with this change, absent when it stayed in its department.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long movedFrom;
+    /**
+     * The employee or department as of the change, also for a delete.
+     */
+    private T record;
+
+    public ChangeDTO(String changeType, Long id, Instant changedOn, T record) {
+        this(changeType, id, changedOn, null, record);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@JsonPropertyOrder({"changes", "next", "more"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO<T> {
+
+    /**
+     * Changes after the requested token, each entity's changes in the order they were made.
+     */
+    private List<ChangeDTO<T>> changes;
+    /**
+     * Token to ask for the changes after these with the next sync.
+     */
+    private String next;
+    /**
+     * Whether more changes are ready, so the next sync should follow right away.
+     */
+    private boolean more;
+
+}
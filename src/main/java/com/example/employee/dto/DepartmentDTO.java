@@ -1,6 +1,7 @@
 package com.example.employee.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import javax.persistence.Column;
 import javax.validation.constraints.NotBlank;
 import java.sql.Timestamp;
 
+@JsonPropertyOrder({"deptId", "deptName", "deptDescription", "createdBy", "updatedBy", "createdOn", "updatedOn"})
 @Setter
 @Getter
 @NoArgsConstructor
@@ -0,0 +1,37 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"count", "distinct", "groups", "employeeIds"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeAnalyticsDTO {
+
+    /**
+     * Number of active employees matching the filter.
+     */
+    private long count;
+    /**
+     * Number of distinct values of the grouped dimension among them, null when not grouped.
+     */
+    private Integer distinct;
+    /**
+     * Matching employees per value of the grouped dimension, largest first, null when not grouped.
+     */
+    private List<HeadcountDTO> groups;
+    /**
+     * Ids of the first matching employees, null when not asked for.
+     */
+    private List<Long> employeeIds;
+
+}
@@ -1,5 +1,6 @@
 package com.example.employee.dto;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,7 @@ import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 
+@JsonPropertyOrder({"employeeId", "employeeName", "employeeDesignation", "phoneNumber", "address", "city", "state", "pincode", "department"})
 @Getter
 @Setter
 @NoArgsConstructor
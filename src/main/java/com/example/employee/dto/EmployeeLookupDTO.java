@@ -0,0 +1,27 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@JsonPropertyOrder({"employees", "missingIds"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeLookupDTO {
+
+    /**
+     * The employees found, in the order their ids were requested.
+     */
+    private List<EmployeeDTO> employees;
+    /**
+     * Requested ids with no employee, in request order.
+     */
+    private List<Long> missingIds;
+
+}
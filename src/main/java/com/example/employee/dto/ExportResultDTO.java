@@ -0,0 +1,27 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"format", "rows", "bytes", "file", "elapsedMillis"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportResultDTO {
+
+    private String format;
+    private long rows;
+    private long bytes;
+    /**
+     * Server side path of the written file, null when the export was streamed.
+     */
+    private String file;
+    private long elapsedMillis;
+
+}
@@ -0,0 +1,72 @@
+package com.example.employee.dto;
+
+import com.example.employee.exception.InvalidFieldSelectionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The properties a client asked for with the {@code fields} parameter, in the order the full
+ * response lists them. Used to narrow both the query and the serialized response.
+ */
+public final class FieldSet {
+
+    public static final List<String> EMPLOYEE_FIELDS = List.of("employeeId", "employeeName", "employeeDesignation",
+            "phoneNumber", "address", "city", "state", "pincode", "department");
+    public static final List<String> DEPARTMENT_FIELDS = List.of("deptId", "deptName", "deptDescription",
+            "createdBy", "updatedBy", "createdOn", "updatedOn");
+
+    private final List<String> names;
+
+    private FieldSet(List<String> names) {
+        this.names = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Parses a comma separated list of property names.
+     * @param fields value of the fields parameter, may be null
+     * @param available properties of the resource, in response order
+     * @return FieldSet Returns the requested properties, or null when all of them are wanted
+     * @throws InvalidFieldSelectionException when a name is not a property of the resource
+     */
+    public static FieldSet parse(String fields, List<String> available) throws InvalidFieldSelectionException {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        List<String> unknown = requested.stream()
+                .filter(name -> !available.contains(name))
+                .sorted()
+                .collect(Collectors.toList());
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldSelectionException("Unknown fields " + unknown + ", expected any of " + available);
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : available) {
+            if (requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names.isEmpty() ? null : new FieldSet(names);
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@JsonPropertyOrder({"value", "headcount"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadcountDTO {
+
+    /**
+     * Value of the dimension, such as a state name or a department id; empty when not set.
+     */
+    private String value;
+    /**
+     * Number of active employees with that value.
+     */
+    private long headcount;
+
+}
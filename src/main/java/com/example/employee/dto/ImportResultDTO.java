@@ -0,0 +1,28 @@
+package com.example.employee.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"rowsRead", "imported", "rejected", "errorFile", "elapsedMillis"})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    /**
+     * Server side path of the CSV listing the rejected rows with their reason, null when every
+     * row was imported.
+     */
+    private String errorFile;
+    private long elapsedMillis;
+
+}
@@ -0,0 +1,50 @@
+package com.example.employee.dto;
+
+import com.example.employee.models.JobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"jobId", "type", "status", "itemsDone", "itemsTotal", "itemsPerSecond", "cancelRequested", "attempts",
+        "createdOn", "startedOn", "finishedOn", "error", "result"})
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobDTO {
+
+    private Long jobId;
+    /**
+     * import, export, transfer or designation.
+     */
+    private String type;
+    private JobStatus status;
+    private long itemsDone;
+    /**
+     * Items the job will process, an estimate while an import runs; null when not known.
+     */
+    private Long itemsTotal;
+    /**
+     * Average throughput since the job first started, null until it started.
+     */
+    private Double itemsPerSecond;
+    private boolean cancelRequested;
+    /**
+     * Times the job was started, more than one when it was resumed after a restart.
+     */
+    private int attempts;
+    private Instant createdOn;
+    private Instant startedOn;
+    private Instant finishedOn;
+    private String error;
+    /**
+     * Result of a succeeded job, as the corresponding synchronous API answers.
+     */
+    private JsonNode result;
+
+}
@@ -0,0 +1,7 @@
+package com.example.employee.events;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,44 @@
+package com.example.employee.events;
+
+import com.example.employee.dto.DepartmentDTO;
+
+/**
+ * Published by the department service after a department was created, updated or deleted,
+ * within the transaction of the change. Carries the department as of the change when available.
+ */
+public class DepartmentChangedEvent {
+
+    private final ChangeType changeType;
+    private final Long deptId;
+    private final DepartmentDTO department;
+
+    public DepartmentChangedEvent(ChangeType changeType, Long deptId) {
+        this(changeType, deptId, null);
+    }
+
+    public DepartmentChangedEvent(ChangeType changeType, Long deptId, DepartmentDTO department) {
+        this.changeType = changeType;
+        this.deptId = deptId;
+        this.department = department;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getDeptId() {
+        return deptId;
+    }
+
+    public DepartmentDTO getDepartment() {
+        return department;
+    }
+
+    @Override
+    public String toString() {
+        return "DepartmentChangedEvent{" +
+                "changeType=" + changeType +
+                ", deptId=" + deptId +
+                '}';
+    }
+}
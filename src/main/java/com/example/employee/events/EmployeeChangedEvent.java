@@ -0,0 +1,65 @@
+package com.example.employee.events;
+
+import com.example.employee.dto.EmployeeDTO;
+
+/**
+ * Published by the employee service after an employee was created, updated or deleted, within
+ * the transaction of the change. Carries the employee as of the change when available.
+ */
+public class EmployeeChangedEvent {
+
+    private final ChangeType changeType;
+    private final Long employeeId;
+    private final Long deptId;
+    private final Long previousDeptId;
+    private final EmployeeDTO employee;
+
+    public EmployeeChangedEvent(ChangeType changeType, Long employeeId, Long deptId) {
+        this(changeType, employeeId, deptId, null);
+    }
+
+    public EmployeeChangedEvent(ChangeType changeType, Long employeeId, Long deptId, EmployeeDTO employee) {
+        this(changeType, employeeId, deptId, null, employee);
+    }
+
+    /**
+     * @param previousDeptId department the employee left with this change, null when it stayed in its department
+     */
+    public EmployeeChangedEvent(ChangeType changeType, Long employeeId, Long deptId, Long previousDeptId, EmployeeDTO employee) {
+        this.changeType = changeType;
+        this.employeeId = employeeId;
+        this.deptId = deptId;
+        this.previousDeptId = previousDeptId;
+        this.employee = employee;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public Long getDeptId() {
+        return deptId;
+    }
+
+    public Long getPreviousDeptId() {
+        return previousDeptId;
+    }
+
+    public EmployeeDTO getEmployee() {
+        return employee;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeChangedEvent{" +
+                "changeType=" + changeType +
+                ", employeeId=" + employeeId +
+                ", deptId=" + deptId +
+                ", previousDeptId=" + previousDeptId +
+                '}';
+    }
+}
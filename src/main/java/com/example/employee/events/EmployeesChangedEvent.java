@@ -0,0 +1,28 @@
+package com.example.employee.events;
+
+import java.util.List;
+
+/**
+ * Published instead of one {@link EmployeeChangedEvent} per employee when many employees change in
+ * one transaction, such as a bulk update, a group commit or an import batch, so the listeners can
+ * handle them together.
+ */
+public class EmployeesChangedEvent {
+
+    private final List<EmployeeChangedEvent> changes;
+
+    public EmployeesChangedEvent(List<EmployeeChangedEvent> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    public List<EmployeeChangedEvent> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeesChangedEvent{" +
+                "changes=" + changes.size() +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a change feed token is older than the retained changes, so the client must download
+ * everything again; answered with a 410.
+ */
+public class ChangeTokenExpiredException extends Exception{
+
+    private String message;
+
+    public ChangeTokenExpiredException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.employee.exception;
 
+/**
+ * Thrown when a department id does not resolve to an active department; answered with a 404.
+ * Like {@link EmployeeNotFoundException} it carries no stack trace.
+ */
 public class DepartmentNotFoundException extends Exception{
 
     private String message;
 
     public DepartmentNotFoundException(String message) {
+        super(message, null, false, false);
         this.message = message;
     }
 
@@ -1,10 +1,15 @@
 package com.example.employee.exception;
 
+/**
+ * Thrown when an employee id does not resolve to an active employee; answered with a 404.
+ * Built without a stack trace, since crawlers probing unknown ids make this a hot path.
+ */
 public class EmployeeNotFoundException extends Exception{
 
     private String message;
 
     public EmployeeNotFoundException(String message) {
+        super(message, null, false, false);
         this.message = message;
     }
 
@@ -1,12 +1,14 @@
 package com.example.employee.exception;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"timeStamp", "message", "fieldErrors"})
 public class ErrorResponse {
 
     private LocalDateTime timeStamp;
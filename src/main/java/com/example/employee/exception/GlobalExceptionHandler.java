@@ -17,7 +17,7 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler({EmployeeNotFoundException.class, DepartmentNotFoundException.class})
+    @ExceptionHandler({EmployeeNotFoundException.class, DepartmentNotFoundException.class, JobNotFoundException.class})
     public ResponseEntity<Object> handleNotFoundException(Exception ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), null);
         return handleExceptionInternal(ex, errorResponse, null, HttpStatus.NOT_FOUND, request);
@@ -29,6 +29,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, errorResponse, null, HttpStatus.NOT_FOUND, request);
     }
 
+    @ExceptionHandler({InvalidImportFileException.class, UnsupportedExportFormatException.class, InvalidLookupRequestException.class,
+            InvalidPageRequestException.class, InvalidFieldSelectionException.class, UnsupportedDimensionException.class,
+            InvalidChangeTokenException.class, InvalidBulkUpdateException.class, InvalidJobRequestException.class})
+    public ResponseEntity<Object> handleBadRequestException(Exception ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), null);
+        return handleExceptionInternal(ex, errorResponse, null, HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<Object> handleGoneException(Exception ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), null);
+        return handleExceptionInternal(ex, errorResponse, null, HttpStatus.GONE, request);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), null);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return handleExceptionInternal(ex, errorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
         BindingResult result = ex.getBindingResult();
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a bulk update names no employees, or matches more than allowed; answered with a 400.
+ */
+public class InvalidBulkUpdateException extends Exception{
+
+    private String message;
+
+    public InvalidBulkUpdateException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a change feed token cannot be read; answered with a 400.
+ */
+public class InvalidChangeTokenException extends Exception{
+
+    private String message;
+
+    public InvalidChangeTokenException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when the fields parameter names a property the resource does not have; answered with a 400.
+ */
+public class InvalidFieldSelectionException extends Exception{
+
+    private String message;
+
+    public InvalidFieldSelectionException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when an uploaded import file cannot be processed at all, e.g. a required column is
+ * missing from its header; answered with a 400.
+ */
+public class InvalidImportFileException extends Exception{
+
+    private String message;
+
+    public InvalidImportFileException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a job listing has an unknown status or a limit out of range; answered with a 400.
+ */
+public class InvalidJobRequestException extends Exception{
+
+    private String message;
+
+    public InvalidJobRequestException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
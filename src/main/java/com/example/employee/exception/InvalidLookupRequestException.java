@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a multi-get names no ids or more than allowed; answered with a 400.
+ */
+public class InvalidLookupRequestException extends Exception{
+
+    private String message;
+
+    public InvalidLookupRequestException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a page of a list is requested with a limit out of range; answered with a 400.
+ */
+public class InvalidPageRequestException extends Exception{
+
+    private String message;
+
+    public InvalidPageRequestException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when no job has the requested id; answered with a 404.
+ */
+public class JobNotFoundException extends Exception{
+
+    private String message;
+
+    public JobNotFoundException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
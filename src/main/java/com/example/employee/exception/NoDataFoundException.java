@@ -1,10 +1,14 @@
 package com.example.employee.exception;
 
+/**
+ * Thrown when a list endpoint has nothing to return; answered with a 404 and no stack trace.
+ */
 public class NoDataFoundException extends Exception{
 
     private String message;
 
     public NoDataFoundException(String message) {
+        super(message, null, false, false);
         this.message = message;
     }
 
@@ -0,0 +1,26 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when a request is refused because the server is saturated; answered with a 503 and a
+ * Retry-After header.
+ */
+public class ServiceOverloadedException extends Exception{
+
+    private String message;
+    private long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.message = message;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
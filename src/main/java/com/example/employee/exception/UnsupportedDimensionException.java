@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when headcount is requested by a dimension that is not summarized; answered with a 400.
+ */
+public class UnsupportedDimensionException extends Exception{
+
+    private String message;
+
+    public UnsupportedDimensionException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
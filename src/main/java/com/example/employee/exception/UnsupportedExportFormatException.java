@@ -0,0 +1,19 @@
+package com.example.employee.exception;
+
+/**
+ * Thrown when an export is requested in a format that does not exist; answered with a 400.
+ */
+public class UnsupportedExportFormatException extends Exception{
+
+    private String message;
+
+    public UnsupportedExportFormatException(String message) {
+        super(message, null, false, false);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.employee.export;
+
+import com.example.employee.export.ColumnarFileWriter.ColumnType;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link ColumnarFileWriter} row by row, decoding one row group at a time.
+ */
+public final class ColumnarFileReader {
+
+    private final DataInputStream in;
+    private final List<String> names = new ArrayList<>();
+    private final List<ColumnType> types = new ArrayList<>();
+    private final Inflater inflater = new Inflater();
+
+    private Object[][] columns;
+    private int rows;
+    private int next;
+    private boolean finished;
+
+    public ColumnarFileReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[ColumnarFileWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, ColumnarFileWriter.MAGIC)) {
+            throw new IOException("Not a columnar export file");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != ColumnarFileWriter.VERSION) {
+            throw new IOException("Unsupported columnar export version : " + version);
+        }
+        int columnCount = (int) readVarint(this.in);
+        for (int column = 0; column < columnCount; column++) {
+            types.add(ColumnType.values()[this.in.readUnsignedByte()]);
+            names.add(readString(this.in));
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @return the next row, with {@link Long} and {@link String} values, or null after the last row
+     */
+    public Object[] next() throws IOException {
+        if (next == rows) {
+            if (finished || !readRowGroup()) {
+                return null;
+            }
+        }
+        Object[] row = new Object[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            row[column] = columns[column][next];
+        }
+        next++;
+        return row;
+    }
+
+    private boolean readRowGroup() throws IOException {
+        rows = (int) readVarint(in);
+        next = 0;
+        if (rows == 0) {
+            finished = true;
+            inflater.end();
+            return false;
+        }
+        columns = new Object[types.size()][];
+        for (int column = 0; column < types.size(); column++) {
+            int rawLength = (int) readVarint(in);
+            byte[] compressed = new byte[(int) readVarint(in)];
+            in.readFully(compressed);
+            columns[column] = decode(column, inflate(compressed, rawLength));
+        }
+        return true;
+    }
+
+    private Object[] decode(int column, byte[] chunk) throws IOException {
+        Cursor cursor = new Cursor(chunk);
+        int encoding = cursor.readByte();
+        boolean[] present = new boolean[rows];
+        for (int start = 0; start < rows; start += 8) {
+            int bits = cursor.readByte();
+            for (int bit = 0; bit < 8 && start + bit < rows; bit++) {
+                present[start + bit] = (bits & (1 << bit)) != 0;
+            }
+        }
+
+        Object[] values = new Object[rows];
+        if (encoding == ColumnarFileWriter.ENCODING_DELTA) {
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                if (present[row]) {
+                    long zigzag = cursor.readVarint();
+                    previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                    values[row] = previous;
+                }
+            }
+        } else if (encoding == ColumnarFileWriter.ENCODING_PLAIN) {
+            for (int row = 0; row < rows; row++) {
+                if (present[row]) {
+                    values[row] = cursor.readString();
+                }
+            }
+        } else if (encoding == ColumnarFileWriter.ENCODING_DICTIONARY) {
+            String[] dictionary = new String[(int) cursor.readVarint()];
+            for (int entry = 0; entry < dictionary.length; entry++) {
+                dictionary[entry] = cursor.readString();
+            }
+            for (int row = 0; row < rows; row++) {
+                if (present[row]) {
+                    values[row] = dictionary[(int) cursor.readVarint()];
+                }
+            }
+        } else {
+            throw new IOException("Unknown encoding " + encoding + " in column " + names.get(column));
+        }
+        return values;
+    }
+
+    private byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                length += inflater.inflate(raw, length, rawLength - length);
+            }
+            if (length != rawLength) {
+                throw new IOException("Truncated column chunk");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column chunk", e);
+        }
+        return raw;
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Cursor {
+        private final byte[] bytes;
+        private int position;
+
+        Cursor(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
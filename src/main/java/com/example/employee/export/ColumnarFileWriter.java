@@ -0,0 +1,248 @@
+package com.example.employee.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes rows into a compact, compressed columnar file that can be produced in one pass over a
+ * stream, e.g. an HTTP response.
+ * <p>
+ * Layout, with all integers as unsigned LEB128 varints unless noted:
+ * <pre>
+ * file       := "ECOL" version:byte columnCount { type:byte nameLength nameUtf8 } rowGroup* 0
+ * rowGroup   := rowCount { rawLength deflatedLength deflate(chunk) }   one chunk per column
+ * chunk      := encoding:byte presence values
+ * presence   := ceil(rowCount / 8) bytes, bit i (LSB first) set when row i is not null
+ * values     := the non-null values only:
+ *   LONG   DELTA      zigzag varint of the difference to the previous value (first to 0)
+ *   STRING PLAIN      { length utf8 }
+ *   STRING DICTIONARY dictionarySize { length utf8 } { code }
+ * </pre>
+ * Rows are buffered per row group, so memory use is bounded by the row group size rather than
+ * the number of rows. String columns use a per row group dictionary when it has at most half as
+ * many entries as values. {@link ColumnarFileReader} reads the format back.
+ */
+public final class ColumnarFileWriter {
+
+    static final byte[] MAGIC = {'E', 'C', 'O', 'L'};
+    static final int VERSION = 1;
+    static final int ENCODING_DELTA = 0;
+    static final int ENCODING_PLAIN = 1;
+    static final int ENCODING_DICTIONARY = 2;
+
+    public enum ColumnType {
+        LONG, STRING
+    }
+
+    private final OutputStream out;
+    private final ColumnType[] types;
+    private final int rowGroupSize;
+    private final long[][] longs;
+    private final String[][] strings;
+    private final boolean[][] present;
+    private final Buffer chunk = new Buffer();
+    private final Buffer deflated = new Buffer();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+    private int rows;
+
+    public ColumnarFileWriter(OutputStream out, List<String> names, List<ColumnType> types, int rowGroupSize) throws IOException {
+        this.out = out;
+        this.types = types.toArray(new ColumnType[0]);
+        this.rowGroupSize = rowGroupSize;
+        this.longs = new long[this.types.length][];
+        this.strings = new String[this.types.length][];
+        this.present = new boolean[this.types.length][rowGroupSize];
+        for (int column = 0; column < this.types.length; column++) {
+            if (this.types[column] == ColumnType.LONG) {
+                longs[column] = new long[rowGroupSize];
+            } else {
+                strings[column] = new String[rowGroupSize];
+            }
+        }
+
+        Buffer header = new Buffer();
+        header.write(MAGIC);
+        header.write(VERSION);
+        writeVarint(header, names.size());
+        for (int column = 0; column < names.size(); column++) {
+            header.write(this.types[column].ordinal());
+            writeString(header, names.get(column));
+        }
+        header.writeTo(out);
+    }
+
+    /**
+     * Adds a row; values are {@link Long} for LONG columns and {@link String} for STRING columns,
+     * either may be null.
+     */
+    public void writeRow(Object[] values) throws IOException {
+        for (int column = 0; column < types.length; column++) {
+            Object value = values[column];
+            present[column][rows] = value != null;
+            if (types[column] == ColumnType.LONG) {
+                longs[column][rows] = value == null ? 0 : ((Number) value).longValue();
+            } else {
+                strings[column][rows] = value == null ? null : value.toString();
+            }
+        }
+        if (++rows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    /**
+     * Writes the buffered rows and the end marker. The underlying stream is flushed, not closed.
+     */
+    public void finish() throws IOException {
+        if (rows > 0) {
+            writeRowGroup();
+        }
+        out.write(0);
+        out.flush();
+        deflater.end();
+    }
+
+    private void writeRowGroup() throws IOException {
+        Buffer group = new Buffer();
+        writeVarint(group, rows);
+        group.writeTo(out);
+        for (int column = 0; column < types.length; column++) {
+            chunk.reset();
+            if (types[column] == ColumnType.LONG) {
+                encodeLongs(column);
+            } else {
+                encodeStrings(column);
+            }
+            deflate();
+            group.reset();
+            writeVarint(group, chunk.size());
+            writeVarint(group, deflated.size());
+            group.writeTo(out);
+            deflated.writeTo(out);
+        }
+        for (int column = 0; column < types.length; column++) {
+            if (strings[column] != null) {
+                Arrays.fill(strings[column], 0, rows, null);
+            }
+        }
+        rows = 0;
+    }
+
+    private void encodeLongs(int column) {
+        chunk.write(ENCODING_DELTA);
+        writePresence(column);
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            if (present[column][row]) {
+                long value = longs[column][row];
+                long delta = value - previous;
+                writeVarint(chunk, (delta << 1) ^ (delta >> 63));
+                previous = value;
+            }
+        }
+    }
+
+    private void encodeStrings(int column) {
+        String[] values = strings[column];
+        int presentCount = 0;
+        for (int row = 0; row < rows; row++) {
+            if (present[column][row]) {
+                presentCount++;
+            }
+        }
+        Map<String, Integer> dictionary = new HashMap<>();
+        int maxEntries = presentCount / 2;
+        for (int row = 0; row < rows && dictionary.size() <= maxEntries; row++) {
+            if (present[column][row]) {
+                dictionary.putIfAbsent(values[row], dictionary.size());
+            }
+        }
+
+        if (presentCount > 0 && dictionary.size() <= maxEntries) {
+            chunk.write(ENCODING_DICTIONARY);
+            writePresence(column);
+            String[] entries = new String[dictionary.size()];
+            dictionary.forEach((value, code) -> entries[code] = value);
+            writeVarint(chunk, entries.length);
+            for (String entry : entries) {
+                writeString(chunk, entry);
+            }
+            for (int row = 0; row < rows; row++) {
+                if (present[column][row]) {
+                    writeVarint(chunk, dictionary.get(values[row]));
+                }
+            }
+        } else {
+            chunk.write(ENCODING_PLAIN);
+            writePresence(column);
+            for (int row = 0; row < rows; row++) {
+                if (present[column][row]) {
+                    writeString(chunk, values[row]);
+                }
+            }
+        }
+    }
+
+    private void writePresence(int column) {
+        for (int start = 0; start < rows; start += 8) {
+            int bits = 0;
+            for (int bit = 0; bit < 8 && start + bit < rows; bit++) {
+                if (present[column][start + bit]) {
+                    bits |= 1 << bit;
+                }
+            }
+            chunk.write(bits);
+        }
+    }
+
+    private void deflate() {
+        deflated.reset();
+        deflater.reset();
+        deflater.setInput(chunk.array(), 0, chunk.size());
+        deflater.finish();
+        while (!deflater.finished()) {
+            int length = deflater.deflate(deflateBuffer);
+            deflated.write(deflateBuffer, 0, length);
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Byte buffer that exposes its backing array, to deflate without copying.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(64 * 1024);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.employee.export;
+
+import java.util.Locale;
+
+/**
+ * File formats of the employee directory export.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    COLUMNAR("application/vnd.employee.columnar", "ecol");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return the format with this name, case-insensitively, or null when there is none
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
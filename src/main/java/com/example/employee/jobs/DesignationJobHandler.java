@@ -0,0 +1,32 @@
+package com.example.employee.jobs;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
+import com.example.employee.services.EmployeeBulkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Changes designations like {@code POST /employees/designation}. Setting a designation twice
+ * changes nothing, so a resumed update simply runs again.
+ */
+@Component
+public class DesignationJobHandler implements JobHandler {
+
+    public static final String TYPE = "designation";
+
+    @Autowired
+    private EmployeeBulkService employeeBulkService;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        BulkUpdateResultDTO result = employeeBulkService.updateDesignation(context.getParameters(BulkDesignationDTO.class));
+        context.progress(result.getMatched(), result.getMatched());
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employee.jobs;
+
+import com.example.employee.dto.ExportResultDTO;
+import com.example.employee.export.ExportFormat;
+import com.example.employee.services.EmployeeExportService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes an export file like {@code POST /employees/export}. An export is a single read of the
+ * employees, so a resumed export starts over with a new file.
+ */
+@Component
+public class ExportJobHandler implements JobHandler {
+
+    public static final String TYPE = "export";
+
+    @Autowired
+    private EmployeeExportService employeeExportService;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        ExportFormat format = ExportFormat.fromName(context.getParameters(Parameters.class).getFormat());
+        ExportResultDTO result = employeeExportService.exportEmployees(format);
+        context.progress(result.getRows(), result.getRows());
+        return result;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Parameters {
+        private String format;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.employee.jobs;
+
+import com.example.employee.dto.ImportResultDTO;
+import com.example.employee.services.EmployeeImportService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports an uploaded CSV file like {@code POST /employees/import}. The checkpoint follows each
+ * committed batch, so a resumed import skips the rows already read and only the batch in flight
+ * when an instance died may be imported twice. Rows rejected before a resume are listed in the
+ * error file of the earlier run. The CSV file is read from the {@link JobFileStore}, through a
+ * local copy made for each run.
+ */
+@Component
+public class ImportJobHandler implements JobHandler {
+
+    public static final String TYPE = "import";
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+    @Autowired
+    private JobFileStore jobFileStore;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        Checkpoint resumed = context.getCheckpoint(Checkpoint.class);
+        Checkpoint start = resumed == null ? new Checkpoint() : resumed;
+
+        Path file = jobFileStore.copyToTemp(context.getParameters(Parameters.class).getFile(), "employee-import-", ".csv");
+        ImportResultDTO result;
+        try {
+            result = importEmployees(context, file, start);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        result.setImported(start.getImported() + result.getImported());
+        result.setRejected(start.getRejected() + result.getRejected());
+        return result;
+    }
+
+    private ImportResultDTO importEmployees(JobContext context, Path file, Checkpoint start) throws Exception {
+        return employeeImportService.importEmployees(file, start.getRowsRead(),
+                (rowsRead, imported, rejected, bytesRead, totalBytes) -> {
+                    try {
+                        Long estimatedRows = bytesRead == 0 ? null : rowsRead * totalBytes / bytesRead;
+                        context.checkpoint(new Checkpoint(rowsRead, start.getImported() + imported, start.getRejected() + rejected),
+                                rowsRead, estimatedRows);
+                    } catch (JobStoppedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Could not record the import progress : " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    @Override
+    public void discard(JobContext context) throws Exception {
+        jobFileStore.delete(context.getParameters(Parameters.class).getFile());
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Parameters {
+        /**
+         * Id of the uploaded CSV file in the {@link JobFileStore}.
+         */
+        private String file;
+    }
+
+    /**
+     * Rows read, counting the header out, and the totals up to them.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Checkpoint {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+    }
+}
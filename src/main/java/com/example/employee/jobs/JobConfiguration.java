@@ -0,0 +1,16 @@
+package com.example.employee.jobs;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Background jobs for bulk operations too long for a request. A job is stored in the {@code job}
+ * table when it is submitted and answered with its id straight away; the {@link JobRunner} of any
+ * instance with {@code app.jobs.enabled} then claims and runs it with the {@link JobHandler} of
+ * its type, recording progress and checkpoints in the table so it can be followed, cancelled,
+ * and resumed after a restart.
+ */
+@Configuration
+@EnableConfigurationProperties(JobProperties.class)
+public class JobConfiguration {
+}
@@ -0,0 +1,82 @@
+package com.example.employee.jobs;
+
+import com.example.employee.models.Job;
+import com.example.employee.repository.JobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Timestamp;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A job as seen by its {@link JobHandler}: its parameters, where it got to in an earlier run,
+ * and the means to record its progress.
+ */
+public class JobContext {
+
+    private final Job job;
+    private final String owner;
+    private final JobRepository jobRepository;
+    private final ObjectMapper objectMapper;
+    private final BooleanSupplier stopping;
+
+    public JobContext(Job job, String owner, JobRepository jobRepository, ObjectMapper objectMapper, BooleanSupplier stopping) {
+        this.job = job;
+        this.owner = owner;
+        this.jobRepository = jobRepository;
+        this.objectMapper = objectMapper;
+        this.stopping = stopping;
+    }
+
+    public Long getJobId() {
+        return job.getId();
+    }
+
+    public <T> T getParameters(Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(job.getParameters(), type);
+    }
+
+    /**
+     * @return the last checkpoint recorded, null when the job starts from the beginning
+     */
+    public <T> T getCheckpoint(Class<T> type) throws JsonProcessingException {
+        return job.getCheckpoint() == null ? null : objectMapper.readValue(job.getCheckpoint(), type);
+    }
+
+    /**
+     * Records the progress of the job, keeping its checkpoint and without stopping it.
+     * @throws JobStoppedException when the job was taken over by another instance
+     */
+    public void progress(long itemsDone, Long itemsTotal) {
+        if (jobRepository.progress(job.getId(), owner, itemsDone, itemsTotal, new Timestamp(System.currentTimeMillis())) == 0) {
+            throw new JobStoppedException("Job " + job.getId() + " was taken over by another instance", JobStoppedException.Reason.LOST);
+        }
+        job.setItemsDone(itemsDone);
+        job.setItemsTotal(itemsTotal);
+    }
+
+    /**
+     * Records the progress of the job and where to resume it from. Call it only once the work up to
+     * the checkpoint is committed.
+     * @param checkpoint state the handler resumes from, null to start over
+     * @param itemsDone items processed so far
+     * @param itemsTotal items to process, null when not known
+     * @throws JobStoppedException when the job must stop: it was cancelled, the instance is shutting
+     * down or the job was taken over; the checkpoint is recorded in the first two cases
+     */
+    public void checkpoint(Object checkpoint, long itemsDone, Long itemsTotal) throws JsonProcessingException {
+        String state = checkpoint == null ? null : objectMapper.writeValueAsString(checkpoint);
+        if (jobRepository.checkpoint(job.getId(), owner, state, itemsDone, itemsTotal, new Timestamp(System.currentTimeMillis())) == 0) {
+            throw new JobStoppedException("Job " + job.getId() + " was taken over by another instance", JobStoppedException.Reason.LOST);
+        }
+        job.setCheckpoint(state);
+        job.setItemsDone(itemsDone);
+        job.setItemsTotal(itemsTotal);
+        if (Boolean.TRUE.equals(jobRepository.isCancelRequested(job.getId()))) {
+            throw new JobStoppedException("Job " + job.getId() + " was cancelled", JobStoppedException.Reason.CANCELLED);
+        }
+        if (stopping.getAsBoolean()) {
+            throw new JobStoppedException("Job " + job.getId() + " stopped for shutdown", JobStoppedException.Reason.SHUTDOWN);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.employee.jobs;
+
+import com.example.employee.models.JobFileChunk;
+import com.example.employee.repository.JobFileChunkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Files uploaded for jobs, kept in the {@code job_file_chunk} table in pieces of
+ * {@code app.jobs.file-chunk-size} bytes. The instance running the job copies its file to a local
+ * temporary file first, so it can be read like any other file and no instance needs the disk of
+ * the one the file was uploaded to.
+ */
+@Component
+public class JobFileStore {
+    Logger LOGGER = LoggerFactory.getLogger(JobFileStore.class);
+
+    @Autowired
+    private JobFileChunkRepository jobFileChunkRepository;
+    @Autowired
+    private JobProperties properties;
+
+    /**
+     * Stores the file, removing what was stored of it when it cannot be read to the end.
+     * @return id of the stored file
+     */
+    public String save(InputStream in) throws IOException {
+        String fileId = UUID.randomUUID().toString();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            int seq = 0;
+            for (byte[] data = in.readNBytes(properties.getFileChunkSize()); data.length > 0;
+                 data = in.readNBytes(properties.getFileChunkSize())) {
+                jobFileChunkRepository.save(new JobFileChunk(fileId, seq++, data, now));
+            }
+            return fileId;
+        } catch (IOException | RuntimeException e) {
+            delete(fileId);
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the file to a local temporary file, to be deleted by the caller.
+     */
+    public Path copyToTemp(String fileId, String prefix, String suffix) throws IOException {
+        Path file = Files.createTempFile(prefix, suffix);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int seq = 0;
+            for (Optional<JobFileChunk> chunk = jobFileChunkRepository.findByFileIdAndSeq(fileId, seq); chunk.isPresent();
+                 chunk = jobFileChunkRepository.findByFileIdAndSeq(fileId, ++seq)) {
+                out.write(chunk.get().getData());
+            }
+            if (seq == 0) {
+                throw new IOException("No job file with id " + fileId);
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public void delete(String fileId) {
+        int deleted = jobFileChunkRepository.deleteByFileId(fileId);
+        LOGGER.debug("Deleted " + deleted + " chunks of job file " + fileId);
+    }
+}
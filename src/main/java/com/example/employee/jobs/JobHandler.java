@@ -0,0 +1,28 @@
+package com.example.employee.jobs;
+
+/**
+ * Runs the jobs of one type. A job may be started more than once: when its instance stops or
+ * dies it is resumed elsewhere from its last {@link JobContext#checkpoint checkpoint}, or from
+ * the start when it has none, so a handler must cope with the work since that checkpoint being
+ * done again.
+ */
+public interface JobHandler {
+
+    /**
+     * @return the job type, as stored with the job and used in {@code app.jobs.max-concurrent}
+     */
+    String type();
+
+    /**
+     * Does the work, reporting progress through the context.
+     * @return the result, stored with the job as JSON
+     * @throws Exception failing the job with the exception's message
+     */
+    Object run(JobContext context) throws Exception;
+
+    /**
+     * Releases what the job holds, e.g. its uploaded file, once it finished in any way.
+     */
+    default void discard(JobContext context) throws Exception {
+    }
+}
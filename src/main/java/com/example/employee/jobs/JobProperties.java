@@ -0,0 +1,63 @@
+package com.example.employee.jobs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the background jobs ({@code app.jobs.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.jobs")
+public class JobProperties {
+
+    /**
+     * Whether this instance runs jobs. Jobs can be submitted to every instance either way, so a
+     * few instances can be set aside to run them.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Jobs this instance runs at once, of all types.
+     */
+    private int workerThreads = 2;
+
+    /**
+     * Jobs of a type running at once across all instances, by job type; types not listed get
+     * {@code default-max-concurrent}.
+     */
+    private Map<String, Integer> maxConcurrent = new HashMap<>();
+
+    private int defaultMaxConcurrent = 1;
+
+    /**
+     * How long a running job stays with its instance without a heartbeat before another instance
+     * resumes it from its last checkpoint.
+     */
+    private Duration leaseTimeout = Duration.ofMinutes(1);
+
+    /**
+     * How long shutdown waits for running jobs to reach a checkpoint and hand themselves back to
+     * the queue.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * How long finished jobs are kept.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Size of the pieces uploaded files are stored in the database in, while they wait for their job.
+     */
+    private int fileChunkSize = 1024 * 1024;
+
+    public int maxConcurrent(String type) {
+        return maxConcurrent.getOrDefault(type, defaultMaxConcurrent);
+    }
+}
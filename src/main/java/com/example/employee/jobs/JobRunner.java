@@ -0,0 +1,208 @@
+package com.example.employee.jobs;
+
+import com.example.employee.models.Job;
+import com.example.employee.models.JobStatus;
+import com.example.employee.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims queued jobs and runs them on a pool of {@code app.jobs.worker-threads}, starting a job
+ * only while fewer than {@code app.jobs.max-concurrent.<type>} jobs of its type run on all
+ * instances; the claim checks that limit itself, so instances claiming at once cannot exceed it.
+ * <p>
+ * A claimed job is leased to this instance, which renews the lease at every poll and checkpoint.
+ * When an instance dies its jobs are queued again once their lease is older than
+ * {@code app.jobs.lease-timeout} and resume from their last checkpoint, so the work since then
+ * may be done twice; instances must agree on the time to within a fraction of the lease. On
+ * shutdown running jobs stop at their next checkpoint and go straight back to the queue.
+ * Finished jobs are kept for {@code app.jobs.retention}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class JobRunner implements DisposableBean {
+    Logger LOGGER = LoggerFactory.getLogger(JobRunner.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final long CLEANUP_INTERVAL_MILLIS = 60_000;
+
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private JobProperties properties;
+    @Autowired
+    private List<JobHandler> handlerBeans = List.of();
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, JobHandler> handlers = new HashMap<>();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+    private volatile boolean stopping;
+    private long lastCleanup;
+
+    @PostConstruct
+    public void start() {
+        handlerBeans.forEach(handler -> handlers.put(handler.type(), handler));
+        AtomicInteger threads = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.jobs.poll-interval:1000}")
+    public void poll() {
+        try {
+            runJobs();
+        } catch (DataAccessException e) {
+            // Running jobs keep going and new ones wait for a later poll once the database is back.
+            LOGGER.warn("Could not read the jobs : " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Renews the lease of the running jobs, queues the abandoned ones again and starts queued jobs
+     * while there are free workers.
+     * @return number of jobs started
+     */
+    public synchronized int runJobs() {
+        if (stopping) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        if (!running.isEmpty()) {
+            jobRepository.heartbeat(Set.copyOf(running), owner, new Timestamp(now));
+        }
+        int abandoned = jobRepository.releaseAbandoned(new Timestamp(now - properties.getLeaseTimeout().toMillis()));
+        if (abandoned > 0) {
+            LOGGER.warn("Queued again " + abandoned + " jobs whose instance stopped renewing their lease");
+        }
+        if (now - lastCleanup >= CLEANUP_INTERVAL_MILLIS) {
+            lastCleanup = now;
+            int deleted = jobRepository.deleteFinishedBefore(new Timestamp(now - properties.getRetention().toMillis()));
+            if (deleted > 0) {
+                LOGGER.info("Deleted " + deleted + " finished jobs");
+            }
+        }
+
+        int free = properties.getWorkerThreads() - running.size();
+        if (free <= 0) {
+            return 0;
+        }
+        int started = 0;
+        for (Job queued : jobRepository.findByStatusOrderByIdAsc(JobStatus.QUEUED, PageRequest.of(0, 100))) {
+            JobHandler handler = handlers.get(queued.getType());
+            if (handler == null || jobRepository.claim(queued.getId(), queued.getType(),
+                    properties.maxConcurrent(queued.getType()), owner, new Timestamp(now)) == 0) {
+                continue;
+            }
+            // Read again once claimed, for the checkpoint of a job resumed by another instance meanwhile.
+            Job job = jobRepository.findById(queued.getId()).orElseThrow();
+            running.add(job.getId());
+            workers.execute(() -> run(job, handler));
+            if (++started == free) {
+                break;
+            }
+        }
+        return started;
+    }
+
+    private void run(Job job, JobHandler handler) {
+        JobContext context = new JobContext(job, owner, jobRepository, objectMapper, () -> stopping);
+        try {
+            if (stopping) {
+                throw new JobStoppedException("Job " + job.getId() + " stopped for shutdown", JobStoppedException.Reason.SHUTDOWN);
+            }
+            LOGGER.info("Running job " + job);
+            Object result = handler.run(context);
+            finish(job, handler, context, JobStatus.SUCCEEDED, objectMapper.writeValueAsString(result), null);
+        } catch (Exception e) {
+            JobStoppedException stopped = stoppedBy(e);
+            if (stopped == null) {
+                LOGGER.error("Job " + job.getId() + " failed", e);
+                finish(job, handler, context, JobStatus.FAILED, null, errorMessage(e));
+            } else if (stopped.getReason() == JobStoppedException.Reason.CANCELLED) {
+                finish(job, handler, context, JobStatus.CANCELLED, null, null);
+            } else if (stopped.getReason() == JobStoppedException.Reason.SHUTDOWN) {
+                jobRepository.release(job.getId(), owner);
+                LOGGER.info(stopped.getMessage() + ", queued again");
+            } else {
+                LOGGER.warn(stopped.getMessage());
+            }
+        } finally {
+            running.remove(job.getId());
+        }
+    }
+
+    private void finish(Job job, JobHandler handler, JobContext context, JobStatus status, String result, String error) {
+        try {
+            if (jobRepository.finish(job.getId(), owner, status, result, error, new Timestamp(System.currentTimeMillis())) == 0) {
+                LOGGER.warn("Job " + job.getId() + " was taken over by another instance before it finished");
+                return;
+            }
+            LOGGER.info("Job " + job.getId() + " " + status.name().toLowerCase());
+            handler.discard(context);
+        } catch (Exception e) {
+            LOGGER.error("Could not finish job " + job.getId(), e);
+        }
+    }
+
+    private static JobStoppedException stoppedBy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JobStoppedException) {
+                return (JobStoppedException) cause;
+            }
+        }
+        return null;
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /**
+     * @return ids of the jobs running on this instance
+     */
+    public Set<Long> getRunning() {
+        return Set.copyOf(running);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        stopping = true;
+        workers.shutdown();
+        Duration timeout = properties.getShutdownTimeout();
+        if (!workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Jobs " + running + " did not reach a checkpoint within " + timeout
+                    + ", they resume on another instance once their lease runs out");
+            workers.shutdownNow();
+        }
+    }
+}
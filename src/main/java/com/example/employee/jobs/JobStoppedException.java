@@ -0,0 +1,33 @@
+package com.example.employee.jobs;
+
+/**
+ * Thrown at a checkpoint to stop a running job; handlers let it through.
+ */
+public class JobStoppedException extends RuntimeException {
+
+    public enum Reason {
+        /**
+         * The job was cancelled and ends as such.
+         */
+        CANCELLED,
+        /**
+         * The instance is shutting down, the job goes back to the queue.
+         */
+        SHUTDOWN,
+        /**
+         * The job's lease ran out and another instance took it over.
+         */
+        LOST
+    }
+
+    private final Reason reason;
+
+    JobStoppedException(String message, Reason reason) {
+        super(message, null, false, false);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
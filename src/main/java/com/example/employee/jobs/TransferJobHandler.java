@@ -0,0 +1,46 @@
+package com.example.employee.jobs;
+
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
+import com.example.employee.services.EmployeeBulkService;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves employees to a department like {@code POST /departments/{deptId}/employees/transfer}.
+ * Moving an employee twice changes nothing, so a resumed transfer simply runs again.
+ */
+@Component
+public class TransferJobHandler implements JobHandler {
+
+    public static final String TYPE = "transfer";
+
+    @Autowired
+    private EmployeeBulkService employeeBulkService;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public Object run(JobContext context) throws Exception {
+        Parameters parameters = context.getParameters(Parameters.class);
+        BulkUpdateResultDTO result = employeeBulkService.transferEmployees(parameters.getDeptId(), parameters.getTransfer());
+        context.progress(result.getMatched(), result.getMatched());
+        return result;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Parameters {
+        private Long deptId;
+        private BulkTransferDTO transfer;
+    }
+}
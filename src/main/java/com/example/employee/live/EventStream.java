@@ -0,0 +1,32 @@
+package com.example.employee.live;
+
+import java.io.IOException;
+
+/**
+ * The response a subscriber's events are written to, without ever waiting for the client.
+ */
+public interface EventStream {
+
+    /**
+     * Starts calling back: {@code onWritable} once the stream can take a write again after
+     * {@link #isReady()} returned false, {@code onClosed} when the connection ends.
+     */
+    void listen(Runnable onWritable, Runnable onClosed);
+
+    /**
+     * @return whether a write would go through now; when not, {@code onWritable} follows once it would
+     */
+    boolean isReady();
+
+    /**
+     * Writes and flushes one event. Only called after {@link #isReady()} returned true.
+     */
+    void write(String event) throws IOException;
+
+    /**
+     * @return how long the stream has not been ready for, 0 when it is
+     */
+    long blockedMillis();
+
+    void close();
+}
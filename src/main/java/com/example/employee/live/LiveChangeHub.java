@@ -0,0 +1,184 @@
+package com.example.employee.live;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.exception.ChangeTokenExpiredException;
+import com.example.employee.exception.ServiceOverloadedException;
+import com.example.employee.services.ChangeFeedService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes employee and department changes to SSE subscribers as they commit.
+ * <p>
+ * The hub follows the change feed while anyone is subscribed, polling it every
+ * {@code app.live.poll-interval} ms, so every instance sees every change whichever instance made
+ * it; changes therefore arrive within an outbox and a hub poll interval of their commit.
+ * Each change is offered to the subscribers without blocking, and sent from a pool of
+ * {@code app.live.sender-threads} with non-blocking writes: a slow client only fills its own
+ * bounded buffer and never holds a sender thread. A client that has not taken any data for
+ * {@code app.live.write-timeout} is dropped: its stream is completed at once, and the container
+ * closes the socket when its own write times out ({@code server.tomcat.connection-timeout}).
+ * When the feed cannot be followed, e.g. its position expired, every subscriber is told to reload.
+ */
+@Component
+@ConditionalOnProperty(name = {"app.outbox.enabled", "app.live.enabled"}, havingValue = "true", matchIfMissing = true)
+public class LiveChangeHub implements DisposableBean {
+    Logger LOGGER = LoggerFactory.getLogger(LiveChangeHub.class);
+
+    static final String EMPLOYEE = "employee";
+    static final String DEPARTMENT = "department";
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.live.max-subscribers:10000}")
+    private int maxSubscribers = 10000;
+    @Value("${app.live.buffer-size:256}")
+    private int bufferSize = 256;
+    @Value("${app.live.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${app.live.timeout:30m}")
+    private Duration timeout = Duration.ofMinutes(30);
+    @Value("${app.live.write-timeout:10s}")
+    private Duration writeTimeout = Duration.ofSeconds(10);
+    @Value("${app.live.heartbeat-interval:15s}")
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    @Value("${app.live.retry-after:5}")
+    private long retryAfterSeconds = 5;
+
+    private final Set<LiveSubscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final ExecutorService sender;
+    private String employeeToken;
+    private String departmentToken;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    public LiveChangeHub(@Value("${app.live.sender-threads:4}") int senderThreads) {
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "live-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a subscription, turning the request into its event stream. The feed position is
+     * taken before returning, so a client that loads its view once connected misses no change
+     * made after the load.
+     * @param departments ids of the departments to follow, or null for all
+     * @throws ServiceOverloadedException when {@code app.live.max-subscribers} are already connected
+     */
+    public void subscribe(Set<Long> departments, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many live change subscribers, retry later", retryAfterSeconds);
+        }
+        position();
+        LiveSubscriber subscriber = new LiveSubscriber(ServletEventStream.start(request, response, timeout), departments,
+                bufferSize, sender, objectMapper);
+        subscriber.onClose(() -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        subscriber.start();
+        LOGGER.debug("Live change subscriber added, " + subscribers.size() + " connected");
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.live.poll-interval:1000}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            // Nobody to tell: stop following the feed, the next subscriber takes a new position.
+            employeeToken = null;
+            departmentToken = null;
+            return;
+        }
+        try {
+            position();
+        } catch (Exception e) {
+            LOGGER.warn("Could not read the change feed : " + e.getMessage());
+            return;
+        }
+        employeeToken = follow(EMPLOYEE, employeeToken);
+        departmentToken = follow(DEPARTMENT, departmentToken);
+        if (employeeToken == null || departmentToken == null) {
+            employeeToken = null;
+            departmentToken = null;
+            subscribers.forEach(LiveSubscriber::resync);
+        }
+
+        for (LiveSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(writeTimeout.toMillis())) {
+                LOGGER.info("Disconnecting a live change subscriber that took no data for " + writeTimeout);
+                subscriber.close();
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= heartbeatInterval.toMillis()) {
+            lastHeartbeat = now;
+            subscribers.forEach(LiveSubscriber::heartbeat);
+        }
+    }
+
+    /**
+     * Starts following the feed from its current position, unless already following it.
+     */
+    private synchronized void position() throws Exception {
+        if (employeeToken == null || departmentToken == null) {
+            employeeToken = changeFeedService.getEmployeeChanges(null, 1).getNext();
+            departmentToken = changeFeedService.getDepartmentChanges(null, 1).getNext();
+        }
+    }
+
+    /**
+     * Publishes the changes after the token.
+     * @return the token after the published changes, or null when the feed cannot be followed from the token
+     */
+    private String follow(String name, String token) {
+        try {
+            ChangeFeedDTO<?> feed;
+            do {
+                feed = EMPLOYEE.equals(name) ? changeFeedService.getEmployeeChanges(token, batchSize)
+                        : changeFeedService.getDepartmentChanges(token, batchSize);
+                for (ChangeDTO<?> change : feed.getChanges()) {
+                    subscribers.forEach(subscriber -> subscriber.offer(name, change));
+                }
+                token = feed.getNext();
+            } while (feed.isMore());
+            return token;
+        } catch (ChangeTokenExpiredException e) {
+            LOGGER.warn("Live changes fell behind the " + name + " change feed, subscribers must reload : " + e.getMessage());
+            return null;
+        } catch (Exception e) {
+            // Picked up again from the same position by the next poll.
+            LOGGER.warn("Could not read the " + name + " change feed : " + e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(LiveSubscriber::close);
+        sender.shutdownNow();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.employee.live;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection: the changes waiting to be sent to it and the sending itself.
+ * <p>
+ * Changes are offered by the poller without blocking and kept in a buffer of at most
+ * {@code capacity} entities. A newer change of an entity already waiting replaces it, so a slow
+ * client gets the latest state rather than every step. When the buffer is full the waiting
+ * changes are dropped and the client is sent a {@code resync} event instead, telling it to
+ * reload. Sending runs on the sender executor, one drain at a time per connection, and stops as
+ * soon as the stream cannot take more without blocking; it resumes when the stream is writable.
+ */
+public class LiveSubscriber {
+
+    static final String RESYNC = "resync";
+
+    private final EventStream stream;
+    private final Set<Long> departments;
+    private final int capacity;
+    private final Executor sender;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Pending> buffer = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private boolean overflowed;
+    private boolean heartbeat;
+    private volatile boolean closed;
+    private Runnable onClose = () -> { };
+
+    /**
+     * @param departments ids of the departments to send the changes of, or null for all
+     */
+    public LiveSubscriber(EventStream stream, Set<Long> departments, int capacity, Executor sender, ObjectMapper objectMapper) {
+        this.stream = stream;
+        this.departments = departments;
+        this.capacity = capacity;
+        this.sender = sender;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Starts sending once the stream is writable.
+     */
+    public void start() {
+        stream.listen(this::schedule, this::close);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return whether the client has not taken data for longer than the timeout
+     */
+    public boolean isStalled(long writeTimeoutMillis) {
+        return stream.blockedMillis() > writeTimeoutMillis;
+    }
+
+    void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    /**
+     * @return whether the change is of a department this subscriber follows, or moves an
+     * employee out of one
+     */
+    public boolean accepts(String name, ChangeDTO<?> change) {
+        if (departments == null) {
+            return true;
+        }
+        if (LiveChangeHub.DEPARTMENT.equals(name)) {
+            return departments.contains(change.getId());
+        }
+        if (change.getMovedFrom() != null && departments.contains(change.getMovedFrom())) {
+            return true;
+        }
+        EmployeeDTO employee = (EmployeeDTO) change.getRecord();
+        return employee != null && employee.getDepartment() != null && departments.contains(employee.getDepartment().getDeptId());
+    }
+
+    /**
+     * Queues the change for sending, coalescing it with a waiting change of the same entity.
+     */
+    public void offer(String name, ChangeDTO<?> change) {
+        if (closed || !accepts(name, change)) {
+            return;
+        }
+        synchronized (this) {
+            String key = name + ":" + change.getId();
+            if (buffer.remove(key) == null && buffer.size() >= capacity) {
+                buffer.clear();
+                overflowed = true;
+            } else if (!overflowed) {
+                buffer.put(key, new Pending(name, change));
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Tells the client to reload, dropping the waiting changes.
+     */
+    public void resync() {
+        synchronized (this) {
+            buffer.clear();
+            overflowed = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Sends a comment when nothing else is waiting, keeping proxies from timing out the
+     * connection and finding clients that are gone.
+     */
+    public void heartbeat() {
+        synchronized (this) {
+            heartbeat = true;
+        }
+        schedule();
+    }
+
+    public void close() {
+        if (!closed) {
+            closed = true;
+            stream.close();
+            onClose.run();
+        }
+    }
+
+    private void schedule() {
+        if (!closed && draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                String event;
+                while (!closed && stream.isReady() && (event = next()) != null) {
+                    stream.write(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone or the connection already completed.
+                close();
+                return;
+            }
+            draining.set(false);
+        } while (hasPending() && !closed && stream.isReady() && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * @return the next event to write, a resync before any change and a heartbeat only when nothing else waits
+     */
+    private synchronized String next() throws IOException {
+        if (overflowed) {
+            overflowed = false;
+            heartbeat = false;
+            return "event:" + RESYNC + "\ndata:\n\n";
+        }
+        Iterator<Pending> pending = buffer.values().iterator();
+        if (pending.hasNext()) {
+            Pending change = pending.next();
+            pending.remove();
+            heartbeat = false;
+            return "event:" + change.name + "\ndata:" + objectMapper.writeValueAsString(change.change) + "\n\n";
+        }
+        if (heartbeat) {
+            heartbeat = false;
+            return ":\n\n";
+        }
+        return null;
+    }
+
+    private synchronized boolean hasPending() {
+        return !buffer.isEmpty() || overflowed || heartbeat;
+    }
+
+    private static final class Pending {
+        final String name;
+        final ChangeDTO<?> change;
+
+        Pending(String name, ChangeDTO<?> change) {
+            this.name = name;
+            this.change = change;
+        }
+    }
+}
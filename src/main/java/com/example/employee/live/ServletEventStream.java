@@ -0,0 +1,117 @@
+package com.example.employee.live;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * {@link EventStream} on an asynchronous servlet response, written with non-blocking I/O: a write
+ * hands the bytes to the container and returns, and the container calls back once a client that
+ * stopped reading takes data again. No thread is ever held by a slow client.
+ */
+public class ServletEventStream implements EventStream, WriteListener, AsyncListener {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private volatile Runnable onWritable = () -> { };
+    private volatile Runnable onClosed = () -> { };
+    private volatile long blockedSince;
+
+    private ServletEventStream(AsyncContext asyncContext, ServletOutputStream out) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+    }
+
+    /**
+     * Turns the request into an event stream, completed after {@code timeout}.
+     */
+    public static ServletEventStream start(HttpServletRequest request, HttpServletResponse response, Duration timeout) throws IOException {
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(timeout.toMillis());
+        ServletEventStream stream = new ServletEventStream(asyncContext, response.getOutputStream());
+        asyncContext.addListener(stream);
+        return stream;
+    }
+
+    @Override
+    public void listen(Runnable onWritable, Runnable onClosed) {
+        this.onWritable = onWritable;
+        this.onClosed = onClosed;
+        out.setWriteListener(this);
+    }
+
+    @Override
+    public boolean isReady() {
+        boolean ready = out.isReady();
+        if (ready) {
+            blockedSince = 0;
+        } else if (blockedSince == 0) {
+            blockedSince = System.currentTimeMillis();
+        }
+        return ready;
+    }
+
+    @Override
+    public void write(String event) throws IOException {
+        out.write(event.getBytes(StandardCharsets.UTF_8));
+        if (isReady()) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public long blockedMillis() {
+        long since = blockedSince;
+        return since == 0 ? 0 : System.currentTimeMillis() - since;
+    }
+
+    @Override
+    public void close() {
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container.
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        onWritable.run();
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        onClosed.run();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        onClosed.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        onClosed.run();
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        onClosed.run();
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
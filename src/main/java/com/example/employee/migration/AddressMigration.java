@@ -0,0 +1,192 @@
+package com.example.employee.migration;
+
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.services.HeadcountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the rows of the former {@code address} table into the address columns of the employee
+ * rows, and once asked to, drops the {@code address_id} column, the {@code address} table and its sequence.
+ * <p>
+ * Runs at startup, once Hibernate has added the address columns to the employee table and before
+ * the web server starts, so no request sees an employee whose address is not copied yet. The copy
+ * goes in chunks of {@code app.migration.address.batch-size} employee ids, each committed on its
+ * own, and only fills employees whose address columns are all still empty, so an interrupted
+ * migration is simply run again on the next start. Instances starting together take turns through
+ * a database lock ({@code GET_LOCK} on MySQL), so the later ones find nothing left to copy. Copied
+ * addresses change the state and city of employees behind the application's back, so the headcount
+ * summary is rebuilt and the response cache cleared afterwards.
+ * <p>
+ * Instances of the previous version must not run alongside this one, so every one of them is to be
+ * stopped before the first instance of this version starts, rather than replaced in a rolling deploy.
+ * They edit addresses in place in the {@code address} table, and an employee whose address was
+ * already copied is never copied again, so their edits would be lost; they also fail on the employees
+ * created here, which have no {@code address_id}. The legacy schema is only dropped when
+ * {@code app.migration.address.drop-legacy-schema=true}, to be set for one start once the copied
+ * addresses have been checked. The drop runs under the same lock, after a last copy, and only drops
+ * what is still there, so a repeated run is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "app.migration.address.enabled", havingValue = "true", matchIfMissing = true)
+public class AddressMigration implements SmartInitializingSingleton {
+    Logger LOGGER = LoggerFactory.getLogger(AddressMigration.class);
+
+    static final String COPY_ADDRESSES = "update employee e set " +
+            "address = (select a.address from address a where a.address_id = e.address_id), " +
+            "city = (select a.city from address a where a.address_id = e.address_id), " +
+            "state = (select a.state from address a where a.address_id = e.address_id), " +
+            "pincode = (select a.pincode from address a where a.address_id = e.address_id) " +
+            "where e.employee_id >= ? and e.employee_id < ? and e.address_id is not null " +
+            "and e.address is null and e.city is null and e.state is null and e.pincode is null";
+    private static final String LOCK_NAME = "employee.address_migration";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HeadcountService headcountService;
+    private final ResponseCache responseCache;
+    private final int batchSize;
+    private final boolean dropLegacySchema;
+    private final Duration lockTimeout;
+
+    @Autowired
+    public AddressMigration(JdbcTemplate jdbcTemplate, HeadcountService headcountService, ResponseCache responseCache,
+                            @Value("${app.migration.address.batch-size:10000}") int batchSize,
+                            @Value("${app.migration.address.drop-legacy-schema:false}") boolean dropLegacySchema,
+                            @Value("${app.migration.address.lock-timeout:10m}") Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.headcountService = headcountService;
+        this.responseCache = responseCache;
+        this.batchSize = batchSize;
+        this.dropLegacySchema = dropLegacySchema;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    /**
+     * @return the number of employees whose address was copied, or -1 when there was nothing to migrate
+     */
+    public long migrate() {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            // The lock belongs to this connection's session, so it is held while the work below uses others.
+            if (mysql) {
+                lock(connection);
+            }
+            try {
+                return migrateLocked();
+            } finally {
+                if (mysql) {
+                    unlock(connection);
+                }
+            }
+        });
+    }
+
+    private long migrateLocked() {
+        Schema schema = jdbcTemplate.execute((ConnectionCallback<Schema>) connection -> Schema.of(connection.getMetaData()));
+        if (!schema.hasAddressIdColumn) {
+            return -1;
+        }
+        LOGGER.info("Migrating the addresses into the employee table");
+        long started = System.nanoTime();
+        long copied = 0;
+        Map<String, Object> range = jdbcTemplate.queryForMap("select min(employee_id) as low, max(employee_id) as high from employee");
+        if (range.get("low") != null) {
+            long high = ((Number) range.get("high")).longValue();
+            for (long from = ((Number) range.get("low")).longValue(); from <= high; from += batchSize) {
+                copied += jdbcTemplate.update(COPY_ADDRESSES, from, from + batchSize);
+            }
+        }
+        LOGGER.info("Migrated the addresses of " + copied + " employees into the employee table in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+
+        if (dropLegacySchema) {
+            dropLegacySchema(schema);
+        }
+        if (copied > 0) {
+            headcountService.rebuild();
+            responseCache.clear();
+        }
+        return copied;
+    }
+
+    private void dropLegacySchema(Schema schema) {
+        LOGGER.info("Dropping the address_id column, the address table and its sequence");
+        for (String foreignKey : schema.addressForeignKeys) {
+            jdbcTemplate.execute("alter table employee drop " + (schema.mysql ? "foreign key " : "constraint ") + foreignKey);
+        }
+        jdbcTemplate.execute("alter table employee drop column address_id");
+        jdbcTemplate.execute("drop table if exists address");
+        // Hibernate emulates sequences with a table on MySQL.
+        jdbcTemplate.execute(schema.mysql ? "drop table if exists address_sequence" : "drop sequence if exists address_sequence");
+    }
+
+    private void lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select get_lock(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setLong(2, lockTimeout.getSeconds());
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next() || result.getInt(1) != 1) {
+                    throw new IllegalStateException("Could not take the " + LOCK_NAME + " lock within " + lockTimeout);
+                }
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select release_lock(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+
+    private static final class Schema {
+        boolean mysql;
+        boolean hasAddressIdColumn;
+        List<String> addressForeignKeys = new ArrayList<>();
+
+        static Schema of(DatabaseMetaData metaData) throws SQLException {
+            Schema schema = new Schema();
+            schema.mysql = metaData.getDatabaseProductName().toLowerCase().contains("mysql");
+            String catalog = metaData.getConnection().getCatalog();
+            String schemaName = metaData.getConnection().getSchema();
+            String table = identifier(metaData, "employee");
+            try (ResultSet columns = metaData.getColumns(catalog, schemaName, table, identifier(metaData, "address_id"))) {
+                schema.hasAddressIdColumn = columns.next();
+            }
+            try (ResultSet foreignKeys = metaData.getImportedKeys(catalog, schemaName, table)) {
+                while (foreignKeys.next()) {
+                    if ("address_id".equalsIgnoreCase(foreignKeys.getString("FKCOLUMN_NAME"))) {
+                        schema.addressForeignKeys.add(foreignKeys.getString("FK_NAME"));
+                    }
+                }
+            }
+            return schema;
+        }
+
+        private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+            return metaData.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+        }
+    }
+}
@@ -5,60 +5,35 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import javax.persistence.*;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
 
-@Entity
-@Table(name = "Address")
+/**
+ * Address of an employee, stored in the columns of the employee's own row.
+ */
+@Embeddable
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Address {
 
-    @Id
-    @SequenceGenerator(
-            name = "address_sequence",
-            sequenceName = "address_sequence",
-            allocationSize = 1
-    )
-    @GeneratedValue(
-            strategy = GenerationType.SEQUENCE,
-            generator = "address_sequence"
-    )
-    private Long addressId;
-    @Column
+    @Column(name = "address")
     private String address;
-    @Column
+    @Column(name = "city")
     private String city;
-    @Column
+    @Column(name = "state")
     private String state;
-    @Column
+    @Column(name = "pincode")
     private String pincode;
-    @Column
-    private boolean isActive;
-    @Column
-    private boolean isDeleted;
-
-
-    public Address(String address, String city, String state, String pincode) {
-        this.address = address;
-        this.city = city;
-        this.state = state;
-        this.pincode = pincode;
-        this.isActive = true;
-        this.isDeleted = false;
-    }
 
     @Override
     public String toString() {
         return "Address{" +
-                "addressId=" + addressId +
-                ", address='" + address + '\'' +
+                "address='" + address + '\'' +
                 ", city='" + city + '\'' +
                 ", state='" + state + '\'' +
                 ", pincode='" + pincode + '\'' +
-                ", isActive=" + isActive +
-                ", isDeleted=" + isDeleted +
                 '}';
     }
 
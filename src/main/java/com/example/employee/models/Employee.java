@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
@@ -18,10 +20,16 @@ import javax.validation.constraints.Pattern;
 public class Employee {
 
     @Id
-    @SequenceGenerator(
+    @GenericGenerator(
             name = "employee_sequence",
-            sequenceName = "employee_sequence",
-            allocationSize = 1
+            strategy = "com.example.employee.sharding.ShardedSequenceGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "employee_sequence"),
+                    // Blocks of ids, so a batch insert does not take one sequence round trip per employee.
+                    // pooled-lo reads the stored value as the next free id, as it was with blocks of 1.
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            }
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -31,14 +39,7 @@ public class Employee {
     @NotBlank(message = "Employee name should not be empty.")
     private String employeeName;
 
-    @OneToOne(
-            cascade = CascadeType.ALL,
-            fetch = FetchType.EAGER
-    )
-    @JoinColumn(
-            name = "address_id",
-            referencedColumnName = "addressId"
-    )
+    @Embedded
     private Address employeeAddress;
     @Column
     private String employeeDesignation;
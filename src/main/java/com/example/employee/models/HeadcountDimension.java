@@ -0,0 +1,25 @@
+package com.example.employee.models;
+
+import java.util.Locale;
+
+/**
+ * Attributes of an employee that headcount is summarized by.
+ */
+public enum HeadcountDimension {
+    STATE,
+    CITY,
+    DESIGNATION,
+    DEPARTMENT;
+
+    /**
+     * @return the dimension with this name, case-insensitively, or null when there is none
+     */
+    public static HeadcountDimension fromName(String name) {
+        for (HeadcountDimension dimension : values()) {
+            if (dimension.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return dimension;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.employee.models;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One row of the headcount summary: a dimension and one of its values. Missing values are
+ * summarized under the empty string, departments under their id.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class HeadcountKey implements Serializable, Comparable<HeadcountKey> {
+
+    private static final Comparator<HeadcountKey> ORDER =
+            Comparator.comparing(HeadcountKey::getDimension).thenComparing(HeadcountKey::getDimensionValue);
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 16, nullable = false)
+    private HeadcountDimension dimension;
+    @Column(name = "dimension_value", nullable = false)
+    private String dimensionValue;
+
+    /**
+     * @return the summary rows the employee is counted in, none when the employee is inactive or deleted
+     */
+    public static List<HeadcountKey> of(Employee employee) {
+        if (employee == null || !employee.isActive() || employee.isDeleted()) {
+            return List.of();
+        }
+        Address address = employee.getEmployeeAddress();
+        Department department = employee.getDepartment();
+        return List.of(
+                key(HeadcountDimension.STATE, address == null ? null : address.getState()),
+                key(HeadcountDimension.CITY, address == null ? null : address.getCity()),
+                key(HeadcountDimension.DESIGNATION, employee.getEmployeeDesignation()),
+                key(HeadcountDimension.DEPARTMENT, department == null || department.getDeptId() == null
+                        ? null : department.getDeptId().toString()));
+    }
+
+    public static HeadcountKey key(HeadcountDimension dimension, Object value) {
+        return new HeadcountKey(dimension, value == null ? "" : value.toString());
+    }
+
+    @Override
+    public int compareTo(HeadcountKey other) {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public String toString() {
+        return dimension + "=" + dimensionValue;
+    }
+}
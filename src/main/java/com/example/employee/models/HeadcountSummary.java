@@ -0,0 +1,26 @@
+package com.example.employee.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * Number of active employees per value of a {@link HeadcountDimension}, kept up to date by the
+ * employee writes so that dashboards do not have to group the employee table.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "headcount_summary")
+public class HeadcountSummary {
+
+    @EmbeddedId
+    private HeadcountKey key;
+    @Column(nullable = false)
+    private long headcount;
+}
@@ -0,0 +1,54 @@
+package com.example.employee.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Idempotency key of a create request and, once it finished, the response to replay. The id is a
+ * digest of the key scoped to the client and path, so the primary key is what makes one request
+ * per key run across the instances. A row without a status belongs to the request in flight
+ * named in {@code owner}. With sharding keys live on shard 0.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "idempotency_key",
+        indexes = @Index(name = "idx_idempotency_key_expires", columnList = "expiresOn")
+)
+public class IdempotencyKey {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    @Column(nullable = false, length = 36)
+    private String owner;
+    private Integer status;
+    private String contentType;
+    @Column(length = 1000)
+    private String location;
+    @Lob
+    private byte[] body;
+    @Column(nullable = false)
+    private Timestamp createdOn;
+    @Column(nullable = false)
+    private Timestamp expiresOn;
+
+    @Override
+    public String toString() {
+        return "IdempotencyKey{" +
+                "id='" + id + '\'' +
+                ", owner='" + owner + '\'' +
+                ", status=" + status +
+                ", createdOn=" + createdOn +
+                ", expiresOn=" + expiresOn +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.employee.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Long-running operation submitted through the jobs API and run in the background. Parameters,
+ * checkpoint and result are JSON documents owned by the job type's handler. A running job is
+ * leased by the instance named in {@code owner}, which renews {@code heartbeatOn} while it works.
+ * State changes are conditional updates of the {@link com.example.employee.repository.JobRepository}
+ * so that instances sharing the database never both run a job. With sharding jobs live on shard 0.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "job",
+        indexes = @Index(name = "idx_job_status", columnList = "status, id")
+)
+public class Job {
+
+    @Id
+    @SequenceGenerator(
+            name = "job_sequence",
+            sequenceName = "job_sequence",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "job_sequence"
+    )
+    private Long id;
+    @Column(nullable = false, length = 32)
+    private String type;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+    @Lob
+    private String parameters;
+    @Lob
+    private String checkpoint;
+    private long itemsDone;
+    private Long itemsTotal;
+    @Lob
+    private String result;
+    @Column(length = 1000)
+    private String error;
+    private boolean cancelRequested;
+    /**
+     * Times the job was started, more than once when it was resumed after its worker went away.
+     */
+    private int attempts;
+    @Column(length = 128)
+    private String owner;
+    @Column(nullable = false)
+    private Timestamp createdOn;
+    private Timestamp startedOn;
+    private Timestamp heartbeatOn;
+    private Timestamp finishedOn;
+
+    public Job(String type, String parameters, Timestamp createdOn) {
+        this.type = type;
+        this.status = JobStatus.QUEUED;
+        this.parameters = parameters;
+        this.createdOn = createdOn;
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", status=" + status +
+                ", itemsDone=" + itemsDone +
+                ", attempts=" + attempts +
+                ", owner='" + owner + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.employee.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * One piece of a file uploaded for a job, such as the CSV of an import. Files are kept in the
+ * database rather than on the instance that received them, so any instance can run the job.
+ * With sharding job files live on shard 0, with the jobs.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "job_file_chunk",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_file_chunk", columnNames = {"fileId", "seq"})
+)
+public class JobFileChunk {
+
+    @Id
+    @SequenceGenerator(
+            name = "job_file_chunk_sequence",
+            sequenceName = "job_file_chunk_sequence",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "job_file_chunk_sequence"
+    )
+    private Long id;
+    @Column(nullable = false, length = 36)
+    private String fileId;
+    private int seq;
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+    @Column(nullable = false)
+    private Timestamp createdOn;
+
+    public JobFileChunk(String fileId, int seq, byte[] data, Timestamp createdOn) {
+        this.fileId = fileId;
+        this.seq = seq;
+        this.data = data;
+        this.createdOn = createdOn;
+    }
+
+    @Override
+    public String toString() {
+        return "JobFileChunk{" +
+                "fileId='" + fileId + '\'' +
+                ", seq=" + seq +
+                ", size=" + (data == null ? 0 : data.length) +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.employee.models;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle of a {@link Job}: queued until a worker claims it, running until it ends in one of
+ * the final states. A running job whose worker went away is queued again.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+
+    /**
+     * @return the status with this name, case-insensitively, or null when there is none
+     */
+    public static JobStatus fromName(String name) {
+        for (JobStatus status : values()) {
+            if (status.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
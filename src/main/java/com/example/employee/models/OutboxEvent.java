@@ -0,0 +1,87 @@
+package com.example.employee.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Change of an employee or department, written in the transaction of the change and delivered
+ * to subscribers afterwards by the outbox dispatcher. The dispatcher also gives it its
+ * {@code position} in the change feed once committed.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "outbox_event",
+        indexes = {
+                @Index(name = "idx_outbox_event_pending", columnList = "dispatchedOn, id"),
+                @Index(name = "idx_outbox_event_position", columnList = "aggregateType, position")
+        }
+)
+public class OutboxEvent {
+
+    @Id
+    @GenericGenerator(
+            name = "outbox_event_sequence",
+            strategy = "com.example.employee.sharding.ShardedSequenceGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "outbox_event_sequence"),
+                    @Parameter(name = "increment_size", value = "1")
+            }
+    )
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "outbox_event_sequence"
+    )
+    private Long id;
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+    @Column(nullable = false)
+    private Long aggregateId;
+    @Column(nullable = false, length = 16)
+    private String changeType;
+    @Lob
+    private String payload;
+    /**
+     * Department an employee left with this change, null otherwise.
+     */
+    private Long movedFrom;
+    @Column(nullable = false)
+    private Timestamp createdOn;
+    private Timestamp dispatchedOn;
+    private int attempts;
+    /**
+     * Place in the change feed, in commit order; null until the dispatcher has seen the event committed.
+     */
+    private Long position;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String changeType, String payload, Timestamp createdOn) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdOn = createdOn;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", aggregateType='" + aggregateType + '\'' +
+                ", aggregateId=" + aggregateId +
+                ", changeType='" + changeType + '\'' +
+                ", movedFrom=" + movedFrom +
+                ", createdOn=" + createdOn +
+                ", dispatchedOn=" + dispatchedOn +
+                ", attempts=" + attempts +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.employee.models;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Lease on the outbox of a database: the instance named in {@code owner} is the only one
+ * dispatching its events until {@code expiresOn}, and renews the lease while it works. It also
+ * holds the last change feed position given to an event of the outbox.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "outbox_lease")
+public class OutboxLease {
+
+    public static final String DISPATCHER = "dispatcher";
+
+    @Id
+    @Column(length = 32)
+    private String name;
+    @Column(length = 128)
+    private String owner;
+    private Timestamp expiresOn;
+    private Long position;
+
+    @Override
+    public String toString() {
+        return "OutboxLease{" +
+                "name='" + name + '\'' +
+                ", owner='" + owner + '\'' +
+                ", expiresOn=" + expiresOn +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.employee.outbox;
+
+import java.time.Instant;
+
+/**
+ * Change of an employee or department as delivered to subscribers and sinks.
+ * <p>
+ * Events of one entity are delivered in the order they were committed. Delivery is at least
+ * once: after a failure or a restart an event can be seen again, so consumers should treat
+ * {@link #getId()} as an idempotency key.
+ */
+public class ChangeEvent {
+
+    public static final String EMPLOYEE = "EMPLOYEE";
+    public static final String DEPARTMENT = "DEPARTMENT";
+
+    private final long id;
+    private final String aggregateType;
+    private final long aggregateId;
+    private final String changeType;
+    private final String payload;
+    private final Instant createdOn;
+
+    public ChangeEvent(long id, String aggregateType, long aggregateId, String changeType, String payload, Instant createdOn) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.payload = payload;
+        this.createdOn = createdOn;
+    }
+
+    /**
+     * @return position of the event in the outbox, increasing with commit order per entity
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return {@link #EMPLOYEE} or {@link #DEPARTMENT}
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public long getAggregateId() {
+        return aggregateId;
+    }
+
+    /**
+     * @return CREATED, UPDATED or DELETED
+     */
+    public String getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * @return the entity as of the change, as EmployeeDTO or DepartmentDTO JSON, or null
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedOn() {
+        return createdOn;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "id=" + id +
+                ", aggregateType='" + aggregateType + '\'' +
+                ", aggregateId=" + aggregateId +
+                ", changeType='" + changeType + '\'' +
+                ", createdOn=" + createdOn +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.employee.outbox;
+
+/**
+ * Destination of committed changes outside the application, such as a message broker. At most
+ * one sink bean is used; without one, changes are logged by {@link LoggingChangeEventSink}.
+ */
+public interface ChangeEventSink {
+
+    /**
+     * Sends one change, called before the in-process subscribers. Throwing makes the dispatcher
+     * retry the event on its next run.
+     */
+    void send(ChangeEvent event) throws Exception;
+}
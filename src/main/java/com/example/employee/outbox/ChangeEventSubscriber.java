@@ -0,0 +1,14 @@
+package com.example.employee.outbox;
+
+/**
+ * In-process consumer of committed changes. Beans implementing this interface are called by the
+ * outbox dispatcher, on its thread, in commit order per entity.
+ */
+public interface ChangeEventSubscriber {
+
+    /**
+     * Handles one change. Throwing makes the dispatcher retry this event, and hold back later
+     * events of the same entity, on its next run; other subscribers then see it again too.
+     */
+    void onChange(ChangeEvent event) throws Exception;
+}
@@ -0,0 +1,16 @@
+package com.example.employee.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sink used when no {@link ChangeEventSink} bean is defined; logs each change at debug level.
+ */
+public class LoggingChangeEventSink implements ChangeEventSink {
+    Logger LOGGER = LoggerFactory.getLogger(LoggingChangeEventSink.class);
+
+    @Override
+    public void send(ChangeEvent event) {
+        LOGGER.debug("Change event : " + event);
+    }
+}
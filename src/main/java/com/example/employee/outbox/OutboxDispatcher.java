@@ -0,0 +1,244 @@
+package com.example.employee.outbox;
+
+import com.example.employee.models.OutboxEvent;
+import com.example.employee.models.OutboxLease;
+import com.example.employee.repository.OutboxEventRepository;
+import com.example.employee.repository.OutboxLeaseRepository;
+import com.example.employee.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to the {@link ChangeEventSink} and the {@link ChangeEventSubscriber}
+ * beans, then marks them dispatched.
+ * <p>
+ * Events are read in id order, which is commit order per entity. When delivering an event
+ * fails it stays pending, and the later events of the same entity are held back until it goes
+ * through, so a consumer never sees an entity's changes out of order. Events are marked only
+ * after delivery, so a crash in between redelivers them: delivery is at least once. Dispatched
+ * events are kept for {@code app.outbox.retention} before being deleted.
+ * <p>
+ * Instances sharing a database each run a dispatcher, but only the one holding the outbox lease
+ * delivers: it renews the lease before every batch, and another instance takes over once it has
+ * not been renewed for {@code app.outbox.lease-timeout}, which must exceed the time a batch takes
+ * to deliver. The lease is let go on shutdown. With sharding each shard has its own outbox and
+ * lease, dispatched one after the other, so the order holds per shard: an employee moved to
+ * another shard may have its changes delivered out of order.
+ * <p>
+ * Before delivering, the lease holder gives the committed events their change feed position, the
+ * next number after the last one kept in the lease row. Only committed events are visible to it
+ * and one instance at a time numbers them, so an event committing late still gets a position after
+ * every one already handed out, and a feed reader that moved past a position misses nothing. Events
+ * are delivered only once positioned, so they are never deleted before the feed could see them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher implements DisposableBean {
+    Logger LOGGER = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxLeaseRepository outboxLeaseRepository;
+    @Autowired
+    private ObjectProvider<ChangeEventSubscriber> subscribers;
+    @Autowired
+    private ObjectProvider<ChangeEventSink> sinks;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+    @Value("${app.outbox.lease-timeout:30s}")
+    private Duration leaseTimeout = Duration.ofSeconds(30);
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private ChangeEventSink sink;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500}")
+    public void poll() {
+        try {
+            dispatch();
+        } catch (DataAccessException e) {
+            // Events stay pending and are picked up by a later poll once the database is back.
+            LOGGER.warn("Could not read the outbox : " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Delivers pending events until none are left or a batch makes no progress.
+     * @return number of events dispatched
+     */
+    public synchronized int dispatch() {
+        int[] dispatched = {0};
+        shards.forEach(shard -> dispatched[0] += dispatchShard());
+        return dispatched[0];
+    }
+
+    private int dispatchShard() {
+        int dispatched = 0;
+        while (acquireLease()) {
+            int positioned;
+            do {
+                positioned = position();
+            } while (positioned == batchSize);
+            List<OutboxEvent> pending = outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (pending.isEmpty()) {
+                return dispatched;
+            }
+            int delivered = dispatchBatch(pending);
+            dispatched += delivered;
+            if (delivered < pending.size()) {
+                return dispatched;
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Takes or renews the lease on the outbox of the current shard.
+     * @return whether this instance holds it
+     */
+    private boolean acquireLease() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long now = System.currentTimeMillis();
+        Timestamp expiresOn = new Timestamp(now + leaseTimeout.toMillis());
+        Integer acquired = transactionTemplate.execute(status ->
+                outboxLeaseRepository.acquire(OutboxLease.DISPATCHER, owner, new Timestamp(now), expiresOn));
+        if (acquired != null && acquired > 0) {
+            return true;
+        }
+        if (outboxLeaseRepository.existsById(OutboxLease.DISPATCHER)) {
+            return false;
+        }
+        try {
+            // First dispatcher on this database: whoever inserts the lease holds it.
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxLeaseRepository.create(OutboxLease.DISPATCHER, owner, expiresOn));
+            LOGGER.info("Created the outbox lease for " + owner);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Numbers the next batch of committed events of the current shard, under the lock of the lease row.
+     * @return number of events positioned
+     */
+    private int position() {
+        Integer positioned = new TransactionTemplate(transactionManager).execute(status -> {
+            OutboxLease lease = outboxLeaseRepository.findHeldForUpdate(OutboxLease.DISPATCHER, owner).orElse(null);
+            if (lease == null) {
+                return 0;
+            }
+            List<OutboxEvent> events = outboxEventRepository.findByPositionIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            long position = lease.getPosition() == null ? 0 : lease.getPosition();
+            for (OutboxEvent event : events) {
+                event.setPosition(++position);
+            }
+            lease.setPosition(position);
+            return events.size();
+        });
+        return positioned == null ? 0 : positioned;
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            shards.forEach(shard -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    outboxLeaseRepository.release(OutboxLease.DISPATCHER, owner, new Timestamp(System.currentTimeMillis()))));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not release the outbox lease : " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - retention.toMillis());
+        shards.forEach(shard -> {
+            Integer deleted = new TransactionTemplate(transactionManager)
+                    .execute(status -> outboxEventRepository.deleteDispatchedBefore(before));
+            if (deleted != null && deleted > 0) {
+                LOGGER.info("Deleted " + deleted + " dispatched outbox events older than " + retention);
+            }
+        });
+    }
+
+    private int dispatchBatch(List<OutboxEvent> pending) {
+        ChangeEventSink sink = sink();
+        List<ChangeEventSubscriber> consumers = subscribers.orderedStream().collect(Collectors.toList());
+        Set<String> heldBack = new HashSet<>();
+        List<Long> delivered = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+
+        for (OutboxEvent outboxEvent : pending) {
+            String key = outboxEvent.getAggregateType() + "/" + outboxEvent.getAggregateId();
+            if (heldBack.contains(key)) {
+                continue;
+            }
+            ChangeEvent event = toChangeEvent(outboxEvent);
+            try {
+                sink.send(event);
+                for (ChangeEventSubscriber consumer : consumers) {
+                    consumer.onChange(event);
+                }
+                delivered.add(outboxEvent.getId());
+            } catch (Exception e) {
+                LOGGER.error("Could not deliver " + event + " (attempt " + (outboxEvent.getAttempts() + 1)
+                        + "), holding back later changes of " + key, e);
+                heldBack.add(key);
+                failed.add(outboxEvent.getId());
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxEventRepository.markDispatched(delivered, new Timestamp(System.currentTimeMillis()));
+            }
+            if (!failed.isEmpty()) {
+                outboxEventRepository.incrementAttempts(failed);
+            }
+        });
+        LOGGER.debug("Dispatched " + delivered.size() + " outbox events, " + failed.size() + " failed");
+        return delivered.size();
+    }
+
+    private ChangeEventSink sink() {
+        if (sink == null) {
+            sink = sinks.getIfAvailable(LoggingChangeEventSink::new);
+        }
+        return sink;
+    }
+
+    private static ChangeEvent toChangeEvent(OutboxEvent outboxEvent) {
+        return new ChangeEvent(outboxEvent.getId(), outboxEvent.getAggregateType(), outboxEvent.getAggregateId(),
+                outboxEvent.getChangeType(), outboxEvent.getPayload(), outboxEvent.getCreatedOn().toInstant());
+    }
+}
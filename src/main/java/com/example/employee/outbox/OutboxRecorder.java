@@ -0,0 +1,82 @@
+package com.example.employee.outbox;
+
+import com.example.employee.events.DepartmentChangedEvent;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.models.OutboxEvent;
+import com.example.employee.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends the change events published by the services to the outbox table, in the transaction
+ * that made the change, so an event exists if and only if its change was committed.
+ * <p>
+ * Pending changes are flushed before the outbox row is inserted. The flush takes the row locks
+ * of updated entities, so when two transactions change the same entity the second one gets its
+ * outbox id only after the first committed, and ids follow commit order per entity. A batch of
+ * employee changes is flushed once and its rows inserted together.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRecorder {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @EventListener
+    @Transactional
+    public void onEmployeeChanged(EmployeeChangedEvent event) throws JsonProcessingException {
+        record(ChangeEvent.EMPLOYEE, event.getEmployeeId(), event.getChangeType().name(), event.getEmployee(),
+                event.getPreviousDeptId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onEmployeesChanged(EmployeesChangedEvent event) throws JsonProcessingException {
+        entityManager.flush();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<OutboxEvent> events = new ArrayList<>(event.getChanges().size());
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            events.add(outboxEvent(ChangeEvent.EMPLOYEE, change.getEmployeeId(), change.getChangeType().name(),
+                    change.getEmployee(), change.getPreviousDeptId(), now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    @EventListener
+    @Transactional
+    public void onDepartmentChanged(DepartmentChangedEvent event) throws JsonProcessingException {
+        record(ChangeEvent.DEPARTMENT, event.getDeptId(), event.getChangeType().name(), event.getDepartment(), null);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String changeType, Object payload, Long movedFrom)
+            throws JsonProcessingException {
+        entityManager.flush();
+        outboxEventRepository.save(outboxEvent(aggregateType, aggregateId, changeType, payload, movedFrom,
+                new Timestamp(System.currentTimeMillis())));
+    }
+
+    private OutboxEvent outboxEvent(String aggregateType, Long aggregateId, String changeType, Object payload, Long movedFrom,
+                                    Timestamp createdOn) throws JsonProcessingException {
+        String json = payload == null ? null : objectMapper.writeValueAsString(payload);
+        OutboxEvent event = new OutboxEvent(aggregateType, aggregateId, changeType, json, createdOn);
+        event.setMovedFrom(movedFrom);
+        return event;
+    }
+}
@@ -2,11 +2,18 @@ package com.example.employee.repository;
 
 import com.example.employee.models.Department;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, DepartmentRepositoryCustom {
     List<Department> findByIsActiveAndIsDeleted(boolean isActive, boolean isDeleted);
+
+    /**
+     * Ids of all departments that a lookup by id would still return, i.e. not soft deleted.
+     */
+    @Query("select d.deptId from Department d where d.isActive = true or d.isDeleted = false")
+    List<Long> findAllVisibleIds();
 }
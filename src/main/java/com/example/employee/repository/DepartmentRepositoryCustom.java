@@ -0,0 +1,17 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.FieldSet;
+
+import java.util.List;
+import java.util.Map;
+
+public interface DepartmentRepositoryCustom {
+
+    /**
+     * Selects only the columns behind the requested fields.
+     * @param fields requested department fields
+     * @param deptId id of the department to select, or null for all active departments
+     * @return one map per department from field name to value
+     */
+    List<Map<String, Object>> findFields(FieldSet fields, Long deptId);
+}
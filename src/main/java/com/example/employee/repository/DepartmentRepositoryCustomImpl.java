@@ -0,0 +1,41 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.FieldSet;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class DepartmentRepositoryCustomImpl implements DepartmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(FieldSet fields, Long deptId) {
+        // Department fields are named after the entity properties.
+        String select = fields.getNames().stream()
+                .map(name -> "d." + name + " as " + name)
+                .collect(Collectors.joining(", "));
+        String where = deptId == null
+                ? " where d.isActive = true and d.isDeleted = false"
+                : " where d.deptId = :deptId and (d.isActive = true or d.isDeleted = false)";
+
+        TypedQuery<Tuple> query = entityManager.createQuery("select " + select + " from Department d" + where, Tuple.class);
+        if (deptId != null) {
+            query.setParameter("deptId", deptId);
+        }
+        return query.getResultList().stream().map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : fields.getNames()) {
+                row.put(name, tuple.get(name));
+            }
+            return row;
+        }).collect(Collectors.toList());
+    }
+}
@@ -1,12 +1,75 @@
 package com.example.employee.repository;
 
+import com.example.employee.models.Department;
 import com.example.employee.models.Employee;
+import com.example.employee.sharding.AllShards;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    @AllShards
     List<Employee> findByIsActiveAndIsDeleted(boolean isActive, boolean isDeleted);
+
+    /**
+     * Active employees with an id above the given one, in id order: one keyset page per shard,
+     * which the caller merges and cuts to the page size.
+     */
+    @AllShards
+    @Query("select e from Employee e left join fetch e.department where e.isActive = true and e.isDeleted = false "
+            + "and e.employeeId > :after order by e.employeeId")
+    List<Employee> findPageAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Ids of all employees that a lookup by id would still return, i.e. not soft deleted.
+     */
+    @AllShards
+    @Query("select e.employeeId from Employee e where e.isActive = true or e.isDeleted = false")
+    List<Long> findAllVisibleIds();
+
+    /**
+     * Employees with the given ids, with their department fetched in the same query.
+     */
+    @AllShards
+    @Query("select e from Employee e left join fetch e.department where e.employeeId in :ids")
+    List<Employee> findWithDetailsByEmployeeIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Active employees per state, city, designation and department id, as [value, count] rows.
+     * These group the whole employee table and are meant for rebuilding the headcount summary only.
+     */
+    @Query("select e.employeeAddress.state, count(e) from Employee e where e.isActive = true and e.isDeleted = false group by e.employeeAddress.state")
+    List<Object[]> countActiveByState();
+
+    @Query("select e.employeeAddress.city, count(e) from Employee e where e.isActive = true and e.isDeleted = false group by e.employeeAddress.city")
+    List<Object[]> countActiveByCity();
+
+    @Query("select e.employeeDesignation, count(e) from Employee e where e.isActive = true and e.isDeleted = false group by e.employeeDesignation")
+    List<Object[]> countActiveByDesignation();
+
+    @Query("select d.deptId, count(e) from Employee e left join e.department d where e.isActive = true and e.isDeleted = false group by d.deptId")
+    List<Object[]> countActiveByDepartment();
+
+    /**
+     * Moves the employees with the given ids to the department, in one statement. Clears the
+     * persistence context, whose copies of the employees are stale afterwards.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.department = :department where e.employeeId in :ids")
+    int updateDepartment(@Param("ids") Collection<Long> ids, @Param("department") Department department);
+
+    /**
+     * Sets the designation of the employees with the given ids, in one statement. Clears the
+     * persistence context, whose copies of the employees are stale afterwards.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.employeeDesignation = :designation where e.employeeId in :ids")
+    int updateDesignation(@Param("ids") Collection<Long> ids, @Param("designation") String designation);
 }
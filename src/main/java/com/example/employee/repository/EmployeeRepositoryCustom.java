@@ -0,0 +1,45 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.FieldSet;
+import com.example.employee.models.Employee;
+import com.example.employee.sharding.AllShards;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Selects only the columns behind the requested fields, joining the department only when
+     * one of its fields is requested.
+     * @param fields requested employee fields
+     * @param employeeId id of the employee to select, or null for all active employees
+     * @return one map per employee from field name to value; the department field holds the
+     * Department entity
+     */
+    @AllShards
+    List<Map<String, Object>> findFields(FieldSet fields, Long employeeId);
+
+    /**
+     * Same as {@link #findFields(FieldSet, Long)} for a keyset page of the active employees: those
+     * with an id above the given one, in id order. Each row also holds the employeeId, requested or not.
+     * @param after id of the last employee of the previous page
+     * @param limit maximum number of employees
+     */
+    @AllShards
+    List<Map<String, Object>> findFieldsAfter(FieldSet fields, long after, int limit);
+
+    /**
+     * Selects and write-locks, for a bulk update in the current transaction, the employees a
+     * lookup by id would still return that match every given filter, with their department.
+     * A null filter matches every employee.
+     * @param employeeIds ids to match, any of them
+     * @param deptIds department ids to match, any of them
+     * @param designations designations to match, any of them
+     * @param states states to match, any of them
+     * @param cities cities to match, any of them
+     */
+    List<Employee> lockForUpdate(Collection<Long> employeeIds, Collection<Long> deptIds, Collection<String> designations,
+                                 Collection<String> states, Collection<String> cities);
+}
@@ -0,0 +1,110 @@
+package com.example.employee.repository;
+
+import com.example.employee.dto.FieldSet;
+import com.example.employee.models.Employee;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private static final Map<String, String> PATHS = Map.of(
+            "employeeId", "e.employeeId",
+            "employeeName", "e.employeeName",
+            "employeeDesignation", "e.employeeDesignation",
+            "phoneNumber", "e.phoneNumber",
+            "address", "e.employeeAddress.address",
+            "city", "e.employeeAddress.city",
+            "state", "e.employeeAddress.state",
+            "pincode", "e.employeeAddress.pincode",
+            "department", "d");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(FieldSet fields, Long employeeId) {
+        String where = employeeId == null
+                ? " where e.isActive = true and e.isDeleted = false"
+                : " where e.employeeId = :employeeId and (e.isActive = true or e.isDeleted = false)";
+        TypedQuery<Tuple> query = query(fields.getNames(), where);
+        if (employeeId != null) {
+            query.setParameter("employeeId", employeeId);
+        }
+        return rows(query, fields.getNames());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsAfter(FieldSet fields, long after, int limit) {
+        List<String> names = new ArrayList<>(fields.getNames());
+        if (!names.contains("employeeId")) {
+            names.add("employeeId");
+        }
+        TypedQuery<Tuple> query = query(names, " where e.isActive = true and e.isDeleted = false and e.employeeId > :after"
+                + " order by e.employeeId");
+        query.setParameter("after", after);
+        query.setMaxResults(limit);
+        return rows(query, names);
+    }
+
+    @Override
+    public List<Employee> lockForUpdate(Collection<Long> employeeIds, Collection<Long> deptIds, Collection<String> designations,
+                                        Collection<String> states, Collection<String> cities) {
+        Map<String, Collection<?>> filters = new LinkedHashMap<>();
+        filters.put("e.employeeId", employeeIds);
+        filters.put("d.deptId", deptIds);
+        filters.put("e.employeeDesignation", designations);
+        filters.put("e.employeeAddress.state", states);
+        filters.put("e.employeeAddress.city", cities);
+
+        StringBuilder jpql = new StringBuilder("select e from Employee e left join fetch e.department d"
+                + " where (e.isActive = true or e.isDeleted = false)");
+        int parameter = 0;
+        for (Map.Entry<String, Collection<?>> filter : filters.entrySet()) {
+            if (filter.getValue() != null) {
+                jpql.append(" and ").append(filter.getKey()).append(" in :p").append(parameter++);
+            }
+        }
+        TypedQuery<Employee> query = entityManager.createQuery(jpql.append(" order by e.employeeId").toString(), Employee.class);
+        parameter = 0;
+        for (Collection<?> values : filters.values()) {
+            if (values != null) {
+                query.setParameter("p" + parameter++, values);
+            }
+        }
+        return query.setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+    }
+
+    private TypedQuery<Tuple> query(List<String> names, String where) {
+        List<String> paths = names.stream().map(PATHS::get).collect(Collectors.toList());
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < paths.size(); i++) {
+            jpql.append(i == 0 ? "" : ", ").append(paths.get(i)).append(" as ").append(names.get(i));
+        }
+        jpql.append(" from Employee e");
+        if (paths.contains("d")) {
+            jpql.append(" left join e.department d");
+        }
+        jpql.append(where);
+        return entityManager.createQuery(jpql.toString(), Tuple.class);
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query, List<String> names) {
+        return query.getResultList().stream().map(tuple -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : names) {
+                row.put(name, tuple.get(name));
+            }
+            return row;
+        }).collect(Collectors.toList());
+    }
+}
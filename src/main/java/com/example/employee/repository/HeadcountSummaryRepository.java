@@ -0,0 +1,38 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.models.HeadcountSummary;
+import com.example.employee.sharding.AllShards;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+@Repository
+public interface HeadcountSummaryRepository extends JpaRepository<HeadcountSummary, HeadcountKey> {
+
+    /**
+     * Adds the delta to the row, creating it when missing, in one statement and without reading it first.
+     */
+    @Modifying
+    @Query(value = "insert into headcount_summary (dimension, dimension_value, headcount) values (:dimension, :value, :delta) "
+            + "on duplicate key update headcount = headcount + :delta", nativeQuery = true)
+    int addHeadcount(@Param("dimension") String dimension, @Param("value") String value, @Param("delta") long delta);
+
+    @AllShards
+    @Query("select h from HeadcountSummary h where h.key.dimension = :dimension and h.headcount > 0 order by h.headcount desc, h.key.dimensionValue")
+    List<HeadcountSummary> findCounted(@Param("dimension") HeadcountDimension dimension);
+
+    /**
+     * All rows, locked until the end of the transaction so that no increment lands while they are rebuilt.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from HeadcountSummary h")
+    List<HeadcountSummary> findAllForUpdate();
+}
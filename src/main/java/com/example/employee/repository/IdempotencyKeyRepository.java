@@ -0,0 +1,52 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+
+/**
+ * Idempotency keys. Completing and abandoning only apply to the owner of a key in flight, so the
+ * returned count tells whether the caller still held it.
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claims the key for the request in flight, failing with a duplicate key when it is taken.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_key (id, fingerprint, owner, created_on, expires_on) " +
+            "values (:id, :fingerprint, :owner, :now, :expiresOn)", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("owner") String owner,
+              @Param("now") Timestamp now, @Param("expiresOn") Timestamp expiresOn);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKey k set k.status = :status, k.contentType = :contentType, k.location = :location, " +
+            "k.body = :body, k.expiresOn = :expiresOn where k.id = :id and k.owner = :owner and k.status is null")
+    int complete(@Param("id") String id, @Param("owner") String owner, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("location") String location,
+                 @Param("body") byte[] body, @Param("expiresOn") Timestamp expiresOn);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and k.owner = :owner and k.status is null")
+    int abandon(@Param("id") String id, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.id = :id and k.expiresOn < :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresOn < :now")
+    int deleteExpired(@Param("now") Timestamp now);
+}
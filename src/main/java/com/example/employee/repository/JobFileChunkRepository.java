@@ -0,0 +1,25 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.JobFileChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Pieces of the files uploaded for jobs, read back one at a time in order.
+ */
+@Repository
+public interface JobFileChunkRepository extends JpaRepository<JobFileChunk, Long> {
+
+    Optional<JobFileChunk> findByFileIdAndSeq(String fileId, int seq);
+
+    @Transactional
+    @Modifying
+    @Query("delete from JobFileChunk c where c.fileId = :fileId")
+    int deleteByFileId(@Param("fileId") String fileId);
+}
@@ -0,0 +1,107 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.Job;
+import com.example.employee.models.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Jobs and their state changes. Each change only applies to a job in the expected state, and for
+ * a running job only to its owner, so the returned count tells whether it went through.
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    /**
+     * Jobs of the given type and status, either of them when null, newest first.
+     */
+    @Query("select j from Job j where (:type is null or j.type = :type) and (:status is null or j.status = :status) order by j.id desc")
+    List<Job> findJobs(@Param("type") String type, @Param("status") JobStatus status, Pageable pageable);
+
+    /**
+     * Oldest jobs waiting to run.
+     */
+    List<Job> findByStatusOrderByIdAsc(JobStatus status, Pageable pageable);
+
+    @Query("select j.cancelRequested from Job j where j.id = :id")
+    Boolean isCancelRequested(@Param("id") Long id);
+
+    /**
+     * Claims a queued job while fewer than {@code maxRunning} jobs of its type run, counting them
+     * in the same statement. The count sits in an aggregated derived table, which MySQL reads
+     * before updating instead of refusing a subquery on the table being updated.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update job set status = 'RUNNING', owner = :owner, heartbeat_on = :now, started_on = coalesce(started_on, :now), " +
+            "attempts = attempts + 1 where id = :id and status = 'QUEUED' and (select r.running from " +
+            "(select count(*) as running from job where type = :type and status = 'RUNNING') r) < :maxRunning", nativeQuery = true)
+    int claim(@Param("id") Long id, @Param("type") String type, @Param("maxRunning") int maxRunning,
+              @Param("owner") String owner, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.heartbeatOn = :now where j.id in :ids and j.owner = :owner and j.status = 'RUNNING'")
+    int heartbeat(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.checkpoint = :checkpoint, j.itemsDone = :itemsDone, j.itemsTotal = :itemsTotal, j.heartbeatOn = :now " +
+            "where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("checkpoint") String checkpoint,
+                   @Param("itemsDone") long itemsDone, @Param("itemsTotal") Long itemsTotal, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.itemsDone = :itemsDone, j.itemsTotal = :itemsTotal, j.heartbeatOn = :now " +
+            "where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int progress(@Param("id") Long id, @Param("owner") String owner, @Param("itemsDone") long itemsDone,
+                 @Param("itemsTotal") Long itemsTotal, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = :status, j.result = :result, j.error = :error, j.finishedOn = :now " +
+            "where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") JobStatus status,
+               @Param("result") String result, @Param("error") String error, @Param("now") Timestamp now);
+
+    /**
+     * Hands a running job back to the queue, keeping its checkpoint.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = 'QUEUED', j.owner = null where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+
+    /**
+     * Queues again the running jobs whose owner stopped renewing their lease.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = 'QUEUED', j.owner = null where j.status = 'RUNNING' and j.heartbeatOn < :before")
+    int releaseAbandoned(@Param("before") Timestamp before);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Job j set j.status = 'CANCELLED', j.cancelRequested = true, j.finishedOn = :now where j.id = :id and j.status = 'QUEUED'")
+    int cancelQueued(@Param("id") Long id, @Param("now") Timestamp now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Job j set j.cancelRequested = true where j.id = :id and j.status = 'RUNNING'")
+    int requestCancel(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Job j where j.finishedOn < :before")
+    int deleteFinishedBefore(@Param("before") Timestamp before);
+}
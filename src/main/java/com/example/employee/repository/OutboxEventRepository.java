@@ -0,0 +1,44 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events not delivered yet that have their feed position, in the order they were written.
+     */
+    List<OutboxEvent> findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Committed events still without a feed position, in the order they were written.
+     */
+    List<OutboxEvent> findByPositionIsNullOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Events of the aggregate type after the given feed position, in position order, for the change feed.
+     */
+    List<OutboxEvent> findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(String aggregateType, long position, Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent o set o.dispatchedOn = :dispatchedOn where o.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedOn") Timestamp dispatchedOn);
+
+    @Modifying
+    @Query("update OutboxEvent o set o.attempts = o.attempts + 1 where o.id in :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent o where o.dispatchedOn < :before")
+    int deleteDispatchedBefore(@Param("before") Timestamp before);
+}
@@ -0,0 +1,51 @@
+package com.example.employee.repository;
+
+import com.example.employee.models.OutboxLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/**
+ * Outbox leases. Taking and letting go only apply to a lease the caller holds or that has expired, so the
+ * returned count tells whether the caller holds it.
+ */
+@Repository
+public interface OutboxLeaseRepository extends JpaRepository<OutboxLease, String> {
+
+    /**
+     * Takes or renews the lease until the given time.
+     */
+    @Modifying
+    @Query("update OutboxLease l set l.owner = :owner, l.expiresOn = :expiresOn " +
+            "where l.name = :name and (l.owner = :owner or l.expiresOn < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("now") Timestamp now,
+                @Param("expiresOn") Timestamp expiresOn);
+
+    /**
+     * The lease if the caller holds it, locked until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from OutboxLease l where l.name = :name and l.owner = :owner")
+    Optional<OutboxLease> findHeldForUpdate(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * Creates the lease held by the caller, failing with a duplicate key when it exists.
+     */
+    @Modifying
+    @Query(value = "insert into outbox_lease (name, owner, expires_on) values (:name, :owner, :expiresOn)", nativeQuery = true)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("expiresOn") Timestamp expiresOn);
+
+    /**
+     * Lets the lease go, so another instance can take it without waiting for it to expire.
+     */
+    @Modifying
+    @Query("update OutboxLease l set l.expiresOn = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Timestamp now);
+}
@@ -0,0 +1,22 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+
+public interface ChangeFeedService {
+
+    /**
+     * Fetches the employee changes made after the given token
+     * @param since token returned by the previous sync, or null for a token of the current position
+     * @param limit maximum number of changes
+     * @return ChangeFeedDTO Returns the changes in the order they were made, and the token of the next sync
+     * @throws Exception Throws an exception when the token cannot be read or has expired, or the limit is out of range
+     */
+    public ChangeFeedDTO<EmployeeDTO> getEmployeeChanges(String since, int limit) throws Exception;
+
+    /**
+     * Same as {@link #getEmployeeChanges(String, int)} for the department changes
+     */
+    public ChangeFeedDTO<DepartmentDTO> getDepartmentChanges(String since, int limit) throws Exception;
+}
@@ -0,0 +1,214 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.exception.ChangeTokenExpiredException;
+import com.example.employee.exception.InvalidChangeTokenException;
+import com.example.employee.exception.InvalidPageRequestException;
+import com.example.employee.models.OutboxEvent;
+import com.example.employee.models.OutboxLease;
+import com.example.employee.outbox.ChangeEvent;
+import com.example.employee.repository.OutboxEventRepository;
+import com.example.employee.repository.OutboxLeaseRepository;
+import com.example.employee.sharding.Shards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Incremental sync of employees and departments, read from the outbox: every committed change
+ * has an outbox event, with the entity as of the change.
+ * <p>
+ * The token holds the feed position of the last event returned from each shard and the time it
+ * was issued. Event ids are allocated before commit, so an event can become visible after one
+ * with a higher id; the feed therefore reads by position instead, which the outbox dispatcher
+ * gives events in commit order once they are committed, so no event ever appears behind a
+ * position already returned. Changes show up in the feed within an outbox poll interval of their
+ * commit. Reads go to the primary, since a lagging replica could hide a change the token moves past.
+ * <p>
+ * Dispatched events are deleted after {@code app.outbox.retention}; a token issued longer ago
+ * than that may have missed deleted changes and is refused as expired, as is a token of the
+ * former id based format.
+ */
+@Service
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+    Logger LOGGER = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxLeaseRepository outboxLeaseRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.changes.max-limit:1000}")
+    private int maxLimit = 1000;
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+
+    @Override
+    public ChangeFeedDTO<EmployeeDTO> getEmployeeChanges(String since, int limit) throws Exception {
+        LOGGER.trace("Entering the method getEmployeeChanges");
+        return changes(ChangeEvent.EMPLOYEE, EmployeeDTO.class, since, limit);
+    }
+
+    @Override
+    public ChangeFeedDTO<DepartmentDTO> getDepartmentChanges(String since, int limit) throws Exception {
+        LOGGER.trace("Entering the method getDepartmentChanges");
+        return changes(ChangeEvent.DEPARTMENT, DepartmentDTO.class, since, limit);
+    }
+
+    private <T> ChangeFeedDTO<T> changes(String aggregateType, Class<T> type, String since, int limit) throws Exception {
+        if (limit < 1 || limit > maxLimit) {
+            LOGGER.error("Invalid change feed limit " + limit);
+            throw new InvalidPageRequestException("The change limit must be between 1 and " + maxLimit);
+        }
+        long now = System.currentTimeMillis();
+        if (since == null) {
+            long[] positions = new long[shards.count()];
+            shards.forEach(shard -> positions[shard] = currentPosition());
+            return new ChangeFeedDTO<>(List.of(), Token.encode(now, positions), false);
+        }
+
+        Token token = Token.decode(since, shards.count());
+        if (token.issuedOn <= now - retention.toMillis()) {
+            LOGGER.error("Expired change feed token issued on " + new Timestamp(token.issuedOn));
+            throw new ChangeTokenExpiredException("The changes since this token are no longer kept, download everything again");
+        }
+
+        // Events of each shard in position order, merged by time and cut to the limit, so what
+        // is returned of a shard is always a prefix of its events and its position stays exact.
+        List<Deque<OutboxEvent>> pending = new ArrayList<>(shards.count());
+        boolean[] full = new boolean[shards.count()];
+        for (int shard = 0; shard < shards.count(); shard++) {
+            long after = token.positions[shard];
+            List<OutboxEvent> events = shards.on(shard, () -> outboxEventRepository
+                    .findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(aggregateType, after, PageRequest.of(0, limit)));
+            full[shard] = events.size() == limit;
+            pending.add(new ArrayDeque<>(events));
+        }
+
+        List<ChangeDTO<T>> changes = new ArrayList<>();
+        long[] positions = token.positions.clone();
+        while (changes.size() < limit) {
+            int next = -1;
+            for (int shard = 0; shard < pending.size(); shard++) {
+                OutboxEvent head = pending.get(shard).peek();
+                if (head != null && (next < 0 || head.getCreatedOn().before(pending.get(next).peek().getCreatedOn()))) {
+                    next = shard;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            OutboxEvent event = pending.get(next).poll();
+            positions[next] = event.getPosition();
+            changes.add(new ChangeDTO<>(event.getChangeType(), event.getAggregateId(), event.getCreatedOn().toInstant(),
+                    event.getMovedFrom(), record(event, type)));
+        }
+        boolean more = changes.size() == limit;
+        for (int shard = 0; shard < full.length; shard++) {
+            more |= full[shard];
+        }
+
+        LOGGER.info("Fetched " + changes.size() + " " + aggregateType.toLowerCase() + " changes");
+        return new ChangeFeedDTO<>(changes, Token.encode(now, positions), more);
+    }
+
+    /**
+     * @return the last feed position given to an event of the shard
+     */
+    private long currentPosition() {
+        return outboxLeaseRepository.findById(OutboxLease.DISPATCHER)
+                .map(OutboxLease::getPosition)
+                .orElse(0L);
+    }
+
+    private <T> T record(OutboxEvent event, Class<T> type) {
+        if (event.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the payload of outbox event " + event.getId() + " : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opaque sync position: the format version, the issue time and the last feed position per
+     * shard, as url-safe base64.
+     */
+    private static final class Token {
+        static final String VERSION = "p";
+
+        final long issuedOn;
+        final long[] positions;
+
+        private Token(long issuedOn, long[] positions) {
+            this.issuedOn = issuedOn;
+            this.positions = positions;
+        }
+
+        static String encode(long issuedOn, long[] positions) {
+            StringBuilder token = new StringBuilder(VERSION).append(':').append(issuedOn);
+            for (long position : positions) {
+                token.append(':').append(position);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static Token decode(String token, int shardCount) throws InvalidChangeTokenException, ChangeTokenExpiredException {
+            String[] parts;
+            long issuedOn;
+            long[] positions;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            } catch (IllegalArgumentException e) {
+                throw new InvalidChangeTokenException("Invalid change token : " + token);
+            }
+            if (parts.length > 1 && parts[0].matches("[0-9]+")) {
+                // Issued when the feed was read by event id, which positions do not follow.
+                throw new ChangeTokenExpiredException("The change token predates the change feed positions, download everything again");
+            }
+            if (parts.length < 3 || !parts[0].equals(VERSION)) {
+                throw new InvalidChangeTokenException("Invalid change token : " + token);
+            }
+            try {
+                issuedOn = Long.parseLong(parts[1]);
+                positions = new long[parts.length - 2];
+                for (int shard = 0; shard < positions.length; shard++) {
+                    positions[shard] = Long.parseLong(parts[shard + 2]);
+                }
+            } catch (NumberFormatException e) {
+                throw new InvalidChangeTokenException("Invalid change token : " + token);
+            }
+            if (positions.length != shardCount) {
+                // Issued before shards were added or removed: positions can no longer be trusted.
+                throw new ChangeTokenExpiredException("The change token predates a change of the shards, download everything again");
+            }
+            return new Token(issuedOn, positions);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.employee.services;
 
 import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.FieldSet;
 
 import java.util.List;
 
@@ -21,6 +22,23 @@ public interface DepartmentService {
      */
     public DepartmentDTO getDepartment(Long deptId) throws Exception;
 
+    /**
+     * Fetches only the given fields of all the departments, leaving the others unset
+     * @param fields fields to be fetched
+     * @return List<DepartmentDTO> Returns the departments with the given fields set
+     * @throws Exception Throws exception when there are no departments in the database
+     */
+    public List<DepartmentDTO> getDepartments(FieldSet fields) throws Exception;
+
+    /**
+     * Fetches only the given fields of the department with a specific department id
+     * @param deptId Department id of the department to be fetched
+     * @param fields fields to be fetched
+     * @return Department Returns the department with the given fields set
+     * @throws Exception Throws exception when the department with given id does not exist
+     */
+    public DepartmentDTO getDepartment(Long deptId, FieldSet fields) throws Exception;
+
     /**
      * Updates the details of department with the given department id
      * @param deptId Department id of the department to be updated
@@ -1,17 +1,27 @@
 package com.example.employee.services;
 
+import com.example.employee.cache.EntityIdFilters;
+import com.example.employee.config.ReadReplica;
 import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.FieldSet;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.DepartmentChangedEvent;
 import com.example.employee.exception.DepartmentNotFoundException;
 import com.example.employee.exception.NoDataFoundException;
 import com.example.employee.models.Department;
 import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.tracing.TracedModelMapper;
 import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,8 +30,12 @@ public class DepartmentServiceImpl implements DepartmentService{
 
     @Autowired
     private DepartmentRepository departmentRepository;
+    @Autowired
+    private EntityIdFilters entityIdFilters;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    private final ModelMapper modelMapper=new ModelMapper();
+    private final ModelMapper modelMapper=new TracedModelMapper();
 
     /**
      * Fetches all the departments from the database.
@@ -29,6 +43,8 @@ public class DepartmentServiceImpl implements DepartmentService{
      * @throws Exception Throws exception when there are no departments in the database
      */
     @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
     public List<DepartmentDTO> getDepartments() throws Exception{
         LOGGER.trace("Entering method getDepartment...");
 
@@ -54,8 +70,15 @@ public class DepartmentServiceImpl implements DepartmentService{
      * @throws Exception Throws exception when the department with given id does not exist
      */
     @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
     public DepartmentDTO getDepartment(Long deptId) throws Exception{
         LOGGER.trace("Entering the method getDepartment");
+        if (entityIdFilters.isKnownAbsentDepartment(deptId)) {
+            LOGGER.debug("Department id rejected by the id filter : " + deptId);
+            throw new DepartmentNotFoundException("Department not found with deptId : " + deptId);
+        }
+
         LOGGER.debug("Fetching department from the database with id : " + deptId);
 
         Department departmentFromDb = departmentRepository.findById(deptId).orElseThrow(
@@ -74,6 +97,59 @@ public class DepartmentServiceImpl implements DepartmentService{
         return departmentToDepartmentDTO(departmentFromDb);
     }
 
+    /**
+     * Fetches only the given fields of all the departments, selecting just their columns
+     * @param fields fields to be fetched
+     * @return List<DepartmentDTO> Returns the departments with the given fields set
+     * @throws Exception Throws exception when there are no departments in the database
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public List<DepartmentDTO> getDepartments(FieldSet fields) throws Exception{
+        LOGGER.trace("Entering method getDepartments with fields " + fields);
+
+        List<DepartmentDTO> departments = departmentRepository.findFields(fields, null)
+                .stream()
+                .map(row -> fieldsToDepartmentDTO(row, fields))
+                .collect(Collectors.toList());
+
+        if (departments.isEmpty()) {
+            LOGGER.error("No data found in the department table");
+            throw new NoDataFoundException("There is no data in the department table");
+        }
+
+        LOGGER.info("Fetched fields " + fields + " of all the departments from the database");
+        return departments;
+    }
+
+    /**
+     * Fetches only the given fields of the department with a specific department id
+     * @param deptId Department id of the department to be fetched
+     * @param fields fields to be fetched
+     * @return Department Returns the department with the given fields set
+     * @throws Exception Throws exception when the department with given id does not exist
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public DepartmentDTO getDepartment(Long deptId, FieldSet fields) throws Exception{
+        LOGGER.trace("Entering the method getDepartment with fields " + fields);
+        if (entityIdFilters.isKnownAbsentDepartment(deptId)) {
+            LOGGER.debug("Department id rejected by the id filter : " + deptId);
+            throw new DepartmentNotFoundException("Department not found with deptId : " + deptId);
+        }
+
+        List<Map<String, Object>> rows = departmentRepository.findFields(fields, deptId);
+        if (rows.isEmpty()) {
+            LOGGER.error("Department not found with id : "+deptId);
+            throw new DepartmentNotFoundException("Department not found with deptId : "+deptId);
+        }
+
+        LOGGER.info("Fetched fields " + fields + " of department with id : "+deptId);
+        return fieldsToDepartmentDTO(rows.get(0), fields);
+    }
+
     /**
      * Updates the details of department with the given department id
      * @param deptId Department id of the department to be updated
@@ -82,6 +158,7 @@ public class DepartmentServiceImpl implements DepartmentService{
      * @throws Exception Throws exception when the department to be updated does not exist
      */
     @Override
+    @Transactional
     public DepartmentDTO updateDepartment(Long deptId, DepartmentDTO departmentDTO) throws Exception{
         LOGGER.trace("Entering method updateDepartment");
 
@@ -104,9 +181,11 @@ public class DepartmentServiceImpl implements DepartmentService{
         departmentFromDb.setUpdatedBy(departmentDTO.getUpdatedBy());
 
         departmentRepository.save(departmentFromDb);
+        DepartmentDTO updated = departmentToDepartmentDTO(departmentFromDb);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(ChangeType.UPDATED, deptId, updated));
         LOGGER.info("Details of department updated with id : "+deptId);
 
-        return departmentToDepartmentDTO(departmentFromDb);
+        return updated;
     }
 
     /**
@@ -114,6 +193,7 @@ public class DepartmentServiceImpl implements DepartmentService{
      * @param departmentDTO Department to be saved in database
      */
     @Override
+    @Transactional
     public void createDepartment(DepartmentDTO departmentDTO) {
         LOGGER.trace("Entering the method createDepartment.");
         departmentDTO.setUpdatedBy(departmentDTO.getCreatedBy());
@@ -123,6 +203,8 @@ public class DepartmentServiceImpl implements DepartmentService{
         department.setDeleted(false);
 
         departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(ChangeType.CREATED, department.getDeptId(),
+                departmentToDepartmentDTO(department)));
         LOGGER.info("Department created successfully");
     }
 
@@ -133,6 +215,7 @@ public class DepartmentServiceImpl implements DepartmentService{
      * @throws Exception Throws exception when the department to be deleted does not exist
      */
     @Override
+    @Transactional
     public DepartmentDTO deleteDepartment(Long deptId) throws Exception{
         LOGGER.trace("Entering the method deleteDepartment.");
 
@@ -146,9 +229,11 @@ public class DepartmentServiceImpl implements DepartmentService{
         dept.setDeleted(true);
         dept.setActive(false);
         departmentRepository.save(dept);
+        DepartmentDTO deleted = departmentToDepartmentDTO(dept);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(ChangeType.DELETED, deptId, deleted));
 
         LOGGER.info("Department deleted with id : "+deptId);
-        return departmentToDepartmentDTO(dept);
+        return deleted;
     }
 
 
@@ -164,4 +249,22 @@ public class DepartmentServiceImpl implements DepartmentService{
         DepartmentDTO departmentDTO = this.modelMapper.map(department, DepartmentDTO.class);
         return departmentDTO;
     }
+    public DepartmentDTO fieldsToDepartmentDTO(Map<String, Object> row, FieldSet fields)
+    {
+        DepartmentDTO departmentDTO = new DepartmentDTO();
+        for (String field : fields.getNames()) {
+            Object value = row.get(field);
+            switch (field) {
+                case "deptId": departmentDTO.setDeptId((Long) value); break;
+                case "deptName": departmentDTO.setDeptName((String) value); break;
+                case "deptDescription": departmentDTO.setDeptDescription((String) value); break;
+                case "createdBy": departmentDTO.setCreatedBy(value == null ? 0 : ((Number) value).intValue()); break;
+                case "updatedBy": departmentDTO.setUpdatedBy(value == null ? 0 : ((Number) value).intValue()); break;
+                case "createdOn": departmentDTO.setCreatedOn((Timestamp) value); break;
+                case "updatedOn": departmentDTO.setUpdatedOn((Timestamp) value); break;
+                default: throw new IllegalArgumentException("Unknown department field " + field);
+            }
+        }
+        return departmentDTO;
+    }
 }
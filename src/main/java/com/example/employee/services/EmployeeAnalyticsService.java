@@ -0,0 +1,22 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.EmployeeAnalyticsDTO;
+import com.example.employee.models.HeadcountDimension;
+
+import java.util.List;
+import java.util.Map;
+
+public interface EmployeeAnalyticsService {
+
+    /**
+     * Counts, and optionally groups and lists, the active employees matching the filter, from the
+     * in-memory analytics snapshot
+     * @param filter accepted values per dimension, any of them matching; dimensions left out are not filtered on
+     * @param groupBy dimension to group the matching employees by, or null
+     * @param idLimit number of matching employee ids to return, or null for none
+     * @return EmployeeAnalyticsDTO Returns the count, groups and ids
+     * @throws Exception Throws an exception when the snapshot is not loaded or too many ids are asked for
+     */
+    public EmployeeAnalyticsDTO analyzeEmployees(Map<HeadcountDimension, List<String>> filter, HeadcountDimension groupBy,
+                                                 Integer idLimit) throws Exception;
+}
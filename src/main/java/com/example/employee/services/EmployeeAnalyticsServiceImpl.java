@@ -0,0 +1,69 @@
+package com.example.employee.services;
+
+import com.example.employee.analytics.ColumnarEmployeeTable;
+import com.example.employee.analytics.EmployeeSnapshot;
+import com.example.employee.dto.EmployeeAnalyticsDTO;
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.exception.InvalidLookupRequestException;
+import com.example.employee.exception.ServiceOverloadedException;
+import com.example.employee.models.HeadcountDimension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class EmployeeAnalyticsServiceImpl implements EmployeeAnalyticsService{
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeAnalyticsServiceImpl.class);
+
+    @Autowired
+    private EmployeeSnapshot employeeSnapshot;
+
+    @Value("${app.analytics.max-ids:10000}")
+    private int maxIds = 10_000;
+
+    /**
+     * Answers from the columnar snapshot without touching the database, so the result may lag
+     * the latest writes by the time their commit takes to be applied
+     */
+    @Override
+    public EmployeeAnalyticsDTO analyzeEmployees(Map<HeadcountDimension, List<String>> filter, HeadcountDimension groupBy,
+                                                 Integer idLimit) throws Exception {
+        LOGGER.trace("Entering the method analyzeEmployees");
+
+        if (idLimit != null && (idLimit < 0 || idLimit > maxIds)) {
+            LOGGER.error("Invalid employee id limit " + idLimit);
+            throw new InvalidLookupRequestException("Between 0 and " + maxIds + " employee ids can be returned");
+        }
+        ColumnarEmployeeTable table = employeeSnapshot.table();
+        if (table == null) {
+            LOGGER.warn("Analytics snapshot is not loaded");
+            throw new ServiceOverloadedException("Analytics snapshot is not loaded, retry later", 5);
+        }
+
+        long started = System.nanoTime();
+        EmployeeAnalyticsDTO analytics = new EmployeeAnalyticsDTO();
+        analytics.setCount(table.count(filter));
+        if (groupBy != null) {
+            List<HeadcountDTO> groups = table.groupBy(groupBy, filter).entrySet()
+                    .stream()
+                    .map(group -> new HeadcountDTO(group.getKey(), group.getValue()))
+                    .collect(Collectors.toList());
+            analytics.setGroups(groups);
+            analytics.setDistinct(groups.size());
+        }
+        if (idLimit != null) {
+            analytics.setEmployeeIds(Arrays.stream(table.ids(filter, idLimit)).boxed().collect(Collectors.toList()));
+        }
+
+        LOGGER.info("Analyzed " + analytics.getCount() + " employees matching " + filter + " in "
+                + (System.nanoTime() - started) / 1000 + " us");
+        return analytics;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
+
+public interface EmployeeBulkService {
+
+    /**
+     * Moves the given employees, or every employee of a department, to another department with
+     * set-based updates in one transaction
+     * @param deptId id of the department to move the employees to
+     * @param transfer ids of the employees to move, or the department to move them from
+     * @return BulkUpdateResultDTO Returns the number of employees matched and moved, and the ids not found
+     * @throws Exception Throws an exception when the department does not exist, or the request names
+     * no employees or too many
+     */
+    public BulkUpdateResultDTO transferEmployees(Long deptId, BulkTransferDTO transfer) throws Exception;
+
+    /**
+     * Sets the designation of every employee matching the filters with set-based updates in one transaction
+     * @param update new designation and the filters, at least one of them
+     * @return BulkUpdateResultDTO Returns the number of employees matched and changed
+     * @throws Exception Throws an exception when no filter is given or too many employees match
+     */
+    public BulkUpdateResultDTO updateDesignation(BulkDesignationDTO update) throws Exception;
+}
@@ -0,0 +1,270 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.exception.DepartmentNotFoundException;
+import com.example.employee.exception.InvalidBulkUpdateException;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.sharding.Shards;
+import com.example.employee.tracing.TracedModelMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Reorganisations as set-based SQL. The matching employees are selected and locked with one
+ * query, changed with one {@code UPDATE} per chunk of {@code app.employee.bulk.chunk-size} ids,
+ * and the headcount summary is adjusted once for all of them. The changed employees are
+ * published as one {@link EmployeesChangedEvent} per shard, so the outbox inserts their rows
+ * together and the response cache is invalidated once.
+ * <p>
+ * With sharding each shard is updated in its own transaction, each one opened while the previous
+ * shards' are still open, so the employees of every shard are locked, checked and changed before
+ * any shard commits, and a refused or failed update leaves every shard unchanged. The shards then
+ * commit one after the other, the last one first; only a failure of one of these commits can leave
+ * the update applied on the shards that committed before it. Employees moved to a department on
+ * another shard follow it after the commit.
+ */
+@Service
+public class EmployeeBulkServiceImpl implements EmployeeBulkService {
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeBulkServiceImpl.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private HeadcountService headcountService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.employee.bulk.max-employees:10000}")
+    private int maxEmployees = 10000;
+    @Value("${app.employee.bulk.chunk-size:500}")
+    private int chunkSize = 500;
+
+    private final ModelMapper modelMapper = new TracedModelMapper();
+
+    public EmployeeBulkServiceImpl() {
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+    }
+
+    @Override
+    public BulkUpdateResultDTO transferEmployees(Long deptId, BulkTransferDTO transfer) throws Exception {
+        LOGGER.trace("Entering the method transferEmployees");
+
+        Set<Long> employeeIds = ids(transfer.getEmployeeIds());
+        Long fromDeptId = transfer.getFromDeptId();
+        if ((employeeIds == null) == (fromDeptId == null)) {
+            LOGGER.error("Invalid bulk transfer to department " + deptId);
+            throw new InvalidBulkUpdateException("Either employeeIds or fromDeptId must be given");
+        }
+        Department target = departmentRepository.findById(deptId)
+                .filter(department -> department.isActive() || !department.isDeleted())
+                .orElseThrow(() -> {
+                    LOGGER.error("Department not found with id : " + deptId);
+                    return new DepartmentNotFoundException("Department not found with deptId : " + deptId);
+                });
+        shards.checkWritable(deptId);
+        if (fromDeptId != null) {
+            shards.checkWritable(fromDeptId);
+        }
+
+        BulkUpdateResultDTO result = update(employeeIds, () -> employeeRepository.lockForUpdate(employeeIds,
+                        fromDeptId == null ? null : List.of(fromDeptId), null, null, null),
+                employee -> employee.getDepartment() == null || !deptId.equals(employee.getDepartment().getDeptId()),
+                employee -> employee.setDepartment(target),
+                ids -> employeeRepository.updateDepartment(ids, target));
+
+        LOGGER.info("Moved " + result.getUpdated() + " of " + result.getMatched() + " employees to department " + deptId);
+        return result;
+    }
+
+    @Override
+    public BulkUpdateResultDTO updateDesignation(BulkDesignationDTO update) throws Exception {
+        LOGGER.trace("Entering the method updateDesignation");
+
+        String designation = update.getDesignation();
+        Set<Long> employeeIds = ids(update.getEmployeeIds());
+        List<String> fromDesignation = filter(update.getFromDesignation());
+        List<Long> department = filter(update.getDepartment());
+        List<String> state = filter(update.getState());
+        List<String> city = filter(update.getCity());
+        if (designation == null || designation.isBlank()) {
+            LOGGER.error("Bulk designation update without a designation");
+            throw new InvalidBulkUpdateException("The designation must be given");
+        }
+        if (employeeIds == null && fromDesignation == null && department == null && state == null && city == null) {
+            LOGGER.error("Bulk designation update without a filter");
+            throw new InvalidBulkUpdateException("At least one of employeeIds, fromDesignation, department, state or city must be given");
+        }
+
+        BulkUpdateResultDTO result = update(employeeIds,
+                () -> employeeRepository.lockForUpdate(employeeIds, department, fromDesignation, state, city),
+                employee -> !designation.equals(employee.getEmployeeDesignation()),
+                employee -> employee.setEmployeeDesignation(designation),
+                ids -> employeeRepository.updateDesignation(ids, designation));
+
+        LOGGER.info("Set the designation of " + result.getUpdated() + " of " + result.getMatched() + " employees to " + designation);
+        return result;
+    }
+
+    /**
+     * Runs a bulk update on every shard, in nested transactions.
+     * @param employeeIds the requested ids, to report those not found, or null
+     * @param lock selects and locks the matching employees
+     * @param needsChange whether a matching employee is not changed yet
+     * @param change the change, applied to the in-memory employee to tell the listeners
+     * @param update the same change as one statement for a chunk of ids
+     */
+    private BulkUpdateResultDTO update(Set<Long> employeeIds, Callable<List<Employee>> lock, Predicate<Employee> needsChange,
+                                       Consumer<Employee> change, ToIntFunction<List<Long>> update) throws Exception {
+        Set<Long> found = new HashSet<>();
+        long[] updated = {0};
+        updateFrom(0, lock, needsChange, change, update, found, updated);
+        List<Long> missingIds = employeeIds == null ? null
+                : employeeIds.stream().filter(employeeId -> !found.contains(employeeId)).collect(Collectors.toList());
+        return new BulkUpdateResultDTO(found.size(), updated[0], missingIds);
+    }
+
+    /**
+     * Updates the shard, then the following ones while its transaction is still open, so that it
+     * rolls back when a later shard refuses the update.
+     */
+    private void updateFrom(int shard, Callable<List<Employee>> lock, Predicate<Employee> needsChange, Consumer<Employee> change,
+                            ToIntFunction<List<Long>> update, Set<Long> found, long[] updated) throws Exception {
+        inTransaction(shard, () -> {
+            List<Employee> matched = lock.call();
+            if (found.size() + matched.size() > maxEmployees) {
+                LOGGER.error("Bulk update matching more than " + maxEmployees + " employees");
+                throw new InvalidBulkUpdateException("The update matches more than " + maxEmployees + " employees");
+            }
+            for (Employee employee : matched) {
+                found.add(employee.getEmployeeId());
+                if (employee.getDepartment() != null) {
+                    shards.checkWritable(employee.getDepartment().getDeptId());
+                }
+            }
+            List<Employee> changed = matched.stream().filter(needsChange).collect(Collectors.toList());
+            apply(changed, change, update);
+            updated[0] += changed.size();
+            if (shard + 1 < shards.count()) {
+                updateFrom(shard + 1, lock, needsChange, change, update, found, updated);
+            }
+            return null;
+        });
+    }
+
+    private void apply(List<Employee> changed, Consumer<Employee> change, ToIntFunction<List<Long>> update) {
+        List<Long> ids = changed.stream().map(Employee::getEmployeeId).collect(Collectors.toList());
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            update.applyAsInt(ids.subList(start, Math.min(start + chunkSize, ids.size())));
+        }
+
+        // The update cleared the persistence context, so these copies are detached and only
+        // changed in memory, to count and publish them as they are now.
+        List<HeadcountKey> countedBefore = new ArrayList<>();
+        List<HeadcountKey> countedAfter = new ArrayList<>();
+        List<Long> previousDeptIds = new ArrayList<>(changed.size());
+        for (Employee employee : changed) {
+            countedBefore.addAll(HeadcountKey.of(employee));
+            previousDeptIds.add(deptIdOf(employee));
+            change.accept(employee);
+            countedAfter.addAll(HeadcountKey.of(employee));
+        }
+        headcountService.employeeChanged(countedBefore, countedAfter);
+        List<EmployeeChangedEvent> events = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i++) {
+            Employee employee = changed.get(i);
+            Long deptId = deptIdOf(employee);
+            Long previousDeptId = previousDeptIds.get(i);
+            events.add(new EmployeeChangedEvent(ChangeType.UPDATED, employee.getEmployeeId(), deptId,
+                    Objects.equals(deptId, previousDeptId) ? null : previousDeptId,
+                    modelMapper.map(employee, EmployeeDTO.class)));
+        }
+        if (!events.isEmpty()) {
+            eventPublisher.publishEvent(new EmployeesChangedEvent(events));
+        }
+    }
+
+    /**
+     * Runs the work in a new transaction on the shard, rolling back on any exception. A transaction
+     * already open on another shard is suspended meanwhile and stays uncommitted.
+     */
+    private void inTransaction(int shard, Callable<?> work) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            shards.on(shard, () -> transactionTemplate.execute(status -> {
+                try {
+                    return work.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedFailure(e);
+                }
+            }));
+        } catch (CheckedFailure e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private Set<Long> ids(List<Long> employeeIds) throws InvalidBulkUpdateException {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            return null;
+        }
+        Set<Long> ids = employeeIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty() || ids.size() > maxEmployees) {
+            LOGGER.error("Invalid bulk update of " + ids.size() + " ids");
+            throw new InvalidBulkUpdateException("Between 1 and " + maxEmployees + " employee ids must be given");
+        }
+        return ids;
+    }
+
+    private static Long deptIdOf(Employee employee) {
+        return employee.getDepartment() == null ? null : employee.getDepartment().getDeptId();
+    }
+
+    private static <T> List<T> filter(List<T> values) {
+        return values == null || values.isEmpty() ? null : values;
+    }
+
+    private static final class CheckedFailure extends RuntimeException {
+        CheckedFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.ExportResultDTO;
+import com.example.employee.export.ExportFormat;
+
+import java.io.OutputStream;
+
+public interface EmployeeExportService {
+
+    /**
+     * Streams all active employees, with their address and department, to the output stream
+     * @param format file format to write
+     * @param out stream to write to, flushed but not closed
+     * @return ExportResultDTO Returns the number of rows and bytes written
+     * @throws Exception Throws an exception when the database or the stream fail
+     */
+    public ExportResultDTO exportEmployees(ExportFormat format, OutputStream out) throws Exception;
+
+    /**
+     * Writes all active employees, with their address and department, to a new file in the
+     * export directory
+     * @param format file format to write
+     * @return ExportResultDTO Returns the file written and its number of rows and bytes
+     * @throws Exception Throws an exception when the database or the file system fail
+     */
+    public ExportResultDTO exportEmployees(ExportFormat format) throws Exception;
+}
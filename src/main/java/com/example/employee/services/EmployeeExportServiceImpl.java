@@ -0,0 +1,222 @@
+package com.example.employee.services;
+
+import com.example.employee.config.ReadReplica;
+import com.example.employee.csv.CsvWriter;
+import com.example.employee.dto.ExportResultDTO;
+import com.example.employee.export.ColumnarFileWriter;
+import com.example.employee.export.ColumnarFileWriter.ColumnType;
+import com.example.employee.export.ExportFormat;
+import com.example.employee.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Service
+public class EmployeeExportServiceImpl implements EmployeeExportService {
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeExportServiceImpl.class);
+
+    /**
+     * Same names as the fields of EmployeeDTO and the columns of the CSV import, so an export
+     * can be imported again.
+     */
+    static final List<String> COLUMNS = List.of("employeeId", "employeeName", "employeeDesignation", "phoneNumber",
+            "address", "city", "state", "pincode", "deptId", "deptName");
+    static final List<ColumnType> COLUMN_TYPES = List.of(ColumnType.LONG, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING,
+            ColumnType.STRING, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING, ColumnType.LONG, ColumnType.STRING);
+
+    static final String EXPORT_QUERY = "select e.employee_id, e.employee_name, e.employee_designation, e.phone_number, " +
+            "e.address, e.city, e.state, e.pincode, d.dept_id, d.dept_name " +
+            "from employee e " +
+            "left join department d on d.dept_id = e.dept_id " +
+            "where e.is_active = true and e.is_deleted = false " +
+            "order by e.employee_id";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.export.directory:${java.io.tmpdir}}")
+    private String exportDirectory = System.getProperty("java.io.tmpdir");
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+    @Value("${app.export.row-group-size:65536}")
+    private int rowGroupSize = 65536;
+
+    /**
+     * Streams all active employees to the output stream straight from a forward-only cursor, so
+     * memory use does not depend on the number of employees. With sharding the shards are read
+     * one after the other, each in id order.
+     * @param format file format to write
+     * @param out stream to write to, flushed but not closed
+     * @return ExportResultDTO Returns the number of rows and bytes written
+     * @throws Exception Throws an exception when the database or the stream fail
+     */
+    @Override
+    @ReadReplica
+    public ExportResultDTO exportEmployees(ExportFormat format, OutputStream out) throws Exception {
+        LOGGER.trace("Entering the method exportEmployees");
+
+        long started = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        BufferedOutputStream buffered = new BufferedOutputStream(counting, 64 * 1024);
+        RowSink sink = format == ExportFormat.CSV ? new CsvSink(buffered) : new ColumnarSink(buffered, rowGroupSize);
+        Object[] values = new Object[COLUMNS.size()];
+        long[] rows = new long[1];
+        try {
+            shards.forEach(shard -> jdbcTemplate.query(this::exportStatement, (ResultSet resultSet) -> {
+                values[0] = nullableLong(resultSet, 1);
+                for (int column = 2; column <= 8; column++) {
+                    values[column - 1] = resultSet.getString(column);
+                }
+                values[8] = nullableLong(resultSet, 9);
+                values[9] = resultSet.getString(10);
+                try {
+                    sink.write(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }));
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        LOGGER.info("Exported " + rows[0] + " employees as " + format + ", " + counting.count + " bytes in " + elapsedMillis + " ms");
+        return new ExportResultDTO(format.name(), rows[0], counting.count, null, elapsedMillis);
+    }
+
+    /**
+     * Writes all active employees to a new file in {@code app.export.directory}. The file only
+     * appears under its final name once complete.
+     * @param format file format to write
+     * @return ExportResultDTO Returns the file written and its number of rows and bytes
+     * @throws Exception Throws an exception when the database or the file system fail
+     */
+    @Override
+    @ReadReplica
+    public ExportResultDTO exportEmployees(ExportFormat format) throws Exception {
+        Path directory = Paths.get(exportDirectory);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("employees-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.getExtension());
+        Path partial = directory.resolve(file.getFileName() + ".part");
+
+        ExportResultDTO result;
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            result = exportEmployees(format, out);
+        } catch (Exception e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        result.setFile(file.toString());
+        return result;
+    }
+
+    private PreparedStatement exportStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE,
+        // which makes it stream row by row; other drivers honour a regular fetch size.
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+
+    private static Long nullableLong(ResultSet resultSet, int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private interface RowSink {
+        void write(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final CsvWriter writer;
+        private final String[] fields = new String[COLUMNS.size()];
+
+        CsvSink(OutputStream out) throws IOException {
+            writer = new CsvWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.writeRow(COLUMNS.toArray(new String[0]));
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int column = 0; column < values.length; column++) {
+                fields[column] = values[column] == null ? null : values[column].toString();
+            }
+            writer.writeRow(fields);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class ColumnarSink implements RowSink {
+        private final ColumnarFileWriter writer;
+
+        ColumnarSink(OutputStream out, int rowGroupSize) throws IOException {
+            writer = new ColumnarFileWriter(out, COLUMNS, COLUMN_TYPES, rowGroupSize);
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            writer.writeRow(values);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.finish();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
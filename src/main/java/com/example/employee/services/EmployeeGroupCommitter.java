@@ -0,0 +1,293 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.exception.DepartmentNotFoundException;
+import com.example.employee.exception.ServiceOverloadedException;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.sharding.Shards;
+import com.example.employee.tracing.TracedModelMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional group commit of employee creates. Callers enqueue their employee into a bounded queue
+ * and wait; a single committer thread takes up to {@code app.employee.group-commit.max-batch-size}
+ * creates, or whatever arrived within {@code max-delay-ms} of the first one, and inserts them in
+ * one transaction with JDBC batching. Each caller returns once its batch committed, so many
+ * concurrent creates share one commit and one log flush. Employee ids come from the sequence in
+ * blocks (see {@link com.example.employee.sharding.ShardedSequenceGenerator}), so a batch only
+ * reads the sequence when it crosses a block; the outbox rows of the batch still take one sequence
+ * round trip each, since the outbox relies on its ids following commit order.
+ * <p>
+ * A create naming a missing department fails on its own without affecting the batch. When the
+ * batch insert itself fails, its creates are retried one transaction each, so only the faulty
+ * ones fail. When the queue stays full for {@code enqueue-timeout-ms} the create is refused with
+ * a {@link ServiceOverloadedException}, and so is a create whose batch has not committed within
+ * {@code commit-timeout-ms}, although that one may still commit later. Should the committer thread
+ * die, the creates of its batch and those still queued fail, and later creates are refused.
+ * <p>
+ * With sharding a batch is split by the shard of the departments, one transaction per shard.
+ * <p>
+ * Disabled by default ({@code app.employee.group-commit.enabled}).
+ */
+@Component
+public class EmployeeGroupCommitter {
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeGroupCommitter.class);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private HeadcountService headcountService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.employee.group-commit.enabled:false}")
+    private boolean enabled;
+    @Value("${app.employee.group-commit.max-batch-size:256}")
+    private int maxBatchSize = 256;
+    @Value("${app.employee.group-commit.max-delay-ms:5}")
+    private long maxDelayMillis = 5;
+    @Value("${app.employee.group-commit.queue-capacity:10000}")
+    private int queueCapacity = 10_000;
+    @Value("${app.employee.group-commit.enqueue-timeout-ms:1000}")
+    private long enqueueTimeoutMillis = 1000;
+    @Value("${app.employee.group-commit.commit-timeout-ms:30000}")
+    private long commitTimeoutMillis = 30_000;
+
+    private final ModelMapper modelMapper = new TracedModelMapper();
+    private BlockingQueue<PendingCreate> queue;
+    private Thread committer;
+    private volatile boolean running;
+
+    public EmployeeGroupCommitter() {
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        committer = new Thread(this::run, "employee-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+        LOGGER.info("Group commit of employee creates enabled, batches of up to " + maxBatchSize + " within " + maxDelayMillis + " ms");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        // The committer drains what is already queued before it exits.
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates the employee in the next group commit and waits for that commit.
+     * @param deptId id of the department to which the employee belongs
+     * @param employee employee to be saved, without department
+     * @return Long Returns the id of the created employee
+     * @throws Exception Throws DepartmentNotFoundException when the department does not exist,
+     * ServiceOverloadedException when the queue is full or the commit takes too long, or the cause of a failed insert
+     */
+    public Long create(Long deptId, Employee employee) throws Exception {
+        PendingCreate pending = new PendingCreate(deptId, employee);
+        if (!running || !queue.offer(pending, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            LOGGER.warn("Group commit queue is full, refusing employee create");
+            throw new ServiceOverloadedException("Too many concurrent employee creates, retry later", 1);
+        }
+        // The committer may have stopped after the check above, once it had drained the queue for the last time.
+        if (!running && queue.remove(pending)) {
+            throw new ServiceOverloadedException("Shutting down, retry later", 1);
+        }
+        try {
+            return pending.result.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            LOGGER.warn("Group commit did not complete within " + commitTimeoutMillis + " ms, giving up on employee create");
+            throw new ServiceOverloadedException("Employee create did not complete in time, retry later", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        try {
+            commitQueued();
+        } finally {
+            // Also reached when the thread dies of an Error, so no create is left waiting.
+            running = false;
+            for (PendingCreate pending = queue.poll(); pending != null; pending = queue.poll()) {
+                pending.result.completeExceptionally(new ServiceOverloadedException("Shutting down, retry later", 1));
+            }
+        }
+    }
+
+    private void commitQueued() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                shards.byDepartment(batch, pending -> pending.deptId)
+                        .forEach((shard, group) -> shards.on(shard, () -> commit(group)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException | Error e) {
+                LOGGER.error("Group commit failed", e);
+                batch.forEach(pending -> pending.result.completeExceptionally(e));
+                if (e instanceof Error) {
+                    throw (Error) e;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCreate> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            LOGGER.warn("Group commit of " + batch.size() + " employees failed, retrying them one by one : " + e.getMessage());
+            for (PendingCreate pending : batch) {
+                pending.reset();
+                try {
+                    insert(List.of(pending));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingCreate> batch) {
+        List<PendingCreate> accepted = new ArrayList<>(batch.size());
+        List<PendingCreate> rejected = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Long> deptIds = batch.stream().map(pending -> pending.deptId).distinct().collect(Collectors.toList());
+            Map<Long, Department> departments = departmentRepository.findAllById(deptIds).stream()
+                    .filter(department -> department.isActive() || !department.isDeleted())
+                    .collect(Collectors.toMap(Department::getDeptId, Function.identity()));
+            for (PendingCreate pending : batch) {
+                Department department = departments.get(pending.deptId);
+                if (department == null) {
+                    rejected.add(pending);
+                } else {
+                    pending.employee.setDepartment(department);
+                    accepted.add(pending);
+                }
+            }
+            List<Employee> employees = accepted.stream().map(pending -> pending.employee).collect(Collectors.toList());
+            employeeRepository.saveAll(employees);
+            // One increment per summary row for the whole batch, which is what keeps popular rows cool.
+            headcountService.employeesAdded(employees);
+            List<EmployeeChangedEvent> events = new ArrayList<>(accepted.size());
+            for (PendingCreate pending : accepted) {
+                events.add(new EmployeeChangedEvent(ChangeType.CREATED, pending.employee.getEmployeeId(),
+                        pending.deptId, modelMapper.map(pending.employee, EmployeeDTO.class)));
+            }
+            if (!events.isEmpty()) {
+                eventPublisher.publishEvent(new EmployeesChangedEvent(events));
+            }
+            entityManager.flush();
+        });
+
+        for (PendingCreate pending : accepted) {
+            pending.result.complete(pending.employee.getEmployeeId());
+        }
+        for (PendingCreate pending : rejected) {
+            LOGGER.error("Department not found to add employee to, with id : " + pending.deptId);
+            pending.result.completeExceptionally(new DepartmentNotFoundException("Department not found with deptId : " + pending.deptId));
+        }
+        LOGGER.debug("Group commit of " + accepted.size() + " employees, " + rejected.size() + " rejected");
+    }
+
+    private static final class PendingCreate {
+        final Long deptId;
+        final Employee employee;
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+
+        PendingCreate(Long deptId, Employee employee) {
+            this.deptId = deptId;
+            this.employee = employee;
+        }
+
+        /**
+         * Forgets the ids assigned by a rolled back insert, so the entity can be persisted again.
+         */
+        void reset() {
+            employee.setEmployeeId(null);
+            employee.setDepartment(null);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.ImportResultDTO;
+
+import java.nio.file.Path;
+
+public interface EmployeeImportService {
+
+    /**
+     * Imports the employees listed in a CSV file. The header row names the columns:
+     * employeeName, employeeDesignation, phoneNumber, address, city, state, pincode and either
+     * deptId or deptName. Invalid rows are skipped and written to an error file.
+     * @param csv CSV file to import
+     * @param listener receives progress while the import runs
+     * @return ImportResultDTO Returns the counts of imported and rejected rows
+     * @throws Exception Throws an exception when the file cannot be read or lacks required columns
+     */
+    public ImportResultDTO importEmployees(Path csv, ImportProgressListener listener) throws Exception;
+
+    /**
+     * Same as {@link #importEmployees(Path, ImportProgressListener)}, resuming an interrupted import
+     * after the rows it had already read, as reported to its listener
+     * @param skipRows number of data rows to skip; the counts returned and reported cover the other rows only,
+     *                 except the rows read, which include the skipped ones
+     */
+    public ImportResultDTO importEmployees(Path csv, long skipRows, ImportProgressListener listener) throws Exception;
+}
@@ -0,0 +1,375 @@
+package com.example.employee.services;
+
+import com.example.employee.csv.CsvWriter;
+import com.example.employee.csv.MappedCsvReader;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.ImportResultDTO;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.exception.InvalidImportFileException;
+import com.example.employee.models.Address;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.sharding.Shards;
+import com.example.employee.tracing.TracedModelMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+    Logger LOGGER = LoggerFactory.getLogger(EmployeeImportServiceImpl.class);
+
+    static final String[] COLUMNS = {"employeeName", "employeeDesignation", "phoneNumber", "address", "city", "state", "pincode"};
+    static final String DEPT_ID = "deptId";
+    static final String DEPT_NAME = "deptName";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private HeadcountService headcountService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ModelMapper modelMapper = new TracedModelMapper();
+
+    public EmployeeImportServiceImpl() {
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+    }
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize = 500;
+    @Value("${app.import.progress-interval:10000}")
+    private long progressInterval = 10_000;
+    @Value("${app.import.error-directory:${java.io.tmpdir}}")
+    private String errorDirectory = System.getProperty("java.io.tmpdir");
+
+    /**
+     * Imports the employees listed in a CSV file. Rows are read from a memory-mapped window,
+     * turned straight into entities, validated and inserted in batches of
+     * {@code app.import.batch-size}, each batch in its own transaction, one per shard with
+     * sharding. Rows of a department being moved between shards are rejected.
+     * @param csv CSV file to import
+     * @param listener receives progress while the import runs
+     * @return ImportResultDTO Returns the counts of imported and rejected rows
+     * @throws Exception Throws an exception when the file cannot be read or lacks required columns
+     */
+    @Override
+    public ImportResultDTO importEmployees(Path csv, ImportProgressListener listener) throws Exception {
+        return importEmployees(csv, 0, listener);
+    }
+
+    @Override
+    public ImportResultDTO importEmployees(Path csv, long skipRows, ImportProgressListener listener) throws Exception {
+        LOGGER.trace("Entering the method importEmployees");
+
+        long started = System.nanoTime();
+        try (MappedCsvReader reader = new MappedCsvReader(csv);
+             Import run = new Import(reader, listener)) {
+            String[] header = reader.next();
+            if (header == null) {
+                throw new InvalidImportFileException("The import file is empty");
+            }
+            run.columns(header);
+            for (String[] row = reader.next(); row != null; row = reader.next()) {
+                if (run.rowsRead < skipRows) {
+                    run.rowsRead++;
+                    continue;
+                }
+                run.add(reader.getRowNumber(), row);
+            }
+            run.finish();
+
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            LOGGER.info("Imported " + run.imported + " employees from " + csv + ", rejected " + run.rejected + " rows, in " + elapsedMillis + " ms");
+            return new ImportResultDTO(run.rowsRead, run.imported, run.rejected,
+                    run.errorFile == null ? null : run.errorFile.toString(), elapsedMillis);
+        }
+    }
+
+    /**
+     * State of one import: column positions, the department lookup, the pending batch and the
+     * error file, which is only created once a row is rejected.
+     */
+    private class Import implements AutoCloseable {
+        private final MappedCsvReader reader;
+        private final ImportProgressListener listener;
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        private final Set<Long> departmentIds = new HashSet<>();
+        private final Map<String, Long> departmentsByName = new HashMap<>();
+        private final Set<String> ambiguousNames = new HashSet<>();
+        private final List<Pending> batch = new ArrayList<>(batchSize);
+
+        private String[] header;
+        private int[] columnIndexes;
+        private int deptIdIndex = -1;
+        private int deptNameIndex = -1;
+        private Path errorFile;
+        private CsvWriter errors;
+
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        Import(MappedCsvReader reader, ImportProgressListener listener) {
+            this.reader = reader;
+            this.listener = listener;
+            loadDepartments();
+        }
+
+        void columns(String[] header) throws InvalidImportFileException {
+            this.header = header;
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                positions.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            columnIndexes = new int[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                columnIndexes[i] = positions.getOrDefault(COLUMNS[i].toLowerCase(Locale.ROOT), -1);
+            }
+            if (columnIndexes[0] < 0) {
+                throw new InvalidImportFileException("The import file has no employeeName column");
+            }
+            deptIdIndex = positions.getOrDefault(DEPT_ID.toLowerCase(Locale.ROOT), -1);
+            deptNameIndex = positions.getOrDefault(DEPT_NAME.toLowerCase(Locale.ROOT), -1);
+            if (deptIdIndex < 0 && deptNameIndex < 0) {
+                throw new InvalidImportFileException("The import file needs a deptId or a deptName column");
+            }
+        }
+
+        void add(long rowNumber, String[] row) throws IOException {
+            rowsRead++;
+            String[] values = new String[COLUMNS.length];
+            for (int i = 0; i < COLUMNS.length; i++) {
+                int index = columnIndexes[i];
+                values[i] = index >= 0 && index < row.length ? emptyToNull(row[index].trim()) : null;
+            }
+            Employee employee = new Employee(values[0], new Address(values[3], values[4], values[5], values[6]), values[1], values[2]);
+
+            String error = validate(employee);
+            Long deptId = null;
+            if (error == null) {
+                deptId = resolveDepartment(row);
+                if (deptId == null) {
+                    error = "Department not found : " + departmentOf(row);
+                } else if (deptId < 0) {
+                    error = "Department name matches several departments : " + departmentOf(row);
+                } else if (shards.isMoving(deptId)) {
+                    error = "Department is being moved between shards : " + departmentOf(row);
+                }
+            }
+            if (error != null) {
+                reject(rowNumber, error, row);
+            } else {
+                batch.add(new Pending(rowNumber, row, employee, deptId));
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            }
+            if (rowsRead % progressInterval == 0) {
+                LOGGER.info("Import progress : " + rowsRead + " rows read, " + imported + " imported, " + rejected + " rejected");
+            }
+        }
+
+        void finish() throws IOException {
+            flush();
+            LOGGER.info("Import progress : " + rowsRead + " rows read, " + imported + " imported, " + rejected + " rejected");
+            listener.onProgress(rowsRead, imported, rejected, reader.getPosition(), reader.getSize());
+        }
+
+        private void flush() throws IOException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<Integer, List<Pending>> group : shards.byDepartment(batch, pending -> pending.deptId).entrySet()) {
+                flush(group.getKey(), group.getValue());
+            }
+            batch.clear();
+            listener.onProgress(rowsRead, imported, rejected, reader.getPosition(), reader.getSize());
+        }
+
+        private void flush(int shard, List<Pending> pendings) throws IOException {
+            try {
+                insert(shard, pendings);
+            } catch (DataAccessException e) {
+                LOGGER.warn("Batch insert failed, retrying its " + pendings.size() + " rows one by one : " + e.getMostSpecificCause().getMessage());
+                for (Pending pending : pendings) {
+                    pending.reset();
+                    try {
+                        insert(shard, List.of(pending));
+                    } catch (DataAccessException rowFailure) {
+                        reject(pending.rowNumber, rowFailure.getMostSpecificCause().getMessage(), pending.row);
+                    }
+                }
+            }
+        }
+
+        private void insert(int shard, List<Pending> pendings) {
+            shards.on(shard, () -> transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : pendings) {
+                    // A reference is enough for the foreign key and, unlike a department loaded
+                    // outside this transaction, is not cascaded to as a detached entity.
+                    pending.employee.setDepartment(entityManager.getReference(Department.class, pending.deptId));
+                }
+                List<Employee> employees = pendings.stream().map(pending -> pending.employee).collect(Collectors.toList());
+                employeeRepository.saveAll(employees);
+                headcountService.employeesAdded(employees);
+                List<EmployeeChangedEvent> events = new ArrayList<>(pendings.size());
+                for (Pending pending : pendings) {
+                    events.add(new EmployeeChangedEvent(ChangeType.CREATED, pending.employee.getEmployeeId(),
+                            pending.deptId, modelMapper.map(pending.employee, EmployeeDTO.class)));
+                }
+                eventPublisher.publishEvent(new EmployeesChangedEvent(events));
+                entityManager.flush();
+                entityManager.clear();
+            }));
+            imported += pendings.size();
+        }
+
+        private String validate(Employee employee) {
+            Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+            if (violations.isEmpty()) {
+                return null;
+            }
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        /**
+         * @return the department id, null when no department matches and -1 when the name is
+         * shared by several departments
+         */
+        private Long resolveDepartment(String[] row) {
+            String id = deptIdIndex >= 0 && deptIdIndex < row.length ? row[deptIdIndex].trim() : "";
+            if (!id.isEmpty()) {
+                try {
+                    Long deptId = Long.parseLong(id);
+                    return departmentIds.contains(deptId) ? deptId : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            String name = deptNameIndex >= 0 && deptNameIndex < row.length ? row[deptNameIndex].trim().toLowerCase(Locale.ROOT) : "";
+            if (ambiguousNames.contains(name)) {
+                return -1L;
+            }
+            return departmentsByName.get(name);
+        }
+
+        private String departmentOf(String[] row) {
+            if (deptIdIndex >= 0 && deptIdIndex < row.length && !row[deptIdIndex].trim().isEmpty()) {
+                return row[deptIdIndex].trim();
+            }
+            return deptNameIndex >= 0 && deptNameIndex < row.length ? row[deptNameIndex].trim() : "";
+        }
+
+        private void loadDepartments() {
+            for (Department department : departmentRepository.findAll()) {
+                if (!department.isActive() && department.isDeleted()) {
+                    continue;
+                }
+                departmentIds.add(department.getDeptId());
+                if (department.getDeptName() != null) {
+                    String name = department.getDeptName().trim().toLowerCase(Locale.ROOT);
+                    if (departmentsByName.putIfAbsent(name, department.getDeptId()) != null) {
+                        ambiguousNames.add(name);
+                    }
+                }
+            }
+        }
+
+        private void reject(long rowNumber, String error, String[] row) throws IOException {
+            rejected++;
+            if (errors == null) {
+                Path directory = Paths.get(errorDirectory);
+                Files.createDirectories(directory);
+                errorFile = Files.createTempFile(directory, "employee-import-errors-", ".csv");
+                errors = new CsvWriter(Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8));
+                errors.writeRow(prepend("row", "error", header));
+            }
+            errors.writeRow(prepend(Long.toString(rowNumber), error, row));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (errors != null) {
+                errors.close();
+            }
+        }
+    }
+
+    private static String[] prepend(String first, String second, String[] rest) {
+        String[] row = new String[rest.length + 2];
+        row[0] = first;
+        row[1] = second;
+        System.arraycopy(rest, 0, row, 2, rest.length);
+        return row;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static final class Pending {
+        final long rowNumber;
+        final String[] row;
+        final Employee employee;
+        final Long deptId;
+
+        Pending(long rowNumber, String[] row, Employee employee, Long deptId) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.employee = employee;
+            this.deptId = deptId;
+        }
+
+        /**
+         * Forgets the ids assigned by a rolled back insert, so the entities can be persisted again.
+         */
+        void reset() {
+            employee.setEmployeeId(null);
+            employee.setDepartment(null);
+        }
+    }
+}
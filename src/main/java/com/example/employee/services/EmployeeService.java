@@ -1,6 +1,8 @@
 package com.example.employee.services;
 
 import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.EmployeeLookupDTO;
+import com.example.employee.dto.FieldSet;
 
 import java.util.List;
 
@@ -21,6 +23,41 @@ public interface EmployeeService {
      */
     public EmployeeDTO getEmployee(Long employeeId) throws Exception;
 
+    /**
+     * Fetches only the given fields of all the employees, leaving the others unset
+     * @param fields fields to be fetched
+     * @return List<EmployeeDTO> Returns the employees with the given fields set
+     * @throws Exception Throws exception when there are no employees
+     */
+    public List<EmployeeDTO> getEmployees(FieldSet fields) throws Exception;
+
+    /**
+     * Fetches one keyset page of the employees in id order, optionally only the given fields
+     * @param after id of the last employee of the previous page, null for the first page
+     * @param limit maximum number of employees
+     * @param fields fields to be fetched, all of them when null; the employeeId is always set
+     * @return List<EmployeeDTO> Returns the employees of the page, empty past the last one
+     * @throws Exception Throws an exception when the limit is out of range
+     */
+    public List<EmployeeDTO> getEmployees(Long after, int limit, FieldSet fields) throws Exception;
+
+    /**
+     * Fetches only the given fields of the employee with the given employee id
+     * @param employeeId Employee id of the employee to be fetched
+     * @param fields fields to be fetched
+     * @return EmployeeDTO Returns the employee with the given fields set
+     * @throws Exception Throws an exception when the employee with the given id does not exist
+     */
+    public EmployeeDTO getEmployee(Long employeeId, FieldSet fields) throws Exception;
+
+    /**
+     * Fetches the employees with the given ids in one round trip
+     * @param employeeIds ids of the employees to be fetched, duplicates are ignored
+     * @return EmployeeLookupDTO Returns the employees found in request order, and the ids not found
+     * @throws Exception Throws an exception when no ids or too many ids are given
+     */
+    public EmployeeLookupDTO getEmployees(List<Long> employeeIds) throws Exception;
+
     /**
      * Update the details of the employee with given id
      * @param deptId id of the department to which the employee belongs
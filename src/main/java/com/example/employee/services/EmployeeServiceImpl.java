@@ -1,23 +1,44 @@
 package com.example.employee.services;
 
+import com.example.employee.cache.EntityIdFilters;
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.config.ReadReplica;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.EmployeeLookupDTO;
+import com.example.employee.dto.FieldSet;
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
 import com.example.employee.exception.DepartmentNotFoundException;
 import com.example.employee.exception.EmployeeNotFoundException;
+import com.example.employee.exception.InvalidLookupRequestException;
+import com.example.employee.exception.InvalidPageRequestException;
 import com.example.employee.exception.NoDataFoundException;
-import com.example.employee.models.Address;
 import com.example.employee.models.Department;
 import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountKey;
 import com.example.employee.repository.DepartmentRepository;
 import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.sharding.ShardKey;
+import com.example.employee.tracing.TracedModelMapper;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +49,25 @@ public class EmployeeServiceImpl implements EmployeeService{
     private EmployeeRepository employeeRepository;
     @Autowired
     private DepartmentRepository departmentRepository;
+    @Autowired
+    private EntityIdFilters entityIdFilters;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private EmployeeGroupCommitter groupCommitter;
+    @Autowired
+    private ResponseCache responseCache;
+    @Autowired
+    private HeadcountService headcountService;
 
-    private final ModelMapper modelMapper=new ModelMapper();
+    @Value("${app.employee.lookup.max-ids:1000}")
+    private int maxLookupIds = 1000;
+    @Value("${app.employee.lookup.chunk-size:500}")
+    private int lookupChunkSize = 500;
+    @Value("${app.employee.page.max-limit:1000}")
+    private int maxPageLimit = 1000;
+
+    private final ModelMapper modelMapper=new TracedModelMapper();
 
     /**
      * Fetches all the employees from the database
@@ -37,6 +75,8 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @throws Exception Throws exception when there are no employees
      */
     @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
     public List<EmployeeDTO> getEmployees() throws Exception{
         LOGGER.trace("Entering the method getEmployees.");
 
@@ -62,9 +102,16 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @throws Exception Throws an exception when the employee with the given id does not exist
      */
     @Override
-    public EmployeeDTO getEmployee(Long employeeId) throws Exception{
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public EmployeeDTO getEmployee(@ShardKey(ShardKey.Type.EMPLOYEE) Long employeeId) throws Exception{
         LOGGER.trace("Entering the method getEmployee");
 
+        if (entityIdFilters.isKnownAbsentEmployee(employeeId)) {
+            LOGGER.debug("Employee id rejected by the id filter : " + employeeId);
+            throw new EmployeeNotFoundException("Employee not found with id : " + employeeId);
+        }
+
         Employee employeeFromDb = employeeRepository.findById(employeeId).orElseThrow(
                 () -> {
                     LOGGER.error("Employee not found with id : "+employeeId);
@@ -81,6 +128,155 @@ public class EmployeeServiceImpl implements EmployeeService{
         return employeeToEmployeeDTO(employeeFromDb);
     }
 
+    /**
+     * Fetches only the given fields of all the employees, selecting just their columns and joining
+     * the department only when one of its fields is asked for
+     * @param fields fields to be fetched
+     * @return List<EmployeeDTO> Returns the employees with the given fields set
+     * @throws Exception Throws exception when there are no employees
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public List<EmployeeDTO> getEmployees(FieldSet fields) throws Exception{
+        LOGGER.trace("Entering the method getEmployees with fields " + fields);
+
+        List<EmployeeDTO> employees = employeeRepository.findFields(fields, null)
+                .stream()
+                .map(row -> fieldsToEmployeeDTO(row, fields))
+                .collect(Collectors.toList());
+
+        if(employees.isEmpty()) {
+            LOGGER.error("No data found in the employee table");
+            throw new NoDataFoundException("There is no data in the employee table");
+        }
+
+        LOGGER.info("Fetched fields " + fields + " of all the employees from the database");
+        return employees;
+    }
+
+    /**
+     * Fetches one keyset page of the employees in id order. Each shard returns its first
+     * {@code limit} employees after the given id, and the merged pages are cut to the limit.
+     * @param after id of the last employee of the previous page, null for the first page
+     * @param limit maximum number of employees, at most {@code app.employee.page.max-limit}
+     * @param fields fields to be fetched, all of them when null; the employeeId is always set
+     * @return List<EmployeeDTO> Returns the employees of the page, empty past the last one
+     * @throws Exception Throws an exception when the limit is out of range
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public List<EmployeeDTO> getEmployees(Long after, int limit, FieldSet fields) throws Exception{
+        LOGGER.trace("Entering the method getEmployees after " + after);
+
+        if (limit < 1 || limit > maxPageLimit) {
+            LOGGER.error("Invalid employee page limit " + limit);
+            throw new InvalidPageRequestException("The page limit must be between 1 and " + maxPageLimit);
+        }
+        long from = after == null ? Long.MIN_VALUE : after;
+        List<EmployeeDTO> employees;
+        if (fields == null) {
+            employees = employeeRepository.findPageAfter(from, PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::employeeToEmployeeDTO)
+                    .collect(Collectors.toList());
+        } else {
+            employees = employeeRepository.findFieldsAfter(fields, from, limit)
+                    .stream()
+                    .map(row -> {
+                        EmployeeDTO employee = fieldsToEmployeeDTO(row, fields);
+                        employee.setEmployeeId((Long) row.get("employeeId"));
+                        return employee;
+                    })
+                    .collect(Collectors.toList());
+        }
+        employees.sort(Comparator.comparing(EmployeeDTO::getEmployeeId));
+        List<EmployeeDTO> page = employees.size() > limit ? new ArrayList<>(employees.subList(0, limit)) : employees;
+
+        LOGGER.info("Fetched a page of " + page.size() + " employees after " + after);
+        return page;
+    }
+
+    /**
+     * Fetches only the given fields of the employee with the given employee id
+     * @param employeeId Employee id of the employee to be fetched
+     * @param fields fields to be fetched
+     * @return EmployeeDTO Returns the employee with the given fields set
+     * @throws Exception Throws an exception when the employee with the given id does not exist
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public EmployeeDTO getEmployee(@ShardKey(ShardKey.Type.EMPLOYEE) Long employeeId, FieldSet fields) throws Exception{
+        LOGGER.trace("Entering the method getEmployee with fields " + fields);
+
+        if (entityIdFilters.isKnownAbsentEmployee(employeeId)) {
+            LOGGER.debug("Employee id rejected by the id filter : " + employeeId);
+            throw new EmployeeNotFoundException("Employee not found with id : " + employeeId);
+        }
+
+        List<Map<String, Object>> rows = employeeRepository.findFields(fields, employeeId);
+        if (rows.isEmpty()) {
+            LOGGER.error("Employee not found with id : "+employeeId);
+            throw new EmployeeNotFoundException("Employee not found with id : "+employeeId);
+        }
+
+        LOGGER.info("Fetched fields " + fields + " of employee with id : "+employeeId);
+        return fieldsToEmployeeDTO(rows.get(0), fields);
+    }
+
+    /**
+     * Fetches the employees with the given ids in one round trip. Employees whose by-id response
+     * is cached are taken from the response cache, ids the id filter knows to be absent are
+     * skipped, and the rest are loaded with their department by one IN query per
+     * chunk of {@code app.employee.lookup.chunk-size} ids.
+     * @param employeeIds ids of the employees to be fetched, duplicates are ignored
+     * @return EmployeeLookupDTO Returns the employees found in request order, and the ids not found
+     * @throws Exception Throws an exception when no ids or too many ids are given
+     */
+    @Override
+    @ReadReplica
+    @Transactional(readOnly = true)
+    public EmployeeLookupDTO getEmployees(List<Long> employeeIds) throws Exception{
+        LOGGER.trace("Entering the method getEmployees by ids");
+
+        Set<Long> requested = new LinkedHashSet<>(employeeIds);
+        requested.remove(null);
+        if (requested.isEmpty() || requested.size() > maxLookupIds) {
+            LOGGER.error("Invalid employee lookup of " + requested.size() + " ids");
+            throw new InvalidLookupRequestException("Between 1 and " + maxLookupIds + " employee ids must be given");
+        }
+
+        Map<Long, EmployeeDTO> found = new HashMap<>(responseCache.cachedEmployees(requested, EmployeeDTO.class));
+        List<Long> toLoad = requested.stream()
+                .filter(employeeId -> !found.containsKey(employeeId) && !entityIdFilters.isKnownAbsentEmployee(employeeId))
+                .collect(Collectors.toList());
+        for (int start = 0; start < toLoad.size(); start += lookupChunkSize) {
+            List<Long> chunk = toLoad.subList(start, Math.min(start + lookupChunkSize, toLoad.size()));
+            for (Employee employee : employeeRepository.findWithDetailsByEmployeeIdIn(chunk)) {
+                if (employee.isActive() || !employee.isDeleted()) {
+                    found.put(employee.getEmployeeId(), employeeToEmployeeDTO(employee));
+                }
+            }
+        }
+
+        List<EmployeeDTO> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long employeeId : requested) {
+            EmployeeDTO employee = found.get(employeeId);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missingIds.add(employeeId);
+            }
+        }
+
+        LOGGER.info("Fetched " + employees.size() + " of " + requested.size() + " employees by id, "
+                + (requested.size() - toLoad.size()) + " without a query");
+        return new EmployeeLookupDTO(employees, missingIds);
+    }
+
     /**
      * Update the details of the employee with given id
      * @param deptId id of the department to which the employee belongs
@@ -90,7 +286,9 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @throws Exception Throws an exception when the employee or department with given ids don't exist
      */
     @Override
-    public EmployeeDTO updateEmployee(Long deptId, Long employeeId, EmployeeDTO employeeDTO) throws Exception{
+    @Transactional
+    public EmployeeDTO updateEmployee(@ShardKey(ShardKey.Type.DEPARTMENT) Long deptId,
+                                      @ShardKey(ShardKey.Type.EMPLOYEE) Long employeeId, EmployeeDTO employeeDTO) throws Exception{
         LOGGER.trace("Entering the method updateEmployees");
 
         Employee employeeFromDb = employeeRepository.findById(employeeId).orElseThrow(
@@ -116,7 +314,8 @@ public class EmployeeServiceImpl implements EmployeeService{
         }
 
         Employee employee = employeeDTOToEmployee(employeeDTO);
-        employee.getEmployeeAddress().setAddressId(employeeFromDb.getEmployeeAddress().getAddressId());
+        List<HeadcountKey> countedBefore = HeadcountKey.of(employeeFromDb);
+        Long previousDeptId = employeeFromDb.getDepartment() == null ? null : employeeFromDb.getDepartment().getDeptId();
 
         LOGGER.debug("Updating the employee with id : "+employeeId+" from : "+employeeFromDb+" to : "+employee);
 
@@ -124,13 +323,16 @@ public class EmployeeServiceImpl implements EmployeeService{
         employeeFromDb.setEmployeeAddress(employee.getEmployeeAddress());
         employeeFromDb.setEmployeeDesignation(employee.getEmployeeDesignation());
         employeeFromDb.setPhoneNumber(employee.getPhoneNumber());
-        employeeFromDb.getEmployeeAddress().setActive(true);
         employeeFromDb.setDepartment(departmentFromDb);
 
         employeeRepository.save(employeeFromDb);
+        headcountService.employeeChanged(countedBefore, HeadcountKey.of(employeeFromDb));
+        EmployeeDTO updated = employeeToEmployeeDTO(employeeFromDb);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(ChangeType.UPDATED, employeeId, deptId,
+                deptId.equals(previousDeptId) ? null : previousDeptId, updated));
         LOGGER.info("Employee details updated with id : "+employeeId);
 
-        return employeeToEmployeeDTO(employeeFromDb);
+        return updated;
     }
 
     /**
@@ -140,13 +342,20 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @throws Exception thr/ows an exception when the department with the given id does not exist
      */
     @Override
-    public void createEmployee(Long deptId, EmployeeDTO employeeDTO) throws Exception{
+    @Transactional
+    public void createEmployee(@ShardKey(ShardKey.Type.DEPARTMENT) Long deptId, EmployeeDTO employeeDTO) throws Exception{
         LOGGER.trace("Entering the method createEmployee");
 
         Employee employee = employeeDTOToEmployee(employeeDTO);
         employee.setActive(true);
         employee.setDeleted(false);
-        employee.getEmployeeAddress().setActive(true);
+        if (groupCommitter.isEnabled()) {
+            // The department is checked and the employee saved by the committer, so this
+            // transaction stays empty and never takes a connection while waiting.
+            Long employeeId = groupCommitter.create(deptId, employee);
+            LOGGER.info("Employee created successfully with id : " + employeeId);
+            return;
+        }
         Department department = departmentRepository.
                 findById(deptId)
                 .orElseThrow(
@@ -160,6 +369,9 @@ public class EmployeeServiceImpl implements EmployeeService{
         }
         employee.setDepartment(department);
         employeeRepository.save(employee);
+        headcountService.employeeChanged(List.of(), HeadcountKey.of(employee));
+        eventPublisher.publishEvent(new EmployeeChangedEvent(ChangeType.CREATED, employee.getEmployeeId(), deptId,
+                employeeToEmployeeDTO(employee)));
         LOGGER.info("Employee created successfully");
     }
 
@@ -170,7 +382,8 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @throws Exception throws exception when the employee to be deleted does not exist in the database
      */
     @Override
-    public EmployeeDTO deleteEmployee(Long employeeId) throws Exception{
+    @Transactional
+    public EmployeeDTO deleteEmployee(@ShardKey(ShardKey.Type.EMPLOYEE) Long employeeId) throws Exception{
         LOGGER.trace("Entering the method deleteEmployee");
 
         Employee employee = employeeRepository.findById(employeeId).orElseThrow(
@@ -179,15 +392,18 @@ public class EmployeeServiceImpl implements EmployeeService{
                     return new EmployeeNotFoundException("Employee not found with id : "+employeeId);
                 }
         );
+        List<HeadcountKey> countedBefore = HeadcountKey.of(employee);
 
         employee.setDeleted(true);
         employee.setActive(false);
-        employee.getEmployeeAddress().setActive(false);
-        employee.getEmployeeAddress().setDeleted(true);
         employeeRepository.save(employee);
+        headcountService.employeeChanged(countedBefore, List.of());
+        EmployeeDTO deleted = employeeToEmployeeDTO(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(ChangeType.DELETED, employeeId,
+                employee.getDepartment() == null ? null : employee.getDepartment().getDeptId(), deleted));
 
         LOGGER.info("Employee deleted with id : "+employeeId);
-        return employeeToEmployeeDTO(employee);
+        return deleted;
     }
 
 
@@ -208,12 +424,7 @@ public class EmployeeServiceImpl implements EmployeeService{
         modelMapper.getConfiguration()
                 .setMatchingStrategy(MatchingStrategies.LOOSE);
         Employee employee = this.modelMapper.map(employeeDTO, Employee.class);
-        Address address = new Address(employee.getEmployeeAddress().getAddress(),
-                employee.getEmployeeAddress().getCity(),
-                employee.getEmployeeAddress().getState(),
-                employee.getEmployeeAddress().getPincode());
         employee.setActive(true);
-        employee.setEmployeeAddress(address);
         return employee;
     }
     public EmployeeDTO employeeToEmployeeDTO(Employee employee)
@@ -223,4 +434,26 @@ public class EmployeeServiceImpl implements EmployeeService{
         EmployeeDTO employeeDTO = this.modelMapper.map(employee, EmployeeDTO.class);
         return employeeDTO;
     }
+
+    public EmployeeDTO fieldsToEmployeeDTO(Map<String, Object> row, FieldSet fields)
+    {
+        EmployeeDTO employeeDTO = new EmployeeDTO();
+        for (String field : fields.getNames()) {
+            Object value = row.get(field);
+            switch (field) {
+                case "employeeId": employeeDTO.setEmployeeId((Long) value); break;
+                case "employeeName": employeeDTO.setEmployeeName((String) value); break;
+                case "employeeDesignation": employeeDTO.setEmployeeDesignation((String) value); break;
+                case "phoneNumber": employeeDTO.setPhoneNumber((String) value); break;
+                case "address": employeeDTO.setAddress((String) value); break;
+                case "city": employeeDTO.setCity((String) value); break;
+                case "state": employeeDTO.setState((String) value); break;
+                case "pincode": employeeDTO.setPincode((String) value); break;
+                case "department": employeeDTO.setDepartment(value == null ? null
+                        : this.modelMapper.map(value, DepartmentDTO.class)); break;
+                default: throw new IllegalArgumentException("Unknown employee field " + field);
+            }
+        }
+        return employeeDTO;
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HeadcountService {
+
+    /**
+     * Fetches the headcount summary of the given dimension
+     * @param dimension dimension to summarize by
+     * @return List<HeadcountDTO> Returns the values with at least one active employee, largest first
+     */
+    public List<HeadcountDTO> getHeadcounts(HeadcountDimension dimension);
+
+    /**
+     * Moves an employee between summary rows, in the transaction of the change. Rows in both
+     * lists are left alone. The lists may also hold the rows of many employees changed at once,
+     * each summary row then being written once.
+     * @param before rows the employee was counted in, see {@link HeadcountKey#of(Employee)}
+     * @param after rows the employee is counted in now
+     */
+    public void employeeChanged(List<HeadcountKey> before, List<HeadcountKey> after);
+
+    /**
+     * Counts new employees, in the transaction that inserts them, with one write per summary row
+     * however many of them share it
+     * @param employees employees inserted
+     */
+    public void employeesAdded(Collection<Employee> employees);
+
+    /**
+     * Recomputes the summary from the employee table and corrects the rows that drifted
+     * @return int Returns the number of rows corrected
+     */
+    public int rebuild();
+}
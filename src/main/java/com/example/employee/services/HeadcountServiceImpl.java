@@ -0,0 +1,194 @@
+package com.example.employee.services;
+
+import com.example.employee.config.ReadReplica;
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.models.HeadcountSummary;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.repository.HeadcountSummaryRepository;
+import com.example.employee.sharding.Shards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Headcount per state, city, designation and department, kept in the {@code headcount_summary}
+ * table instead of grouping the employee table on every read.
+ * <p>
+ * Employee writes apply their deltas in their own transaction with one upsert per changed row,
+ * so the summary commits or rolls back with the change. Rows are written in key order, so two
+ * writers touching the same rows cannot deadlock; popular rows such as a large department are
+ * still a point of contention, held until the writer commits. A scheduled rebuild
+ * ({@code app.headcount.rebuild-cron}) corrects drift, e.g. from rows changed outside the
+ * application. A shard whose summary is still empty, as on the first deploy, is rebuilt at startup
+ * before the server accepts requests.
+ */
+@Service
+public class HeadcountServiceImpl implements HeadcountService, SmartInitializingSingleton {
+    Logger LOGGER = LoggerFactory.getLogger(HeadcountServiceImpl.class);
+
+    @Autowired
+    private HeadcountSummaryRepository headcountSummaryRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Shards shards = Shards.unsharded();
+
+    @Value("${app.headcount.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup = true;
+
+    @Override
+    @ReadReplica
+    public List<HeadcountDTO> getHeadcounts(HeadcountDimension dimension) {
+        LOGGER.trace("Entering the method getHeadcounts");
+
+        // With sharding every shard counts its own employees, so the rows of one value are added up.
+        Map<String, Long> counts = new HashMap<>();
+        for (HeadcountSummary summary : headcountSummaryRepository.findCounted(dimension)) {
+            counts.merge(summary.getKey().getDimensionValue(), summary.getHeadcount(), Long::sum);
+        }
+        List<HeadcountDTO> headcounts = counts.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .map(count -> new HeadcountDTO(count.getKey(), count.getValue()))
+                .collect(Collectors.toList());
+
+        LOGGER.info("Fetched the headcount by " + dimension);
+        return headcounts;
+    }
+
+    @Override
+    @Transactional
+    public void employeeChanged(List<HeadcountKey> before, List<HeadcountKey> after) {
+        Map<HeadcountKey, Long> deltas = new TreeMap<>();
+        before.forEach(key -> deltas.merge(key, -1L, Long::sum));
+        after.forEach(key -> deltas.merge(key, 1L, Long::sum));
+        apply(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void employeesAdded(Collection<Employee> employees) {
+        Map<HeadcountKey, Long> deltas = new TreeMap<>();
+        for (Employee employee : employees) {
+            HeadcountKey.of(employee).forEach(key -> deltas.merge(key, 1L, Long::sum));
+        }
+        apply(deltas);
+    }
+
+    private void apply(Map<HeadcountKey, Long> deltas) {
+        for (Map.Entry<HeadcountKey, Long> delta : deltas.entrySet()) {
+            if (delta.getValue() != 0) {
+                headcountSummaryRepository.addHeadcount(delta.getKey().getDimension().name(),
+                        delta.getKey().getDimensionValue(), delta.getValue());
+            }
+        }
+        LOGGER.debug("Applied headcount deltas " + deltas);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            shards.forEach(shard -> rebuildShard(shard, true));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not build the headcount summary : " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.headcount.rebuild-cron:0 0 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not rebuild the headcount summary : " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /**
+     * Locks the summary rows before counting, so increments of writers that commit later wait
+     * for the rebuild and are applied on top of it rather than lost or counted twice.
+     */
+    @Override
+    public int rebuild() {
+        LOGGER.trace("Entering the method rebuild");
+
+        int[] corrected = {0};
+        shards.forEach(shard -> corrected[0] += rebuildShard(shard, false));
+        return corrected[0];
+    }
+
+    /**
+     * @param onlyIfEmpty skip the shard when it has summary rows; checked under the lock, so an
+     *                    instance starting alongside another does not add its counts a second time
+     */
+    private int rebuildShard(int shard, boolean onlyIfEmpty) {
+        Integer corrected = new TransactionTemplate(transactionManager).execute(status -> {
+            List<HeadcountSummary> rows = headcountSummaryRepository.findAllForUpdate();
+            if (onlyIfEmpty && !rows.isEmpty()) {
+                return null;
+            }
+            Map<HeadcountKey, Long> actual = new HashMap<>();
+            count(actual, HeadcountDimension.STATE, employeeRepository.countActiveByState());
+            count(actual, HeadcountDimension.CITY, employeeRepository.countActiveByCity());
+            count(actual, HeadcountDimension.DESIGNATION, employeeRepository.countActiveByDesignation());
+            count(actual, HeadcountDimension.DEPARTMENT, employeeRepository.countActiveByDepartment());
+
+            int drifted = 0;
+            for (HeadcountSummary row : rows) {
+                long expected = actual.getOrDefault(row.getKey(), 0L);
+                actual.remove(row.getKey());
+                if (row.getHeadcount() != expected) {
+                    LOGGER.warn("Headcount of " + row.getKey() + " drifted to " + row.getHeadcount() + ", expected " + expected);
+                    drifted++;
+                }
+                if (expected == 0) {
+                    headcountSummaryRepository.delete(row);
+                } else {
+                    row.setHeadcount(expected);
+                }
+            }
+            for (Map.Entry<HeadcountKey, Long> missing : new TreeMap<>(actual).entrySet()) {
+                LOGGER.warn("Headcount of " + missing.getKey() + " missing, expected " + missing.getValue());
+                headcountSummaryRepository.addHeadcount(missing.getKey().getDimension().name(),
+                        missing.getKey().getDimensionValue(), missing.getValue());
+                drifted++;
+            }
+            return drifted;
+        });
+        if (corrected == null) {
+            return 0;
+        }
+
+        LOGGER.info("Rebuilt the headcount summary" + (shards.isSharded() ? " of shard " + shard : "") + ", " + corrected + " rows corrected");
+        return corrected;
+    }
+
+    private static void count(Map<HeadcountKey, Long> actual, HeadcountDimension dimension, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            actual.merge(HeadcountKey.key(dimension, row[0]), (Long) row[1], Long::sum);
+        }
+    }
+}
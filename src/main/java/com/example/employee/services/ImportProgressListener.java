@@ -0,0 +1,14 @@
+package com.example.employee.services;
+
+/**
+ * Receives the running totals of an import after each batch it commits and once more when it
+ * finishes. Every row read by then is either committed or rejected, so an interrupted import
+ * can be resumed after the rows read.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (rowsRead, imported, rejected, bytesRead, totalBytes) -> { };
+
+    void onProgress(long rowsRead, long imported, long rejected, long bytesRead, long totalBytes);
+}
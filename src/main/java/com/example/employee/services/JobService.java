@@ -0,0 +1,66 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.JobDTO;
+import com.example.employee.export.ExportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface JobService {
+
+    /**
+     * Stores the CSV file and queues its import
+     * @param csv CSV file, read to the end but not closed
+     * @return JobDTO Returns the queued job
+     * @throws Exception Throws an exception when the file cannot be stored
+     */
+    public JobDTO submitImport(InputStream csv) throws Exception;
+
+    /**
+     * Queues an export of all active employees to a file in the export directory
+     * @param format file format to write
+     * @return JobDTO Returns the queued job
+     * @throws Exception Throws an exception when the job cannot be stored
+     */
+    public JobDTO submitExport(ExportFormat format) throws Exception;
+
+    /**
+     * Queues a transfer of employees to a department, see {@link EmployeeBulkService#transferEmployees}
+     * @return JobDTO Returns the queued job
+     * @throws Exception Throws an exception when the job cannot be stored
+     */
+    public JobDTO submitTransfer(Long deptId, BulkTransferDTO transfer) throws Exception;
+
+    /**
+     * Queues a designation update, see {@link EmployeeBulkService#updateDesignation}
+     * @return JobDTO Returns the queued job
+     * @throws Exception Throws an exception when the job cannot be stored
+     */
+    public JobDTO submitDesignation(BulkDesignationDTO update) throws Exception;
+
+    /**
+     * @return JobDTO Returns the job with its progress, and its result once it succeeded
+     * @throws Exception Throws an exception when there is no such job
+     */
+    public JobDTO getJob(Long jobId) throws Exception;
+
+    /**
+     * Lists jobs, newest first, without their results
+     * @param type job type to list, all when null
+     * @param status job status to list, all when null
+     * @param limit maximum number of jobs
+     * @return List<JobDTO> Returns the jobs
+     * @throws Exception Throws an exception when the status is unknown or the limit is out of range
+     */
+    public List<JobDTO> getJobs(String type, String status, int limit) throws Exception;
+
+    /**
+     * Cancels a job: a queued job straight away, a running job at its next checkpoint. A
+     * finished job is left as it is
+     * @return JobDTO Returns the job
+     * @throws Exception Throws an exception when there is no such job
+     */
+    public JobDTO cancelJob(Long jobId) throws Exception;
+}
@@ -0,0 +1,166 @@
+package com.example.employee.services;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.JobDTO;
+import com.example.employee.exception.InvalidJobRequestException;
+import com.example.employee.exception.JobNotFoundException;
+import com.example.employee.export.ExportFormat;
+import com.example.employee.jobs.DesignationJobHandler;
+import com.example.employee.jobs.ExportJobHandler;
+import com.example.employee.jobs.ImportJobHandler;
+import com.example.employee.jobs.JobContext;
+import com.example.employee.jobs.JobFileStore;
+import com.example.employee.jobs.JobHandler;
+import com.example.employee.jobs.TransferJobHandler;
+import com.example.employee.models.Job;
+import com.example.employee.models.JobStatus;
+import com.example.employee.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Submits jobs to the {@code job} table and reports on them; the
+ * {@link com.example.employee.jobs.JobRunner} runs them.
+ */
+@Service
+public class JobServiceImpl implements JobService {
+    Logger LOGGER = LoggerFactory.getLogger(JobServiceImpl.class);
+
+    @Autowired
+    private JobRepository jobRepository;
+    @Autowired
+    private JobFileStore jobFileStore;
+    @Autowired
+    private List<JobHandler> handlers = List.of();
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.jobs.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    @Override
+    public JobDTO submitImport(InputStream csv) throws Exception {
+        LOGGER.trace("Entering the method submitImport");
+
+        String fileId = jobFileStore.save(csv);
+        try {
+            return submit(ImportJobHandler.TYPE, new ImportJobHandler.Parameters(fileId));
+        } catch (Exception e) {
+            jobFileStore.delete(fileId);
+            throw e;
+        }
+    }
+
+    @Override
+    public JobDTO submitExport(ExportFormat format) throws Exception {
+        LOGGER.trace("Entering the method submitExport");
+        return submit(ExportJobHandler.TYPE, new ExportJobHandler.Parameters(format.name()));
+    }
+
+    @Override
+    public JobDTO submitTransfer(Long deptId, BulkTransferDTO transfer) throws Exception {
+        LOGGER.trace("Entering the method submitTransfer");
+        return submit(TransferJobHandler.TYPE, new TransferJobHandler.Parameters(deptId, transfer));
+    }
+
+    @Override
+    public JobDTO submitDesignation(BulkDesignationDTO update) throws Exception {
+        LOGGER.trace("Entering the method submitDesignation");
+        return submit(DesignationJobHandler.TYPE, update);
+    }
+
+    private JobDTO submit(String type, Object parameters) throws Exception {
+        Job job = jobRepository.save(new Job(type, objectMapper.writeValueAsString(parameters), new Timestamp(System.currentTimeMillis())));
+        LOGGER.info("Queued job " + job);
+        return toJobDTO(job, false);
+    }
+
+    @Override
+    public JobDTO getJob(Long jobId) throws Exception {
+        LOGGER.trace("Entering the method getJob");
+        return toJobDTO(findJob(jobId), true);
+    }
+
+    @Override
+    public List<JobDTO> getJobs(String type, String status, int limit) throws Exception {
+        LOGGER.trace("Entering the method getJobs");
+
+        JobStatus jobStatus = status == null ? null : JobStatus.fromName(status);
+        if (status != null && jobStatus == null) {
+            throw new InvalidJobRequestException("Unknown job status : " + status);
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidJobRequestException("Limit must be between 1 and " + maxLimit);
+        }
+        return jobRepository.findJobs(type, jobStatus, PageRequest.of(0, limit)).stream()
+                .map(job -> toJobDTO(job, false))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public JobDTO cancelJob(Long jobId) throws Exception {
+        LOGGER.trace("Entering the method cancelJob");
+
+        Job job = findJob(jobId);
+        if (jobRepository.cancelQueued(jobId, new Timestamp(System.currentTimeMillis())) == 1) {
+            LOGGER.info("Cancelled queued job " + jobId);
+            for (JobHandler handler : handlers) {
+                if (handler.type().equals(job.getType())) {
+                    handler.discard(new JobContext(job, null, jobRepository, objectMapper, () -> true));
+                }
+            }
+        } else if (jobRepository.requestCancel(jobId) == 1) {
+            LOGGER.info("Requested cancellation of running job " + jobId);
+        }
+        return toJobDTO(findJob(jobId), true);
+    }
+
+    private Job findJob(Long jobId) throws JobNotFoundException {
+        return jobRepository.findById(jobId).orElseThrow(() -> {
+            LOGGER.error("Job not found with id : " + jobId);
+            return new JobNotFoundException("Job not found with id : " + jobId);
+        });
+    }
+
+    private JobDTO toJobDTO(Job job, boolean withResult) {
+        JobDTO jobDTO = new JobDTO();
+        jobDTO.setJobId(job.getId());
+        jobDTO.setType(job.getType());
+        jobDTO.setStatus(job.getStatus());
+        jobDTO.setItemsDone(job.getItemsDone());
+        jobDTO.setItemsTotal(job.getItemsTotal());
+        jobDTO.setCancelRequested(job.isCancelRequested());
+        jobDTO.setAttempts(job.getAttempts());
+        jobDTO.setCreatedOn(job.getCreatedOn().toInstant());
+        if (job.getStartedOn() != null) {
+            jobDTO.setStartedOn(job.getStartedOn().toInstant());
+            long until = job.getFinishedOn() != null ? job.getFinishedOn().getTime()
+                    : job.getStatus() == JobStatus.RUNNING ? System.currentTimeMillis() : job.getHeartbeatOn().getTime();
+            long elapsedMillis = Math.max(1, until - job.getStartedOn().getTime());
+            jobDTO.setItemsPerSecond(job.getItemsDone() * 1000.0 / elapsedMillis);
+        }
+        if (job.getFinishedOn() != null) {
+            jobDTO.setFinishedOn(job.getFinishedOn().toInstant());
+        }
+        jobDTO.setError(job.getError());
+        if (withResult && job.getResult() != null) {
+            try {
+                jobDTO.setResult(objectMapper.readTree(job.getResult()));
+            } catch (Exception e) {
+                LOGGER.warn("Unreadable result of job " + job.getId() + " : " + e.getMessage());
+            }
+        }
+        return jobDTO;
+    }
+}
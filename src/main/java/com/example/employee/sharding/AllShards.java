@@ -0,0 +1,14 @@
+package com.example.employee.sharding;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a repository read that returns a list and is run on every shard in parallel when
+ * sharding is enabled, returning the concatenated results. Callers that need an order sort the
+ * merged list themselves.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AllShards {
+}
@@ -0,0 +1,50 @@
+package com.example.employee.sharding;
+
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.DepartmentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Keeps a copy of every department on every shard, so employees on any shard can reference and
+ * join their department. Departments are written to shard 0 and copied to the other shards once
+ * committed; a new department is placed on its shard at the same time. All departments are copied
+ * again at startup, to catch up with changes whose copy was lost.
+ */
+public class DepartmentReplicator {
+    Logger LOGGER = LoggerFactory.getLogger(DepartmentReplicator.class);
+
+    private final Shards shards;
+    private final int batchSize;
+
+    public DepartmentReplicator(Shards shards, int batchSize) {
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void replicateAll() {
+        for (int shard = 1; shard < shards.count(); shard++) {
+            int copied = RowCopier.copy(shards.dataSource(0), shards.dataSource(shard), "department", "dept_id", batchSize, "1 = 1").size();
+            LOGGER.info("Copied " + copied + " departments to shard " + shard);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.getDeptId() == null) {
+            return;
+        }
+        for (int shard = 1; shard < shards.count(); shard++) {
+            RowCopier.copy(shards.dataSource(0), shards.dataSource(shard), "department", "dept_id", batchSize,
+                    "dept_id = ?", event.getDeptId());
+        }
+        if (event.getChangeType() == ChangeType.CREATED) {
+            int shard = shards.map().place(event.getDeptId());
+            LOGGER.debug("Placed department " + event.getDeptId() + " on shard " + shard);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.employee.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Copies rows of one table between shards with plain JDBC, keeping every column including the
+ * id. A row already on the target is overwritten, so an interrupted copy can simply be repeated.
+ */
+final class RowCopier {
+
+    private RowCopier() {
+    }
+
+    /**
+     * @param where condition selecting the rows to copy, with {@code ?} placeholders for the arguments
+     * @return ids of the rows copied
+     */
+    static List<Object> copy(DataSource from, DataSource to, String table, String idColumn, int batchSize, String where, Object... args) {
+        JdbcTemplate target = new JdbcTemplate(to);
+        List<String> columns = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<Object> copied = new ArrayList<>();
+        new JdbcTemplate(from).query("select * from " + table + " where " + where, (ResultSet resultSet) -> {
+            if (columns.isEmpty()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                    columns.add(metaData.getColumnLabel(column).toLowerCase());
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int column = 0; column < row.length; column++) {
+                row[column] = resultSet.getObject(column + 1);
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                copied.addAll(write(target, table, idColumn, columns, batch));
+                batch.clear();
+            }
+        }, args);
+        if (!batch.isEmpty()) {
+            copied.addAll(write(target, table, idColumn, columns, batch));
+        }
+        return copied;
+    }
+
+    /**
+     * Copies the rows, then deletes them from the source in the same source transaction. The rows
+     * stay locked on the source in between, so a write to one of them waits for the move and then
+     * finds it gone, instead of landing on a row already copied and being lost.
+     * @return ids of the rows moved
+     */
+    static List<Object> move(DataSource from, DataSource to, String table, String idColumn, int batchSize, String where, Object... args) {
+        List<Object> moved = new TransactionTemplate(new DataSourceTransactionManager(from)).execute(status -> {
+            List<Object> ids = copy(from, to, table, idColumn, batchSize, where + " for update", args);
+            delete(from, table, idColumn, batchSize, ids);
+            return ids;
+        });
+        return moved == null ? List.of() : moved;
+    }
+
+    /**
+     * Deletes the rows with these ids, {@code batchSize} ids per statement.
+     */
+    static void delete(DataSource from, String table, String idColumn, int batchSize, List<Object> ids) {
+        JdbcTemplate source = new JdbcTemplate(from);
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            List<Object> chunk = ids.subList(start, Math.min(start + batchSize, ids.size()));
+            source.update("delete from " + table + " where " + idColumn + " in ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray());
+        }
+    }
+
+    private static List<Object> write(JdbcTemplate target, String table, String idColumn, List<String> columns, List<Object[]> rows) {
+        int idIndex = columns.indexOf(idColumn);
+        List<Object> ids = new ArrayList<>(rows.size());
+        List<String> updated = columns.stream().filter(column -> !column.equals(idColumn)).collect(Collectors.toList());
+        String update = "update " + table + " set " + updated.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + " where " + idColumn + " = ?";
+        List<Object[]> updateArgs = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] args = new Object[row.length];
+            for (int column = 0, arg = 0; column < row.length; column++) {
+                if (column != idIndex) {
+                    args[arg++] = row[column];
+                }
+            }
+            args[row.length - 1] = row[idIndex];
+            updateArgs.add(args);
+            ids.add(row[idIndex]);
+        }
+        int[] counts = target.batchUpdate(update, updateArgs);
+
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            String[] placeholders = new String[columns.size()];
+            Arrays.fill(placeholders, "?");
+            target.batchUpdate("insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                    + String.join(", ", placeholders) + ")", missing);
+        }
+        return ids;
+    }
+}
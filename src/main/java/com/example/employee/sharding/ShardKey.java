@@ -0,0 +1,22 @@
+package com.example.employee.sharding;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks the parameter of a service method that decides which shard the method runs on: the
+ * shard of the department with that id, or the shard holding the employee with that id. An
+ * employee key takes precedence over a department key. Has no effect unless
+ * {@code app.sharding.enabled} is set.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+
+    Type value();
+
+    enum Type {
+        DEPARTMENT,
+        EMPLOYEE
+    }
+}
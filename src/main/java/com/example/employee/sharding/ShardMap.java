@@ -0,0 +1,159 @@
+package com.example.employee.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Which shard holds the employees of each department, kept in the {@code department_shard}
+ * table of shard 0 and cached in memory.
+ * <p>
+ * A department is placed when it is created, on shard {@code deptId mod shard count}, and stays
+ * there until moved by the {@link ShardRebalancer}. When the table is first created, i.e. when
+ * sharding is enabled on an existing database, the existing departments are placed on shard 0
+ * where their employees already are. The cache is re-read every
+ * {@code app.sharding.map-refresh-interval} ms to see moves made by other instances.
+ */
+public class ShardMap {
+    Logger LOGGER = LoggerFactory.getLogger(ShardMap.class);
+
+    static final String CREATE_TABLE = "create table department_shard (dept_id bigint not null primary key, " +
+            "shard int not null, moving boolean not null)";
+
+    private final JdbcTemplate directory;
+    private final int shardCount;
+    private final long refreshIntervalMillis;
+    private volatile Map<Long, Placement> placements = Map.of();
+
+    public ShardMap(JdbcTemplate directory, int shardCount, long refreshIntervalMillis) {
+        this.directory = directory;
+        this.shardCount = shardCount;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * Creates the table when missing and places the departments that were never placed.
+     */
+    public void initialize() {
+        boolean exists = Boolean.TRUE.equals(directory.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "DEPARTMENT_SHARD" : "department_shard";
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), table, null)) {
+                return tables.next();
+            }
+        }));
+        if (!exists) {
+            directory.execute(CREATE_TABLE);
+            int placed = directory.update("insert into department_shard (dept_id, shard, moving) select dept_id, 0, false from department");
+            LOGGER.info("Created the shard map, placing the " + placed + " existing departments on shard 0");
+        }
+        refresh();
+        for (Long deptId : directory.queryForList("select dept_id from department d where not exists " +
+                "(select 1 from department_shard s where s.dept_id = d.dept_id)", Long.class)) {
+            place(deptId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.map-refresh-interval:5000}")
+    public void refresh() {
+        Map<Long, Placement> loaded = new HashMap<>();
+        directory.query("select dept_id, shard, moving from department_shard", (ResultSet resultSet) -> {
+            loaded.put(resultSet.getLong(1), new Placement(resultSet.getInt(2), resultSet.getBoolean(3)));
+        });
+        placements = loaded;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return the shard of the department; for a department that was never placed, e.g. one
+     * that does not exist, the shard it would be placed on
+     */
+    public int shardOf(Long deptId) {
+        Placement placement = placements.get(deptId);
+        return placement == null ? defaultShard(deptId) : placement.shard;
+    }
+
+    public long refreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    /**
+     * @return how long clients refused during a move should wait before retrying
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, refreshIntervalMillis / 1000);
+    }
+
+    public boolean isMoving(Long deptId) {
+        Placement placement = placements.get(deptId);
+        return placement != null && placement.moving;
+    }
+
+    /**
+     * Places a new department on its default shard, unless another instance placed it first.
+     * @return the shard of the department
+     */
+    public int place(Long deptId) {
+        try {
+            directory.update("insert into department_shard (dept_id, shard, moving) values (?, ?, false)", deptId, defaultShard(deptId));
+        } catch (DuplicateKeyException e) {
+            LOGGER.debug("Department " + deptId + " was already placed");
+        }
+        refresh();
+        return shardOf(deptId);
+    }
+
+    void beginMove(Long deptId) {
+        directory.update("update department_shard set moving = true where dept_id = ?", deptId);
+        refresh();
+    }
+
+    void finishMove(Long deptId, int shard) {
+        directory.update("update department_shard set shard = ?, moving = false where dept_id = ?", shard, deptId);
+        refresh();
+    }
+
+    void abortMove(Long deptId) {
+        directory.update("update department_shard set moving = false where dept_id = ?", deptId);
+        refresh();
+    }
+
+    /**
+     * @return the number of placed departments per shard
+     */
+    public Map<Integer, Long> departmentsPerShard() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            counts.put(shard, 0L);
+        }
+        placements.values().forEach(placement -> counts.merge(placement.shard, 1L, Long::sum));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private int defaultShard(Long deptId) {
+        return deptId == null ? 0 : (int) Math.floorMod(deptId, (long) shardCount);
+    }
+
+    private static final class Placement {
+        final int shard;
+        final boolean moving;
+
+        Placement(int shard, boolean moving) {
+            this.shard = shard;
+            this.moving = moving;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.employee.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of department-based sharding ({@code app.sharding.*}).
+ * <p>
+ * Shard 0 is the database configured by {@code spring.datasource.*}; {@code shards} lists the
+ * connection settings of shards 1, 2, and so on.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardProperties {
+
+    private boolean enabled;
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Employee ids are allocated as {@code local sequence value * id-stride + shard}, so the shard
+     * an employee was created on can be told from its id. Bounds the number of shards and must
+     * never change once ids were allocated.
+     */
+    private int idStride = 16;
+
+    /**
+     * Threads running the per-shard queries of a scatter-gather read.
+     */
+    private int scatterThreads = 16;
+
+    /**
+     * How often the shard map is re-read, in ms, and so how long a department move waits for
+     * every instance to stop writing to the department before copying it.
+     */
+    private long mapRefreshInterval = 5000;
+
+    /**
+     * Rows copied per batch when moving a department between shards.
+     */
+    private int moveBatchSize = 1000;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
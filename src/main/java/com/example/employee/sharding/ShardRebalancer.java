@@ -0,0 +1,150 @@
+package com.example.employee.sharding;
+
+import com.example.employee.events.ChangeType;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.services.HeadcountService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves employees between shards: a whole department on request, and the employees whose
+ * department was changed to one on another shard.
+ * <p>
+ * A department move fences the department in the shard map, so writes to it are refused with a
+ * 503, and waits two map refresh intervals for every instance to see the fence and finish its
+ * writes. It then copies the employees to the target shard, points the map at the target and
+ * deletes the copied employees from the source, so lists read in between may show them twice but
+ * never miss them. Employees that joined the department on the source while it was copied are then
+ * moved too, locked as below. A failed move is undone and the department stays where it was. Outbox
+ * events stay on the shard they were written on.
+ * <p>
+ * Changed employees are moved with their source rows locked from the copy to the delete, so a
+ * concurrent write to them fails rather than being lost.
+ */
+public class ShardRebalancer {
+    Logger LOGGER = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final Shards shards;
+    private final EmployeeRepository employeeRepository;
+    private final HeadcountService headcountService;
+    private final TransactionTemplate newTransaction;
+    private final int batchSize;
+
+    public ShardRebalancer(Shards shards, EmployeeRepository employeeRepository, HeadcountService headcountService,
+                           PlatformTransactionManager transactionManager, int batchSize) {
+        this.shards = shards;
+        this.employeeRepository = employeeRepository;
+        this.headcountService = headcountService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Moves the employees of the department to the target shard, where its new employees go from then on.
+     * @return number of employees moved
+     */
+    public synchronized int moveDepartment(Long deptId, int target) throws InterruptedException {
+        if (target < 0 || target >= shards.count()) {
+            throw new IllegalArgumentException("No shard " + target + ", there are " + shards.count());
+        }
+        ShardMap map = shards.map();
+        int source = map.shardOf(deptId);
+        if (source == target) {
+            return 0;
+        }
+        LOGGER.info("Moving department " + deptId + " from shard " + source + " to shard " + target);
+        long started = System.nanoTime();
+        map.beginMove(deptId);
+        List<Object> copied;
+        try {
+            Thread.sleep(2 * map.refreshIntervalMillis());
+            copied = RowCopier.copy(shards.dataSource(source), shards.dataSource(target), "employee", "employee_id",
+                    batchSize, "dept_id = ?", deptId);
+            map.finishMove(deptId, target);
+        } catch (InterruptedException | RuntimeException e) {
+            LOGGER.error("Could not move department " + deptId + " to shard " + target + ", leaving it on shard " + source, e);
+            new JdbcTemplate(shards.dataSource(target)).update("delete from employee where dept_id = ?", deptId);
+            map.abortMove(deptId);
+            throw e;
+        }
+        RowCopier.delete(shards.dataSource(source), "employee", "employee_id", batchSize, copied);
+        // Moved into the department by updates routed to the source while it was copied.
+        int moved = copied.size() + RowCopier.move(shards.dataSource(source), shards.dataSource(target), "employee",
+                "employee_id", batchSize, "dept_id = ?", deptId).size();
+        // Recounts every shard, which rebuilds the summary rows the department left and joined.
+        headcountService.rebuild();
+        LOGGER.info("Moved the " + moved + " employees of department " + deptId + " to shard " + target + " in "
+                + (System.nanoTime() - started) / 1_000_000 + " ms");
+        return moved;
+    }
+
+    /**
+     * Follows an employee moved to a department on another shard. Runs after the update
+     * committed, on the thread still routed to the shard the employee was on.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        onEmployeesChanged(new EmployeesChangedEvent(List.of(event)));
+    }
+
+    /**
+     * Follows the employees of a batch moved to departments on other shards, in batches of
+     * {@code batchSize} per target shard.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesChanged(EmployeesChangedEvent event) {
+        int source = ShardRouting.current();
+        Map<Integer, List<Long>> byTarget = new TreeMap<>();
+        for (EmployeeChangedEvent change : event.getChanges()) {
+            if (change.getChangeType() != ChangeType.UPDATED || change.getDeptId() == null) {
+                continue;
+            }
+            int target = shards.ofDepartment(change.getDeptId());
+            if (source != target) {
+                byTarget.computeIfAbsent(target, shard -> new ArrayList<>()).add(change.getEmployeeId());
+            }
+        }
+        byTarget.forEach((target, employeeIds) -> moveEmployees(source, target, employeeIds));
+    }
+
+    private void moveEmployees(int source, int target, List<Long> employeeIds) {
+        List<Long> moved = new ArrayList<>();
+        for (int start = 0; start < employeeIds.size(); start += batchSize) {
+            List<Long> chunk = employeeIds.subList(start, Math.min(start + batchSize, employeeIds.size()));
+            for (Object id : RowCopier.move(shards.dataSource(source), shards.dataSource(target), "employee", "employee_id",
+                    batchSize, "employee_id in (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray())) {
+                moved.add(((Number) id).longValue());
+            }
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+        // The update already counted the employees on the source shard, so the counts move along.
+        List<HeadcountKey> counted = shards.on(target, () -> newTransaction.execute(status -> {
+            List<HeadcountKey> keys = new ArrayList<>();
+            for (Employee employee : employeeRepository.findAllById(moved)) {
+                keys.addAll(HeadcountKey.of(employee));
+            }
+            headcountService.employeeChanged(List.of(), keys);
+            return keys;
+        }));
+        shards.on(source, () -> newTransaction.executeWithoutResult(status -> headcountService.employeeChanged(counted, List.of())));
+        LOGGER.info("Moved " + moved.size() + " employees with their departments from shard " + source + " to shard " + target);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.employee.sharding;
+
+/**
+ * Thread-bound shard consulted by {@link ShardRoutingDataSource} whenever a connection is taken,
+ * and by {@link ShardedSequenceGenerator} when an id is allocated. Unset means shard 0.
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    public static int current() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * @return whether a shard was chosen for the current thread
+     */
+    public static boolean isSet() {
+        return SHARD.get() != null;
+    }
+
+    /**
+     * Sets the shard for the current thread and returns the previous one, so callers can restore it.
+     */
+    public static Integer set(Integer shard) {
+        Integer previous = SHARD.get();
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+        return previous;
+    }
+}
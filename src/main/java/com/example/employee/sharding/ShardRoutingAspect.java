@@ -0,0 +1,142 @@
+package com.example.employee.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes service methods by their {@link ShardKey} parameters and scatters {@link AllShards}
+ * repository reads over every shard.
+ * <p>
+ * Runs before the transaction advice, since a transaction keeps the connection of the shard it
+ * started on. Writes, i.e. methods with a read-write {@link Transactional}, are refused while their
+ * department is being moved. An {@link AllShards} read made on a thread already routed to a shard,
+ * such as a read by id or a scatter task, stays on that shard.
+ */
+@Aspect
+public class ShardRoutingAspect implements Ordered {
+
+    private static final RoutedMethod UNROUTED = new RoutedMethod(-1, -1, false);
+
+    private final Shards shards;
+    private final Map<Method, RoutedMethod> routedMethods = new ConcurrentHashMap<>();
+
+    public ShardRoutingAspect(Shards shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Around("within(com.example.employee.services..*) && execution(public * *(..))")
+    public Object routeByKey(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                joinPoint.getTarget().getClass());
+        RoutedMethod routed = routedMethods.computeIfAbsent(method, RoutedMethod::of);
+        if (routed == UNROUTED) {
+            return joinPoint.proceed();
+        }
+
+        Object[] args = joinPoint.getArgs();
+        Long deptId = routed.departmentKey < 0 ? null : (Long) args[routed.departmentKey];
+        Integer shard = null;
+        if (routed.employeeKey >= 0 && args[routed.employeeKey] != null) {
+            Shards.EmployeeLocation location = shards.locateEmployee((Long) args[routed.employeeKey]);
+            if (location != null) {
+                shard = location.getShard();
+                if (routed.write) {
+                    shards.checkWritable(location.getDeptId());
+                }
+            }
+        }
+        if (deptId != null) {
+            if (shard == null) {
+                shard = shards.ofDepartment(deptId);
+            }
+            if (routed.write) {
+                shards.checkWritable(deptId);
+            }
+        }
+        if (shard == null) {
+            // Nothing to go by, e.g. an employee that does not exist: let the method find that out on shard 0.
+            return joinPoint.proceed();
+        }
+        Integer previous = ShardRouting.set(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardRouting.set(previous);
+        }
+    }
+
+    @Around("@annotation(com.example.employee.sharding.AllShards)")
+    public Object scatter(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ShardRouting.isSet()) {
+            return joinPoint.proceed();
+        }
+        List<Object> merged = new ArrayList<>();
+        for (Object result : shards.scatter(() -> {
+            try {
+                return joinPoint.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        })) {
+            merged.addAll((List<?>) result);
+        }
+        return merged;
+    }
+
+    /**
+     * Positions of the shard key parameters of a method.
+     */
+    private static final class RoutedMethod {
+        final int departmentKey;
+        final int employeeKey;
+        final boolean write;
+
+        RoutedMethod(int departmentKey, int employeeKey, boolean write) {
+            this.departmentKey = departmentKey;
+            this.employeeKey = employeeKey;
+            this.write = write;
+        }
+
+        static RoutedMethod of(Method method) {
+            int departmentKey = -1;
+            int employeeKey = -1;
+            Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+            for (int parameter = 0; parameter < parameterAnnotations.length; parameter++) {
+                for (Annotation annotation : parameterAnnotations[parameter]) {
+                    if (annotation instanceof ShardKey) {
+                        if (((ShardKey) annotation).value() == ShardKey.Type.DEPARTMENT) {
+                            departmentKey = parameter;
+                        } else {
+                            employeeKey = parameter;
+                        }
+                    }
+                }
+            }
+            if (departmentKey < 0 && employeeKey < 0) {
+                return UNROUTED;
+            }
+            Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+            return new RoutedMethod(departmentKey, employeeKey, transactional != null && !transactional.readOnly());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.employee.sharding;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+/**
+ * Applies the schema action Hibernate took on shard 0 ({@code spring.jpa.hibernate.ddl-auto}) to
+ * the other shards. Registered as a Hibernate integrator to get hold of the mapping metadata.
+ */
+public class ShardSchemas implements Integrator {
+
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    /**
+     * Creates or updates the schema of the shard. Drops on shutdown are not registered, so a
+     * create-drop schema is left in place on the other shards.
+     */
+    public void apply(Shards shards, int shard) {
+        if (metadata == null) {
+            throw new IllegalStateException("The session factory was built without the shard schema integrator");
+        }
+        shards.on(shard, () -> SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                sessionFactory.getProperties(), action -> {
+                }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.employee.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sequence generator for ids that are unique across shards: each shard has its own sequence and
+ * turns its value {@code v} into {@code v * stride + shard}, the shard being the one the insert is
+ * routed to. The stride is the {@value #ID_STRIDE} setting, 1 when sharding is off, so ids are
+ * then the plain sequence values as before.
+ * <p>
+ * With an {@code increment_size} above 1 the values are taken from the sequence in blocks, one
+ * round trip per block, which on MySQL is also one commit of the table emulating the sequence.
+ * Each shard keeps the state of its own optimizer, so a value is only ever used on the shard whose
+ * sequence handed it out.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ID_STRIDE = "app.sharding.id_stride";
+
+    private final ConcurrentMap<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+    private long stride = 1;
+    private String optimizerStrategy;
+    private long initialValue;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        stride = ConfigurationHelper.getInt(ID_STRIDE, serviceRegistry.getService(ConfigurationService.class).getSettings(), 1);
+        optimizerStrategy = determineOptimizationStrategy(params, getOptimizer().getIncrementSize());
+        initialValue = determineInitialValue(params);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardRouting.current();
+        Optimizer optimizer = optimizers.computeIfAbsent(shard, key -> OptimizerFactory.buildOptimizer(optimizerStrategy,
+                getIdentifierType().getReturnedClass(), getOptimizer().getIncrementSize(), initialValue));
+        long value = ((Number) optimizer.generate(getDatabaseStructure().buildCallback(session))).longValue();
+        return value * stride + shard;
+    }
+}
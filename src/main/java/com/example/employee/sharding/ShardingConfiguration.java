@@ -0,0 +1,142 @@
+package com.example.employee.sharding;
+
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.services.HeadcountService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Department-based sharding of the employee data, enabled by {@code app.sharding.enabled}.
+ * <p>
+ * Employees, their outbox events and headcount summary live on the shard of their department;
+ * departments and the shard map live on shard 0, with the departments copied to every shard.
+ * Service methods are routed by their {@link ShardKey} parameters, list reads marked
+ * {@link AllShards} are scattered over all shards. Without sharding a single unsharded
+ * {@link Shards} stands in, so the code runs unchanged. Cannot be combined with a read replica,
+ * and needs {@code spring.jpa.open-in-view=false} since a request-wide entity manager would hold
+ * on to the connection of the first shard it used.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public Shards shards() {
+        return Shards.unsharded();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    public static class Sharded {
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties, ShardProperties properties,
+                                                             Environment environment) {
+            List<HikariDataSource> pools = new ArrayList<>();
+            HikariDataSource first = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(first));
+            first.setPoolName("shard-0");
+            pools.add(first);
+            for (ShardProperties.Shard shard : properties.getShards()) {
+                HikariDataSource pool = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .driverClassName(shard.getDriverClassName())
+                        .build();
+                pool.setPoolName("shard-" + pools.size());
+                pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+                pools.add(pool);
+            }
+            return new ShardRoutingDataSource(pools);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        @Bean
+        public ShardSchemas shardSchemas() {
+            return new ShardSchemas();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer shardingHibernateProperties(ShardSchemas shardSchemas, ShardProperties properties) {
+            return hibernateProperties -> {
+                hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(shardSchemas));
+                hibernateProperties.put(ShardedSequenceGenerator.ID_STRIDE, properties.getIdStride());
+            };
+        }
+
+        /**
+         * Created once Hibernate set up shard 0, to set up the schema of the other shards and the shard map.
+         */
+        @Bean(destroyMethod = "close")
+        public Shards shards(ShardRoutingDataSource shardRoutingDataSource, ShardSchemas shardSchemas, ShardProperties properties,
+                             EntityManagerFactory entityManagerFactory, Environment environment) {
+            if (environment.containsProperty("app.datasource.replica.url")) {
+                throw new IllegalStateException("Sharding cannot be combined with a read replica (app.datasource.replica.url)");
+            }
+            if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+                throw new IllegalStateException("Sharding needs spring.jpa.open-in-view=false");
+            }
+            List<? extends DataSource> pools = shardRoutingDataSource.getShards();
+            ShardMap shardMap = new ShardMap(new JdbcTemplate(pools.get(0)), pools.size(), properties.getMapRefreshInterval());
+            Shards shards = new Shards(pools, shardMap, properties.getIdStride(), properties.getScatterThreads());
+            for (int shard = 1; shard < shards.count(); shard++) {
+                shardSchemas.apply(shards, shard);
+            }
+            shardMap.initialize();
+            return shards;
+        }
+
+        @Bean
+        public ShardMap shardMap(Shards shards) {
+            return shards.map();
+        }
+
+        @Bean
+        public ShardRoutingAspect shardRoutingAspect(Shards shards) {
+            return new ShardRoutingAspect(shards);
+        }
+
+        @Bean
+        public DepartmentReplicator departmentReplicator(Shards shards, ShardProperties properties) {
+            return new DepartmentReplicator(shards, properties.getMoveBatchSize());
+        }
+
+        @Bean
+        public ShardRebalancer shardRebalancer(Shards shards, EmployeeRepository employeeRepository, HeadcountService headcountService,
+                                               PlatformTransactionManager transactionManager, ShardProperties properties) {
+            return new ShardRebalancer(shards, employeeRepository, headcountService, transactionManager, properties.getMoveBatchSize());
+        }
+
+        @Bean
+        public ShardsEndpoint shardsEndpoint(Shards shards, ShardRebalancer shardRebalancer) {
+            return new ShardsEndpoint(shards, shardRebalancer);
+        }
+    }
+}
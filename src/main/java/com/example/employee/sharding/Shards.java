@@ -0,0 +1,240 @@
+package com.example.employee.sharding;
+
+import com.example.employee.exception.ServiceOverloadedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The shards of the employee data and how to run work on them. Without sharding there is a
+ * single shard, 0, and everything runs on the calling thread as before.
+ * <p>
+ * Work runs on a shard by binding {@link ShardRouting} to the thread for its duration, so it must
+ * open its own transaction: a transaction already running on the thread keeps its connection.
+ * Scatter-gather reads run on a pool of {@code app.sharding.scatter-threads}, one task per shard.
+ */
+public class Shards implements AutoCloseable {
+
+    private final List<? extends DataSource> dataSources;
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+    private final ShardMap shardMap;
+    private final int idStride;
+    private final ExecutorService executor;
+
+    private Shards() {
+        this.dataSources = List.of();
+        this.shardMap = null;
+        this.idStride = 1;
+        this.executor = null;
+    }
+
+    /**
+     * @param dataSources pool of each shard, by shard number
+     */
+    public Shards(List<? extends DataSource> dataSources, ShardMap shardMap, int idStride, int scatterThreads) {
+        if (dataSources.size() > idStride) {
+            throw new IllegalArgumentException(dataSources.size() + " shards do not fit an id stride of " + idStride);
+        }
+        this.dataSources = dataSources;
+        dataSources.forEach(dataSource -> jdbcTemplates.add(new JdbcTemplate(dataSource)));
+        this.shardMap = shardMap;
+        this.idStride = idStride;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(scatterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Shards unsharded() {
+        return new Shards();
+    }
+
+    public boolean isSharded() {
+        return shardMap != null;
+    }
+
+    public int count() {
+        return isSharded() ? dataSources.size() : 1;
+    }
+
+    public ShardMap map() {
+        return shardMap;
+    }
+
+    /**
+     * @return the pool of the shard, bypassing the routing
+     */
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int ofDepartment(Long deptId) {
+        return isSharded() ? shardMap.shardOf(deptId) : 0;
+    }
+
+    public boolean isMoving(Long deptId) {
+        return isSharded() && shardMap.isMoving(deptId);
+    }
+
+    /**
+     * Refuses writes to a department while it is moved between shards.
+     * @throws ServiceOverloadedException when the department is being moved
+     */
+    public void checkWritable(Long deptId) throws ServiceOverloadedException {
+        if (isMoving(deptId)) {
+            throw new ServiceOverloadedException("Department " + deptId + " is being moved between shards, retry later",
+                    shardMap.retryAfterSeconds());
+        }
+    }
+
+    /**
+     * Finds the shard holding the employee, looking first at the shard its id was allocated on.
+     * @return the employee's shard and department, or null when no shard has the employee
+     */
+    public EmployeeLocation locateEmployee(Long employeeId) {
+        if (!isSharded()) {
+            return null;
+        }
+        int birthShard = (int) Math.floorMod(employeeId, (long) idStride);
+        List<Integer> candidates = new ArrayList<>();
+        if (birthShard < count()) {
+            candidates.add(birthShard);
+        }
+        for (int shard = 0; shard < count(); shard++) {
+            if (shard != birthShard) {
+                candidates.add(shard);
+            }
+        }
+        for (int shard : candidates) {
+            EmployeeLocation location = jdbcTemplates.get(shard).query("select dept_id from employee where employee_id = ?",
+                    (ResultSetExtractor<EmployeeLocation>) resultSet -> resultSet.next()
+                            ? new EmployeeLocation(shard, resultSet.getObject(1, Long.class)) : null,
+                    employeeId);
+            if (location != null) {
+                return location;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs the task with its database work on the given shard.
+     */
+    public <T> T on(int shard, Supplier<T> task) {
+        Integer previous = ShardRouting.set(shard);
+        try {
+            return task.get();
+        } finally {
+            ShardRouting.set(previous);
+        }
+    }
+
+    public void on(int shard, Runnable task) {
+        on(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the task on each shard in turn, on the calling thread.
+     */
+    public void forEach(IntConsumer task) {
+        for (int shard = 0; shard < count(); shard++) {
+            int current = shard;
+            on(shard, () -> task.accept(current));
+        }
+    }
+
+    /**
+     * Runs the task on every shard in parallel and waits for all of them.
+     * @return the result of each shard, by shard number
+     * @throws Exception the failure of the first shard that failed
+     */
+    public <T> List<T> scatter(Callable<T> task) throws Exception {
+        if (!isSharded()) {
+            return List.of(task.call());
+        }
+        List<Future<T>> futures = new ArrayList<>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            int current = shard;
+            futures.add(executor.submit(() -> {
+                Integer previous = ShardRouting.set(current);
+                try {
+                    return task.call();
+                } finally {
+                    ShardRouting.set(previous);
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(count());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Groups items by the shard of their department, in shard order.
+     */
+    public <T> Map<Integer, List<T>> byDepartment(Collection<T> items, Function<T, Long> deptId) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(ofDepartment(deptId.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Where an employee lives.
+     */
+    public static final class EmployeeLocation {
+        private final int shard;
+        private final Long deptId;
+
+        EmployeeLocation(int shard, Long deptId) {
+            this.shard = shard;
+            this.deptId = deptId;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+
+        public Long getDeptId() {
+            return deptId;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.employee.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code shards}: employees and placed departments per shard, and moving a
+ * department to another shard with a POST of {@code {"deptId": 5, "shard": 1}}.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final Shards shards;
+    private final ShardRebalancer rebalancer;
+
+    public ShardsEndpoint(Shards shards, ShardRebalancer rebalancer) {
+        this.shards = shards;
+        this.rebalancer = rebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<Integer, Long> employees = new LinkedHashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            employees.put(shard, new JdbcTemplate(shards.dataSource(shard)).queryForObject("select count(*) from employee", Long.class));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("employees", employees);
+        body.put("departments", shards.map().departmentsPerShard());
+        return body;
+    }
+
+    @WriteOperation
+    public Map<String, Object> move(Long deptId, int shard) throws InterruptedException {
+        int moved = rebalancer.moveDepartment(deptId, shard);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("deptId", deptId);
+        body.put("shard", shard);
+        body.put("employeesMoved", moved);
+        return body;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.employee.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends kept traces to {@code app.tracing.file}, one JSON document per line, from a background
+ * thread so requests never wait for the disk. When the writer falls behind by
+ * {@code app.tracing.file-queue-size} traces, further traces are left out of the file.
+ */
+public class FileTraceExporter implements TraceExporter, DisposableBean {
+    Logger LOGGER = LoggerFactory.getLogger(FileTraceExporter.class);
+
+    private final BufferedWriter writer;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public FileTraceExporter(Path file, ObjectMapper objectMapper, int queueSize) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "trace-file-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void export(Trace trace) {
+        try {
+            executor.execute(() -> write(trace));
+        } catch (RejectedExecutionException e) {
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                LOGGER.warn("The trace file writer is behind, " + dropped.get() + " traces left out so far");
+            }
+        }
+    }
+
+    private void write(Trace trace) {
+        try {
+            writer.write(objectMapper.writeValueAsString(trace));
+            writer.newLine();
+            if (((ThreadPoolExecutor) executor).getQueue().isEmpty()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write trace " + trace.getTraceId() + " : " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        writer.close();
+    }
+}
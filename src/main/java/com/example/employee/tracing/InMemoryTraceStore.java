@@ -0,0 +1,46 @@
+package com.example.employee.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The last {@code app.tracing.store-size} kept traces, newest first.
+ */
+public class InMemoryTraceStore implements TraceExporter {
+
+    private final int capacity;
+    private final Deque<Trace> traces = new ArrayDeque<>();
+
+    public InMemoryTraceStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(Trace trace) {
+        if (capacity <= 0) {
+            return;
+        }
+        traces.addFirst(trace);
+        if (traces.size() > capacity) {
+            traces.removeLast();
+        }
+    }
+
+    public synchronized List<Trace> getTraces() {
+        return new ArrayList<>(traces);
+    }
+
+    /**
+     * @return the trace, or null when it was not kept or has been pushed out
+     */
+    public synchronized Trace getTrace(String traceId) {
+        for (Trace trace : traces) {
+            if (trace.getTraceId().equals(traceId)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.employee.tracing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timed section of a {@link Trace}, nested in the span that was current when it started. Spans
+ * are started with {@link Tracing#start} and ended by closing them, so they fit try-with-resources.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"spanId", "parentId", "name", "startMicros", "durationMicros", "error", "tags"})
+public class Span implements AutoCloseable {
+
+    private final Trace trace;
+    private final Span parent;
+    private final String spanId;
+    private String name;
+    private final long startNanos;
+    private final long startMicros;
+    private long durationMicros = -1;
+    private String error;
+    private Map<String, String> tags;
+
+    Span(Trace trace, Span parent, String spanId, String name) {
+        this.trace = trace;
+        this.parent = parent;
+        this.spanId = spanId;
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        this.startMicros = trace.epochMicros(startNanos);
+    }
+
+    @JsonIgnore
+    public Trace getTrace() {
+        return trace;
+    }
+
+    @JsonIgnore
+    public Span getParent() {
+        return parent;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return the id of the enclosing span, for the root span the caller's span when the trace
+     * was propagated, otherwise null
+     */
+    public String getParentId() {
+        return parent != null ? parent.spanId : trace.getRemoteParentId();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return microseconds since the epoch
+     */
+    public long getStartMicros() {
+        return startMicros;
+    }
+
+    /**
+     * @return the duration, -1 while the span runs
+     */
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public Span tag(String key, Object value) {
+        if (tags == null) {
+            tags = new LinkedHashMap<>();
+        }
+        tags.put(key, String.valueOf(value));
+        return this;
+    }
+
+    public void error(Throwable failure) {
+        error = failure.getClass().getSimpleName() + (failure.getMessage() == null ? "" : ": " + failure.getMessage());
+    }
+
+    void end() {
+        durationMicros = (System.nanoTime() - startNanos) / 1000;
+    }
+
+    @Override
+    public void close() {
+        Tracing.finish(this);
+    }
+}
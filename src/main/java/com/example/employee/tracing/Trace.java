@@ -0,0 +1,137 @@
+package com.example.employee.tracing;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The spans of one request, in start order, the first being the request itself. Spans beyond
+ * {@code app.tracing.max-spans} are not recorded, only counted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"traceId", "keptBecause", "droppedSpans", "spans"})
+public class Trace {
+
+    private final String traceId;
+    private final String remoteParentId;
+    private final boolean sampledUpstream;
+    private final long originNanos = System.nanoTime();
+    private final long originMicros = System.currentTimeMillis() * 1000;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private String keptBecause;
+
+    Trace(String traceId, String remoteParentId, boolean sampledUpstream, int maxSpans) {
+        this.traceId = traceId;
+        this.remoteParentId = remoteParentId;
+        this.sampledUpstream = sampledUpstream;
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * Continues the trace of a W3C {@code traceparent} header, or starts a new one when the
+     * header is absent or malformed.
+     */
+    static Trace fromTraceparent(String traceparent, int maxSpans) {
+        if (traceparent != null) {
+            String[] parts = traceparent.trim().toLowerCase(Locale.ROOT).split("-");
+            if (parts.length >= 4 && parts[0].length() == 2 && !parts[0].equals("ff") && isHex(parts[1], 32) && isHex(parts[2], 16)
+                    && isHex(parts[3], 2) && !isZero(parts[1]) && !isZero(parts[2])) {
+                boolean sampled = (Integer.parseInt(parts[3], 16) & 1) == 1;
+                return new Trace(parts[1], parts[2], sampled, maxSpans);
+            }
+        }
+        return new Trace(randomHex(32), null, false, maxSpans);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    String getRemoteParentId() {
+        return remoteParentId;
+    }
+
+    /**
+     * @return whether the caller asked for the trace to be recorded
+     */
+    boolean isSampledUpstream() {
+        return sampledUpstream;
+    }
+
+    /**
+     * @return why tail sampling kept the trace: error, slow, upstream or sampled
+     */
+    public String getKeptBecause() {
+        return keptBecause;
+    }
+
+    void setKeptBecause(String keptBecause) {
+        this.keptBecause = keptBecause;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    Span root() {
+        return spans.get(0);
+    }
+
+    /**
+     * @return the span, or null when the trace is full
+     */
+    Span newSpan(Span parent, String name) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return null;
+        }
+        Span span = new Span(this, parent, randomHex(16), name);
+        spans.add(span);
+        return span;
+    }
+
+    long epochMicros(long nanos) {
+        return originMicros + (nanos - originNanos) / 1000;
+    }
+
+    private static String randomHex(int length) {
+        StringBuilder hex = new StringBuilder(length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (hex.length() < length) {
+            String chunk = Long.toHexString(random.nextLong());
+            for (int i = chunk.length(); i < 16; i++) {
+                hex.append('0');
+            }
+            hex.append(chunk);
+        }
+        hex.setLength(length);
+        return hex.toString();
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        return value.chars().allMatch(c -> c == '0');
+    }
+}
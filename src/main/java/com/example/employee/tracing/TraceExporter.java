@@ -0,0 +1,9 @@
+package com.example.employee.tracing;
+
+/**
+ * Receives the traces kept by tail sampling, on the request thread once the request is done.
+ */
+public interface TraceExporter {
+
+    void export(Trace trace);
+}
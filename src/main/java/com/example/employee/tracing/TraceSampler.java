@@ -0,0 +1,54 @@
+package com.example.employee.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tail-based sampling: decides once a request is done whether its trace is worth keeping, so the
+ * slow and failed requests are always kept while only a sample of the others is.
+ */
+public class TraceSampler {
+
+    private final long slowThresholdMicros;
+    private final double sampleRate;
+    private final List<TraceExporter> exporters;
+
+    public TraceSampler(TracingProperties properties, List<TraceExporter> exporters) {
+        this.slowThresholdMicros = properties.getSlowThreshold().toNanos() / 1000;
+        this.sampleRate = properties.getSampleRate();
+        this.exporters = exporters;
+    }
+
+    /**
+     * Hands the trace of a finished request to the exporters when it is kept.
+     * @param failed whether the request failed
+     * @return whether the trace was kept
+     */
+    public boolean complete(Trace trace, boolean failed) {
+        String reason = keepReason(trace, failed);
+        if (reason == null) {
+            return false;
+        }
+        trace.setKeptBecause(reason);
+        for (TraceExporter exporter : exporters) {
+            exporter.export(trace);
+        }
+        return true;
+    }
+
+    private String keepReason(Trace trace, boolean failed) {
+        if (failed) {
+            return "error";
+        }
+        if (trace.root().getDurationMicros() >= slowThresholdMicros) {
+            return "slow";
+        }
+        if (trace.isSampledUpstream()) {
+            return "upstream";
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return "sampled";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.employee.tracing;
+
+import org.modelmapper.ModelMapper;
+
+/**
+ * ModelMapper recording each mapping in a span named {@code map Employee -> EmployeeDTO}, which
+ * includes the loads of lazy associations the mapping touches.
+ */
+public class TracedModelMapper extends ModelMapper {
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        if (!Tracing.isActive() || source == null) {
+            return super.map(source, destinationType);
+        }
+        try (Span span = Tracing.start("map " + simpleName(source.getClass()) + " -> " + destinationType.getSimpleName())) {
+            return super.map(source, destinationType);
+        }
+    }
+
+    /**
+     * @return the class name without the suffix of a Hibernate proxy
+     */
+    static String simpleName(Class<?> type) {
+        String name = type.getSimpleName();
+        int proxySuffix = name.indexOf('$');
+        return proxySuffix > 0 ? name.substring(0, proxySuffix) : name;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employee.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint {@code traces}: a summary of the kept traces held in memory, newest first,
+ * and all spans of one of them at {@code /actuator/traces/{traceId}}.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final InMemoryTraceStore store;
+
+    public TracesEndpoint(InMemoryTraceStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> traces() {
+        return store.getTraces().stream().map(trace -> {
+            Span root = trace.getSpans().get(0);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("traceId", trace.getTraceId());
+            summary.put("name", root.getName());
+            summary.put("startedOn", Instant.EPOCH.plusNanos(root.getStartMicros() * 1000));
+            summary.put("durationMillis", root.getDurationMicros() / 1000.0);
+            summary.put("spans", trace.getSpans().size() + trace.getDroppedSpans());
+            summary.put("keptBecause", trace.getKeptBecause());
+            return summary;
+        }).collect(Collectors.toList());
+    }
+
+    @ReadOperation
+    public Trace trace(@Selector String traceId) {
+        return store.getTrace(traceId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.employee.tracing;
+
+/**
+ * The span running on the current thread, set by the {@link TracingFilter} for the duration of a
+ * request. Outside a traced request {@link #start} returns null and nothing is recorded, so the
+ * instrumentation costs a thread-local read; work handed to other threads, e.g. the shard
+ * scatter pool or the group committer, is not traced.
+ */
+public final class Tracing {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Starts a span nested in the current one.
+     * @return the span, to close when done, or null when no trace runs on this thread or it is full
+     */
+    public static Span start(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return null;
+        }
+        Span span = parent.getTrace().newSpan(parent, name);
+        if (span != null) {
+            CURRENT.set(span);
+        }
+        return span;
+    }
+
+    static Span begin(Trace trace, String name) {
+        Span root = trace.newSpan(null, name);
+        CURRENT.set(root);
+        return root;
+    }
+
+    static void finish(Span span) {
+        span.end();
+        if (CURRENT.get() == span) {
+            if (span.getParent() == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(span.getParent());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.employee.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+
+/**
+ * Spans for the public methods of the controllers and services, named
+ * {@code EmployeeServiceImpl.getEmployee}. Runs outside the transaction, so a service span
+ * includes its commit.
+ */
+@Aspect
+public class TracingAspect implements Ordered {
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Around("(within(com.example.employee.controller..*) || within(com.example.employee.services..*)) && execution(public * *(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracing.isActive()) {
+            return joinPoint.proceed();
+        }
+        Span span = Tracing.start(joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName());
+        if (span == null) {
+            return joinPoint.proceed();
+        }
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable failure) {
+            span.error(failure);
+            throw failure;
+        } finally {
+            span.close();
+        }
+    }
+}
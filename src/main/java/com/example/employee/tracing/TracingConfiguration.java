@@ -0,0 +1,81 @@
+package com.example.employee.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Request tracing, enabled by {@code app.tracing.enabled}: a span per request with nested spans
+ * for the controller and service methods, the DTO mapping, the JSON serialization and each JDBC
+ * statement. Traces are sampled once the request is done, keeping every slow or failed one and
+ * {@code app.tracing.sample-rate} of the others, and go to the {@code traces} actuator endpoint
+ * and, when {@code app.tracing.file} is set, to a file.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfiguration implements WebMvcConfigurer {
+
+    @Bean
+    public static TracingDataSourcePostProcessor tracingDataSourcePostProcessor(Environment environment) {
+        // Bound by hand: a post-processor is created before the configuration properties.
+        return new TracingDataSourcePostProcessor(environment.getProperty("app.tracing.max-sql-length", Integer.class, 1000));
+    }
+
+    @Bean
+    public InMemoryTraceStore inMemoryTraceStore(TracingProperties properties) {
+        return new InMemoryTraceStore(properties.getStoreSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "file")
+    public FileTraceExporter fileTraceExporter(TracingProperties properties, ObjectMapper objectMapper) throws IOException {
+        return new FileTraceExporter(Paths.get(properties.getFile()), objectMapper, properties.getFileQueueSize());
+    }
+
+    @Bean
+    public TraceSampler traceSampler(TracingProperties properties, List<TraceExporter> exporters) {
+        return new TraceSampler(properties, exporters);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(TraceSampler traceSampler, TracingProperties properties) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(traceSampler, properties.getMaxSpans()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracingAspect tracingAspect() {
+        return new TracingAspect();
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(InMemoryTraceStore inMemoryTraceStore) {
+        return new TracesEndpoint(inMemoryTraceStore);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter json = (MappingJackson2HttpMessageConverter) converters.get(i);
+                TracingJackson2HttpMessageConverter traced = new TracingJackson2HttpMessageConverter(json.getObjectMapper());
+                traced.setSupportedMediaTypes(json.getSupportedMediaTypes());
+                converters.set(i, traced);
+            }
+        }
+    }
+}
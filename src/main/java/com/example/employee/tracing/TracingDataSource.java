@@ -0,0 +1,128 @@
+package com.example.employee.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Records each JDBC statement execution in a span named after the statement's first keyword, e.g.
+ * {@code jdbc select}, with the SQL as a tag. Only connections taken during a traced request are
+ * wrapped; the others are handed out as they are.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private final int maxSqlLength;
+
+    public TracingDataSource(DataSource targetDataSource, int maxSqlLength) {
+        super(targetDataSource);
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return Tracing.isActive() ? traced(connection) : connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Connection connection = super.getConnection(username, password);
+        return Tracing.isActive() ? traced(connection) : connection;
+    }
+
+    private Connection traced(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement && !method.getName().equals("unwrap")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return traced((Statement) result, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement traced(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, new InvocationHandler() {
+            private String batchSql = preparedSql;
+            private int batched;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("addBatch")) {
+                    batched++;
+                    if (args != null && args.length == 1 && batchSql == null) {
+                        batchSql = (String) args[0];
+                    }
+                } else if (name.equals("clearBatch")) {
+                    batched = 0;
+                }
+                if (!name.startsWith("execute") || !Tracing.isActive()) {
+                    return TracingDataSource.invoke(statement, method, args);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : batchSql;
+                Span span = Tracing.start("jdbc " + keyword(sql));
+                if (span == null) {
+                    return TracingDataSource.invoke(statement, method, args);
+                }
+                span.tag("sql", truncate(sql));
+                if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                    span.tag("batch", batched);
+                    batched = 0;
+                }
+                try {
+                    Object result = TracingDataSource.invoke(statement, method, args);
+                    if (result instanceof Integer || result instanceof Long) {
+                        span.tag("rows", result);
+                    }
+                    return result;
+                } catch (Throwable failure) {
+                    span.error(failure);
+                    throw failure;
+                } finally {
+                    span.close();
+                }
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static String keyword(String sql) {
+        if (sql == null) {
+            return "statement";
+        }
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "statement" : trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    private String truncate(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        return sql.length() > maxSqlLength ? sql.substring(0, maxSqlLength) + "..." : sql;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.employee.tracing;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source in a {@link TracingDataSource}. A lazy data source, as used
+ * with a read replica or sharding, keeps its place in front and gets the tracing one behind it,
+ * so that only statements actually sent are traced; running first, before any other data source
+ * post-processor, gives the same order when group commit adds the lazy proxy.
+ */
+public class TracingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+    private final int maxSqlLength;
+
+    public TracingDataSourcePostProcessor(int maxSqlLength) {
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!"dataSource".equals(beanName) || !(bean instanceof DataSource) || bean instanceof TracingDataSource) {
+            return bean;
+        }
+        if (bean instanceof LazyConnectionDataSourceProxy) {
+            LazyConnectionDataSourceProxy lazy = (LazyConnectionDataSourceProxy) bean;
+            lazy.setTargetDataSource(new TracingDataSource(lazy.getTargetDataSource(), maxSqlLength));
+            return lazy;
+        }
+        return new TracingDataSource((DataSource) bean, maxSqlLength);
+    }
+}
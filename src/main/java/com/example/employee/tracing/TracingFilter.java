@@ -0,0 +1,61 @@
+package com.example.employee.tracing;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Traces each request in a root span named after its route, e.g.
+ * {@code GET /employees/{employeeId}}. A W3C {@code traceparent} header continues the caller's
+ * trace; the trace id is answered in {@code X-Trace-Id} to look the trace up on the
+ * {@code traces} actuator endpoint. Actuator requests are not traced.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    static final String TRACEPARENT = "traceparent";
+    static final String TRACE_ID = "X-Trace-Id";
+
+    private final TraceSampler sampler;
+    private final int maxSpans;
+
+    public TracingFilter(TraceSampler sampler, int maxSpans) {
+        this.sampler = sampler;
+        this.maxSpans = Math.max(1, maxSpans);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Trace trace = Trace.fromTraceparent(request.getHeader(TRACEPARENT), maxSpans);
+        Span root = Tracing.begin(trace, request.getMethod() + " " + request.getRequestURI());
+        root.tag("http.method", request.getMethod()).tag("http.url", request.getRequestURI());
+        response.setHeader(TRACE_ID, trace.getTraceId());
+        boolean failed = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failed = true;
+            root.error(e);
+            throw e;
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                root.setName(request.getMethod() + " " + route);
+                root.tag("http.route", route);
+            }
+            root.tag("http.status", response.getStatus());
+            Tracing.finish(root);
+            sampler.complete(trace, failed || response.getStatus() >= 500);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.employee.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter recording the serialization of each response body in a span named
+ * {@code serialize ArrayList}. Responses served through the response cache are serialized by
+ * the cache instead, in a span of its own.
+ */
+public class TracingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TracingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!Tracing.isActive()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        try (Span span = Tracing.start("serialize " + TracedModelMapper.simpleName(object.getClass()))) {
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+}
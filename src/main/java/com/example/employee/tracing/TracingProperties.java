@@ -0,0 +1,54 @@
+package com.example.employee.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the request tracing ({@code app.tracing.*}).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Requests at least this slow are always kept.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Share of the other requests kept, between 0 and 1. Failed requests and those the caller
+     * marked as sampled in its {@code traceparent} are always kept.
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Spans recorded per request; further spans are only counted.
+     */
+    private int maxSpans = 1000;
+
+    /**
+     * Kept traces held in memory for the {@code traces} actuator endpoint.
+     */
+    private int storeSize = 200;
+
+    /**
+     * File the kept traces are appended to, one JSON document per line; none when unset.
+     */
+    private String file;
+
+    /**
+     * Kept traces waiting to be written to the file; further traces are dropped from the file.
+     */
+    private int fileQueueSize = 1000;
+
+    /**
+     * Characters of a statement recorded with its JDBC span.
+     */
+    private int maxSqlLength = 1000;
+}
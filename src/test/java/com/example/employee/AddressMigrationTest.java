@@ -0,0 +1,106 @@
+package com.example.employee;
+
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.migration.AddressMigration;
+import com.example.employee.services.HeadcountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = AddressMigrationTest.class)
+public class AddressMigrationTest {
+
+    @Mock
+    HeadcountService headcountService;
+    @Mock
+    ResponseCache responseCache;
+
+    JdbcTemplate jdbcTemplate;
+    AddressMigration addressMigration;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:address_migration;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop all objects");
+        // The schema as Hibernate left it: the old address table, and the embedded columns added to employee.
+        jdbcTemplate.execute("create sequence address_sequence");
+        jdbcTemplate.execute("create table address (address_id bigint primary key, address varchar(255), city varchar(255), " +
+                "state varchar(255), pincode varchar(255), is_active boolean not null, is_deleted boolean not null)");
+        jdbcTemplate.execute("create table employee (employee_id bigint primary key, employee_name varchar(255), address_id bigint, " +
+                "address varchar(255), city varchar(255), state varchar(255), pincode varchar(255), " +
+                "constraint fk_employee_address foreign key (address_id) references address (address_id))");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("insert into address values (?, ?, ?, ?, ?, true, false)",
+                    id * 10, "Address " + id, "City " + id, "State " + id, "pin" + id);
+            jdbcTemplate.update("insert into employee (employee_id, employee_name, address_id) values (?, ?, ?)",
+                    id, "Name " + id, id * 10);
+        }
+        jdbcTemplate.update("insert into employee (employee_id, employee_name, address_id, city) values (6, 'Name 6', 10, 'City 6')");
+        addressMigration = migration(false);
+    }
+
+    private AddressMigration migration(boolean dropLegacySchema) {
+        return new AddressMigration(jdbcTemplate, headcountService, responseCache, 2, dropLegacySchema, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void testMigrateFoldsAddressesIntoEmployees() {
+        assertEquals(5, addressMigration.migrate());
+
+        Map<String, Object> employee = jdbcTemplate.queryForMap("select * from employee where employee_id = 3");
+        assertEquals("Address 3", employee.get("ADDRESS"));
+        assertEquals("City 3", employee.get("CITY"));
+        assertEquals("State 3", employee.get("STATE"));
+        assertEquals("pin3", employee.get("PINCODE"));
+        assertEquals("City 6", jdbcTemplate.queryForObject("select city from employee where employee_id = 6", String.class));
+        // Instances of the previous version may still be running, so the legacy schema stays.
+        assertEquals(30L, employee.get("ADDRESS_ID"));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.tables where table_name = 'ADDRESS'", Long.class));
+        verify(headcountService).rebuild();
+        verify(responseCache).clear();
+    }
+
+    @Test
+    public void testMigrateCopiesAddressesWrittenSinceTheLastRun() {
+        addressMigration.migrate();
+        jdbcTemplate.update("insert into address values (70, 'Address 7', 'City 7', 'State 7', 'pin7', true, false)");
+        jdbcTemplate.update("insert into employee (employee_id, employee_name, address_id) values (7, 'Name 7', 70)");
+
+        assertEquals(1, addressMigration.migrate());
+        assertEquals("City 7", jdbcTemplate.queryForObject("select city from employee where employee_id = 7", String.class));
+        assertEquals(0, addressMigration.migrate());
+        verify(headcountService, times(2)).rebuild();
+    }
+
+    @Test
+    public void testMigrateDropsLegacySchemaWhenAsked() {
+        addressMigration.migrate();
+
+        assertEquals(0, migration(true).migrate());
+
+        Map<String, Object> employee = jdbcTemplate.queryForMap("select * from employee where employee_id = 3");
+        assertEquals("City 3", employee.get("CITY"));
+        assertFalse(employee.containsKey("ADDRESS_ID"));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from information_schema.tables where table_name = 'ADDRESS'", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from information_schema.sequences where sequence_name = 'ADDRESS_SEQUENCE'", Long.class));
+    }
+
+    @Test
+    public void testMigrateAfterDropIsHarmless() {
+        migration(true).migrate();
+
+        assertEquals(-1, migration(true).migrate());
+        assertEquals(-1, addressMigration.migrate());
+        verify(headcountService, times(1)).rebuild();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.employee;
+
+import com.example.employee.config.Bulkhead;
+import com.example.employee.config.BulkheadInterceptor;
+import com.example.employee.config.BulkheadLimiter;
+import com.example.employee.config.BulkheadProperties;
+import com.example.employee.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = BulkheadLimiterTest.class)
+public class BulkheadLimiterTest {
+
+    MeterRegistry meterRegistry;
+    BulkheadLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new BulkheadLimiter("list", new BulkheadProperties.Limits(1, 1, Duration.ofMillis(100), 2), meterRegistry);
+    }
+
+    @Test
+    public void testAcquireAndRelease() throws Exception {
+        limiter.acquire();
+        assertEquals(1.0, meterRegistry.get("app.bulkhead.active").tag("bulkhead", "list").gauge().value());
+        limiter.release();
+        limiter.acquire();
+        limiter.release();
+        assertEquals(0.0, meterRegistry.get("app.bulkhead.active").tag("bulkhead", "list").gauge().value());
+    }
+
+    @Test
+    public void testQueuedRequestGetsReleasedSlot() throws Exception {
+        limiter.acquire();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> queued = executor.submit(() -> {
+                limiter.acquire();
+                limiter.release();
+                return null;
+            });
+            Thread.sleep(20);
+            limiter.release();
+            queued.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0.0, meterRegistry.get("app.bulkhead.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    public void testShedsAfterMissingQueueTarget() throws Exception {
+        limiter.acquire();
+
+        assertThatThrownBy(() -> limiter.acquire())
+                .isInstanceOf(ServiceOverloadedException.class)
+                .hasMessage("Too many concurrent list requests, retry later");
+        assertEquals(1.0, meterRegistry.get("app.bulkhead.rejected").tag("reason", "timeout").counter().count());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire()).isInstanceOf(ServiceOverloadedException.class);
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(50).toNanos());
+        assertEquals(1.0, meterRegistry.get("app.bulkhead.rejected").tag("reason", "shed").counter().count());
+
+        limiter.release();
+        limiter.acquire();
+        limiter.release();
+    }
+
+    @Test
+    public void testInterceptorReleasesOnCompletion() throws Exception {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(Map.of("list", limiter));
+        HandlerMethod handler = new HandlerMethod(this, getClass().getDeclaredMethod("listHandler"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler));
+        ServiceOverloadedException refused = assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, handler));
+        assertEquals(2, refused.getRetryAfterSeconds());
+
+        interceptor.afterCompletion(request, response, handler, null);
+        assertEquals(0.0, meterRegistry.get("app.bulkhead.active").tag("bulkhead", "list").gauge().value());
+    }
+
+    @Bulkhead("list")
+    void listHandler() {
+    }
+}
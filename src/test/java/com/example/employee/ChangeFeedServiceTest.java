@@ -0,0 +1,126 @@
+package com.example.employee;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.ChangeFeedDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.exception.ChangeTokenExpiredException;
+import com.example.employee.exception.InvalidChangeTokenException;
+import com.example.employee.exception.InvalidPageRequestException;
+import com.example.employee.models.OutboxEvent;
+import com.example.employee.models.OutboxLease;
+import com.example.employee.outbox.ChangeEvent;
+import com.example.employee.repository.OutboxEventRepository;
+import com.example.employee.repository.OutboxLeaseRepository;
+import com.example.employee.services.ChangeFeedServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = ChangeFeedServiceTest.class)
+public class ChangeFeedServiceTest {
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+    @Mock
+    OutboxLeaseRepository outboxLeaseRepository;
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    ChangeFeedServiceImpl changeFeedService;
+
+    @Test
+    public void testWithoutTokenReturnsCurrentPosition() throws Exception {
+        OutboxLease lease = new OutboxLease();
+        lease.setPosition(41L);
+        when(outboxLeaseRepository.findById(OutboxLease.DISPATCHER)).thenReturn(Optional.of(lease));
+
+        ChangeFeedDTO<EmployeeDTO> feed = changeFeedService.getEmployeeChanges(null, 10);
+
+        assertTrue(feed.getChanges().isEmpty());
+        assertFalse(feed.isMore());
+        when(outboxEventRepository.findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(eq(ChangeEvent.EMPLOYEE), eq(41L), any()))
+                .thenReturn(List.of());
+        assertTrue(changeFeedService.getEmployeeChanges(feed.getNext(), 10).getChanges().isEmpty());
+    }
+
+    @Test
+    public void testWithoutPositionedEventsStartsAtZero() throws Exception {
+        when(outboxLeaseRepository.findById(OutboxLease.DISPATCHER)).thenReturn(Optional.empty());
+
+        changeFeedService.getEmployeeChanges(changeFeedService.getEmployeeChanges(null, 10).getNext(), 10);
+
+        verify(outboxEventRepository).findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(eq(ChangeEvent.EMPLOYEE), eq(0L), any());
+    }
+
+    @Test
+    public void testReturnsChangesInPositionOrderAndAdvances() throws Exception {
+        long createdOn = System.currentTimeMillis() - 60_000;
+        // Event 9 committed before event 8, so it was positioned first.
+        when(outboxEventRepository.findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(eq(ChangeEvent.EMPLOYEE), eq(5L), any()))
+                .thenReturn(List.of(event(6L, 6L, 10L, "CREATED", createdOn), event(7L, 7L, 10L, "UPDATED", createdOn + 1),
+                        event(9L, 8L, 20L, "CREATED", createdOn + 3), event(8L, 9L, 30L, "CREATED", createdOn + 2)));
+
+        ChangeFeedDTO<EmployeeDTO> feed = changeFeedService.getEmployeeChanges(token(System.currentTimeMillis(), 5L), 10);
+
+        assertEquals(List.of(10L, 10L, 20L, 30L), feed.getChanges().stream().map(ChangeDTO::getId).collect(Collectors.toList()));
+        assertEquals("Employee 10", feed.getChanges().get(1).getRecord().getEmployeeName());
+        assertFalse(feed.isMore());
+
+        changeFeedService.getEmployeeChanges(feed.getNext(), 10);
+        verify(outboxEventRepository).findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(eq(ChangeEvent.EMPLOYEE), eq(9L), any());
+    }
+
+    @Test
+    public void testFullPageHasMore() throws Exception {
+        long createdOn = System.currentTimeMillis() - 60_000;
+        when(outboxEventRepository.findByAggregateTypeAndPositionGreaterThanOrderByPositionAsc(eq(ChangeEvent.EMPLOYEE), anyLong(), any()))
+                .thenReturn(List.of(event(1L, 1L, 10L, "CREATED", createdOn), event(2L, 2L, 11L, "CREATED", createdOn)));
+
+        assertTrue(changeFeedService.getEmployeeChanges(token(System.currentTimeMillis(), 0L), 2).isMore());
+    }
+
+    @Test
+    public void testRejectsInvalidAndExpiredTokens() {
+        assertThrows(InvalidChangeTokenException.class, () -> changeFeedService.getEmployeeChanges("not a token", 10));
+        assertThrows(InvalidChangeTokenException.class, () -> changeFeedService.getEmployeeChanges(token(System.currentTimeMillis()), 10));
+        long eightDaysAgo = System.currentTimeMillis() - 8L * 24 * 60 * 60 * 1000;
+        assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getEmployeeChanges(token(eightDaysAgo, 0L), 10));
+        String idToken = Base64.getUrlEncoder().withoutPadding().encodeToString((System.currentTimeMillis() + ":5").getBytes(StandardCharsets.US_ASCII));
+        assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getEmployeeChanges(idToken, 10));
+        assertThrows(InvalidPageRequestException.class, () -> changeFeedService.getEmployeeChanges(null, 0));
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    private static String token(long issuedOn, Long... positions) {
+        StringBuilder token = new StringBuilder("p:").append(issuedOn);
+        for (Long position : positions) {
+            token.append(':').append(position);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static OutboxEvent event(Long id, Long position, Long employeeId, String changeType, long createdOn) {
+        String payload = "{\"employeeId\":" + employeeId + ",\"employeeName\":\"Employee " + employeeId + "\"}";
+        OutboxEvent event = new OutboxEvent(ChangeEvent.EMPLOYEE, employeeId, changeType, payload, new Timestamp(createdOn));
+        event.setId(id);
+        event.setPosition(position);
+        return event;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.employee;
+
+import com.example.employee.analytics.ColumnarEmployeeTable;
+import com.example.employee.models.HeadcountDimension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ColumnarEmployeeTableTest.class)
+public class ColumnarEmployeeTableTest {
+
+    ColumnarEmployeeTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new ColumnarEmployeeTable(0);
+        table.upsert(1, "State 1", "City 1", "Designation 1", "1");
+        table.upsert(2, "State 1", "City 2", "Designation 1", "1");
+        table.upsert(3, "State 2", "City 3", "Designation 2", "2");
+        table.upsert(4, "State 1", null, "Designation 2", "2");
+    }
+
+    @Test
+    public void testCountWithFilters() {
+        assertEquals(4, table.count(Map.of()));
+        assertEquals(3, table.count(Map.of(HeadcountDimension.STATE, List.of("State 1"))));
+        assertEquals(2, table.count(Map.of(HeadcountDimension.STATE, List.of("State 1"),
+                HeadcountDimension.DESIGNATION, List.of("Designation 1", "Designation 3"))));
+        assertEquals(1, table.count(Map.of(HeadcountDimension.CITY, List.of(""))));
+        assertEquals(0, table.count(Map.of(HeadcountDimension.CITY, List.of("Unknown"))));
+    }
+
+    @Test
+    public void testGroupBy() {
+        Map<String, Long> groups = table.groupBy(HeadcountDimension.DEPARTMENT, Map.of(HeadcountDimension.STATE, List.of("State 1")));
+
+        assertEquals(List.of("1", "2"), List.copyOf(groups.keySet()));
+        assertEquals(2L, groups.get("1"));
+        assertEquals(1L, groups.get("2"));
+    }
+
+    @Test
+    public void testUpsertMovesAndRemoveDropsEmployee() {
+        table.upsert(1, "State 2", "City 1", "Designation 1", "1");
+        table.remove(3);
+        table.remove(3);
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.count(Map.of(HeadcountDimension.STATE, List.of("State 1"))));
+        assertArrayEquals(new long[]{1}, table.ids(Map.of(HeadcountDimension.STATE, List.of("State 2")), 10));
+        assertEquals(Map.of("State 1", 2L, "State 2", 1L), table.groupBy(HeadcountDimension.STATE, null));
+    }
+
+    @Test
+    public void testManyRowsAndCompaction() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 100; id < 100_100; id++) {
+                table.upsert(id, "State " + (id % 50), "City " + (id % 2000), "Designation " + (id % 7) + round, Long.toString(id % 20));
+            }
+        }
+        for (long id = 100; id < 50_100; id++) {
+            table.remove(id);
+        }
+
+        assertEquals(50_004, table.size());
+        assertEquals(1000, table.count(Map.of(HeadcountDimension.STATE, List.of("State 0"))));
+        assertEquals(25, table.count(Map.of(HeadcountDimension.CITY, List.of("City 100"),
+                HeadcountDimension.DEPARTMENT, List.of("0"))));
+        assertEquals(7, table.groupBy(HeadcountDimension.DESIGNATION, Map.of(HeadcountDimension.STATE, List.of("State 0"))).size());
+        assertEquals(5, table.ids(Map.of(HeadcountDimension.STATE, List.of("State 0")), 5).length);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.employee;
+
+import com.example.employee.export.ColumnarFileReader;
+import com.example.employee.export.ColumnarFileWriter;
+import com.example.employee.export.ColumnarFileWriter.ColumnType;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ColumnarFileTest.class)
+public class ColumnarFileTest {
+
+    private static final List<String> NAMES = List.of("id", "name", "city", "deptId");
+    private static final List<ColumnType> TYPES = List.of(ColumnType.LONG, ColumnType.STRING, ColumnType.STRING, ColumnType.LONG);
+
+    @Test
+    public void testRoundTripAcrossRowGroups() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            rows.add(new Object[]{
+                    id * 3 - 500,
+                    id % 11 == 0 ? null : "Employee " + id,
+                    "City " + (id % 5),
+                    id % 7 == 0 ? null : id % 4});
+        }
+
+        ColumnarFileReader reader = new ColumnarFileReader(new ByteArrayInputStream(write(rows, 64)));
+
+        assertEquals(NAMES, reader.getColumnNames());
+        for (Object[] expected : rows) {
+            assertArrayEquals(expected, reader.next());
+        }
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        ColumnarFileReader reader = new ColumnarFileReader(new ByteArrayInputStream(write(List.of(), 64)));
+
+        assertEquals(NAMES, reader.getColumnNames());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testRepeatedValuesCompress() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            rows.add(new Object[]{id, "Engineer", "City " + (id % 20), 1L});
+        }
+
+        byte[] file = write(rows, 4096);
+
+        assertTrue(file.length < 10_000, "columnar file of " + file.length + " bytes");
+    }
+
+    @Test
+    public void testRejectsOtherFiles() {
+        assertThrows(IOException.class, () -> new ColumnarFileReader(new ByteArrayInputStream("id,name\n".getBytes())));
+    }
+
+    private static byte[] write(List<Object[]> rows, int rowGroupSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColumnarFileWriter writer = new ColumnarFileWriter(out, NAMES, TYPES, rowGroupSize);
+        for (Object[] row : rows) {
+            writer.writeRow(row);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+}
@@ -1,21 +1,27 @@
 package com.example.employee;
 
+import com.example.employee.cache.ResponseCache;
 import com.example.employee.controller.DepartmentController;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.exception.DepartmentNotFoundException;
 import com.example.employee.exception.GlobalExceptionHandler;
 import com.example.employee.exception.NoDataFoundException;
 import com.example.employee.services.DepartmentServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -26,9 +32,11 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ComponentScan(basePackages = "com.example.employee")
@@ -43,6 +51,10 @@ public class DepartmentControllerTest {
     @Mock
     DepartmentServiceImpl departmentService;
 
+    @Spy
+    ResponseCache responseCache = new ResponseCache(List.of(new MappingJackson2CborHttpMessageConverter(),
+            new MappingJackson2HttpMessageConverter()));
+
     @InjectMocks
     DepartmentController departmentController;
 
@@ -102,6 +114,35 @@ public class DepartmentControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    public void testGetDepartmentsServedFromCache() throws Exception {
+        departments = new ArrayList<>();
+        departments.add(new DepartmentDTO(1L,
+                "HR",
+                "Description 1",
+                1,
+                1,
+                new Timestamp(date.getTime()),
+                new Timestamp(date.getTime())));
+
+        when(departmentService.getDepartments()).thenReturn(departments);
+
+        String eTag = this.mockMvc.perform(get("/departments").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        this.mockMvc.perform(get("/departments").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        this.mockMvc.perform(get("/departments"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].deptName").value("HR"));
+
+        verify(departmentService, times(1)).getDepartments();
+    }
+
     @Test
     public void testGetDepartment() throws Exception {
         long deptId = 1;
@@ -123,6 +164,54 @@ public class DepartmentControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath(".createdBy").value(1))
                 .andDo(print());
     }
+    @Test
+    public void testGetDepartmentAsCbor() throws Exception {
+        long deptId = 1;
+        department = new DepartmentDTO(deptId,
+                "HR",
+                "Description 1",
+                1,
+                1,
+                new Timestamp(date.getTime()),
+                new Timestamp(date.getTime()));
+
+        when(departmentService.getDepartment(deptId)).thenReturn(department);
+
+        byte[] body = this.mockMvc.perform(get("/departments/{deptId}", deptId).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode decoded = new CBORMapper().readTree(body);
+        assertEquals("HR", decoded.get("deptName").asText());
+        assertEquals(1, decoded.get("deptId").asLong());
+    }
+
+    @Test
+    public void testGetDepartmentDefaultsToJson() throws Exception {
+        long deptId = 1;
+        department = new DepartmentDTO(deptId,
+                "HR",
+                "Description 1",
+                1,
+                1,
+                new Timestamp(date.getTime()),
+                new Timestamp(date.getTime()));
+
+        when(departmentService.getDepartment(deptId)).thenReturn(department);
+
+        this.mockMvc.perform(get("/departments/{deptId}", deptId).accept("*/*"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deptName").value("HR"));
+    }
+
+    @Test
+    public void testGetDepartmentNotAcceptable() throws Exception {
+        this.mockMvc.perform(get("/departments/{deptId}", 1).accept("application/xml"))
+                .andExpect(status().isNotAcceptable());
+    }
+
     @Test
     public void testGetDepartmentStatusNotFound() throws Exception {
         long deptId = 1;
@@ -1,5 +1,6 @@
 package com.example.employee;
 
+import com.example.employee.cache.EntityIdFilters;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.exception.DepartmentNotFoundException;
 import com.example.employee.exception.NoDataFoundException;
@@ -11,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +27,10 @@ public class DepartmentServiceTest {
 
     @Mock
     DepartmentRepository departmentRepository;
+    @Mock
+    EntityIdFilters entityIdFilters;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     DepartmentServiceImpl departmentService;
@@ -0,0 +1,139 @@
+package com.example.employee;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.BulkUpdateResultDTO;
+import com.example.employee.events.EmployeeChangedEvent;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.exception.DepartmentNotFoundException;
+import com.example.employee.exception.InvalidBulkUpdateException;
+import com.example.employee.models.Address;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.services.EmployeeBulkServiceImpl;
+import com.example.employee.services.HeadcountService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = EmployeeBulkServiceTest.class)
+public class EmployeeBulkServiceTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+    @Mock
+    DepartmentRepository departmentRepository;
+    @Mock
+    HeadcountService headcountService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Captor
+    ArgumentCaptor<List<HeadcountKey>> before;
+    @Captor
+    ArgumentCaptor<List<HeadcountKey>> after;
+
+    @InjectMocks
+    EmployeeBulkServiceImpl employeeBulkService;
+
+    Department hr = department(1L, "HR");
+    Department sales = department(2L, "Sales");
+
+    @Test
+    public void testTransferUpdatesOnlyEmployeesOutsideTheTarget() throws Exception {
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(sales));
+        when(employeeRepository.lockForUpdate(any(), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(List.of(employee(10L, hr, "Engineer"), employee(11L, sales, "Engineer"), employee(12L, hr, "Manager")));
+
+        BulkUpdateResultDTO result = employeeBulkService.transferEmployees(2L, new BulkTransferDTO(List.of(10L, 11L, 12L, 13L), null));
+
+        assertEquals(3, result.getMatched());
+        assertEquals(2, result.getUpdated());
+        assertEquals(List.of(13L), result.getMissingIds());
+        verify(employeeRepository, times(1)).updateDepartment(List.of(10L, 12L), sales);
+        verify(headcountService, times(1)).employeeChanged(before.capture(), after.capture());
+        assertEquals(2, before.getValue().stream().filter(HeadcountKey.key(HeadcountDimension.DEPARTMENT, 1L)::equals).count());
+        assertEquals(2, after.getValue().stream().filter(HeadcountKey.key(HeadcountDimension.DEPARTMENT, 2L)::equals).count());
+        ArgumentCaptor<EmployeesChangedEvent> event = ArgumentCaptor.forClass(EmployeesChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        List<EmployeeChangedEvent> changes = event.getValue().getChanges();
+        assertEquals(List.of(2L, 2L), changes.stream().map(EmployeeChangedEvent::getDeptId).collect(Collectors.toList()));
+        assertEquals(List.of(1L, 1L), changes.stream().map(EmployeeChangedEvent::getPreviousDeptId).collect(Collectors.toList()));
+        assertEquals("Sales", changes.get(0).getEmployee().getDepartment().getDeptName());
+    }
+
+    @Test
+    public void testTransferOfADepartment() throws Exception {
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(sales));
+        when(employeeRepository.lockForUpdate(isNull(), eq(List.of(1L)), isNull(), isNull(), isNull()))
+                .thenReturn(List.of(employee(10L, hr, "Engineer")));
+
+        BulkUpdateResultDTO result = employeeBulkService.transferEmployees(2L, new BulkTransferDTO(null, 1L));
+
+        assertEquals(1, result.getUpdated());
+        assertNull(result.getMissingIds());
+    }
+
+    @Test
+    public void testTransferNeedsEitherIdsOrADepartment() {
+        assertThrows(InvalidBulkUpdateException.class, () -> employeeBulkService.transferEmployees(2L, new BulkTransferDTO()));
+        assertThrows(InvalidBulkUpdateException.class,
+                () -> employeeBulkService.transferEmployees(2L, new BulkTransferDTO(List.of(10L), 1L)));
+        when(departmentRepository.findById(3L)).thenReturn(Optional.empty());
+        assertThrows(DepartmentNotFoundException.class,
+                () -> employeeBulkService.transferEmployees(3L, new BulkTransferDTO(List.of(10L), null)));
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    public void testUpdateDesignationByFilter() throws Exception {
+        when(employeeRepository.lockForUpdate(isNull(), eq(List.of(1L)), eq(List.of("Engineer")), isNull(), isNull()))
+                .thenReturn(List.of(employee(10L, hr, "Engineer"), employee(12L, hr, "Engineer")));
+        BulkDesignationDTO update = new BulkDesignationDTO("Software Engineer", null, List.of("Engineer"), List.of(1L), List.of(), null);
+
+        BulkUpdateResultDTO result = employeeBulkService.updateDesignation(update);
+
+        assertEquals(2, result.getUpdated());
+        verify(employeeRepository, times(1)).updateDesignation(List.of(10L, 12L), "Software Engineer");
+        ArgumentCaptor<EmployeesChangedEvent> event = ArgumentCaptor.forClass(EmployeesChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(2, event.getValue().getChanges().size());
+    }
+
+    @Test
+    public void testUpdateDesignationNeedsAFilter() {
+        assertThrows(InvalidBulkUpdateException.class,
+                () -> employeeBulkService.updateDesignation(new BulkDesignationDTO("Engineer", null, List.of(), null, null, null)));
+        verifyNoInteractions(employeeRepository);
+    }
+
+    private static Department department(Long deptId, String name) {
+        return new Department(deptId, name, "Description", 1, 1, true, false, null);
+    }
+
+    private static Employee employee(Long employeeId, Department department, String designation) {
+        return new Employee(employeeId, "Name " + employeeId, new Address("Address", "City", "State", "pin"),
+                designation, "1234567890", true, false, department);
+    }
+}
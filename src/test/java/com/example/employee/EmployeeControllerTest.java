@@ -1,35 +1,51 @@
 package com.example.employee;
 
+import com.example.employee.cache.ResponseCache;
 import com.example.employee.controller.EmployeeController;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.EmployeeLookupDTO;
+import com.example.employee.dto.ExportResultDTO;
+import com.example.employee.dto.FieldSet;
+import com.example.employee.dto.ImportResultDTO;
 import com.example.employee.exception.EmployeeNotFoundException;
 import com.example.employee.exception.GlobalExceptionHandler;
 import com.example.employee.exception.NoDataFoundException;
+import com.example.employee.export.ExportFormat;
+import com.example.employee.services.EmployeeExportService;
+import com.example.employee.services.EmployeeImportService;
 import com.example.employee.services.EmployeeServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ComponentScan(basePackages = "com.example.employee")
@@ -44,6 +60,15 @@ public class EmployeeControllerTest {
     @Mock
     EmployeeServiceImpl employeeService;
 
+    @Mock
+    EmployeeImportService employeeImportService;
+
+    @Mock
+    EmployeeExportService employeeExportService;
+
+    @Spy
+    ResponseCache responseCache = new ResponseCache(List.of(new MappingJackson2HttpMessageConverter()));
+
     @InjectMocks
     EmployeeController employeeController;
 
@@ -101,6 +126,49 @@ public class EmployeeControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    public void testGetEmployeesWithFields() throws Exception {
+        EmployeeDTO narrowed = new EmployeeDTO();
+        narrowed.setEmployeeId(1L);
+        narrowed.setEmployeeName("Name 1");
+
+        when(employeeService.getEmployees(any(FieldSet.class))).thenReturn(List.of(narrowed));
+
+        this.mockMvc.perform(get("/employees").param("fields", "employeeName,employeeId"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"employeeId\":1,\"employeeName\":\"Name 1\"}]", true))
+                .andDo(print());
+        this.mockMvc.perform(get("/employees").param("fields", "employeeName,salary"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetEmployeesByIds() throws Exception {
+        EmployeeDTO found = new EmployeeDTO(2L,
+                "Name 2",
+                "Designation 2",
+                "1234567890",
+                "Address 2",
+                "City 2",
+                "State 2",
+                "Pin 2",
+                null);
+
+        when(employeeService.getEmployees(List.of(2L, 7L)))
+                .thenReturn(new EmployeeLookupDTO(List.of(found), List.of(7L)));
+
+        this.mockMvc.perform(get("/employees").param("ids", "2,7"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].employeeId").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(7))
+                .andDo(print());
+        this.mockMvc.perform(post("/employees/lookup")
+                        .content("[2, 7]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]").value(7));
+    }
+
     @Test
     public void testGetEmployee() throws Exception{
         long employeeId = 1;
@@ -318,4 +386,40 @@ public class EmployeeControllerTest {
                         .value("Employee not found with id : 1"))
                 .andDo(print());
     }
+
+    @Test
+    public void testImportEmployees() throws Exception {
+        String csv = "employeeName,phoneNumber,deptName\nName 1,1234567890,HR\n";
+        when(employeeImportService.importEmployees(any(), any()))
+                .thenReturn(new ImportResultDTO(1, 1, 0, null, 5));
+
+        this.mockMvc.perform(post("/employees/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath(".imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath(".rejected").value(0))
+                .andDo(print());
+    }
+
+    @Test
+    public void testExportEmployees() throws Exception {
+        when(employeeExportService.exportEmployees(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("employeeId,employeeName\n1,Name 1\n".getBytes(StandardCharsets.UTF_8));
+            return new ExportResultDTO("CSV", 1, 32, null, 1);
+        });
+
+        this.mockMvc.perform(get("/employees/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"employees.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("employeeId,employeeName\n1,Name 1\n"));
+    }
+
+    @Test
+    public void testExportEmployeesUnknownFormat() throws Exception {
+        this.mockMvc.perform(get("/employees/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath(".message")
+                        .value("Unsupported export format : xlsx"));
+    }
 }
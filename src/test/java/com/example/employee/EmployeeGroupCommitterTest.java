@@ -0,0 +1,152 @@
+package com.example.employee;
+
+import com.example.employee.cache.EntityIdFilters;
+import com.example.employee.events.EmployeesChangedEvent;
+import com.example.employee.exception.DepartmentNotFoundException;
+import com.example.employee.exception.ServiceOverloadedException;
+import com.example.employee.models.Address;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.repository.DepartmentRepository;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.services.EmployeeGroupCommitter;
+import com.example.employee.services.HeadcountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = EmployeeGroupCommitterTest.class)
+public class EmployeeGroupCommitterTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+    @Mock
+    DepartmentRepository departmentRepository;
+    @Mock
+    EntityIdFilters entityIdFilters;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    HeadcountService headcountService;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    EntityManager entityManager;
+
+    @InjectMocks
+    EmployeeGroupCommitter groupCommitter;
+
+    AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        Department department = new Department(1L, "HR", "Description 1", 1, 1, true, false, null);
+        when(departmentRepository.findAllById(any())).thenReturn(List.of(department));
+        when(employeeRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setEmployeeId(ids.incrementAndGet()));
+            return employees;
+        });
+        ReflectionTestUtils.setField(groupCommitter, "enabled", true);
+        ReflectionTestUtils.setField(groupCommitter, "maxDelayMillis", 50L);
+        groupCommitter.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        groupCommitter.stop();
+    }
+
+    @Test
+    public void testConcurrentCreatesShareCommits() throws Exception {
+        int creates = 40;
+        ExecutorService callers = Executors.newFixedThreadPool(creates);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < creates; i++) {
+                Employee employee = employee("Name " + i);
+                results.add(callers.submit((Callable<Long>) () -> groupCommitter.create(1L, employee)));
+            }
+
+            Set<Long> createdIds = new HashSet<>();
+            for (Future<Long> result : results) {
+                createdIds.add(result.get());
+            }
+
+            assertEquals(creates, createdIds.size());
+            verify(employeeRepository, atMost(creates / 2)).saveAll(any());
+            ArgumentCaptor<EmployeesChangedEvent> events = ArgumentCaptor.forClass(EmployeesChangedEvent.class);
+            verify(eventPublisher, atMost(creates / 2)).publishEvent(events.capture());
+            assertEquals(creates, events.getAllValues().stream().mapToInt(event -> event.getChanges().size()).sum());
+            verify(transactionManager, atMost(creates / 2)).commit(any());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnknownDepartmentFailsOnlyItsCreate() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> valid = callers.submit(() -> groupCommitter.create(1L, employee("Name 1")));
+            Future<Long> invalid = callers.submit(() -> groupCommitter.create(999L, employee("Name 2")));
+
+            assertNotNull(valid.get());
+            assertThatThrownBy(invalid::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(DepartmentNotFoundException.class);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCommitterErrorFailsItsBatchAndRefusesLaterCreates() throws Exception {
+        when(employeeRepository.saveAll(any())).thenThrow(new StackOverflowError("Committer died"));
+
+        assertThatThrownBy(() -> groupCommitter.create(1L, employee("Name 1")))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> groupCommitter.create(1L, employee("Name 2")))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    @Test
+    public void testSlowCommitTimesOut() {
+        ReflectionTestUtils.setField(groupCommitter, "commitTimeoutMillis", 100L);
+        when(employeeRepository.saveAll(any())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return invocation.getArgument(0);
+        });
+
+        assertThatThrownBy(() -> groupCommitter.create(1L, employee("Name 1")))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    private static Employee employee(String name) {
+        return new Employee(name, new Address("Address", "City", "State", "pin"), "Designation", "1234567890");
+    }
+}
@@ -1,27 +1,40 @@
 package com.example.employee;
 
+import com.example.employee.cache.EntityIdFilters;
+import com.example.employee.cache.ResponseCache;
 import com.example.employee.dto.DepartmentDTO;
 import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.EmployeeLookupDTO;
+import com.example.employee.dto.FieldSet;
 import com.example.employee.exception.DepartmentNotFoundException;
 import com.example.employee.exception.EmployeeNotFoundException;
+import com.example.employee.exception.InvalidLookupRequestException;
 import com.example.employee.exception.NoDataFoundException;
 import com.example.employee.models.Address;
 import com.example.employee.models.Department;
 import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
 import com.example.employee.repository.DepartmentRepository;
 import com.example.employee.repository.EmployeeRepository;
 import com.example.employee.services.DepartmentServiceImpl;
+import com.example.employee.services.EmployeeGroupCommitter;
 import com.example.employee.services.EmployeeServiceImpl;
+import com.example.employee.services.HeadcountService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +47,16 @@ public class EmployeeServiceTest {
     EmployeeRepository employeeRepository;
     @Mock
     DepartmentRepository departmentRepository;
+    @Mock
+    EntityIdFilters entityIdFilters;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    EmployeeGroupCommitter groupCommitter;
+    @Mock
+    ResponseCache responseCache;
+    @Mock
+    HeadcountService headcountService;
 
     @InjectMocks
     EmployeeServiceImpl employeeService;
@@ -113,6 +136,92 @@ public class EmployeeServiceTest {
         assertThatThrownBy(() -> employeeService.getEmployee(employeeId))
                 .isInstanceOf(EmployeeNotFoundException.class);
     }
+    @Test
+    public void testGetEmployeeRejectedByIdFilter() {
+        long employeeId = 404;
+
+        when(entityIdFilters.isKnownAbsentEmployee(employeeId))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> employeeService.getEmployee(employeeId))
+                .isInstanceOf(EmployeeNotFoundException.class)
+                .hasMessage("Employee not found with id : 404");
+        verify(employeeRepository, never()).findById(employeeId);
+    }
+
+    @Test
+    public void testGetEmployeeWithFields() throws Exception {
+        long employeeId = 1;
+        FieldSet fields = FieldSet.parse("city,employeeName", FieldSet.EMPLOYEE_FIELDS);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("employeeName", "Name 1");
+        row.put("city", "City 1");
+
+        when(employeeRepository.findFields(fields, employeeId)).thenReturn(List.of(row));
+
+        EmployeeDTO employeeDTO = employeeService.getEmployee(employeeId, fields);
+        assertEquals("Name 1", employeeDTO.getEmployeeName());
+        assertEquals("City 1", employeeDTO.getCity());
+        assertNull(employeeDTO.getEmployeeId());
+        assertNull(employeeDTO.getDepartment());
+        verify(employeeRepository, never()).findById(any());
+    }
+    @Test
+    public void testGetEmployeeWithFieldsThrowsEmployeeNotFoundException() throws Exception {
+        FieldSet fields = FieldSet.parse("employeeName", FieldSet.EMPLOYEE_FIELDS);
+
+        when(employeeRepository.findFields(fields, 1L)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> employeeService.getEmployee(1L, fields))
+                .isInstanceOf(EmployeeNotFoundException.class);
+    }
+
+    @Test
+    public void testGetEmployeesByIds() throws Exception {
+        Employee active = new Employee(1L,
+                "Name 1",
+                new Address("Address 1","City 1", "State 1", "pin1"),
+                "Designation 1",
+                "1234567890",
+                true,
+                false,
+                null);
+        Employee deleted = new Employee(3L,
+                "Name 3",
+                new Address("Address 3","City 3", "State 3", "pin3"),
+                "Designation 3",
+                "1234567890",
+                false,
+                true,
+                null);
+        EmployeeDTO cached = new EmployeeDTO();
+        cached.setEmployeeId(2L);
+        cached.setEmployeeName("Name 2");
+
+        when(responseCache.cachedEmployees(any(), eq(EmployeeDTO.class))).thenReturn(Map.of(2L, cached));
+        when(entityIdFilters.isKnownAbsentEmployee(404L)).thenReturn(true);
+        when(employeeRepository.findWithDetailsByEmployeeIdIn(List.of(3L, 1L))).thenReturn(List.of(active, deleted));
+
+        EmployeeLookupDTO lookup = employeeService.getEmployees(List.of(3L, 2L, 404L, 1L, 2L));
+
+        assertEquals(List.of(2L, 1L), lookup.getEmployees().stream().map(EmployeeDTO::getEmployeeId).collect(Collectors.toList()));
+        assertEquals("Name 2", lookup.getEmployees().get(0).getEmployeeName());
+        assertEquals(List.of(3L, 404L), lookup.getMissingIds());
+        verify(employeeRepository, times(1)).findWithDetailsByEmployeeIdIn(any());
+    }
+    @Test
+    public void testGetEmployeesByIdsThrowsInvalidLookupRequestException() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1001; id++) {
+            ids.add(id);
+        }
+
+        assertThatThrownBy(() -> employeeService.getEmployees(ids))
+                .isInstanceOf(InvalidLookupRequestException.class);
+        assertThatThrownBy(() -> employeeService.getEmployees(List.of()))
+                .isInstanceOf(InvalidLookupRequestException.class);
+        verify(employeeRepository, never()).findWithDetailsByEmployeeIdIn(any());
+    }
 
     @Test
     public void testCreateEmployee() throws Exception {
@@ -147,6 +256,32 @@ public class EmployeeServiceTest {
                         && argument.getEmployeeDesignation().equals(employee.getEmployeeDesignation())
                         && argument.getPhoneNumber().equals(employee.getPhoneNumber())));
     }
+    @Test
+    public void testCreateEmployeeWithGroupCommit() throws Exception {
+        EmployeeDTO employeeDTO = new EmployeeDTO(null,
+                "Name 2",
+                "Designation 2",
+                "1234567890",
+                "Address 2",
+                "City 2",
+                "State 2",
+                "pin2",
+                null);
+        long deptId = 1;
+
+        when(groupCommitter.isEnabled()).thenReturn(true);
+        when(groupCommitter.create(eq(deptId), any())).thenReturn(7L);
+
+        employeeService.createEmployee(deptId, employeeDTO);
+
+        verify(groupCommitter, times(1))
+                .create(eq(deptId), argThat(argument -> argument.getEmployeeName().equals("Name 2")
+                        && argument.isActive()
+                        && argument.getEmployeeAddress().getCity().equals("City 2")));
+        verify(departmentRepository, never()).findById(any());
+        verify(employeeRepository, never()).save(any());
+    }
+
     @Test
     public void testCreateEmployeeThrowsDepartmentNotFoundException() {
         Employee employee = new Employee(2L,
@@ -274,6 +409,31 @@ public class EmployeeServiceTest {
         assertFalse(employee.isActive());
     }
     @Test
+    public void testDeleteEmployeeDecrementsHeadcountOnce() throws Exception {
+        long employeeId = 1;
+        Employee employee = new Employee(1L,
+                "Name 2",
+                new Address("Address 2","City 2", "State 2", "pin2"),
+                "Designation 2",
+                "1234567890",
+                true,
+                false,
+                null);
+
+        when(employeeRepository.findById(employeeId)).thenReturn(Optional.of(employee));
+
+        employeeService.deleteEmployee(employeeId);
+        employeeService.deleteEmployee(employeeId);
+
+        List<HeadcountKey> counted = List.of(
+                HeadcountKey.key(HeadcountDimension.STATE, "State 2"),
+                HeadcountKey.key(HeadcountDimension.CITY, "City 2"),
+                HeadcountKey.key(HeadcountDimension.DESIGNATION, "Designation 2"),
+                HeadcountKey.key(HeadcountDimension.DEPARTMENT, null));
+        verify(headcountService, times(1)).employeeChanged(counted, List.of());
+        verify(headcountService, times(1)).employeeChanged(List.of(), List.of());
+    }
+    @Test
     public void testDeleteEmployeeThrowsEmployeeNotFoundException() {
         long employeeId = 1;
 
@@ -0,0 +1,136 @@
+package com.example.employee;
+
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.models.Address;
+import com.example.employee.models.Department;
+import com.example.employee.models.Employee;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.models.HeadcountKey;
+import com.example.employee.models.HeadcountSummary;
+import com.example.employee.repository.EmployeeRepository;
+import com.example.employee.repository.HeadcountSummaryRepository;
+import com.example.employee.services.HeadcountServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = HeadcountServiceTest.class)
+public class HeadcountServiceTest {
+
+    @Mock
+    HeadcountSummaryRepository headcountSummaryRepository;
+    @Mock
+    EmployeeRepository employeeRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    HeadcountServiceImpl headcountService;
+
+    @Test
+    public void testGetHeadcounts() {
+        when(headcountSummaryRepository.findCounted(HeadcountDimension.STATE)).thenReturn(List.of(
+                new HeadcountSummary(HeadcountKey.key(HeadcountDimension.STATE, "State 1"), 3),
+                new HeadcountSummary(HeadcountKey.key(HeadcountDimension.STATE, "State 2"), 1)));
+
+        List<HeadcountDTO> headcounts = headcountService.getHeadcounts(HeadcountDimension.STATE);
+
+        assertEquals(2, headcounts.size());
+        assertEquals("State 1", headcounts.get(0).getValue());
+        assertEquals(3, headcounts.get(0).getHeadcount());
+    }
+
+    @Test
+    public void testEmployeeChangedWritesOnlyChangedRowsInOrder() {
+        Employee before = employee("City 1", "Designation 1");
+        Employee after = employee("City 2", "Designation 1");
+
+        headcountService.employeeChanged(HeadcountKey.of(before), HeadcountKey.of(after));
+
+        InOrder inOrder = inOrder(headcountSummaryRepository);
+        inOrder.verify(headcountSummaryRepository).addHeadcount("CITY", "City 1", -1);
+        inOrder.verify(headcountSummaryRepository).addHeadcount("CITY", "City 2", 1);
+        verifyNoMoreInteractions(headcountSummaryRepository);
+    }
+
+    @Test
+    public void testEmployeesAddedWritesEachRowOnce() {
+        Employee inactive = employee("City 1", "Designation 1");
+        inactive.setActive(false);
+
+        headcountService.employeesAdded(List.of(employee("City 1", "Designation 1"),
+                employee("City 2", "Designation 1"), inactive));
+
+        verify(headcountSummaryRepository).addHeadcount("CITY", "City 1", 1);
+        verify(headcountSummaryRepository).addHeadcount("CITY", "City 2", 1);
+        verify(headcountSummaryRepository).addHeadcount("DESIGNATION", "Designation 1", 2);
+        verify(headcountSummaryRepository).addHeadcount("STATE", "State 1", 2);
+        verify(headcountSummaryRepository).addHeadcount("DEPARTMENT", "1", 2);
+        verifyNoMoreInteractions(headcountSummaryRepository);
+    }
+
+    @Test
+    public void testRebuildCorrectsDrift() {
+        HeadcountSummary correct = new HeadcountSummary(HeadcountKey.key(HeadcountDimension.STATE, "State 1"), 2);
+        HeadcountSummary drifted = new HeadcountSummary(HeadcountKey.key(HeadcountDimension.CITY, "City 1"), 5);
+        HeadcountSummary stale = new HeadcountSummary(HeadcountKey.key(HeadcountDimension.CITY, "City 9"), 1);
+        when(headcountSummaryRepository.findAllForUpdate()).thenReturn(List.of(correct, drifted, stale));
+        when(employeeRepository.countActiveByState()).thenReturn(rows(new Object[]{"State 1", 2L}));
+        when(employeeRepository.countActiveByCity()).thenReturn(rows(new Object[]{"City 1", 2L}));
+        when(employeeRepository.countActiveByDesignation()).thenReturn(rows(new Object[]{null, 2L}));
+        when(employeeRepository.countActiveByDepartment()).thenReturn(rows(new Object[]{1L, 2L}));
+
+        int corrected = headcountService.rebuild();
+
+        assertEquals(4, corrected);
+        assertEquals(2, drifted.getHeadcount());
+        verify(headcountSummaryRepository).delete(stale);
+        verify(headcountSummaryRepository).addHeadcount("DESIGNATION", "", 2);
+        verify(headcountSummaryRepository).addHeadcount("DEPARTMENT", "1", 2);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testStartupBuildsEmptySummary() {
+        when(headcountSummaryRepository.findAllForUpdate()).thenReturn(List.of());
+        when(employeeRepository.countActiveByState()).thenReturn(rows(new Object[]{"State 1", 2L}));
+
+        headcountService.afterSingletonsInstantiated();
+
+        verify(headcountSummaryRepository).addHeadcount("STATE", "State 1", 2);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testStartupLeavesExistingSummary() {
+        when(headcountSummaryRepository.findAllForUpdate()).thenReturn(List.of(
+                new HeadcountSummary(HeadcountKey.key(HeadcountDimension.STATE, "State 1"), 2)));
+
+        headcountService.afterSingletonsInstantiated();
+
+        verify(headcountSummaryRepository, never()).addHeadcount(anyString(), anyString(), anyLong());
+        verifyNoInteractions(employeeRepository);
+    }
+
+    private static Employee employee(String city, String designation) {
+        Department department = new Department(1L, "HR", "Description 1", 1, 1, true, false, null);
+        Employee employee = new Employee("Name 1", new Address("Address 1", city, "State 1", "pin1"), designation, "1234567890");
+        employee.setDepartment(department);
+        return employee;
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
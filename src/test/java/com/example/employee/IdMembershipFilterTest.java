@@ -0,0 +1,50 @@
+package com.example.employee;
+
+import com.example.employee.cache.IdMembershipFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = IdMembershipFilterTest.class)
+public class IdMembershipFilterTest {
+
+    @Test
+    public void testContainsEveryAddedId() {
+        IdMembershipFilter filter = IdMembershipFilter.create(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        assertFalse(filter.isOverCapacity());
+    }
+
+    @Test
+    public void testFalsePositiveRateStaysNearTarget() {
+        IdMembershipFilter filter = IdMembershipFilter.create(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives : " + falsePositives);
+    }
+
+    @Test
+    public void testReportsOverCapacity() {
+        IdMembershipFilter filter = IdMembershipFilter.create(10, 0.01);
+        for (long id = 1; id <= 11; id++) {
+            filter.put(id);
+        }
+
+        assertTrue(filter.isOverCapacity());
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.employee;
+
+import com.example.employee.cache.IdempotencyStore;
+import com.example.employee.cache.ResponseCache;
+import com.example.employee.cache.StoredResponse;
+import com.example.employee.config.IdempotencyFilter;
+import com.example.employee.controller.DepartmentController;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.exception.GlobalExceptionHandler;
+import com.example.employee.exception.ServiceOverloadedException;
+import com.example.employee.models.IdempotencyKey;
+import com.example.employee.repository.IdempotencyKeyRepository;
+import com.example.employee.services.DepartmentServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = IdempotencyFilterTest.class)
+public class IdempotencyFilterTest {
+
+    @Mock
+    DepartmentServiceImpl departmentService;
+
+    @Mock
+    ResponseCache responseCache;
+
+    @Mock
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @InjectMocks
+    DepartmentController departmentController;
+
+    MockMvc mockMvc;
+    IdempotencyStore store;
+    String jsonBody;
+    Map<String, IdempotencyKey> keys = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storeKeysInMemory();
+        store = new IdempotencyStore(idempotencyKeyRepository, Duration.ofMinutes(5));
+        IdempotencyFilter filter = new IdempotencyFilter(store, Jackson2ObjectMapperBuilder.json().build(),
+                List.of("/departments", "/departments/*/employees"), Duration.ofSeconds(5), 1024 * 1024);
+        mockMvc = MockMvcBuilders.standaloneSetup(departmentController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addFilters(filter)
+                .build();
+
+        Date date = new Date();
+        jsonBody = new ObjectMapper().writeValueAsString(new DepartmentDTO(1L, "HR", "Description 1", 1, 1,
+                new Timestamp(date.getTime()), new Timestamp(date.getTime())));
+    }
+
+    @Test
+    public void testCreateDepartmentReplayed() throws Exception {
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-1")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-1")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(MockMvcResultMatchers.content().string("Department details added successfully"));
+
+        verify(departmentService, times(1)).createDepartment(any(DepartmentDTO.class));
+    }
+
+    @Test
+    public void testCreateDepartmentWithoutKeyNotReplayed() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/departments").content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated());
+        }
+
+        verify(departmentService, times(2)).createDepartment(any(DepartmentDTO.class));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentBody() throws Exception {
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-2")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-2")
+                        .content(jsonBody.replace("HR", "Finance")).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(MockMvcResultMatchers.jsonPath(".message")
+                        .value("Idempotency-Key was already used for a different request"));
+
+        verify(departmentService, times(1)).createDepartment(any(DepartmentDTO.class));
+    }
+
+    @Test
+    public void testServerErrorNotKept() throws Exception {
+        doThrow(new ServiceOverloadedException("Too many concurrent creates, retry later", 1)).doNothing()
+                .when(departmentService).createDepartment(any(DepartmentDTO.class));
+
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-3")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-3")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(departmentService, times(2)).createDepartment(any(DepartmentDTO.class));
+    }
+
+    @Test
+    public void testConcurrentRequestWaitsForFirst() throws Exception {
+        byte[] fingerprint = {1, 2, 3};
+        IdempotencyStore.Reservation first = store.reserve("key-4", fingerprint, Duration.ofSeconds(5));
+        assertEquals(IdempotencyStore.Outcome.OWNER, first.getOutcome());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyStore.Reservation> second =
+                    executor.submit(() -> store.reserve("key-4", fingerprint, Duration.ofSeconds(5)));
+            Thread.sleep(50);
+            assertFalse(second.isDone());
+
+            first.complete(new StoredResponse(201, "text/plain", null, new byte[0]));
+            assertEquals(IdempotencyStore.Outcome.REPLAY, second.get().getOutcome());
+            assertEquals(201, second.get().getResponse().getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(IdempotencyStore.Outcome.MISMATCH,
+                store.reserve("key-4", new byte[]{9}, Duration.ofSeconds(5)).getOutcome());
+    }
+
+    @Test
+    public void testKeySharedWithOtherInstances() throws Exception {
+        mockMvc.perform(post("/departments").header("Idempotency-Key", "key-5")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        IdempotencyStore otherInstance = new IdempotencyStore(idempotencyKeyRepository, Duration.ofMinutes(5));
+        IdempotencyFilter filter = new IdempotencyFilter(otherInstance, Jackson2ObjectMapperBuilder.json().build(),
+                List.of("/departments", "/departments/*/employees"), Duration.ofSeconds(5), 1024 * 1024);
+        MockMvcBuilders.standaloneSetup(departmentController).addFilters(filter).build()
+                .perform(post("/departments").header("Idempotency-Key", "key-5")
+                        .content(jsonBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+
+        verify(departmentService, times(1)).createDepartment(any(DepartmentDTO.class));
+    }
+
+    @Test
+    public void testKeyOfVanishedOwnerClaimedAgain() throws Exception {
+        byte[] fingerprint = {1, 2, 3};
+        IdempotencyStore.Reservation first = store.reserve("key-6", fingerprint, Duration.ofMillis(100));
+        assertEquals(IdempotencyStore.Outcome.OWNER, first.getOutcome());
+
+        Thread.sleep(150);
+        IdempotencyStore.Reservation second = store.reserve("key-6", fingerprint, Duration.ofSeconds(5));
+
+        assertEquals(IdempotencyStore.Outcome.OWNER, second.getOutcome());
+        first.complete(new StoredResponse(201, "text/plain", null, new byte[0]));
+        assertNull(keys.values().iterator().next().getStatus());
+    }
+
+    /**
+     * Backs the mocked repository with a map, enforcing the primary key and the owner conditions.
+     */
+    private void storeKeysInMemory() {
+        when(idempotencyKeyRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyKey key = new IdempotencyKey();
+            key.setId(invocation.getArgument(0));
+            key.setFingerprint(invocation.getArgument(1));
+            key.setOwner(invocation.getArgument(2));
+            key.setCreatedOn(invocation.getArgument(3));
+            key.setExpiresOn(invocation.getArgument(4));
+            if (keys.putIfAbsent(key.getId(), key) != null) {
+                throw new DataIntegrityViolationException("Duplicate key " + key.getId());
+            }
+            return 1;
+        });
+        when(idempotencyKeyRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(keys.get(invocation.<String>getArgument(0))));
+        when(idempotencyKeyRepository.complete(anyString(), anyString(), anyInt(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            IdempotencyKey key = keys.get(invocation.<String>getArgument(0));
+            if (key == null || !key.getOwner().equals(invocation.getArgument(1)) || key.getStatus() != null) {
+                return 0;
+            }
+            key.setStatus(invocation.getArgument(2));
+            key.setContentType(invocation.getArgument(3));
+            key.setLocation(invocation.getArgument(4));
+            key.setBody(invocation.getArgument(5));
+            key.setExpiresOn(invocation.getArgument(6));
+            return 1;
+        });
+        when(idempotencyKeyRepository.abandon(anyString(), anyString())).thenAnswer(invocation -> {
+            IdempotencyKey key = keys.get(invocation.<String>getArgument(0));
+            return key != null && key.getOwner().equals(invocation.getArgument(1)) && key.getStatus() == null
+                    && keys.remove(key.getId(), key) ? 1 : 0;
+        });
+        when(idempotencyKeyRepository.deleteIfExpired(anyString(), any())).thenAnswer(invocation -> {
+            IdempotencyKey key = keys.get(invocation.<String>getArgument(0));
+            return key != null && key.getExpiresOn().before(invocation.getArgument(1)) && keys.remove(key.getId(), key) ? 1 : 0;
+        });
+        when(idempotencyKeyRepository.count()).thenAnswer(invocation -> (long) keys.size());
+    }
+}
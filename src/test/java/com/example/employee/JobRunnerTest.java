@@ -0,0 +1,149 @@
+package com.example.employee;
+
+import com.example.employee.jobs.JobContext;
+import com.example.employee.jobs.JobHandler;
+import com.example.employee.jobs.JobProperties;
+import com.example.employee.jobs.JobRunner;
+import com.example.employee.jobs.JobStoppedException;
+import com.example.employee.models.Job;
+import com.example.employee.models.JobStatus;
+import com.example.employee.repository.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = JobRunnerTest.class)
+public class JobRunnerTest {
+
+    @Mock
+    JobRepository jobRepository;
+    @Spy
+    JobProperties properties = new JobProperties();
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    JobHandler handler;
+
+    @InjectMocks
+    JobRunner jobRunner;
+
+    @BeforeEach
+    public void setUp() {
+        when(handler.type()).thenReturn("export");
+        ReflectionTestUtils.setField(jobRunner, "handlerBeans", List.of(handler));
+        jobRunner.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        jobRunner.destroy();
+    }
+
+    @Test
+    public void testRunsQueuedJobAndStoresItsResult() throws Exception {
+        queue(1L);
+        when(handler.run(any())).thenReturn(Map.of("rows", 3));
+
+        assertEquals(1, jobRunner.runJobs());
+
+        verify(jobRepository, timeout(1000)).finish(eq(1L), anyString(), eq(JobStatus.SUCCEEDED), eq("{\"rows\":3}"), isNull(), any());
+        verify(handler, timeout(1000)).discard(any());
+    }
+
+    @Test
+    public void testFailedJobKeepsTheError() throws Exception {
+        queue(1L);
+        when(handler.run(any())).thenThrow(new IllegalStateException("Disk full"));
+
+        jobRunner.runJobs();
+
+        verify(jobRepository, timeout(1000)).finish(eq(1L), anyString(), eq(JobStatus.FAILED), isNull(), eq("Disk full"), any());
+    }
+
+    @Test
+    public void testCancelledAtCheckpoint() throws Exception {
+        queue(1L);
+        when(jobRepository.checkpoint(eq(1L), anyString(), any(), anyLong(), any(), any())).thenReturn(1);
+        when(jobRepository.isCancelRequested(1L)).thenReturn(true);
+        when(handler.run(any())).thenAnswer(invocation -> {
+            invocation.getArgument(0, JobContext.class).checkpoint(Map.of("rowsRead", 500), 500, null);
+            return null;
+        });
+
+        jobRunner.runJobs();
+
+        verify(jobRepository, timeout(1000)).finish(eq(1L), anyString(), eq(JobStatus.CANCELLED), isNull(), isNull(), any());
+        verify(jobRepository, times(1)).checkpoint(eq(1L), anyString(), eq("{\"rowsRead\":500}"), eq(500L), isNull(), any());
+    }
+
+    @Test
+    public void testJobTakenOverIsLeftAlone() throws Exception {
+        queue(1L);
+        when(jobRepository.checkpoint(eq(1L), anyString(), any(), anyLong(), any(), any())).thenReturn(0);
+        CountDownLatch stopped = new CountDownLatch(1);
+        when(handler.run(any())).thenAnswer(invocation -> {
+            try {
+                invocation.getArgument(0, JobContext.class).checkpoint(null, 1, null);
+            } catch (JobStoppedException e) {
+                assertEquals(JobStoppedException.Reason.LOST, e.getReason());
+                stopped.countDown();
+                throw e;
+            }
+            return null;
+        });
+
+        jobRunner.runJobs();
+
+        assertTrue(stopped.await(1, TimeUnit.SECONDS));
+        verify(jobRepository, after(200).never()).finish(any(), any(), any(), any(), any(), any());
+        verify(jobRepository, never()).release(any(), any());
+    }
+
+    @Test
+    public void testTypeAtItsConcurrencyLimitWaits() throws Exception {
+        queue(1L);
+        properties.getMaxConcurrent().put("export", 3);
+        when(jobRepository.claim(eq(1L), eq("export"), eq(3), anyString(), any())).thenReturn(0);
+
+        assertEquals(0, jobRunner.runJobs());
+
+        verify(jobRepository, times(1)).claim(eq(1L), eq("export"), eq(3), anyString(), any());
+        verify(jobRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testAbandonedJobsAreQueuedAgain() {
+        when(jobRepository.findByStatusOrderByIdAsc(eq(JobStatus.QUEUED), any())).thenReturn(List.of());
+
+        jobRunner.runJobs();
+
+        verify(jobRepository, times(1)).releaseAbandoned(any(Timestamp.class));
+    }
+
+    private Job queue(Long id) {
+        Job job = new Job("export", "{}", new Timestamp(System.currentTimeMillis()));
+        job.setId(id);
+        when(jobRepository.findByStatusOrderByIdAsc(eq(JobStatus.QUEUED), any())).thenReturn(List.of(job));
+        when(jobRepository.claim(eq(id), eq("export"), eq(1), anyString(), any())).thenReturn(1);
+        when(jobRepository.findById(id)).thenReturn(Optional.of(job));
+        when(jobRepository.finish(eq(id), anyString(), any(), any(), any(), any())).thenReturn(1);
+        return job;
+    }
+}
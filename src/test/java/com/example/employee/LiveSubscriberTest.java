@@ -0,0 +1,191 @@
+package com.example.employee;
+
+import com.example.employee.dto.ChangeDTO;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.live.EventStream;
+import com.example.employee.live.LiveSubscriber;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = LiveSubscriberTest.class)
+public class LiveSubscriberTest {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    List<Runnable> drains = new ArrayList<>();
+    RecordingStream emitter = new RecordingStream();
+
+    @Test
+    public void testSlowClientGetsLatestChangePerEntity() {
+        LiveSubscriber subscriber = subscriber(null, 10, drains::add);
+
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(2L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(1L, 10L, "UPDATED"));
+        assertEquals(1, drains.size());
+        drains.remove(0).run();
+
+        assertEquals(List.of("employee 2 CREATED", "employee 1 UPDATED"), emitter.sent);
+    }
+
+    @Test
+    public void testFullBufferIsDroppedForResync() {
+        LiveSubscriber subscriber = subscriber(null, 2, drains::add);
+
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(2L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(3L, 10L, "CREATED"));
+        drains.remove(0).run();
+        subscriber.offer("employee", employee(4L, 10L, "CREATED"));
+        drains.remove(0).run();
+
+        assertEquals(List.of("resync", "employee 4 CREATED"), emitter.sent);
+    }
+
+    @Test
+    public void testFiltersByDepartment() {
+        LiveSubscriber subscriber = subscriber(Set.of(10L), 10, Runnable::run);
+
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(2L, 20L, "CREATED"));
+        subscriber.offer("department", new ChangeDTO<>("UPDATED", 10L, Instant.now(), new DepartmentDTO()));
+        subscriber.offer("department", new ChangeDTO<>("UPDATED", 20L, Instant.now(), new DepartmentDTO()));
+
+        assertEquals(List.of("employee 1 CREATED", "department 10 UPDATED"), emitter.sent);
+    }
+
+    @Test
+    public void testMoveOutOfFollowedDepartmentIsSent() {
+        LiveSubscriber subscriber = subscriber(Set.of(10L), 10, Runnable::run);
+        ChangeDTO<EmployeeDTO> moved = employee(1L, 20L, "UPDATED");
+        moved.setMovedFrom(10L);
+
+        subscriber.offer("employee", moved);
+        subscriber.offer("employee", employee(1L, 20L, "UPDATED"));
+
+        assertEquals(List.of("employee 1 UPDATED"), emitter.sent);
+    }
+
+    @Test
+    public void testWritesOnlyWhileClientTakesData() {
+        LiveSubscriber subscriber = subscriber(null, 10, Runnable::run);
+        emitter.ready = false;
+
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+        subscriber.offer("employee", employee(2L, 10L, "CREATED"));
+        assertTrue(emitter.sent.isEmpty());
+
+        emitter.ready = true;
+        emitter.onWritable.run();
+
+        assertEquals(List.of("employee 1 CREATED", "employee 2 CREATED"), emitter.sent);
+    }
+
+    @Test
+    public void testStalledClientIsClosed() {
+        LiveSubscriber subscriber = subscriber(null, 10, Runnable::run);
+        emitter.ready = false;
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+        emitter.blockedSince = System.currentTimeMillis() - 20_000;
+
+        assertTrue(subscriber.isStalled(10_000));
+        assertFalse(subscriber.isStalled(60_000));
+        subscriber.close();
+
+        assertTrue(emitter.closed);
+    }
+
+    @Test
+    public void testClosesWhenClientIsGone() {
+        LiveSubscriber subscriber = subscriber(null, 10, Runnable::run);
+        emitter.gone = true;
+
+        subscriber.offer("employee", employee(1L, 10L, "CREATED"));
+
+        assertTrue(subscriber.isClosed());
+        subscriber.offer("employee", employee(2L, 10L, "CREATED"));
+        assertTrue(emitter.sent.isEmpty());
+    }
+
+    private static ChangeDTO<EmployeeDTO> employee(Long employeeId, Long deptId, String changeType) {
+        EmployeeDTO employee = new EmployeeDTO();
+        employee.setEmployeeId(employeeId);
+        DepartmentDTO department = new DepartmentDTO();
+        department.setDeptId(deptId);
+        employee.setDepartment(department);
+        return new ChangeDTO<>(changeType, employeeId, Instant.now(), employee);
+    }
+
+    private LiveSubscriber subscriber(Set<Long> departments, int capacity, Executor sender) {
+        LiveSubscriber subscriber = new LiveSubscriber(emitter, departments, capacity, sender, OBJECT_MAPPER);
+        subscriber.start();
+        return subscriber;
+    }
+
+    static class RecordingStream implements EventStream {
+        List<String> sent = new ArrayList<>();
+        boolean gone;
+        boolean ready = true;
+        boolean closed;
+        long blockedSince;
+        Runnable onWritable;
+
+        @Override
+        public void listen(Runnable onWritable, Runnable onClosed) {
+            this.onWritable = onWritable;
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!ready && blockedSince == 0) {
+                blockedSince = System.currentTimeMillis();
+            } else if (ready) {
+                blockedSince = 0;
+            }
+            return ready;
+        }
+
+        @Override
+        public void write(String event) throws IOException {
+            if (gone) {
+                throw new IOException("Broken pipe");
+            }
+            String name = event.substring("event:".length(), event.indexOf('\n'));
+            String data = event.substring(event.indexOf("data:") + "data:".length()).trim();
+            sent.add(data.isEmpty() ? name : name + " " + change(data));
+        }
+
+        @Override
+        public long blockedMillis() {
+            return blockedSince == 0 ? 0 : System.currentTimeMillis() - blockedSince;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private static String change(String data) {
+            try {
+                JsonNode change = OBJECT_MAPPER.readTree(data);
+                return change.get("id").asText() + " " + change.get("changeType").asText();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
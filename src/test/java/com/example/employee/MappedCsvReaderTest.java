@@ -0,0 +1,76 @@
+package com.example.employee;
+
+import com.example.employee.csv.CsvWriter;
+import com.example.employee.csv.MappedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = MappedCsvReaderTest.class)
+public class MappedCsvReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReadsQuotedFieldsAndLineEnds() throws Exception {
+        Path csv = write("﻿name,city\r\n\"Doe, Jane\",\"Say \"\"hi\"\"\"\r\n\r\nJohn,\"Multi\nline\"\nLast,");
+
+        try (MappedCsvReader reader = new MappedCsvReader(csv)) {
+            assertArrayEquals(new String[]{"name", "city"}, reader.next());
+            assertArrayEquals(new String[]{"Doe, Jane", "Say \"hi\""}, reader.next());
+            assertEquals(2, reader.getRowNumber());
+            assertArrayEquals(new String[]{"John", "Multi\nline"}, reader.next());
+            assertEquals(4, reader.getRowNumber());
+            assertArrayEquals(new String[]{"Last", ""}, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testRowsSpanningTheReadWindow() throws Exception {
+        StringWriter expected = new StringWriter();
+        List<String[]> rows = new ArrayList<>();
+        try (CsvWriter writer = new CsvWriter(expected)) {
+            for (int i = 0; i < 500; i++) {
+                String[] row = {"Employee " + i, "Street " + i + ", \"Block\" " + (i % 7), "Städt " + i};
+                rows.add(row);
+                writer.writeRow(row);
+            }
+        }
+        Path csv = write(expected.toString());
+
+        try (MappedCsvReader reader = new MappedCsvReader(csv, 97)) {
+            for (String[] row : rows) {
+                assertArrayEquals(row, reader.next());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testRejectsRowLongerThanTheWindow() throws Exception {
+        Path csv = write("short\n" + "x".repeat(200) + "\n");
+
+        try (MappedCsvReader reader = new MappedCsvReader(csv, 64)) {
+            assertArrayEquals(new String[]{"short"}, reader.next());
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path csv = directory.resolve("rows.csv");
+        Files.write(csv, content.getBytes(StandardCharsets.UTF_8));
+        return csv;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.employee;
+
+import com.example.employee.models.OutboxEvent;
+import com.example.employee.models.OutboxLease;
+import com.example.employee.outbox.ChangeEvent;
+import com.example.employee.outbox.ChangeEventSink;
+import com.example.employee.outbox.ChangeEventSubscriber;
+import com.example.employee.outbox.OutboxDispatcher;
+import com.example.employee.repository.OutboxEventRepository;
+import com.example.employee.repository.OutboxLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = OutboxDispatcherTest.class)
+public class OutboxDispatcherTest {
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+    @Mock
+    OutboxLeaseRepository outboxLeaseRepository;
+    @Mock
+    ObjectProvider<ChangeEventSubscriber> subscribers;
+    @Mock
+    ObjectProvider<ChangeEventSink> sinks;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    OutboxDispatcher dispatcher;
+
+    List<ChangeEvent> sent = new ArrayList<>();
+
+    @Test
+    public void testDispatchesInOrderAndMarksDelivered() throws Exception {
+        List<OutboxEvent> pending = List.of(event(1L, 10L, "CREATED"), event(2L, 10L, "UPDATED"), event(3L, 20L, "CREATED"));
+        holdLease();
+        when(outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any()))
+                .thenReturn(pending)
+                .thenReturn(List.of());
+        when(sinks.getIfAvailable(any())).thenReturn(sent::add);
+        when(subscribers.orderedStream()).thenAnswer(invocation -> Stream.empty());
+
+        int dispatched = dispatcher.dispatch();
+
+        assertEquals(3, dispatched);
+        assertEquals(List.of(1L, 2L, 3L), sent.stream().map(ChangeEvent::getId).collect(Collectors.toList()));
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L, 2L, 3L)), any());
+        verify(outboxEventRepository, never()).incrementAttempts(any());
+    }
+
+    @Test
+    public void testFailedEventHoldsBackLaterChangesOfTheSameEntity() throws Exception {
+        List<OutboxEvent> pending = List.of(event(1L, 10L, "CREATED"), event(2L, 20L, "CREATED"), event(3L, 10L, "UPDATED"));
+        holdLease();
+        when(outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any())).thenReturn(pending);
+        when(sinks.getIfAvailable(any())).thenReturn(sent::add);
+        ChangeEventSubscriber failingForTen = event -> {
+            if (event.getAggregateId() == 10L) {
+                throw new IllegalStateException("Subscriber unavailable");
+            }
+        };
+        when(subscribers.orderedStream()).thenAnswer(invocation -> Stream.of(failingForTen));
+
+        int dispatched = dispatcher.dispatch();
+
+        assertEquals(1, dispatched);
+        assertEquals(List.of(1L, 2L), sent.stream().map(ChangeEvent::getId).collect(Collectors.toList()));
+        verify(outboxEventRepository).markDispatched(eq(List.of(2L)), any());
+        verify(outboxEventRepository).incrementAttempts(List.of(1L));
+        verify(outboxEventRepository, times(1)).findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any());
+    }
+
+    @Test
+    public void testDeliversNothingWhileAnotherInstanceHoldsTheLease() throws Exception {
+        when(outboxLeaseRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(outboxLeaseRepository.existsById(OutboxLease.DISPATCHER)).thenReturn(true);
+
+        int dispatched = dispatcher.dispatch();
+
+        assertEquals(0, dispatched);
+        verify(outboxEventRepository, never()).findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any());
+        verify(outboxLeaseRepository, never()).create(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void testFirstDispatcherCreatesTheLease() throws Exception {
+        when(outboxLeaseRepository.acquire(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(outboxLeaseRepository.existsById(OutboxLease.DISPATCHER)).thenReturn(false);
+        when(outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(outboxLeaseRepository).create(eq(OutboxLease.DISPATCHER), anyString(), any());
+        verify(outboxEventRepository).findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any());
+    }
+
+    @Test
+    public void testPositionsCommittedEventsAfterTheLastPosition() throws Exception {
+        OutboxLease lease = new OutboxLease();
+        lease.setPosition(41L);
+        List<OutboxEvent> committed = List.of(event(7L, 10L, "UPDATED"), event(9L, 20L, "CREATED"));
+        holdLease();
+        when(outboxLeaseRepository.findHeldForUpdate(eq(OutboxLease.DISPATCHER), anyString())).thenReturn(Optional.of(lease));
+        when(outboxEventRepository.findByPositionIsNullOrderByIdAsc(any())).thenReturn(committed);
+        when(outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        assertEquals(List.of(42L, 43L), committed.stream().map(OutboxEvent::getPosition).collect(Collectors.toList()));
+        assertEquals(43L, lease.getPosition());
+    }
+
+    @Test
+    public void testPositionsNothingWithoutTheLease() throws Exception {
+        holdLease();
+        when(outboxLeaseRepository.findHeldForUpdate(eq(OutboxLease.DISPATCHER), anyString())).thenReturn(Optional.empty());
+        when(outboxEventRepository.findByDispatchedOnIsNullAndPositionIsNotNullOrderByIdAsc(any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(outboxEventRepository, never()).findByPositionIsNullOrderByIdAsc(any());
+    }
+
+    private void holdLease() {
+        when(outboxLeaseRepository.acquire(eq(OutboxLease.DISPATCHER), anyString(), any(), any())).thenReturn(1);
+    }
+
+    private static OutboxEvent event(Long id, Long employeeId, String changeType) {
+        OutboxEvent event = new OutboxEvent(ChangeEvent.EMPLOYEE, employeeId, changeType, null, new Timestamp(System.currentTimeMillis()));
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.employee;
+
+import com.example.employee.config.DataSourceRoute;
+import com.example.employee.config.DataSourceRouting;
+import com.example.employee.config.ReadReplica;
+import com.example.employee.config.ReadReplicaAspect;
+import com.example.employee.config.RoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = ReadReplicaRoutingTest.class)
+public class ReadReplicaRoutingTest {
+
+    JdbcTemplate jdbcTemplate;
+    Reader reader;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        jdbcTemplate = new JdbcTemplate(new RoutingDataSource(primary, replica));
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Reader(jdbcTemplate));
+        proxyFactory.addAspect(new ReadReplicaAspect(new SimpleMeterRegistry()));
+        reader = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        DataSourceRouting.pinToPrimary(false);
+        DataSourceRouting.set(null);
+    }
+
+    @Test
+    public void testUnannotatedCallsUsePrimary() {
+        assertEquals("primary", reader.readFromDefault());
+    }
+
+    @Test
+    public void testAnnotatedCallsUseReplica() {
+        assertEquals("replica", reader.readFromReplica());
+        assertEquals(DataSourceRoute.PRIMARY, DataSourceRouting.current());
+    }
+
+    @Test
+    public void testPinnedCallsStayOnPrimary() {
+        DataSourceRouting.pinToPrimary(true);
+
+        assertEquals("primary", reader.readFromReplica());
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists marker (name varchar(20))");
+        jdbcTemplate.execute("delete from marker");
+        jdbcTemplate.update("insert into marker (name) values (?)", name);
+        return dataSource;
+    }
+
+    public static class Reader {
+        private final JdbcTemplate jdbcTemplate;
+
+        public Reader(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        public String readFromDefault() {
+            return jdbcTemplate.queryForObject("select name from marker", String.class);
+        }
+
+        @ReadReplica
+        public String readFromReplica() {
+            return jdbcTemplate.queryForObject("select name from marker", String.class);
+        }
+    }
+}
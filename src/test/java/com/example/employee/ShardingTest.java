@@ -0,0 +1,255 @@
+package com.example.employee;
+
+import com.example.employee.dto.BulkDesignationDTO;
+import com.example.employee.dto.BulkTransferDTO;
+import com.example.employee.dto.DepartmentDTO;
+import com.example.employee.dto.EmployeeDTO;
+import com.example.employee.dto.HeadcountDTO;
+import com.example.employee.exception.EmployeeNotFoundException;
+import com.example.employee.exception.InvalidBulkUpdateException;
+import com.example.employee.models.HeadcountDimension;
+import com.example.employee.services.DepartmentService;
+import com.example.employee.services.EmployeeBulkService;
+import com.example.employee.services.EmployeeService;
+import com.example.employee.services.HeadcountService;
+import com.example.employee.sharding.ShardRebalancer;
+import com.example.employee.sharding.Shards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.open-in-view=false",
+        "app.sharding.enabled=true",
+        "app.sharding.map-refresh-interval=50",
+        "app.sharding.shards[0].url=jdbc:h2:mem:sharding1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[0].driver-class-name=org.h2.Driver",
+        "app.sharding.shards[1].url=jdbc:h2:mem:sharding2;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[1].driver-class-name=org.h2.Driver",
+        "app.employee.group-commit.enabled=false",
+        "app.analytics.snapshot.enabled=false"
+})
+public class ShardingTest {
+
+    @Autowired
+    DepartmentService departmentService;
+    @Autowired
+    EmployeeService employeeService;
+    @Autowired
+    EmployeeBulkService employeeBulkService;
+    @Autowired
+    HeadcountService headcountService;
+    @Autowired
+    ShardRebalancer shardRebalancer;
+    @Autowired
+    Shards shards;
+
+    @Test
+    public void testEmployeesLiveOnTheShardOfTheirDepartment() throws Exception {
+        for (int i = 0; i < shards.count(); i++) {
+            Long deptId = createDepartment();
+            int shard = shards.ofDepartment(deptId);
+            List<Long> employeeIds = createEmployees(deptId, 3);
+
+            for (int other = 0; other < shards.count(); other++) {
+                assertEquals(other == shard ? 3 : 0, employeesOf(other, deptId));
+            }
+            employeeIds.forEach(employeeId -> assertEquals(shard, employeeId % 16));
+        }
+    }
+
+    @Test
+    public void testEmployeeIdsAreTakenInBlocksPerShard() throws Exception {
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < shards.count(); i++) {
+            Long deptId = createDepartment();
+            JdbcTemplate shard = new JdbcTemplate(shards.dataSource(shards.ofDepartment(deptId)));
+            long before = shard.queryForObject("select next value for employee_sequence", Long.class);
+
+            created.addAll(createEmployees(deptId, 20));
+
+            // Each read of the sequence takes a block of 50: at most one more block for the 20 employees,
+            // where one read per employee would have taken 20 blocks.
+            long reads = (shard.queryForObject("select next value for employee_sequence", Long.class) - before) / 50 - 1;
+            assertTrue(reads <= 1, "Sequence read " + reads + " times for 20 employees");
+        }
+        assertEquals(20 * shards.count(), created.size());
+    }
+
+    @Test
+    public void testListsAndPagesMergeAllShards() throws Exception {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < shards.count(); i++) {
+            created.addAll(createEmployees(createDepartment(), 4));
+        }
+
+        List<Long> listed = employeeService.getEmployees().stream().map(EmployeeDTO::getEmployeeId).collect(Collectors.toList());
+        assertTrue(listed.containsAll(created));
+
+        List<Long> paged = new ArrayList<>();
+        Long after = null;
+        for (List<EmployeeDTO> page = employeeService.getEmployees(after, 5, null); !page.isEmpty();
+             page = employeeService.getEmployees(after, 5, null)) {
+            assertTrue(page.size() <= 5);
+            page.forEach(employee -> paged.add(employee.getEmployeeId()));
+            after = page.get(page.size() - 1).getEmployeeId();
+        }
+        assertEquals(listed.stream().sorted().collect(Collectors.toList()), paged);
+    }
+
+    @Test
+    public void testReadsAndWritesByIdFindTheShard() throws Exception {
+        Long deptId = createDepartment();
+        while (shards.ofDepartment(deptId) == 0) {
+            deptId = createDepartment();
+        }
+        Long employeeId = createEmployees(deptId, 1).get(0);
+
+        assertEquals(deptId, employeeService.getEmployee(employeeId).getDepartment().getDeptId());
+        EmployeeDTO changed = employee("Renamed");
+        assertEquals("Renamed", employeeService.updateEmployee(deptId, employeeId, changed).getEmployeeName());
+        employeeService.deleteEmployee(employeeId);
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployee(employeeId));
+    }
+
+    @Test
+    public void testMoveDepartmentToAnotherShard() throws Exception {
+        Long deptId = createDepartment();
+        int source = shards.ofDepartment(deptId);
+        int target = (source + 1) % shards.count();
+        List<Long> employeeIds = createEmployees(deptId, 5);
+
+        assertEquals(5, shardRebalancer.moveDepartment(deptId, target));
+
+        assertEquals(target, shards.ofDepartment(deptId));
+        assertEquals(0, employeesOf(source, deptId));
+        assertEquals(5, employeesOf(target, deptId));
+        assertEquals(deptId, employeeService.getEmployee(employeeIds.get(0)).getDepartment().getDeptId());
+        assertEquals(5, headcountOf(deptId));
+        createEmployees(deptId, 1);
+        assertEquals(6, employeesOf(target, deptId));
+    }
+
+    @Test
+    public void testEmployeeFollowsItsDepartmentToAnotherShard() throws Exception {
+        Long from = createDepartment();
+        Long to = createDepartment();
+        Long employeeId = createEmployees(from, 1).get(0);
+
+        employeeService.updateEmployee(to, employeeId, employee("Transferred"));
+
+        assertEquals(0, employeesOf(shards.ofDepartment(from), from) + employeesOf(shards.ofDepartment(from), to));
+        assertEquals(1, employeesOf(shards.ofDepartment(to), to));
+        assertEquals(to, employeeService.getEmployee(employeeId).getDepartment().getDeptId());
+        assertEquals(0, headcountOf(from));
+        assertEquals(1, headcountOf(to));
+    }
+
+    @Test
+    public void testBulkTransferFollowsTheDepartmentToAnotherShard() throws Exception {
+        Long from = createDepartment();
+        Long to = createDepartment();
+        while (shards.ofDepartment(to) == shards.ofDepartment(from)) {
+            to = createDepartment();
+        }
+        createEmployees(from, 4);
+
+        assertEquals(4, employeeBulkService.transferEmployees(to, new BulkTransferDTO(null, from)).getUpdated());
+
+        assertEquals(0, employeesOf(shards.ofDepartment(from), to));
+        assertEquals(4, employeesOf(shards.ofDepartment(to), to));
+        assertEquals(0, headcountOf(from));
+        assertEquals(4, headcountOf(to));
+    }
+
+    @Test
+    public void testRefusedBulkUpdateChangesNoShard() throws Exception {
+        Long first = createDepartment();
+        Long second = createDepartment();
+        while (shards.ofDepartment(second) == shards.ofDepartment(first)) {
+            second = createDepartment();
+        }
+        createEmployees(first, 3);
+        createEmployees(second, 3);
+        Object target = AopTestUtils.getUltimateTargetObject(employeeBulkService);
+        ReflectionTestUtils.setField(target, "maxEmployees", 4);
+        try {
+            BulkDesignationDTO update = new BulkDesignationDTO();
+            update.setDesignation("Architect");
+            update.setDepartment(List.of(first, second));
+
+            assertThrows(InvalidBulkUpdateException.class, () -> employeeBulkService.updateDesignation(update));
+        } finally {
+            ReflectionTestUtils.setField(target, "maxEmployees", 10000);
+        }
+
+        for (Long deptId : List.of(first, second)) {
+            assertEquals(0, new JdbcTemplate(shards.dataSource(shards.ofDepartment(deptId))).queryForObject(
+                    "select count(*) from employee where dept_id = ? and employee_designation = 'Architect'", Long.class, deptId));
+        }
+    }
+
+    private Long createDepartment() throws Exception {
+        String name = "Department " + UUID.randomUUID();
+        departmentService.createDepartment(new DepartmentDTO(null, name, "Sharded", 1, 1, null, null));
+        return departmentService.getDepartments().stream()
+                .filter(department -> department.getDeptName().equals(name))
+                .findFirst().orElseThrow().getDeptId();
+    }
+
+    private List<Long> createEmployees(Long deptId, int count) throws Exception {
+        List<Long> before = idsOf(deptId);
+        for (int i = 0; i < count; i++) {
+            employeeService.createEmployee(deptId, employee("Employee " + i));
+        }
+        List<Long> created = idsOf(deptId);
+        created.removeAll(before);
+        return created;
+    }
+
+    private List<Long> idsOf(Long deptId) {
+        return new JdbcTemplate(shards.dataSource(shards.ofDepartment(deptId)))
+                .queryForList("select employee_id from employee where dept_id = ?", Long.class, deptId);
+    }
+
+    private long employeesOf(int shard, Long deptId) {
+        return new JdbcTemplate(shards.dataSource(shard))
+                .queryForObject("select count(*) from employee where dept_id = ?", Long.class, deptId);
+    }
+
+    private long headcountOf(Long deptId) {
+        return headcountService.getHeadcounts(HeadcountDimension.DEPARTMENT).stream()
+                .filter(headcount -> headcount.getValue().equals(deptId.toString()))
+                .mapToLong(HeadcountDTO::getHeadcount)
+                .findFirst().orElse(0);
+    }
+
+    private static EmployeeDTO employee(String name) {
+        EmployeeDTO employee = new EmployeeDTO();
+        employee.setEmployeeName(name);
+        employee.setEmployeeDesignation("Engineer");
+        employee.setPhoneNumber("9876543210");
+        employee.setCity("Pune");
+        employee.setState("Maharashtra");
+        return employee;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.employee;
+
+import com.example.employee.tracing.InMemoryTraceStore;
+import com.example.employee.tracing.Span;
+import com.example.employee.tracing.Trace;
+import com.example.employee.tracing.TraceSampler;
+import com.example.employee.tracing.TracingFilter;
+import com.example.employee.tracing.TracingProperties;
+import com.example.employee.tracing.Tracing;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = TracingFilterTest.class)
+public class TracingFilterTest {
+
+    InMemoryTraceStore store = new InMemoryTraceStore(10);
+
+    @Test
+    public void testNestedSpansOfAKeptRequest() throws Exception {
+        MockHttpServletResponse response = perform(filter(0), request(null), 200, 0);
+
+        Trace trace = store.getTrace(response.getHeader("X-Trace-Id"));
+        assertEquals("slow", trace.getKeptBecause());
+        assertEquals(3, trace.getSpans().size());
+        Span root = trace.getSpans().get(0);
+        assertEquals("GET /employees/{employeeId}", root.getName());
+        assertNull(root.getParentId());
+        assertEquals("200", root.getTags().get("http.status"));
+        assertEquals(root.getSpanId(), trace.getSpans().get(1).getParentId());
+        assertEquals(trace.getSpans().get(1).getSpanId(), trace.getSpans().get(2).getParentId());
+        assertEquals("jdbc select", trace.getSpans().get(2).getName());
+        assertFalse(Tracing.isActive());
+    }
+
+    @Test
+    public void testFastRequestsAreDropped() throws Exception {
+        MockHttpServletResponse response = perform(filter(60_000), request(null), 200, 0);
+
+        assertNotNull(response.getHeader("X-Trace-Id"));
+        assertTrue(store.getTraces().isEmpty());
+    }
+
+    @Test
+    public void testFailedRequestsAreKept() throws Exception {
+        MockHttpServletResponse response = perform(filter(60_000), request(null), 503, 0);
+
+        assertEquals("error", store.getTrace(response.getHeader("X-Trace-Id")).getKeptBecause());
+    }
+
+    @Test
+    public void testTraceContextIsPropagated() throws Exception {
+        MockHttpServletResponse response = perform(filter(60_000),
+                request("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"), 200, 0);
+
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", response.getHeader("X-Trace-Id"));
+        Trace trace = store.getTrace("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertEquals("upstream", trace.getKeptBecause());
+        assertEquals("00f067aa0ba902b7", trace.getSpans().get(0).getParentId());
+    }
+
+    @Test
+    public void testMalformedTraceparentStartsANewTrace() throws Exception {
+        MockHttpServletResponse response = perform(filter(60_000), request("00-xyz-00f067aa0ba902b7-01"), 200, 0);
+
+        assertEquals(32, response.getHeader("X-Trace-Id").length());
+        assertTrue(store.getTraces().isEmpty());
+    }
+
+    @Test
+    public void testSpansBeyondTheLimitAreCounted() throws Exception {
+        MockHttpServletResponse response = perform(filter(0), request(null), 200, 5);
+
+        Trace trace = store.getTrace(response.getHeader("X-Trace-Id"));
+        assertEquals(4, trace.getSpans().size());
+        assertEquals(4, trace.getDroppedSpans());
+    }
+
+    private TracingFilter filter(long slowThresholdMillis) {
+        TracingProperties properties = new TracingProperties();
+        properties.setSlowThreshold(Duration.ofMillis(slowThresholdMillis));
+        properties.setSampleRate(0);
+        return new TracingFilter(new TraceSampler(properties, List.of(store)), 4);
+    }
+
+    private static MockHttpServletRequest request(String traceparent) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees/7");
+        if (traceparent != null) {
+            request.addHeader("traceparent", traceparent);
+        }
+        return request;
+    }
+
+    /**
+     * Runs the request through the filter to a servlet opening a service span with a JDBC span
+     * inside, then the given number of further spans.
+     */
+    private static MockHttpServletResponse perform(TracingFilter filter, MockHttpServletRequest request, int status,
+                                                   int extraSpans) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/employees/{employeeId}");
+                try (Span service = Tracing.start("EmployeeServiceImpl.getEmployee")) {
+                    try (Span jdbc = Tracing.start("jdbc select")) {
+                        jdbc.tag("sql", "select 1");
+                    }
+                }
+                for (int i = 0; i < extraSpans; i++) {
+                    try (Span extra = Tracing.start("extra")) {
+                        assertTrue(Tracing.isActive());
+                    }
+                }
+                resp.setStatus(status);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+}